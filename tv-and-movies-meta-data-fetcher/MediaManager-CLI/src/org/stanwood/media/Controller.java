@@ -42,7 +42,9 @@ import org.stanwood.media.extensions.ExtensionInfo;
 import org.stanwood.media.extensions.ExtensionType;
 import org.stanwood.media.info.IMediaFileInfo;
 import org.stanwood.media.info.IVideoFileInfo;
+import org.stanwood.media.info.LazyMediaFileInfo;
 import org.stanwood.media.info.MediaFileInfoFetcher;
+import org.stanwood.media.info.MediaInfoCache;
 import org.stanwood.media.logging.StanwoodException;
 import org.stanwood.media.model.Mode;
 import org.stanwood.media.progress.NullProgressMonitor;
@@ -57,6 +59,7 @@ import org.stanwood.media.source.TagChimpSourceInfo;
 import org.stanwood.media.source.xbmc.XBMCAddon;
 import org.stanwood.media.source.xbmc.XBMCAddonManager;
 import org.stanwood.media.source.xbmc.XBMCException;
+import org.stanwood.media.source.xbmc.XBMCScraperCache;
 import org.stanwood.media.source.xbmc.XBMCSource;
 import org.stanwood.media.source.xbmc.XBMCSourceInfo;
 import org.stanwood.media.source.xbmc.updater.IConsole;
@@ -68,6 +71,7 @@ import org.stanwood.media.store.memory.MemoryStoreInfo;
 import org.stanwood.media.store.mp4.MP4ITunesStoreInfo;
 import org.stanwood.media.store.mp4.itunes.RemoteMacOSXItunesStoreInfo;
 import org.stanwood.media.store.xmlstore.XMLStore2Info;
+import org.stanwood.media.util.HttpCache;
 
 /**
  * The controller is used to control access to the stores and and sources. This
@@ -121,7 +125,11 @@ public class Controller {
 	public void init(boolean testMode) throws ConfigException {
 		if (fileInfoFetcher==null) {
 			try {
-				fileInfoFetcher = new MediaFileInfoFetcher(getNativeFolder());
+				File cacheFile = null;
+				if (!testMode) {
+					cacheFile = new File(getConfigDir(),"mediaInfoCache.dat"); //$NON-NLS-1$
+				}
+				fileInfoFetcher = new MediaFileInfoFetcher(getNativeFolder(),new MediaInfoCache(cacheFile,configReader.getMediaInfoContentHash()));
 			} catch (StanwoodException e) {
 				throw new ConfigException(Messages.getString("Controller.UNABLE_SETUP_FILE_FILE_INFO"),e); //$NON-NLS-1$
 			}
@@ -152,6 +160,10 @@ public class Controller {
 			System.exit(2);
 		}
 		this.testMode = testMode;
+		if (!testMode) {
+			HttpCache.getInstance().setCacheDir(new File(getConfigDir(),"httpCache"),HttpCache.DEFAULT_MAX_DISK_SIZE,HttpCache.DEFAULT_TTL); //$NON-NLS-1$
+			XBMCScraperCache.getInstance().setCacheDir(new File(getConfigDir(),"scraperCache"),XBMCScraperCache.DEFAULT_MAX_DISK_SIZE,HttpCache.DEFAULT_TTL); //$NON-NLS-1$
+		}
 		registerInbuild();
 		registerPlugins();
 	}
@@ -404,6 +416,15 @@ public class Controller {
 		return configReader.getConfigDir();
 	}
 
+	/**
+	 * Used to find out if the checksum of a file should be checked when it is copied
+	 * to another file system while being moved
+	 * @return True if the checksum should be checked
+	 */
+	public boolean getVerifyFileTransfers() {
+		return configReader.getVerifyFileTransfers();
+	}
+
 	/**
 	 * Used to get the default source information
 	 * @param mode The mode to look for the source in
@@ -450,6 +471,28 @@ public class Controller {
 		return fileInfoFetcher.getInformation(file);
 	}
 
+	/**
+	 * Used to get information on a media file only if it is needed. The media file is
+	 * not probed until {@link LazyMediaFileInfo#get()} is called.
+	 * @param file The media file
+	 * @return The lazy information object
+	 */
+	public LazyMediaFileInfo getLazyMediaFileInformation(File file) {
+		return fileInfoFetcher.getLazyInformation(file);
+	}
+
+	/**
+	 * Used to get the number of media files that did not need to be probed because
+	 * their information was not used
+	 * @return The number of probes avoided
+	 */
+	public long getAvoidedMediaFileProbeCount() {
+		if (fileInfoFetcher==null) {
+			return 0;
+		}
+		return fileInfoFetcher.getAvoidedProbeCount();
+	}
+
 	/**
 	 * Used to get the seen media file database
 	 * @return The seen media file database
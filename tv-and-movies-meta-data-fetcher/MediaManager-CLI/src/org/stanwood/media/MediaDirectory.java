@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
 
@@ -28,6 +29,8 @@ import org.stanwood.media.source.ISource;
 import org.stanwood.media.source.SourceException;
 import org.stanwood.media.store.IStore;
 import org.stanwood.media.store.StoreException;
+import org.stanwood.media.store.SynchronizedStore;
+import org.stanwood.media.util.SingleFlight;
 
 /**
  * Used to represent a directory that contains media and can be managed by MediaManager
@@ -47,6 +50,9 @@ public class MediaDirectory {
 
 	private AbstractMediaSearcher showSearcher;
 
+	private final SingleFlight<String,IShow> showLoads = new SingleFlight<String,IShow>();
+	private final SingleFlight<String,ISeason> seasonLoads = new SingleFlight<String,ISeason>();
+
 	/**
 	 * The constructor
 	 * @param controller The media controller
@@ -62,6 +68,9 @@ public class MediaDirectory {
 		dirConfig = config.getMediaDirectory(mediaDir);
 		if (controller!=null) {
 			stores = config.loadStoresFromConfigFile(controller,dirConfig);
+			if (dirConfig.getWorkerThreads()>1) {
+				stores = synchronizeStores(stores);
+			}
 			sources = config.loadSourcesFromConfigFile(controller,dirConfig);
 			actions = config.loadActionsFromConfigFile(controller,dirConfig);
 
@@ -85,6 +94,15 @@ public class MediaDirectory {
 		}
 	}
 
+	private List<IStore> synchronizeStores(List<IStore> stores) {
+		Object lock = new Object();
+		List<IStore> result = new ArrayList<IStore>();
+		for (IStore store : stores) {
+			result.add(new SynchronizedStore(store,lock));
+		}
+		return result;
+	}
+
 	protected void createSearchers() {
 		this.filmSearcher = new FilmSearcher() {
 			@Override
@@ -154,7 +172,7 @@ public class MediaDirectory {
 			for (ISource source : sources) {
 				try {
 					if (sourceId==null || sourceId.equals("") || source.getInfo().getId().equals(sourceId)) { //$NON-NLS-1$
-						show = source.getShow(searchResult.getId(),showUrl,episodeFile);
+						show = loadShow(source, searchResult.getId(), showUrl, episodeFile);
 						if (show != null) {
 							for (IStore store : stores) {
 								store.cacheShow(rootMediaDir,episodeFile, show);
@@ -173,6 +191,58 @@ public class MediaDirectory {
 		return show;
 	}
 
+	private IShow loadShow(final ISource source,final String showId,final URL showUrl,final File episodeFile) throws SourceException, MalformedURLException, IOException {
+		String key = source.getInfo().getId()+":"+showId; //$NON-NLS-1$
+		try {
+			return showLoads.load(key, new SingleFlight.Loader<IShow,Exception>() {
+				@Override
+				public IShow load() throws Exception {
+					return source.getShow(showId,showUrl,episodeFile);
+				}
+			});
+		}
+		catch (Exception e) {
+			throw rethrow(e);
+		}
+	}
+
+	private ISeason loadSeason(final ISource source,final IShow show,final int seasonNum) throws SourceException, IOException {
+		String key = source.getInfo().getId()+":"+show.getShowId()+":"+seasonNum; //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			return seasonLoads.load(key, new SingleFlight.Loader<ISeason,Exception>() {
+				@Override
+				public ISeason load() throws Exception {
+					return source.getSeason(show, seasonNum);
+				}
+			});
+		}
+		catch (Exception e) {
+			throw rethrow(e);
+		}
+	}
+
+	private SourceException rethrow(Exception e) throws SourceException, IOException {
+		if (e instanceof SourceException) {
+			throw (SourceException)e;
+		}
+		if (e instanceof IOException) {
+			throw (IOException)e;
+		}
+		if (e instanceof RuntimeException) {
+			throw (RuntimeException)e;
+		}
+		return new SourceException(e.getMessage(),e);
+	}
+
+	/**
+	 * Used to get the number of source lookups of shows and seasons that were saved because
+	 * the same lookup was already in progress
+	 * @return The number of saved lookups
+	 */
+	public long getSharedSourceLookupCount() {
+		return showLoads.getSharedCount()+seasonLoads.getSharedCount();
+	}
+
 	/**
 	 * Get a film with a given film id and source id. This will first try to retrieve the film from the stores. If it is
 	 * not able to do this, then it will try the sources. If it can't retrieve it from either the sources or the stores,
@@ -274,7 +344,7 @@ public class MediaDirectory {
 			for (ISource source : sources) {
 				try {
 					if (source.getInfo().getId().equals(sourceId)) {
-						season = source.getSeason(show, seasonNum);
+						season = loadSeason(source, show, seasonNum);
 						if (season != null) {
 							for (IStore store : stores) {
 								store.cacheSeason(rootMediaDir,episodeFile, season);
@@ -17,17 +17,21 @@
 package org.stanwood.media.actions;
 
 import java.io.File;
-import java.io.FileFilter;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -35,15 +39,19 @@ import org.stanwood.media.Controller;
 import org.stanwood.media.MediaDirectory;
 import org.stanwood.media.actions.seendb.ISeenDatabase;
 import org.stanwood.media.actions.seendb.SeenDBException;
+import org.stanwood.media.logging.StanwoodException;
 import org.stanwood.media.model.IEpisode;
 import org.stanwood.media.model.IFilm;
+import org.stanwood.media.model.IVideo;
 import org.stanwood.media.model.Mode;
 import org.stanwood.media.progress.IProgressMonitor;
 import org.stanwood.media.progress.SubProgressMonitor;
 import org.stanwood.media.search.MediaSearcher;
 import org.stanwood.media.setup.ConfigException;
+import org.stanwood.media.store.IBulkStore;
 import org.stanwood.media.store.IStore;
 import org.stanwood.media.store.StoreException;
+import org.stanwood.media.util.MediaScanner;
 
 
 /**
@@ -54,9 +62,19 @@ public class ActionPerformer implements IActionEventHandler {
 	private final static Log log = LogFactory.getLog(ActionPerformer.class);
 
 	private List<String> exts;
+	private Controller controller;
 	private MediaDirectory dir;
 	private List<IAction> actions;
 	private ISeenDatabase seenDb;
+	private List<File> filesToMark = new ArrayList<File>();
+	private MediaScanner scanner;
+	/** The number of calls to performActionsFiles in progress, more than one when a action sends a new file event */
+	private int depth = 0;
+
+	/** The number of lookups that each worker thread can be ahead of the actions */
+	private final static int LOOKAHEAD_PER_WORKER = 4;
+	/** The number of files performed by the worker threads between each bulk session checkpoint */
+	private final static int FILES_PER_CHECKPOINT = 50;
 
 	/**
 	 * Constructor used to create a instance of the class
@@ -70,6 +88,7 @@ public class ActionPerformer implements IActionEventHandler {
 		this.dir = dir;
 		this.exts = exts;
 		this.actions = actions;
+		this.controller = controller;
 		if (controller!=null) {
 			seenDb = controller.getSeenDB();
 		}
@@ -83,6 +102,7 @@ public class ActionPerformer implements IActionEventHandler {
 	public void performActions(IProgressMonitor monitor) throws ActionException {
 		try {
 			monitor.beginTask(Messages.getString("ActionPerformer.Performing_actions"), 4); //$NON-NLS-1$
+			scanner = null;
 			List<File> sortedFiles = findMediaFiles(new SubProgressMonitor(monitor,1));
 			Set<File> dirs = findDirs(new SubProgressMonitor(monitor,1));
 			performActions(sortedFiles,dirs,monitor);
@@ -99,11 +119,10 @@ public class ActionPerformer implements IActionEventHandler {
 		}
 	}
 
-	private Set<File> findDirs(IProgressMonitor monitor) {
+	private Set<File> findDirs(IProgressMonitor monitor) throws ActionException {
 		monitor.subTask(Messages.getString("ActionPerformer.SEARCHING_FOR_MEDIA_DIRS")); //$NON-NLS-1$
-		Set<File>dirs = new HashSet<File>();
-		findDirs(dirs, dir.getMediaDirConfig().getMediaDir());
-		return dirs;
+		scan();
+		return new LinkedHashSet<File>(scanner.getDirectories());
 	}
 
 	/**
@@ -125,8 +144,15 @@ public class ActionPerformer implements IActionEventHandler {
 		}
 
 		log.info((MessageFormat.format(Messages.getString("ActionPerformer.PROCESSING_FILES"),files.size()))); //$NON-NLS-1$
-		performActionsFiles(files);
-		performActionsDirs(dirs);
+		long avoidedProbes = getAvoidedMediaFileProbeCount();
+		beginBulkSessions();
+		try {
+			performActionsFiles(files);
+			performActionsDirs(dirs);
+		}
+		finally {
+			endBulkSessions();
+		}
 
 		for (IStore store : dir.getStores()) {
 			try {
@@ -140,9 +166,64 @@ public class ActionPerformer implements IActionEventHandler {
 			action.finished(dir);
 		}
 
+		avoidedProbes = getAvoidedMediaFileProbeCount()-avoidedProbes;
+		if (avoidedProbes>0) {
+			log.info(MessageFormat.format(Messages.getString("ActionPerformer.AVOIDED_MEDIA_FILE_PROBES"),avoidedProbes)); //$NON-NLS-1$
+		}
 		log.info(Messages.getString("ActionPerformer.FINISHED")); //$NON-NLS-1$
 	}
 
+	private long getAvoidedMediaFileProbeCount() {
+		if (controller==null) {
+			return 0;
+		}
+		return controller.getAvoidedMediaFileProbeCount();
+	}
+
+	private void beginBulkSessions() {
+		for (IStore store : dir.getStores()) {
+			if (store instanceof IBulkStore) {
+				try {
+					((IBulkStore)store).beginBulkSession();
+				} catch (StoreException e) {
+					log.error(MessageFormat.format(Messages.getString("ActionPerformer.UnableBeginBulkSession"),store.getClass().getName()),e); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
+	/**
+	 * This is called once the actions have been performed on a file and no media details are
+	 * been looked up, so the stores can release the media details they returned.
+	 */
+	private void checkpointBulkSessions() {
+		// A nested call must not release the media details still used by the outer call
+		if (depth>1) {
+			return;
+		}
+		for (IStore store : dir.getStores()) {
+			if (store instanceof IBulkStore) {
+				try {
+					((IBulkStore)store).bulkCheckpoint();
+				} catch (StoreException e) {
+					log.error(MessageFormat.format(Messages.getString("ActionPerformer.UnableCheckpointBulkSession"),store.getClass().getName()),e); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
+	private void endBulkSessions() {
+		for (IStore store : dir.getStores()) {
+			if (store instanceof IBulkStore) {
+				try {
+					((IBulkStore)store).endBulkSession();
+				} catch (StoreException e) {
+					log.error(MessageFormat.format(Messages.getString("ActionPerformer.UnableEndBulkSession"),store.getClass().getName()),e); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
 	private boolean initStores() {
 		boolean hasErrors = false;
 		for (IStore store : dir.getStores()) {
@@ -159,21 +240,8 @@ public class ActionPerformer implements IActionEventHandler {
 
 	protected List<File> findMediaFiles(IProgressMonitor monitor) throws ActionException {
 		monitor.subTask(Messages.getString("ActionPerformer.SEARCHING_FOR_MEDIA_FILES")); //$NON-NLS-1$
-		List<File>mediaFiles = new ArrayList<File>();
-		findMediaFiles(dir.getMediaDirConfig().getMediaDir(),mediaFiles);
-		List<File> sortedFiles = new ArrayList<File>();
-		files:
-		for (File file : mediaFiles) {
-			if (dir.getMediaDirConfig().getIgnorePatterns()!=null) {
-				for (Pattern p : dir.getMediaDirConfig().getIgnorePatterns()) {
-					Matcher m = p.matcher(file.getAbsolutePath());
-					if (m.matches()) {
-						continue files;
-					}
-				}
-			}
-			sortedFiles.add(file);
-		}
+		scan();
+		List<File> sortedFiles = new ArrayList<File>(scanner.getFiles());
 		Collections.sort(sortedFiles,new Comparator<File>() {
 			@Override
 			public int compare(File arg0, File arg1) {
@@ -182,17 +250,19 @@ public class ActionPerformer implements IActionEventHandler {
 		});
 
 		if (seenDb!=null) {
+			Set<File> seenFiles;
+			try {
+				seenFiles = seenDb.getSeenFiles(dir.getMediaDirConfig().getMediaDir(), sortedFiles);
+			}
+			catch (SeenDBException e) {
+				throw new ActionException(Messages.getString("ActionPerformer.UnableAccessSeenDatabase"),e); //$NON-NLS-1$
+			}
 			Iterator<File> it = sortedFiles.iterator();
 			while (it.hasNext()) {
 				File f = it.next();
-				try {
-					if (seenDb.isSeen(dir.getMediaDirConfig().getMediaDir(), f)) {
-						log.debug(MessageFormat.format(Messages.getString("ActionPerformer.INGORED_SEEN_FILE"),f.getAbsolutePath())); //$NON-NLS-1$
-						it.remove();
-					}
-				}
-				catch (SeenDBException e) {
-					throw new ActionException(Messages.getString("ActionPerformer.UnableAccessSeenDatabase"),e); //$NON-NLS-1$
+				if (seenFiles.contains(f)) {
+					log.debug(MessageFormat.format(Messages.getString("ActionPerformer.INGORED_SEEN_FILE"),f.getAbsolutePath())); //$NON-NLS-1$
+					it.remove();
 				}
 			}
 		}
@@ -200,93 +270,165 @@ public class ActionPerformer implements IActionEventHandler {
 		return sortedFiles;
 	}
 
-	private void findMediaFiles(File parentDir,List<File>mediaFiles) throws ActionException {
-		if (log.isDebugEnabled()) {
-			log.debug(MessageFormat.format(Messages.getString("ActionPerformer.TIDYING_SHOW_NAMES_IN_DIR"),parentDir)); //$NON-NLS-1$
+	/**
+	 * Walk the media directory once to find both the media files and the directories
+	 */
+	private void scan() throws ActionException {
+		if (scanner==null) {
+			MediaScanner newScanner = new MediaScanner(exts, dir.getMediaDirConfig().getIgnorePatterns(), dir.getMediaDirConfig().getWorkerThreads());
+			try {
+				newScanner.scan(dir.getMediaDirConfig().getMediaDir());
+			}
+			catch (StanwoodException e) {
+				throw new ActionException(e.getMessage(),e);
+			}
+			scanner = newScanner;
 		}
-		File files[] = parentDir.listFiles(new FileFilter() {
-			@Override
-			public boolean accept(File file) {
-				if (file.isFile()) {
-					String name = file.getName();
-					for (String ext : exts) {
-						if (name.toLowerCase().endsWith("."+ext.toLowerCase())) { //$NON-NLS-1$
-							return true;
-						}
-					}
+	}
+
+	private void performActionsFiles(List<File> files) throws ActionException {
+		long startTime = System.currentTimeMillis();
+		int workerThreads = dir.getMediaDirConfig().getWorkerThreads();
+		depth++;
+		try {
+			if (workerThreads>1 && files.size()>1) {
+				performActionsFilesParallel(files,workerThreads);
+			}
+			else {
+				for (File file : files) {
+					performActionsFile(file,lookupMedia(file));
+					checkpointBulkSessions();
 				}
-				return false;
 			}
-		});
-		for (File f : files) {
-			mediaFiles.add(f);
 		}
+		finally {
+			depth--;
+			// Files performed by a nested call are marked along with the outer files
+			if (depth==0) {
+				markFilesAsSeen();
+			}
+		}
+		if (files.size()>1) {
+			long duration = System.currentTimeMillis()-startTime;
+			double rate = files.size()/(Math.max(duration,1)/1000.0);
+			log.info(MessageFormat.format(Messages.getString("ActionPerformer.PROCESSED_FILES_RATE"),files.size(),duration/1000.0,rate,workerThreads)); //$NON-NLS-1$
+		}
+	}
 
-		File dirs[] = parentDir.listFiles(new FileFilter() {
+	/**
+	 * The media details are looked up by a pool of worker threads, while the actions are
+	 * performed on the calling thread in the same order as the files were given. Only a
+	 * limited number of lookups are allowed to get ahead of the actions. Every so often the
+	 * lookups are allowed to catch up with the actions, so that the bulk sessions can
+	 * be checkpointed while no media details are in use.
+	 */
+	private void performActionsFilesParallel(List<File> files,int workerThreads) throws ActionException {
+		ExecutorService threadPool = Executors.newFixedThreadPool(workerThreads,new ThreadFactory() {
+			private int count = 0;
 			@Override
-			public boolean accept(File file) {
-				if (file.isDirectory()) {
-					return true;
-				}
-				return false;
+			public synchronized Thread newThread(Runnable r) {
+				Thread thread = new Thread(r,"ActionPerformer-"+(++count)); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
 			}
 		});
-		for (File dir : dirs) {
-			findMediaFiles(dir,mediaFiles);
+		try {
+			int maxPending = workerThreads*LOOKAHEAD_PER_WORKER;
+			LinkedList<Future<IVideo>> pending = new LinkedList<Future<IVideo>>();
+			Iterator<File> toLookup = files.iterator();
+			int submitted = 0;
+			int performed = 0;
+			int checkpoint = FILES_PER_CHECKPOINT;
+			for (File file : files) {
+				while (pending.size()<maxPending && toLookup.hasNext() && submitted<checkpoint) {
+					final File lookupFile = toLookup.next();
+					pending.add(threadPool.submit(new Callable<IVideo>() {
+						@Override
+						public IVideo call() throws ActionException {
+							return lookupMedia(lookupFile);
+						}
+					}));
+					submitted++;
+				}
+				performActionsFile(file,getLookupResult(pending.removeFirst()));
+				if (++performed==checkpoint) {
+					checkpointBulkSessions();
+					checkpoint+=FILES_PER_CHECKPOINT;
+				}
+			}
+		}
+		finally {
+			threadPool.shutdownNow();
 		}
 	}
 
-
-
-	private void performActionsFiles(List<File> files) throws ActionException {
-		for (File file : files) {
-			if (dir.getMediaDirConfig().getMode().equals(Mode.FILM)) {
-				IFilm film = MediaSearcher.getFilm(dir,file,true,true);
-				if (film!=null) {
-					Integer part = MediaSearcher.getFilmPart(dir,file, film);
-					for (IAction action : actions) {
-						action.perform(dir,film,file,part,this);
-					}
-					if (seenDb!=null && file.exists()) {
-						try {
-							seenDb.markAsSeen(dir.getMediaDirConfig().getMediaDir(), file);
-						}
-						catch (SeenDBException e) {
-							throw new ActionException(Messages.getString("ActionPerformer.UnableAccessSeenDatabase"),e); //$NON-NLS-1$
-						}
-					}
-				}
+	/**
+	 * The files that have been processed are marked as seen in one go once all the
+	 * files have been processed, so that the seen database can batch the changes.
+	 */
+	private void markFilesAsSeen() throws ActionException {
+		if (seenDb!=null && !filesToMark.isEmpty()) {
+			try {
+				seenDb.markAsSeen(dir.getMediaDirConfig().getMediaDir(), filesToMark);
 			}
-			else if (dir.getMediaDirConfig().getMode().equals(Mode.TV_SHOW)) {
-				IEpisode episode = MediaSearcher.getTVEpisode(dir, file,true,true);
-				if (episode!=null) {
-					for (IAction action : actions) {
-						action.perform(dir,episode, file,this);
-					}
-					if (seenDb!=null && file.exists()) {
-						try {
-							seenDb.markAsSeen(dir.getMediaDirConfig().getMediaDir(), file);
-						}
-						catch (SeenDBException e) {
-							throw new ActionException(Messages.getString("ActionPerformer.UnableAccessSeenDatabase"),e); //$NON-NLS-1$
-						}
-					}
-				}
+			catch (SeenDBException e) {
+				throw new ActionException(Messages.getString("ActionPerformer.UnableAccessSeenDatabase"),e); //$NON-NLS-1$
+			}
+			finally {
+				filesToMark.clear();
 			}
+		}
+	}
 
+	private IVideo getLookupResult(Future<IVideo> future) throws ActionException {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ActionException(Messages.getString("ActionPerformer.UNABLE_FIND_MEDIA_DETAILS"),e); //$NON-NLS-1$
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof ActionException) {
+				throw (ActionException)e.getCause();
+			}
+			throw new ActionException(Messages.getString("ActionPerformer.UNABLE_FIND_MEDIA_DETAILS"),e.getCause()); //$NON-NLS-1$
 		}
 	}
 
+	private IVideo lookupMedia(File file) throws ActionException {
+		if (dir.getMediaDirConfig().getMode().equals(Mode.FILM)) {
+			return MediaSearcher.getFilm(dir,file,true,true);
+		}
+		else if (dir.getMediaDirConfig().getMode().equals(Mode.TV_SHOW)) {
+			return MediaSearcher.getTVEpisode(dir, file,true,true);
+		}
+		return null;
+	}
 
-	private void findDirs(Set<File>dirs,File parent) {
-		for (File file : parent.listFiles()) {
-			if (file.isDirectory()) {
-				findDirs(dirs,file);
-				dirs.add(file);
+	private void performActionsFile(File file,IVideo video) throws ActionException {
+		if (video==null) {
+			return;
+		}
+		if (video instanceof IFilm) {
+			IFilm film = (IFilm)video;
+			Integer part = MediaSearcher.getFilmPart(dir,file, film);
+			for (IAction action : actions) {
+				action.perform(dir,film,file,part,this);
+			}
+		}
+		else if (video instanceof IEpisode) {
+			IEpisode episode = (IEpisode)video;
+			for (IAction action : actions) {
+				action.perform(dir,episode, file,this);
 			}
 		}
+		if (seenDb!=null && file.exists()) {
+			filesToMark.add(file);
+		}
 	}
 
+
 	private void performActionsDirs(Set<File>dirs) throws ActionException {
 		log.info((MessageFormat.format(Messages.getString("ActionPerformer.PROCESSING_DIRS"),dirs.size()))); //$NON-NLS-1$
 
@@ -26,7 +26,6 @@ import java.util.regex.Pattern;
 import org.stanwood.media.model.Mode;
 import org.stanwood.media.model.SearchResult;
 import org.stanwood.media.search.FilmSearcher;
-import org.stanwood.media.search.ReverseFilePatternMatcher;
 import org.stanwood.media.search.SearchHelper;
 import org.stanwood.media.setup.ConfigReader;
 import org.stanwood.media.setup.MediaDirConfig;
@@ -35,43 +34,14 @@ import org.stanwood.media.setup.MediaDirConfig;
  * Used to parse a filename and work out the correct season and episode number
  * of the file.
  *
- * It does this my attempting to match a series of regular expressions against the
- * file. It attempts to do a case insensitive match against each of the following
- * regular expressions The first one that is matched, is used to get the episode and
- * season number. Group 1 is always the season number and group 2 is always the
- * episode number.
+ * It does this my attempting to match a series of patterns against the file. The
+ * patterns are found by the {@link FileNameScanner}, which looks for all of them in
+ * a single scan of the filename. The first one that is matched, is used to get the
+ * episode and season number.
  *
  */
 public class FileNameParser {
 
-	private static String ONLY_EP_PATTERN="[e ]?[\\d]{2,2}"; //$NON-NLS-1$
-	private static String FULL_EP_PATTERN="s?[\\d]{1,2}"+ONLY_EP_PATTERN; //$NON-NLS-1$
-	private static String SEP = "[\\&\\+\\.\\, \\-]"; //$NON-NLS-1$
-	private static String WHITE_SPACE = "[\\. ]*"; //$NON-NLS-1$
-
-	private static Pattern MULTI_PATTERNS[] = new Pattern[] {
-		Pattern.compile("(.*?)("+FULL_EP_PATTERN+")"+WHITE_SPACE+"("+SEP+")"+WHITE_SPACE+"("+FULL_EP_PATTERN+")(.*)",Pattern.CASE_INSENSITIVE ), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
-		Pattern.compile("(.*?)("+FULL_EP_PATTERN+")"+WHITE_SPACE+"("+SEP+")"+WHITE_SPACE+"("+ONLY_EP_PATTERN+")(.*)",Pattern.CASE_INSENSITIVE ), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
-	};
-
-	/** TV Show patterns */
-	public static Pattern PATTERNS[] = new Pattern[] {
-		// Single episode patterns
-		compile("(.*)[s]([\\d]+)[e]([\\d]+).*"), //$NON-NLS-1$
-		compile("(.*)[s]([\\d]+)\\.[e]([\\d]+).*"), //$NON-NLS-1$
-		compile("(.*?)([\\d]{1,2})\\D([\\d]{2,2}).*"), //$NON-NLS-1$
-		compile("(.*)season"+WHITE_SPACE+"([\\d]{1,2})"+WHITE_SPACE+"episode"+WHITE_SPACE+"([\\d]{1,2}).*"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-		compile("(.*)S([\\d]{1,2})"+WHITE_SPACE+"E([\\d]{2,2}).*"), //$NON-NLS-1$ //$NON-NLS-2$
-		compile("^()([\\d]{2,2})([\\d]{2,2})"+WHITE_SPACE+".*"), //$NON-NLS-1$ //$NON-NLS-2$
-		compile("^()([\\d]{1,1})([\\d]{2,2})"+WHITE_SPACE+".*"), //$NON-NLS-1$ //$NON-NLS-2$
-		compile("(.*)[\\. ]([\\d]{2,2})([\\d]{2,2})[\\. ].*"), //$NON-NLS-1$
-		compile("(.*)[\\. ]([\\d]{1,1})([\\d]{2,2})[\\. ].*") //$NON-NLS-1$
-	};
-
-	private static Pattern compile(String pattern) {
-		return Pattern.compile(pattern,Pattern.CASE_INSENSITIVE);
-	}
-
 	/**
 	 * Parse the filename and work out the episode and season number. This does not use the media directory
 	 * to do reverse pattern lookups.
@@ -89,19 +59,20 @@ public class FileNameParser {
 	 * @return The parsed information
 	 */
 	public static ParsedFileName parse(String file) {
-		for (Pattern multiPattern : MULTI_PATTERNS) {
-			Matcher multiMatcher = multiPattern.matcher(file);
-			if (multiMatcher.matches()) {
-				ParsedFileName result1 = matchSinglePattern(multiMatcher.group(2));
+		FileNameScanner scanner = new FileNameScanner(file);
+		for (boolean onlyEpisode : new boolean[] {false,true}) {
+			FileNameScanner.MultiMatch multiMatch = scanner.matchMulti(onlyEpisode);
+			if (multiMatch!=null) {
+				ParsedFileName result1 = matchSinglePattern(multiMatch.first);
 				if (result1!=null) {
-					ParsedFileName result2 = matchSinglePattern(multiMatcher.group(4));
+					ParsedFileName result2 = matchSinglePattern(multiMatch.second);
 					if (result2!=null && result1.getSeason()==result2.getSeason()) {
 						int endEp = result2.getEpisodes().get(0);
-						return getMultiResult(result1, endEp,multiMatcher.group(3),multiMatcher.group(1),multiMatcher.group(5));
+						return getMultiResult(result1, endEp,multiMatch.separator,multiMatch.term,multiMatch.rest);
 					}
-					else if (isInteger(multiMatcher.group(4))) {
-						int endEp = Integer.valueOf(multiMatcher.group(4));
-						ParsedFileName result = getMultiResult(result1, endEp,multiMatcher.group(3),multiMatcher.group(1),multiMatcher.group(5));
+					else if (isInteger(multiMatch.second)) {
+						int endEp = Integer.valueOf(multiMatch.second);
+						ParsedFileName result = getMultiResult(result1, endEp,multiMatch.separator,multiMatch.term,multiMatch.rest);
 						if (result!=null) {
 							return result;
 						}
@@ -110,7 +81,7 @@ public class FileNameParser {
 			}
 		}
 
-		ParsedFileName result = matchSinglePattern(file);
+		ParsedFileName result = scanner.matchSingle();
 		return result;
 	}
 
@@ -154,21 +125,7 @@ public class FileNameParser {
 	}
 
 	protected static ParsedFileName matchSinglePattern(String text) {
-		for (Pattern singlePattern : PATTERNS) {
-			Matcher singleMatcher = singlePattern.matcher(text);
-			if (singleMatcher.matches()) {
-				ParsedFileName result = new ParsedFileName();
-				int seasonNumber = Integer.parseInt(singleMatcher.group(2));
-				int episodeNumber = Integer.parseInt(singleMatcher.group(3));
-				List<Integer>episodes = new ArrayList<Integer>();
-				episodes.add(episodeNumber);
-				result.setSeason(seasonNumber);
-				result.setEpisodes(episodes);
-				result.setTerm(singleMatcher.group(1));
-				return result;
-			}
-		}
-		return null;
+		return new FileNameScanner(text).matchSingle();
 	}
 
 	/**
@@ -211,7 +168,7 @@ public class FileNameParser {
 			return result;
 		}
 
-		Map<Token,String> tokens = getTokens(dirConfig.getMediaDir(),dirConfig.getPattern(),file.getAbsolutePath());
+		Map<Token,String> tokens = RenamePattern.compile(dirConfig.getPattern()).match(file.getAbsolutePath());
 		if (tokens!=null) {
 			String episodeNumber = tokens.get(Token.EPISODE);
 			String episodeNumberMax = tokens.get(Token.EPISODE_MAX);
@@ -242,10 +199,4 @@ public class FileNameParser {
 		return null;
 	}
 
-	private static Map<Token, String> getTokens(File rootMediaDir,String renamePattern,String filename) {
-		ReverseFilePatternMatcher reverseFilePatternMatcher = new ReverseFilePatternMatcher();
-		reverseFilePatternMatcher.parse(filename, renamePattern);
-		return reverseFilePatternMatcher.getValues();
-	}
-
 }
\ No newline at end of file
@@ -0,0 +1,358 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.actions.rename;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>This is used by the {@link FileNameParser} to find the season and episode numbers in
+ * a file name. The digit runs of the name are found once, then each of the episode patterns
+ * is checked by looking at the characters around them, instead of using regular expressions
+ * that backtrack over the whole name.</p>
+ * <p>The results are the same as matching the name against these case insensitive regular
+ * expressions, the first one that matches been used:</p>
+ * <pre>
+ * (.*)s(\d+)e(\d+).*
+ * (.*)s(\d+)\.e(\d+).*
+ * (.*?)(\d{1,2})\D(\d{2}).*
+ * (.*)season[\. ]*(\d{1,2})[\. ]*episode[\. ]*(\d{1,2}).*
+ * (.*)S(\d{1,2})[\. ]*E(\d{2}).*
+ * ^()(\d{2})(\d{2})[\. ]*.*
+ * ^()(\d{1})(\d{2})[\. ]*.*
+ * (.*)[\. ](\d{2})(\d{2})[\. ].*
+ * (.*)[\. ](\d{1})(\d{2})[\. ].*
+ * </pre>
+ * <p>Group 1 is the search term, group 2 the season and group 3 the episode. The multiple
+ * episode patterns are the same as the expressions:</p>
+ * <pre>
+ * (.*?)(s?\d{1,2}[e ]?\d{2})[\. ]*([\&amp;\+\.\, \-])[\. ]*(s?\d{1,2}[e ]?\d{2})(.*)
+ * (.*?)(s?\d{1,2}[e ]?\d{2})[\. ]*([\&amp;\+\.\, \-])[\. ]*([e ]?\d{2})(.*)
+ * </pre>
+ */
+class FileNameScanner {
+
+	private final static String SEPARATORS = "&+., -"; //$NON-NLS-1$
+
+	private final String text;
+	private final int length;
+	/** The length of the run of digits that starts at each position */
+	private final int digitRuns[];
+	/** The first line terminator, which can't be matched by a . in a regular expression */
+	private final int firstTerminator;
+	private final int lastTerminator;
+
+	/**
+	 * The groups found by a multiple episode pattern
+	 */
+	static class MultiMatch {
+		/** The text before the first episode */
+		String term;
+		/** The first episode */
+		String first;
+		/** The separator between the episodes */
+		String separator;
+		/** The second episode */
+		String second;
+		/** The text after the second episode */
+		String rest;
+	}
+
+	/**
+	 * The constructor
+	 * @param text The file name
+	 */
+	FileNameScanner(String text) {
+		this.text = text;
+		this.length = text.length();
+		digitRuns = new int[length+1];
+		int first = length;
+		int last = -1;
+		for (int i=length-1;i>=0;i--) {
+			char c = text.charAt(i);
+			if (c>='0' && c<='9') {
+				digitRuns[i] = digitRuns[i+1]+1;
+			}
+			else if (c=='\n' || c=='\r' || c=='\u0085' || c=='\u2028' || c=='\u2029') {
+				first = i;
+				if (last==-1) {
+					last = i;
+				}
+			}
+		}
+		this.firstTerminator = first;
+		this.lastTerminator = last;
+	}
+
+	/**
+	 * Used to find a single episode in the file name
+	 * @return The parsed information, or null if a episode could not be found
+	 */
+	ParsedFileName matchSingle() {
+		ParsedFileName result = matchSeasonEpisode(false);
+		if (result==null) {
+			result = matchSeasonEpisode(true);
+		}
+		if (result==null) {
+			result = matchNumbers();
+		}
+		if (result==null) {
+			result = matchWords();
+		}
+		if (result==null) {
+			result = matchSeasonEpisodeSpaced();
+		}
+		if (result==null) {
+			result = matchLeadingNumber();
+		}
+		if (result==null) {
+			result = matchSeparatedNumber(4);
+		}
+		if (result==null) {
+			result = matchSeparatedNumber(3);
+		}
+		return result;
+	}
+
+	/**
+	 * Used to find two episodes in the file name
+	 * @param onlyEpisode True if the second episode does not have a season number
+	 * @return The groups that were found, or null if they were not found
+	 */
+	MultiMatch matchMulti(boolean onlyEpisode) {
+		int ends[] = new int[2];
+		int ends2[] = new int[2];
+		for (int i=0;i<length && i<=firstTerminator;i++) {
+			int count = matchFullEpisode(i,ends);
+			for (int e=0;e<count;e++) {
+				int end = ends[e];
+				int spaces = countSpaces(end);
+				for (int s=spaces;s>=0;s--) {
+					int sep = end+s;
+					if (sep>=length || SEPARATORS.indexOf(text.charAt(sep))==-1) {
+						continue;
+					}
+					int spaces2 = countSpaces(sep+1);
+					for (int s2=spaces2;s2>=0;s2--) {
+						int start2 = sep+1+s2;
+						int count2 = onlyEpisode ? matchOnlyEpisode(start2,ends2,0) : matchFullEpisode(start2,ends2);
+						for (int e2=0;e2<count2;e2++) {
+							int end2 = ends2[e2];
+							if (tailOk(end2)) {
+								MultiMatch match = new MultiMatch();
+								match.term = text.substring(0,i);
+								match.first = text.substring(i,end);
+								match.separator = text.substring(sep,sep+1);
+								match.second = text.substring(start2,end2);
+								match.rest = text.substring(end2);
+								return match;
+							}
+						}
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * s?\d{1,2}[e ]?\d{2}
+	 * @return The number of match ends stored in the array, in the order the regular expression would try them
+	 */
+	private int matchFullEpisode(int pos,int ends[]) {
+		if (is(pos,'s')) {
+			pos++;
+		}
+		int count = 0;
+		for (int digits=2;digits>=1;digits--) {
+			if (digitRun(pos)>=digits) {
+				count = matchOnlyEpisode(pos+digits,ends,count);
+			}
+		}
+		return count;
+	}
+
+	/** [e ]?\d{2} */
+	private int matchOnlyEpisode(int pos,int ends[],int count) {
+		if (pos<length && (is(pos,'e') || text.charAt(pos)==' ')) {
+			pos++;
+		}
+		if (digitRun(pos)>=2) {
+			ends[count++] = pos+2;
+		}
+		return count;
+	}
+
+	/** (.*)s(\d+)e(\d+).* and (.*)s(\d+)\.e(\d+).* */
+	private ParsedFileName matchSeasonEpisode(boolean dot) {
+		for (int i=Math.min(length-1, firstTerminator);i>=0;i--) {
+			if (is(i,'s') && digitRun(i+1)>0) {
+				int pos = i+1+digitRun(i+1);
+				if (dot) {
+					if (pos>=length || text.charAt(pos)!='.') {
+						continue;
+					}
+					pos++;
+				}
+				if (is(pos,'e') && digitRun(pos+1)>0) {
+					int end = pos+1+digitRun(pos+1);
+					if (tailOk(end)) {
+						return createResult(i,i+1,pos-(dot ? 1 : 0),pos+1,end);
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/** (.*?)(\d{1,2})\D(\d{2}).* */
+	private ParsedFileName matchNumbers() {
+		for (int i=0;i<length && i<=firstTerminator;i++) {
+			int run = digitRuns[i];
+			if (run==1 || run==2) {
+				int pos = i+run;
+				if (pos<length) {
+					// \D matches a whole code point, which may be a surrogate pair
+					pos+=Character.charCount(text.codePointAt(pos));
+					if (digitRun(pos)>=2 && tailOk(pos+2)) {
+						return createResult(i,i,i+run,pos,pos+2);
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/** (.*)season[\. ]*(\d{1,2})[\. ]*episode[\. ]*(\d{1,2}).* */
+	private ParsedFileName matchWords() {
+		for (int i=Math.min(length-1, firstTerminator);i>=0;i--) {
+			if (isWord(i,"season")) { //$NON-NLS-1$
+				int season = skipSpaces(i+6);
+				int run = digitRun(season);
+				if (run==0 || run>2) {
+					continue;
+				}
+				int pos = skipSpaces(season+run);
+				if (isWord(pos,"episode")) { //$NON-NLS-1$
+					int episode = skipSpaces(pos+7);
+					int run2 = Math.min(2, digitRun(episode));
+					if (run2>0 && tailOk(episode+run2)) {
+						return createResult(i,season,season+run,episode,episode+run2);
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/** (.*)S(\d{1,2})[\. ]*E(\d{2}).* */
+	private ParsedFileName matchSeasonEpisodeSpaced() {
+		for (int i=Math.min(length-1, firstTerminator);i>=0;i--) {
+			if (is(i,'s')) {
+				int run = digitRun(i+1);
+				if (run==0 || run>2) {
+					continue;
+				}
+				int pos = skipSpaces(i+1+run);
+				if (is(pos,'e') && digitRun(pos+1)>=2 && tailOk(pos+3)) {
+					return createResult(i,i+1,i+1+run,pos+1,pos+3);
+				}
+			}
+		}
+		return null;
+	}
+
+	/** ^()(\d{2})(\d{2})[\. ]*.* and ^()(\d{1})(\d{2})[\. ]*.* */
+	private ParsedFileName matchLeadingNumber() {
+		int run = digitRun(0);
+		if (run>=4 && tailOk(4)) {
+			return createResult(0,0,2,2,4);
+		}
+		if (run>=3 && tailOk(3)) {
+			return createResult(0,0,1,1,3);
+		}
+		return null;
+	}
+
+	/** (.*)[\. ](\d{2})(\d{2})[\. ].* and (.*)[\. ](\d{1})(\d{2})[\. ].* */
+	private ParsedFileName matchSeparatedNumber(int digits) {
+		for (int i=Math.min(length-1, firstTerminator);i>=0;i--) {
+			if (isSpace(i) && digitRun(i+1)==digits && isSpace(i+1+digits) && tailOk(i+2+digits)) {
+				return createResult(i,i+1,i+digits-1,i+digits-1,i+1+digits);
+			}
+		}
+		return null;
+	}
+
+	private ParsedFileName createResult(int termEnd,int seasonStart,int seasonEnd,int episodeStart,int episodeEnd) {
+		ParsedFileName result = new ParsedFileName();
+		List<Integer>episodes = new ArrayList<Integer>();
+		episodes.add(Integer.parseInt(text.substring(episodeStart,episodeEnd)));
+		result.setSeason(Integer.parseInt(text.substring(seasonStart,seasonEnd)));
+		result.setEpisodes(episodes);
+		result.setTerm(text.substring(0,termEnd));
+		return result;
+	}
+
+	private int digitRun(int pos) {
+		if (pos>=length) {
+			return 0;
+		}
+		return digitRuns[pos];
+	}
+
+	/** Check that the text from the given position can be matched by .* */
+	private boolean tailOk(int pos) {
+		return pos>lastTerminator;
+	}
+
+	/** Case insensitive match of a lower case ASCII letter, like the regular expressions */
+	private boolean is(int pos,char c) {
+		if (pos>=length) {
+			return false;
+		}
+		char t = text.charAt(pos);
+		return t==c || t==c-('a'-'A');
+	}
+
+	private boolean isWord(int pos,String word) {
+		if (pos+word.length()>length) {
+			return false;
+		}
+		for (int i=0;i<word.length();i++) {
+			if (!is(pos+i,word.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isSpace(int pos) {
+		return pos<length && (text.charAt(pos)=='.' || text.charAt(pos)==' ');
+	}
+
+	private int countSpaces(int pos) {
+		return skipSpaces(pos)-pos;
+	}
+
+	private int skipSpaces(int pos) {
+		while (isSpace(pos)) {
+			pos++;
+		}
+		return pos;
+	}
+}
@@ -17,4 +17,16 @@ public class PatternException extends Exception {
 		super(message);
 	}
 
+	/**
+	 * Constructs a new exception with the specified detail message and cause.
+	 *
+	 * @param  message the detail message (which is saved for later retrieval
+	 *         by the {@link #getMessage()} method).
+	 * @param  cause the cause (which is saved for later retrieval by the
+	 *         {@link #getCause()} method).
+	 */
+	public PatternException(String message,Throwable cause) {
+		super(message,cause);
+	}
+
 }
@@ -8,6 +8,8 @@ import java.text.SimpleDateFormat;
 
 import org.stanwood.media.info.IMediaFileInfo;
 import org.stanwood.media.info.IVideoFileInfo;
+import org.stanwood.media.info.LazyMediaFileInfo;
+import org.stanwood.media.logging.StanwoodException;
 import org.stanwood.media.model.IEpisode;
 import org.stanwood.media.model.IFilm;
 import org.stanwood.media.model.ISeason;
@@ -55,93 +57,127 @@ public class PatternMatcher {
 	 * @param film The film information
 	 * @param ext The film extension
 	 * @param part The part number of the film
-	 * @param info The media file information
+	 * @param info The media file information, only read if the pattern uses it. Can be null.
 	 * @return The filename
 	 * @throws PatternException thrown if their is a problem
 	 */
 	public String getNewFilmName(MediaDirConfig dirConfig,String pattern,final IFilm film,
-			                     final String ext,final Integer part, final IMediaFileInfo info) throws PatternException {
-		PatternProcessor processor = new PatternProcessor() {
+			                     final String ext,final Integer part, final LazyMediaFileInfo info) throws PatternException {
+		return RenamePattern.compile(pattern).format(new RenamePattern.ValueProvider() {
 			@Override
-			protected String processName(String name) {
-				String value = processFilmName(name,film,ext,part,info);
-				return value;
+			public String getValue(Token token) throws PatternException {
+				return getFilmValue(token,film,ext,part,info);
 			}
-		};
-
-		return processor.doit(dirConfig,pattern);
+		});
 	}
 
-	private String processFilmName(String newName, IFilm film, String ext,Integer part, IMediaFileInfo info) {
-		newName = newName.replaceAll(Token.ID.getFull(), normalizeText(film.getId()));
-		newName = newName.replaceAll(Token.PERCENT.getFull(), "%"); //$NON-NLS-1$
-		newName = newName.replaceAll(Token.TITLE.getFull(), normalizeText(film.getTitle()));
-		if (film.getSummary()!=null) {
-			newName = newName.replaceAll(Token.SUMMARY.getFull(), normalizeText(film.getSummary()));
-		}
-		if (film.getImageURL()!=null) {
-			newName = newName.replaceAll(Token.IMAGE.getFull(), normalizeText(film.getImageURL().toExternalForm()));
-		}
-		if (part!=null) {
-			newName = newName.replaceAll(Token.PART.getFull(), String.valueOf(part));
-		}
-		newName = newName.replaceAll(Token.EXT.getFull(), normalizeText(ext));
-		if (film.getDate()!=null) {
-			newName = newName.replaceAll(Token.YEAR.getFull(),YEAR_FORMAT.format(film.getDate()));
-		}
-		if (info!=null && info instanceof IVideoFileInfo) {
-			IVideoFileInfo videoInfo = (IVideoFileInfo)info;
-			if (videoInfo.getResolutionFormat()!=null && videoInfo.getResolutionFormat().isHighDef()) {
-				newName = newName.replaceAll(Token.HIGH_DEFINITION.getFull(),"HD"); //$NON-NLS-1$
-			}
-			if (videoInfo.getAspectRatio()!=null && videoInfo.getAspectRatio().isWideScreen()) {
-				newName = newName.replaceAll(Token.WIDESCREEN.getFull(),"WS"); //$NON-NLS-1$
-			}
+	private String getFilmValue(Token token, IFilm film, String ext,Integer part, LazyMediaFileInfo info) throws PatternException {
+		switch (token) {
+			case ID:
+				return normalizeText(film.getId());
+			case TITLE:
+				return normalizeText(film.getTitle());
+			case SUMMARY:
+				return normalizeText(film.getSummary());
+			case IMAGE:
+				if (film.getImageURL()!=null) {
+					return normalizeText(film.getImageURL().toExternalForm());
+				}
+				return null;
+			case PART:
+				if (part!=null) {
+					return String.valueOf(part);
+				}
+				return null;
+			case EXT:
+				return normalizeText(ext);
+			case YEAR:
+				if (film.getDate()!=null) {
+					return YEAR_FORMAT.format(film.getDate());
+				}
+				return null;
+			case HIGH_DEFINITION:
+			case WIDESCREEN:
+				return getVideoInfoValue(token, info);
+			default:
+				return null;
 		}
-		return newName;
 	}
 
-	private String processTVShowName(String newName,IShow show,ISeason season,IEpisode episode,String ext, IMediaFileInfo info) {
-		newName = newName.replaceAll(Token.ID.getFull(), normalizeText(show.getShowId()));
-		newName = newName.replaceAll(Token.SEASON.getFull(), String.valueOf(season.getSeasonNumber()));
-		String episodeNum = String.valueOf(episode.getEpisodeNumber());
-		if (episodeNum.length()==1) {
-			episodeNum = "0" +episodeNum; //$NON-NLS-1$
+	private String getTVShowValue(Token token,IShow show,ISeason season,IEpisode episode,String ext, LazyMediaFileInfo info) throws PatternException {
+		switch (token) {
+			case ID:
+				return normalizeText(show.getShowId());
+			case SEASON:
+				return String.valueOf(season.getSeasonNumber());
+			case EPISODE:
+				return getEpisodeNumber(episode.getEpisodeNumber());
+			case EPISODE_MAX:
+				int lastEpisodeNum = episode.getEpisodes().get(episode.getEpisodes().size()-1);
+				if (lastEpisodeNum>episode.getEpisodeNumber()) {
+					return getEpisodeNumber(lastEpisodeNum);
+				}
+				return null;
+			case SHOW_NAME:
+				return normalizeText(show.getName());
+			case SUMMARY:
+				return normalizeText(show.getShortSummary());
+			case IMAGE:
+				if (show.getImageURL()!=null) {
+					return normalizeText(show.getImageURL().toExternalForm());
+				}
+				return null;
+			case TITLE:
+				return normalizeText(episode.getTitle());
+			case EXT:
+				return normalizeText(ext);
+			case YEAR:
+				if (episode.getDate()!=null) {
+					return YEAR_FORMAT.format(episode.getDate());
+				}
+				return null;
+			case HIGH_DEFINITION:
+			case WIDESCREEN:
+				return getVideoInfoValue(token, info);
+			default:
+				return null;
 		}
+	}
 
-		newName = newName.replaceAll(Token.EPISODE.getFull(), episodeNum);
-		int lastEpisodeNum = episode.getEpisodes().get(episode.getEpisodes().size()-1);
-		if (lastEpisodeNum!=episode.getEpisodeNumber() && lastEpisodeNum>episode.getEpisodeNumber()) {
-			String lastEpisodeNumStr = String.valueOf(lastEpisodeNum);
-			if (lastEpisodeNumStr.length()==1) {
-				lastEpisodeNumStr = "0" +lastEpisodeNumStr; //$NON-NLS-1$
-			}
-			newName = newName.replaceAll(Token.EPISODE_MAX.getFull(), lastEpisodeNumStr);
+	private String getEpisodeNumber(int episodeNum) {
+		String value = String.valueOf(episodeNum);
+		if (value.length()==1) {
+			value = "0" +value; //$NON-NLS-1$
 		}
+		return value;
+	}
 
-		newName = newName.replaceAll(Token.PERCENT.getFull(), "%"); //$NON-NLS-1$
-		newName = newName.replaceAll(Token.SHOW_NAME.getFull(), normalizeText(show.getName()));
-		if (show.getShortSummary()!=null) {
-			newName = newName.replaceAll(Token.SUMMARY.getFull(), normalizeText(show.getShortSummary()));
+	/**
+	 * Get the value of the tokens that need the media file information. The media file is
+	 * only probed if the pattern contains one of these tokens. If the file can't be probed,
+	 * then the file name can't be created.
+	 */
+	private String getVideoInfoValue(Token token,LazyMediaFileInfo lazyInfo) throws PatternException {
+		if (lazyInfo==null) {
+			return null;
 		}
-		if (show.getImageURL()!=null) {
-			newName = newName.replaceAll(Token.IMAGE.getFull(), normalizeText(show.getImageURL().toExternalForm()));
+		IMediaFileInfo info;
+		try {
+			info = lazyInfo.get();
 		}
-		newName = newName.replaceAll(Token.TITLE.getFull(), normalizeText(episode.getTitle()));
-		newName = newName.replaceAll(Token.EXT.getFull(), normalizeText(ext));
-		if (episode.getDate()!=null) {
-			newName = newName.replaceAll(Token.YEAR.getFull(),YEAR_FORMAT.format(episode.getDate()));
+		catch (StanwoodException e) {
+			throw new PatternException(MessageFormat.format(Messages.getString("PatternMatcher.UnableReadMediaInfo"),lazyInfo.getFile()),e); //$NON-NLS-1$
 		}
 		if (info!=null && info instanceof IVideoFileInfo) {
 			IVideoFileInfo videoInfo = (IVideoFileInfo)info;
-			if (videoInfo.getResolutionFormat()!=null && videoInfo.getResolutionFormat().isHighDef()) {
-				newName = newName.replaceAll(Token.HIGH_DEFINITION.getFull(),"HD"); //$NON-NLS-1$
+			if (token==Token.HIGH_DEFINITION && videoInfo.getResolutionFormat()!=null && videoInfo.getResolutionFormat().isHighDef()) {
+				return "HD"; //$NON-NLS-1$
 			}
-			if (videoInfo.getAspectRatio()!=null && videoInfo.getAspectRatio().isWideScreen()) {
-				newName = newName.replaceAll(Token.WIDESCREEN.getFull(),"WS"); //$NON-NLS-1$
+			if (token==Token.WIDESCREEN && videoInfo.getAspectRatio()!=null && videoInfo.getAspectRatio().isWideScreen()) {
+				return "WS"; //$NON-NLS-1$
 			}
 		}
-		return newName;
+		return null;
 	}
 
 	/**
@@ -150,23 +186,19 @@ public class PatternMatcher {
 	 * @param pattern The pattern
 	 * @param episode The Episode information
 	 * @param ext The film extension
-	 * @param info The media file information
+	 * @param info The media file information, only read if the pattern uses it. Can be null.
 	 * @return The filename
 	 * @throws PatternException thrown if their is a problem
 	 */
 	public String getNewTVShowName(MediaDirConfig dirConfig,String pattern,
-	                               final IEpisode episode,final String ext, final IMediaFileInfo info) throws PatternException {
-		PatternProcessor processor = new PatternProcessor() {
+	                               final IEpisode episode,final String ext, final LazyMediaFileInfo info) throws PatternException {
+		return RenamePattern.compile(pattern).format(new RenamePattern.ValueProvider() {
 			@Override
-			protected String processName(String name) {
+			public String getValue(Token token) throws PatternException {
 				ISeason season = episode.getSeason();
-				IShow show = season.getShow();
-				String value = processTVShowName(name,show,season,episode,ext,info);
-				return value;
+				return getTVShowValue(token,season.getShow(),season,episode,ext,info);
 			}
-		};
-
-		return processor.doit(dirConfig,pattern);
+		});
 	}
 
 	/**
@@ -181,58 +213,4 @@ public class PatternMatcher {
 		}
 		return !pattern.contains("%"); //$NON-NLS-1$
 	}
-
-	private static abstract class PatternProcessor {
-
-		public String doit(MediaDirConfig dirConfig,String pattern) throws PatternException {
-			boolean inBrace = false;
-			StringBuilder result = new StringBuilder();
-			StringBuilder newName = new StringBuilder();
-			for (int i=0;i<pattern.length();i++) {
-				char c = pattern.charAt(i);
-				if (c=='{') {
-					inBrace = true;
-					result.append(processName(newName.toString()));
-					newName = new StringBuilder();
-				}
-				else if (c=='}') {
-					inBrace = false;
-					String value = processName(newName.toString());
-					if (containsPattern(value)) {
-						// Don't append it as it still contains patterns
-					}
-					else {
-						 result.append(value);
-					}
-					newName = new StringBuilder();
-				}
-				else {
-					newName.append(c);
-				}
-			}
-			if (inBrace) {
-				throw new PatternException(MessageFormat.format(Messages.getString("PatternMatcher.MISMATCH_BRACES"),pattern)); //$NON-NLS-1$
-			}
-			else {
-				result.append(processName(newName.toString()));
-			}
-
-			return result.toString();
-
-		}
-
-		protected abstract String processName(String string);
-
-		private boolean containsPattern(String newName) {
-			for (Token token : Token.values() ) {
-				if (newName.indexOf(token.getFull())!=-1) {
-					return true;
-				}
-			}
-			return false;
-		}
-
-
-
-	}
 }
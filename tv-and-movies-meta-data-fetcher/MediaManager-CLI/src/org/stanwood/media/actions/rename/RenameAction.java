@@ -12,7 +12,7 @@ import org.stanwood.media.MediaDirectory;
 import org.stanwood.media.actions.AbstractAction;
 import org.stanwood.media.actions.ActionException;
 import org.stanwood.media.actions.IActionEventHandler;
-import org.stanwood.media.info.IMediaFileInfo;
+import org.stanwood.media.info.LazyMediaFileInfo;
 import org.stanwood.media.logging.StanwoodException;
 import org.stanwood.media.model.IEpisode;
 import org.stanwood.media.model.IFilm;
@@ -83,7 +83,7 @@ public class RenameAction extends AbstractAction {
 			String oldFileName = file.getName();
 			String ext = oldFileName.substring(oldFileName.lastIndexOf('.')+1);
 			PatternMatcher pm = new PatternMatcher();
-			IMediaFileInfo info = dir.getController().getMediaFileInformation(file);
+			LazyMediaFileInfo info = dir.getController().getLazyMediaFileInformation(file);
 			File newName = dir.getPath(pm.getNewFilmName(dir.getMediaDirConfig(),dir.getMediaDirConfig().getPattern(),film, ext,part,info));
 
 			doRename(dir,file, newName,film,eventHandler);
@@ -99,7 +99,7 @@ public class RenameAction extends AbstractAction {
 		else {
 			String ext = FileHelper.getExtension(file);
 			PatternMatcher pm = new PatternMatcher();
-			IMediaFileInfo info = dir.getController().getMediaFileInformation(file);
+			LazyMediaFileInfo info = dir.getController().getLazyMediaFileInformation(file);
 			File newName = dir.getPath(pm.getNewTVShowName(dir.getMediaDirConfig(),dir.getMediaDirConfig().getPattern(),episode, ext,info));
 
 			doRename(dir,file, newName,episode,eventHandler);
@@ -130,7 +130,7 @@ public class RenameAction extends AbstractAction {
 
 					File oldFile = new File(file.getAbsolutePath());
 					try {
-						FileHelper.rename(file,newFile);
+						FileHelper.rename(file,newFile,dir.getController().getVerifyFileTransfers());
 					}
 					catch (IOException e) {
 						log.error(MessageFormat.format(Messages.getString("RenameAction.FAILED_RENAME"),file.getAbsolutePath(),newFile.getName()),e); //$NON-NLS-1$
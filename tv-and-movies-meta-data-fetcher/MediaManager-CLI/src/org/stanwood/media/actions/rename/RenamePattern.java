@@ -0,0 +1,265 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.actions.rename;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.stanwood.media.collections.LRUMapCache;
+
+/**
+ * <p>This is a media directory rename pattern that has been compiled so that it can be used
+ * many times without been parsed again. It is used to create file names from the pattern
+ * and to find the value of the tokens when the pattern is applied to a file path.</p>
+ * <p>The pattern is split into segments, the text within braces been optional segments. An
+ * optional segment is left out of the file name if any of it's tokens don't have a value.
+ * Instances are immutable and a cache of them is kept, so they should be got with
+ * {@link #compile(String)}.</p>
+ */
+public class RenamePattern {
+
+	private final static int CACHE_SIZE = 100;
+	private final static Map<String,RenamePattern> CACHE = new LRUMapCache<String,RenamePattern>(CACHE_SIZE);
+
+	private final String pattern;
+	private final List<Segment> segments;
+	private final boolean mismatchedBraces;
+	private final Pattern regexp;
+	private final List<Token> groupTokens;
+
+	/**
+	 * This is used to get the value of tokens when a file name is created
+	 */
+	public interface ValueProvider {
+		/**
+		 * Used to get the value of a token
+		 * @param token The token
+		 * @return The value, or null if the token does not have a value
+		 * @throws PatternException Thrown if the value of the token can't be read
+		 */
+		public String getValue(Token token) throws PatternException;
+	}
+
+	private RenamePattern(String pattern) {
+		this.pattern = pattern;
+		List<Segment> segments = new ArrayList<Segment>();
+		boolean inBrace = false;
+		StringBuilder segment = new StringBuilder();
+		for (int i=0;i<pattern.length();i++) {
+			char c = pattern.charAt(i);
+			if (c=='{') {
+				inBrace = true;
+				segments.add(new Segment(segment.toString(),false));
+				segment = new StringBuilder();
+			}
+			else if (c=='}') {
+				inBrace = false;
+				segments.add(new Segment(segment.toString(),true));
+				segment = new StringBuilder();
+			}
+			else {
+				segment.append(c);
+			}
+		}
+		segments.add(new Segment(segment.toString(),false));
+		this.segments = Collections.unmodifiableList(segments);
+		this.mismatchedBraces = inBrace;
+
+		List<Token> groupTokens = new ArrayList<Token>();
+		this.regexp = compileRegexp(pattern,groupTokens);
+		this.groupTokens = Collections.unmodifiableList(groupTokens);
+	}
+
+	/**
+	 * Used to get a compiled rename pattern. The compiled patterns are cached, so the
+	 * pattern is only parsed the first time it is used.
+	 * @param pattern The rename pattern
+	 * @return The compiled pattern
+	 */
+	public static RenamePattern compile(String pattern) {
+		synchronized (CACHE) {
+			RenamePattern result = CACHE.get(pattern);
+			if (result==null) {
+				result = new RenamePattern(pattern);
+				CACHE.put(pattern, result);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Used to get the rename pattern
+	 * @return The rename pattern
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * Used to create a file name from the pattern
+	 * @param values Used to get the value of the tokens in the pattern
+	 * @return The file name
+	 * @throws PatternException Thrown if the braces in the pattern don't match, or the value of a token can't be read
+	 */
+	public String format(ValueProvider values) throws PatternException {
+		if (mismatchedBraces) {
+			throw new PatternException(MessageFormat.format(Messages.getString("PatternMatcher.MISMATCH_BRACES"),pattern)); //$NON-NLS-1$
+		}
+		StringBuilder result = new StringBuilder();
+		for (Segment segment : segments) {
+			segment.format(values,result);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Used to find the value of the tokens when the pattern is applied to a file path
+	 * @param path The file path
+	 * @return The token values, or null if the path does not match the pattern. Tokens
+	 *         in optional parts of the pattern that did not match have a null value.
+	 */
+	public Map<Token,String> match(String path) {
+		if (regexp==null) {
+			return null;
+		}
+		Matcher m = regexp.matcher(path);
+		if (!m.matches()) {
+			return null;
+		}
+		Map<Token,String> values = new HashMap<Token,String>();
+		for (int i=1;i<=m.groupCount();i++) {
+			values.put(groupTokens.get(i-1),m.group(i));
+		}
+		return values;
+	}
+
+	private static Pattern compileRegexp(String pattern,List<Token> groupTokens) {
+		StringBuilder regexp = new StringBuilder("^"); //$NON-NLS-1$
+		int i=0;
+		while (i<pattern.length()) {
+			char c = pattern.charAt(i);
+			if (c=='{') {
+				regexp.append("(?:"); //$NON-NLS-1$
+			}
+			else if (c=='}') {
+				regexp.append(")?"); //$NON-NLS-1$
+			}
+			else if (c=='%' && i+1<pattern.length() && Token.fromToken(pattern.charAt(i+1))!=null) {
+				i++;
+				Token token = Token.fromToken(pattern.charAt(i));
+				if (token == Token.PERCENT) {
+					regexp.append("%"); //$NON-NLS-1$
+				}
+				else {
+					groupTokens.add(token);
+					regexp.append(token.getPattern());
+				}
+			}
+			else {
+				if (c=='.' || c=='$' || c=='?' || c=='^' || c=='|' || c=='(' || c==')' || c=='\\') {
+					regexp.append('\\');
+				}
+				regexp.append(c);
+			}
+			i++;
+		}
+		regexp.append('$');
+		try {
+			return Pattern.compile(regexp.toString());
+		}
+		catch (PatternSyntaxException e) {
+			// The braces in the pattern don't match, so it can't match any paths
+			return null;
+		}
+	}
+
+	/**
+	 * A part of the pattern, which is either the text of the pattern or a token
+	 */
+	private static class Part {
+		private final String text;
+		private final Token token;
+
+		public Part(String text,Token token) {
+			this.text = text;
+			this.token = token;
+		}
+	}
+
+	private static class Segment {
+		private final List<Part> parts = new ArrayList<Part>();
+		private final boolean optional;
+
+		public Segment(String text,boolean optional) {
+			this.optional = optional;
+			StringBuilder literal = new StringBuilder();
+			for (int i=0;i<text.length();i++) {
+				char c = text.charAt(i);
+				Token token = null;
+				if (c=='%' && i+1<text.length()) {
+					token = Token.fromToken(text.charAt(i+1));
+				}
+				if (token==null) {
+					literal.append(c);
+				}
+				else {
+					if (literal.length()>0) {
+						parts.add(new Part(literal.toString(),null));
+						literal = new StringBuilder();
+					}
+					parts.add(new Part(token.getFull(),token));
+					i++;
+				}
+			}
+			if (literal.length()>0) {
+				parts.add(new Part(literal.toString(),null));
+			}
+		}
+
+		public void format(ValueProvider values,StringBuilder result) throws PatternException {
+			int start = result.length();
+			for (Part part : parts) {
+				if (part.token==null) {
+					result.append(part.text);
+				}
+				else if (part.token==Token.PERCENT) {
+					result.append('%');
+				}
+				else {
+					String value = values.getValue(part.token);
+					if (value==null) {
+						if (optional) {
+							result.setLength(start);
+							return;
+						}
+						result.append(part.text);
+					}
+					else {
+						result.append(value);
+					}
+				}
+			}
+		}
+	}
+}
@@ -17,8 +17,13 @@
 package org.stanwood.media.actions.seendb;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.Query;
 import org.hibernate.Transaction;
@@ -34,6 +39,9 @@ import org.stanwood.media.setup.DBResource;
  */
 public class DatabaseSeenDatabase implements ISeenDatabase{
 
+	/** The maximum number of files that are checked or marked in a single query */
+	private final static int BATCH_SIZE = 500;
+
 	private Session session;
 
 	/**
@@ -69,6 +77,103 @@ public class DatabaseSeenDatabase implements ISeenDatabase{
 		}
 	}
 
+	/**
+	 * Used to work out which files in a group of files have been seen already. The files
+	 * are looked up in batches using a single transaction.
+	 * @param mediaDirectory The media directory the files live in
+	 * @param files The files to check
+	 * @return The files that have been seen
+	 * @throws SeenDBException Thrown if their is a problem
+	 */
+	@Override
+	public Set<File> getSeenFiles(File mediaDirectory, Collection<File> files) throws SeenDBException {
+		Set<File> result = new HashSet<File>();
+		Transaction trans = session.beginTransaction();
+		try {
+			for (List<File> batch : getBatches(files)) {
+				Map<String,SeenEntry> entries = getEntries(batch);
+				for (File file : batch) {
+					SeenEntry entry = entries.get(file.getAbsolutePath());
+					if (entry!=null && entry.getLastModified()==file.lastModified()) {
+						result.add(file);
+					}
+				}
+				evict(entries.values());
+			}
+		}
+		finally {
+			trans.commit();
+		}
+		return result;
+	}
+
+	/**
+	 * Used to mark a group of files as seen after actions have seen them. The existing
+	 * entries are looked up in batches, and each batch is written in it's own transaction.
+	 * @param mediaDirectory The media directory the files live in
+	 * @param files The files
+	 * @throws SeenDBException Thrown if their is a problem
+	 */
+	@Override
+	public void markAsSeen(File mediaDirectory, Collection<File> files) throws SeenDBException {
+		for (List<File> batch : getBatches(files)) {
+			Transaction trans = session.beginTransaction();
+			Map<String,SeenEntry> entries = getEntries(batch);
+			for (File file : batch) {
+				String path = file.getAbsolutePath();
+				SeenEntry entry = entries.get(path);
+				if (entry==null) {
+					entry = new SeenEntry();
+					entry.setFileName(path);
+					entries.put(path, entry);
+				}
+				entry.setLastModified(file.lastModified());
+				session.saveOrUpdate(entry);
+			}
+			session.flush();
+			trans.commit();
+			evict(entries.values());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String,SeenEntry> getEntries(List<File> files) {
+		List<String> paths = new ArrayList<String>(files.size());
+		for (File file : files) {
+			paths.add(file.getAbsolutePath());
+		}
+		Query q = session.createQuery(" from SeenEntry where fileName in (:paths)"); //$NON-NLS-1$
+		q.setParameterList("paths", paths); //$NON-NLS-1$
+		Map<String,SeenEntry> result = new HashMap<String,SeenEntry>();
+		for (SeenEntry entry : (List<SeenEntry>)q.list()) {
+			result.put(entry.getFileName(), entry);
+		}
+		return result;
+	}
+
+	/**
+	 * Remove the entries of a batch from the session, so that the session does not grow
+	 * with the number of files checked
+	 */
+	private void evict(Collection<SeenEntry> entries) {
+		for (SeenEntry entry : entries) {
+			session.evict(entry);
+		}
+	}
+
+	private static List<List<File>> getBatches(Collection<File> files) {
+		List<List<File>> batches = new ArrayList<List<File>>();
+		List<File> batch = null;
+		for (File file : files) {
+			if (batch==null || batch.size()==BATCH_SIZE) {
+				batch = new ArrayList<File>(Math.min(BATCH_SIZE, files.size()));
+				batches.add(batch);
+			}
+			batch.add(file);
+		}
+		return batches;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void markAsSeen(File mediaDirectory, File file) throws SeenDBException {
@@ -113,9 +218,12 @@ public class DatabaseSeenDatabase implements ISeenDatabase{
 	public void renamedFile(File mediaDirectory, File oldFile, File newFile)
 			throws SeenDBException {
 		Transaction trans = session.beginTransaction();
+		Query delete = session.createQuery("delete from SeenEntry where fileName = :path"); //$NON-NLS-1$
+		delete.setString("path",newFile.getAbsolutePath()); //$NON-NLS-1$
+		delete.executeUpdate();
 		Query q = session.createQuery("update SeenEntry set fileName = :newFile where fileName = :oldFile"); //$NON-NLS-1$
-		q.setString("newFile",oldFile.getAbsolutePath()); //$NON-NLS-1$
-		q.setString("oldFile",newFile.getAbsolutePath()); //$NON-NLS-1$
+		q.setString("newFile",newFile.getAbsolutePath()); //$NON-NLS-1$
+		q.setString("oldFile",oldFile.getAbsolutePath()); //$NON-NLS-1$
 		q.executeUpdate();
 		trans.commit();
 	}
@@ -1,38 +1,68 @@
 package org.stanwood.media.actions.seendb;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.apache.commons.lang.StringEscapeUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.stanwood.media.actions.Messages;
 import org.stanwood.media.progress.IProgressMonitor;
-import org.stanwood.media.xml.IterableNodeList;
-import org.stanwood.media.xml.XMLParser;
-import org.stanwood.media.xml.XMLParserException;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 
 /**
  * This class is used to maintain a list of files that have been seen by the actions
- * in media directories
+ * in media directories.
+ *
+ * The entries are held in memory in hash maps keyed on the media directory and the
+ * file path. On disk the database is made up of a snapshot file (seenFiles.xml) and a
+ * journal file (seenFiles.journal). When the database is written, only the changes made
+ * since the last write are appended to the journal. Once the journal gets large, it is
+ * compacted by writing a new snapshot and removing the journal. Each journal record ends
+ * with a checksum of the record, so that a record that was only partly written is ignored.
  */
-public class FileSeenDatabase extends XMLParser implements ISeenDatabase {
+public class FileSeenDatabase implements ISeenDatabase {
+
+	private final static Log log = LogFactory.getLog(FileSeenDatabase.class);
+
+	private final static String CHARSET = "UTF-8"; //$NON-NLS-1$
+	private final static char MARKED = '+';
+	private final static char REMOVED = '-';
+	private final static char SEPERATOR = '\t';
+
+	/** The minimum number of journal records before the journal is compacted */
+	private final static int MIN_COMPACT_RECORDS = 1000;
 
-	private Map<File,SortedSet<SeenEntry>> entries = new HashMap<File,SortedSet<SeenEntry>>();
+	private Map<File,Map<String,SeenEntry>> entries = new HashMap<File,Map<String,SeenEntry>>();
+	private List<String> pending = new ArrayList<String>();
+	private int journalRecords = 0;
 	private File seenFile;
+	private File journalFile;
 
 	/**
 	 * The constructor
@@ -40,6 +70,7 @@ public class FileSeenDatabase extends XMLParser implements ISeenDatabase {
 	 */
 	public FileSeenDatabase(File configDir) {
 		seenFile = new File(configDir,"seenFiles.xml"); //$NON-NLS-1$
+		journalFile = new File(configDir,"seenFiles.journal"); //$NON-NLS-1$
 	}
 
 	/**
@@ -49,29 +80,43 @@ public class FileSeenDatabase extends XMLParser implements ISeenDatabase {
 	 * @return True if seen, otherwise false
 	 */
 	@Override
-	public boolean isSeen(File mediaDirectory,File file) {
-		Set<SeenEntry>entryList = entries.get(mediaDirectory);
-		if (entryList!=null) {
-			for (SeenEntry entry : entryList) {
-				if (entry.getFileName().equals(file.getAbsolutePath())) {
-					if (file.lastModified()==entry.getLastModified()) {
-						return true;
-					}
-				}
+	public synchronized boolean isSeen(File mediaDirectory,File file) {
+		Map<String,SeenEntry>entryMap = entries.get(mediaDirectory);
+		if (entryMap!=null) {
+			SeenEntry entry = entryMap.get(file.getAbsolutePath());
+			if (entry!=null && file.lastModified()==entry.getLastModified()) {
+				return true;
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Used to work out which files in a group of files have been seen already
+	 * @param mediaDirectory The media directory the files live in
+	 * @param files The files to check
+	 * @return The files that have been seen
+	 */
+	@Override
+	public synchronized Set<File> getSeenFiles(File mediaDirectory,Collection<File> files) {
+		Set<File> result = new HashSet<File>();
+		for (File file : files) {
+			if (isSeen(mediaDirectory, file)) {
+				result.add(file);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Uses to get a list of seen entries
 	 * @return The entries
 	 */
 	@Override
-	public Collection<SeenEntry>getEntries() {
+	public synchronized Collection<SeenEntry>getEntries() {
 		List<SeenEntry>result = new ArrayList<SeenEntry>();
-		for (Entry<File,SortedSet<SeenEntry>> e : entries.entrySet()) {
-			result.addAll(e.getValue());
+		for (Map<String,SeenEntry> e : entries.values()) {
+			result.addAll(e.values());
 		}
 		return result;
 	}
@@ -82,107 +127,278 @@ public class FileSeenDatabase extends XMLParser implements ISeenDatabase {
 	 * @param file The file
 	 */
 	@Override
-	public void markAsSeen(File mediaDirectory,File file) {
+	public synchronized void markAsSeen(File mediaDirectory,File file) {
 		long lastModified = file.lastModified();
 		String path = file.getAbsolutePath();
-		markAsSeen(mediaDirectory, lastModified, path);
+		SeenEntry old = putEntry(mediaDirectory, lastModified, path);
+		if (old==null || old.getLastModified()!=lastModified) {
+			pending.add(MARKED+String.valueOf(lastModified)+SEPERATOR+encode(mediaDirectory)+SEPERATOR+escape(path));
+		}
 	}
 
-	private void markAsSeen(File mediaDirectory,  long lastModified, String path) {
-		SortedSet<SeenEntry>entryList = entries.get(mediaDirectory);
-		if (entryList==null) {
-			entryList = new TreeSet<SeenEntry>(new Comparator<SeenEntry>() {
-				@Override
-				public int compare(SeenEntry o1, SeenEntry o2) {
-					return o1.getFileName().compareTo(o2.getFileName());
-				}
-			});
-			entries.put(mediaDirectory, entryList);
+	/**
+	 * Used to mark a group of files as seen after actions have seen them
+	 * @param mediaDirectory The media directory the files live in
+	 * @param files The files
+	 */
+	@Override
+	public synchronized void markAsSeen(File mediaDirectory,Collection<File> files) {
+		for (File file : files) {
+			markAsSeen(mediaDirectory, file);
 		}
+	}
 
-		Iterator<SeenEntry>it = entryList.iterator();
-		while (it.hasNext()) {
-			SeenEntry entry = it.next();
-			if (entry.getFileName().equals(path)) {
-				it.remove();
-			}
+	private SeenEntry putEntry(File mediaDirectory,  long lastModified, String path) {
+		Map<String,SeenEntry>entryMap = entries.get(mediaDirectory);
+		if (entryMap==null) {
+			entryMap = new HashMap<String,SeenEntry>();
+			entries.put(mediaDirectory, entryMap);
 		}
 
 		SeenEntry entry = new SeenEntry();
 		entry.setFileName(path);
 		entry.setLastModified(lastModified);
-		entryList.add(entry);
+		return entryMap.put(path,entry);
+	}
+
+	private SeenEntry removeEntry(File mediaDirectory, String path) {
+		Map<String,SeenEntry>entryMap = entries.get(mediaDirectory);
+		if (entryMap!=null) {
+			SeenEntry entry = entryMap.remove(path);
+			if (entryMap.isEmpty()) {
+				entries.remove(mediaDirectory);
+			}
+			return entry;
+		}
+		return null;
 	}
 
 	/**
-	 * Used to write the database to disc
+	 * Used to write the database to disc. The changes since the last write are appended
+	 * to the journal, and if the journal has become large, then it is compacted into
+	 * a new snapshot file.
 	 * @param parentMonitor Parent progress monitor
 	 * @throws SeenDBException Thrown if their is a problem
 	 */
 	@Override
-	public void write(IProgressMonitor parentMonitor) throws SeenDBException {
+	public synchronized void write(IProgressMonitor parentMonitor) throws SeenDBException {
+		parentMonitor.beginTask(Messages.getString("SeenDatabase.WRITING_SEEN_DB"), 1); //$NON-NLS-1$
+		if (!pending.isEmpty()) {
+			int total = 0;
+			for (Map<String,SeenEntry> e : entries.values()) {
+				total+=e.size();
+			}
+			if (!seenFile.exists() || journalRecords+pending.size()>Math.max(MIN_COMPACT_RECORDS, total)) {
+				compact();
+			}
+			else {
+				appendJournal();
+			}
+		}
+		parentMonitor.worked(1);
+		parentMonitor.done();
+	}
+
+	private void appendJournal() throws SeenDBException {
+		PrintWriter pw = null;
+		try {
+			boolean partialRecord = journalFile.exists() && !endsWithNewLine(journalFile);
+			pw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(journalFile,true),CHARSET));
+			if (partialRecord) {
+				// Make sure the first record does not join the partly written record
+				pw.print('\n');
+			}
+			for (String record : pending) {
+				pw.print(record);
+				pw.print(SEPERATOR);
+				pw.print(checksum(record));
+				pw.print('\n');
+			}
+			pw.flush();
+			if (pw.checkError()) {
+				throw new SeenDBException(Messages.getString("FileSeenDatabase.UnableWriteJournal")); //$NON-NLS-1$
+			}
+			journalRecords+=pending.size();
+			pending.clear();
+		}
+		catch (IOException e) {
+			throw new SeenDBException(Messages.getString("FileSeenDatabase.UnableWriteJournal"),e); //$NON-NLS-1$
+		}
+		finally {
+			if (pw!=null) {
+				pw.close();
+			}
+		}
+	}
+
+	/**
+	 * Write a new snapshot containing all the entries and remove the journal. Entries of files
+	 * that no longer exist are dropped.
+	 */
+	private void compact() throws SeenDBException {
+		if (log.isDebugEnabled()) {
+			log.debug("Compacting seen database journal with "+(journalRecords+pending.size())+" records"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		File tmpFile = new File(seenFile.getParentFile(),seenFile.getName()+".tmp"); //$NON-NLS-1$
 		PrintStream ps = null;
 		try {
 			try {
-				ps = new PrintStream(seenFile);
+				ps = new PrintStream(tmpFile,CHARSET);
 			}
 			catch (FileNotFoundException e) {
 				throw new SeenDBException(Messages.getString("FileSeenDatabase.UnableFindSeenDB"),e); //$NON-NLS-1$
 			}
+			catch (IOException e) {
+				throw new SeenDBException(Messages.getString("FileSeenDatabase.UnableFindSeenDB"),e); //$NON-NLS-1$
+			}
 			ps.println("<seen>"); //$NON-NLS-1$
-			Set<Entry<File, SortedSet<SeenEntry>>> entriesSet = entries.entrySet();
-			parentMonitor.beginTask(Messages.getString("SeenDatabase.WRITING_SEEN_DB"), entriesSet.size()); //$NON-NLS-1$
-			for (Entry<File,SortedSet<SeenEntry>> e : entriesSet) {
-				ps.println("  <mediaDir dir=\""+e.getKey()+"\">"); //$NON-NLS-1$ //$NON-NLS-2$
-				for (SeenEntry entry : e.getValue()) {
+			for (Entry<File,Map<String,SeenEntry>> e : entries.entrySet()) {
+				ps.println("  <mediaDir dir=\""+escapeAttribute(String.valueOf(e.getKey()))+"\">"); //$NON-NLS-1$ //$NON-NLS-2$
+				for (SeenEntry entry : e.getValue().values()) {
 					if (new File(entry.getFileName()).exists()) {
-						ps.println("    <file path=\""+StringEscapeUtils.escapeXml(entry.getFileName())+"\" lastModified=\""+entry.getLastModified()+"\"/>"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						ps.println("    <file path=\""+escapeAttribute(entry.getFileName())+"\" lastModified=\""+entry.getLastModified()+"\"/>"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 					}
 				}
 				ps.println("  </mediaDir>"); //$NON-NLS-1$
-				parentMonitor.worked(1);
 			}
 			ps.println("</seen>"); //$NON-NLS-1$
-			parentMonitor.done();
+			ps.close();
+			if (ps.checkError()) {
+				throw new SeenDBException(Messages.getString("FileSeenDatabase.UnableWriteSeenDB")); //$NON-NLS-1$
+			}
+			ps = null;
+			if (!tmpFile.renameTo(seenFile) && !(seenFile.delete() && tmpFile.renameTo(seenFile))) {
+				throw new SeenDBException(Messages.getString("FileSeenDatabase.UnableWriteSeenDB")); //$NON-NLS-1$
+			}
+			if (journalFile.exists() && !journalFile.delete()) {
+				throw new SeenDBException(Messages.getString("FileSeenDatabase.UnableDeleteJournal")); //$NON-NLS-1$
+			}
+			journalRecords = 0;
+			pending.clear();
 		}
 		finally {
 			if (ps!=null) {
 				ps.close();
 			}
+			if (tmpFile.exists() && !tmpFile.delete()) {
+				log.error(Messages.getString("FileSeenDatabase.UnableWriteSeenDB")); //$NON-NLS-1$
+			}
 		}
 	}
 
 	/**
-	 * Used to read the database from disk
+	 * Used to read the database from disk. The snapshot is read first, then the
+	 * changes in the journal are applied to it.
 	 * @param progress Progress monitor
 	 * @throws SeenDBException Thrown if their is a problem
 	 *
 	 */
 	@Override
-	public void read(IProgressMonitor progress) throws SeenDBException {
+	public synchronized void read(IProgressMonitor progress) throws SeenDBException {
+		entries = new HashMap<File,Map<String,SeenEntry>>();
+		pending.clear();
+		journalRecords = 0;
+		progress.beginTask(Messages.getString("SeenDatabase.READING_SEEN_DB"), 2); //$NON-NLS-1$
+		if (seenFile.exists()) {
+			readSnapshot();
+		}
+		progress.worked(1);
+		if (journalFile.exists()) {
+			readJournal();
+		}
+		progress.worked(1);
+		progress.done();
+	}
+
+	private void readSnapshot() throws SeenDBException {
+		InputStream is = null;
 		try {
-			entries = new HashMap<File,SortedSet<SeenEntry>>();
-			if (seenFile.exists()) {
-				Document doc = XMLParser.parse(seenFile, null);
-				IterableNodeList nodes = selectNodeList(doc, "seen/mediaDir"); //$NON-NLS-1$
-				progress.beginTask(Messages.getString("SeenDatabase.READING_SEEN_DB"), nodes.getLength()); //$NON-NLS-1$
-				for (Node mediaDirNode : nodes) {
-					Element mediaDirEl = (Element)mediaDirNode;
-					File mediaDir = new File(mediaDirEl.getAttribute("dir")); //$NON-NLS-1$
-					for (Node fileNode : selectNodeList(mediaDirEl,"file")) { //$NON-NLS-1$
-						Element fileElement = (Element)fileNode;
-						String path = fileElement.getAttribute("path"); //$NON-NLS-1$
-						long lastModified = Long.parseLong(fileElement.getAttribute("lastModified")); //$NON-NLS-1$
-						markAsSeen(mediaDir, lastModified, path);
+			is = new BufferedInputStream(new FileInputStream(seenFile));
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+			XMLStreamReader reader = factory.createXMLStreamReader(is);
+			try {
+				File mediaDir = null;
+				while (reader.hasNext()) {
+					if (reader.next()==XMLStreamConstants.START_ELEMENT) {
+						if (reader.getLocalName().equals("mediaDir")) { //$NON-NLS-1$
+							mediaDir = new File(reader.getAttributeValue(null, "dir")); //$NON-NLS-1$
+						}
+						else if (reader.getLocalName().equals("file")) { //$NON-NLS-1$
+							String path = reader.getAttributeValue(null, "path"); //$NON-NLS-1$
+							long lastModified = Long.parseLong(reader.getAttributeValue(null, "lastModified")); //$NON-NLS-1$
+							putEntry(mediaDir, lastModified, path);
+						}
 					}
-					progress.worked(1);
 				}
 			}
+			finally {
+				reader.close();
+			}
 		}
-		catch (XMLParserException e) {
+		catch (XMLStreamException e) {
 			throw new SeenDBException(Messages.getString("FileSeenDatabase.UnableParseSeenDB"),e); //$NON-NLS-1$
 		}
-		progress.done();
+		catch (NumberFormatException e) {
+			throw new SeenDBException(Messages.getString("FileSeenDatabase.UnableParseSeenDB"),e); //$NON-NLS-1$
+		}
+		catch (IOException e) {
+			throw new SeenDBException(Messages.getString("FileSeenDatabase.UnableParseSeenDB"),e); //$NON-NLS-1$
+		}
+		finally {
+			close(is);
+		}
+	}
+
+	private void readJournal() throws SeenDBException {
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new InputStreamReader(new FileInputStream(journalFile),CHARSET));
+			String line;
+			while ((line = reader.readLine())!=null) {
+				int end = line.lastIndexOf(SEPERATOR);
+				if (end==-1 || !line.substring(end+1).equals(checksum(line.substring(0,end)))) {
+					// Ignore a record that was only partly written
+					log.warn(Messages.getString("FileSeenDatabase.InvalidJournalRecord")); //$NON-NLS-1$
+					continue;
+				}
+				line = line.substring(0,end);
+				int pos1 = line.indexOf(SEPERATOR);
+				int pos2 = pos1==-1 ? -1 : line.indexOf(SEPERATOR,pos1+1);
+				if (pos2==-1) {
+					log.warn(Messages.getString("FileSeenDatabase.InvalidJournalRecord")); //$NON-NLS-1$
+					continue;
+				}
+				File mediaDir = decode(line.substring(pos1+1,pos2));
+				String path = unescape(line.substring(pos2+1));
+				if (line.charAt(0)==MARKED) {
+					try {
+						putEntry(mediaDir, Long.parseLong(line.substring(1,pos1)), path);
+					}
+					catch (NumberFormatException e) {
+						log.warn(Messages.getString("FileSeenDatabase.InvalidJournalRecord")); //$NON-NLS-1$
+						continue;
+					}
+				}
+				else if (line.charAt(0)==REMOVED) {
+					removeEntry(mediaDir, path);
+				}
+				journalRecords++;
+			}
+		}
+		catch (IOException e) {
+			throw new SeenDBException(Messages.getString("FileSeenDatabase.UnableParseSeenDB"),e); //$NON-NLS-1$
+		}
+		finally {
+			if (reader!=null) {
+				try {
+					reader.close();
+				}
+				catch (IOException e) {
+					log.error(e.getMessage(),e);
+				}
+			}
+		}
 	}
 
 	/**
@@ -192,7 +408,7 @@ public class FileSeenDatabase extends XMLParser implements ISeenDatabase {
 	 * @param newFile The new filename
 	 */
 	@Override
-	public void renamedFile(File mediaDirectory, File oldFile, File newFile) {
+	public synchronized void renamedFile(File mediaDirectory, File oldFile, File newFile) {
 		removeFile(mediaDirectory, oldFile);
 		markAsSeen(mediaDirectory, newFile);
 	}
@@ -203,16 +419,112 @@ public class FileSeenDatabase extends XMLParser implements ISeenDatabase {
 	 * @param file The file to remove
 	 */
 	@Override
-	public void removeFile(File mediaDirectory, File file) {
-		Set<SeenEntry>entryList = entries.get(mediaDirectory);
-		if (entryList!=null) {
-			Iterator<SeenEntry>it = entryList.iterator();
-			while (it.hasNext()) {
-				SeenEntry entry = it.next();
-				if (entry.getFileName().equals(file.getAbsolutePath())) {
-					it.remove();
+	public synchronized void removeFile(File mediaDirectory, File file) {
+		String path = file.getAbsolutePath();
+		if (removeEntry(mediaDirectory, path)!=null) {
+			pending.add(REMOVED+String.valueOf(SEPERATOR)+encode(mediaDirectory)+SEPERATOR+escape(path));
+		}
+	}
+
+	private static String checksum(String record) throws UnsupportedEncodingException {
+		CRC32 crc = new CRC32();
+		crc.update(record.getBytes(CHARSET));
+		return Long.toHexString(crc.getValue());
+	}
+
+	private static boolean endsWithNewLine(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file,"r"); //$NON-NLS-1$
+		try {
+			if (raf.length()==0) {
+				return true;
+			}
+			raf.seek(raf.length()-1);
+			return raf.read()=='\n';
+		}
+		finally {
+			raf.close();
+		}
+	}
+
+	private static String escapeAttribute(String value) {
+		String result = StringEscapeUtils.escapeXml(value);
+		return result.replace("\t", "&#9;").replace("\n", "&#10;").replace("\r", "&#13;"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+	}
+
+	private static String encode(File mediaDirectory) {
+		if (mediaDirectory==null) {
+			return ""; //$NON-NLS-1$
+		}
+		return escape(mediaDirectory.getPath());
+	}
+
+	private static File decode(String value) {
+		if (value.length()==0) {
+			return null;
+		}
+		return new File(unescape(value));
+	}
+
+	private static String escape(String value) {
+		StringBuilder result = new StringBuilder(value.length());
+		for (int i=0;i<value.length();i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '\\':
+				result.append("\\\\"); //$NON-NLS-1$
+				break;
+			case '\t':
+				result.append("\\t"); //$NON-NLS-1$
+				break;
+			case '\n':
+				result.append("\\n"); //$NON-NLS-1$
+				break;
+			case '\r':
+				result.append("\\r"); //$NON-NLS-1$
+				break;
+			default:
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
+	private static String unescape(String value) {
+		StringBuilder result = new StringBuilder(value.length());
+		for (int i=0;i<value.length();i++) {
+			char c = value.charAt(i);
+			if (c=='\\' && i+1<value.length()) {
+				i++;
+				c = value.charAt(i);
+				switch (c) {
+				case 't':
+					result.append('\t');
+					break;
+				case 'n':
+					result.append('\n');
+					break;
+				case 'r':
+					result.append('\r');
+					break;
+				default:
+					result.append(c);
 				}
 			}
+			else {
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
+	private void close(InputStream is) {
+		if (is!=null) {
+			try {
+				is.close();
+			}
+			catch (IOException e) {
+				log.error(e.getMessage(),e);
+			}
 		}
 	}
 }
@@ -18,6 +18,7 @@ package org.stanwood.media.actions.seendb;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.Set;
 
 import org.stanwood.media.progress.IProgressMonitor;
 
@@ -35,6 +36,16 @@ public interface ISeenDatabase {
 	 */
 	public boolean isSeen(File mediaDirectory,File file) throws SeenDBException;
 
+	/**
+	 * Used to work out which files in a group of files have been seen already. This
+	 * should be used instead of {@link #isSeen(File, File)} when checking a lot of files.
+	 * @param mediaDirectory The media directory the files live in
+	 * @param files The files to check
+	 * @return The files that have been seen
+	 * @throws SeenDBException Thrown if their is a problem
+	 */
+	public Set<File> getSeenFiles(File mediaDirectory,Collection<File> files) throws SeenDBException;
+
 	/**
 	 * Used to mark a file as seen after actions have seen it
 	 * @param mediaDirectory The media directory the file lives in
@@ -43,6 +54,15 @@ public interface ISeenDatabase {
 	 */
 	public void markAsSeen(File mediaDirectory,File file) throws SeenDBException;
 
+	/**
+	 * Used to mark a group of files as seen after actions have seen them. This
+	 * should be used instead of {@link #markAsSeen(File, File)} when marking a lot of files.
+	 * @param mediaDirectory The media directory the files live in
+	 * @param files The files
+	 * @throws SeenDBException Thrown if their is a problem
+	 */
+	public void markAsSeen(File mediaDirectory,Collection<File> files) throws SeenDBException;
+
 	/**
 	 * Used to write the database to disc
 	 * @param parentMonitor Parent progress monitor
@@ -34,6 +34,7 @@ import org.stanwood.media.source.xbmc.XBMCUpdaterException;
 import org.stanwood.media.source.xbmc.updater.IConsole;
 import org.stanwood.media.store.IStore;
 import org.stanwood.media.store.StoreException;
+import org.stanwood.media.store.SynchronizedStore;
 import org.stanwood.media.util.FileHelper;
 
 /**
@@ -69,6 +70,7 @@ public class CLICopyStoreToStore extends AbstractLauncher {
 	private final static String FROM_STORE_OPTION = "f"; //$NON-NLS-1$
 
 	private static final List<Option> OPTIONS;
+	private final static ReversePatternSearchStrategy PART_SEARCH_STRATEGY = new ReversePatternSearchStrategy(Token.TITLE, false,true);
 
 	private MediaDirectory rootMediaDir = null;
 	private boolean xbmcUpdate = true;
@@ -187,8 +189,7 @@ public class CLICopyStoreToStore extends AbstractLauncher {
 			part = SearchHelper.extractPart(new StringBuilder(file.getName()));
 		}
 		if (part == null) {
-			ReversePatternSearchStrategy rp = new ReversePatternSearchStrategy(Token.TITLE, false,true);
-			SearchDetails result = rp.getSearch(file, rootMediaDir.getMediaDirConfig().getMediaDir(), rootMediaDir.getMediaDirConfig().getPattern(),rootMediaDir);
+			SearchDetails result = PART_SEARCH_STRATEGY.getSearch(file, rootMediaDir.getMediaDirConfig().getMediaDir(), rootMediaDir.getMediaDirConfig().getPattern(),rootMediaDir);
 			if (result!=null) {
 				part = result.getPart();
 			}
@@ -318,7 +319,7 @@ public class CLICopyStoreToStore extends AbstractLauncher {
 
 	private IStore findStoreById(String id) {
 		for (IStore store : rootMediaDir.getStores()) {
-			if (store.getClass().getName().equals(id)) {
+			if (SynchronizedStore.unwrap(store).getClass().getName().equals(id)) {
 				return store;
 			}
 		}
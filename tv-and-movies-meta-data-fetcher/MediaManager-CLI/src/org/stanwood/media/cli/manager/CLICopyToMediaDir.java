@@ -126,7 +126,7 @@ public class CLICopyToMediaDir extends AbstractLauncher {
 				try {
 					info(MessageFormat.format(Messages.getString("CLICopyToMediaDir.MOVING_FILE"),from)); //$NON-NLS-1$
 					File toFile =new File(rootMediaDir.getMediaDirConfig().getMediaDir(),from.getName());
-					FileHelper.move(from, toFile);
+					FileHelper.move(from, toFile,getController().getVerifyFileTransfers());
 					if (toFile.isDirectory()) {
 						for (File f : FileHelper.listFiles(toFile)) {
 							newFiles.add(f);
@@ -112,7 +112,7 @@ public class DBHelper {
 		Configuration configuration;
 		try {
 			configuration = getConfiguration(resource.getUrl(),
-					connectionUserName, connectionPassword,dialect,resource.getSchemaCheck());
+					connectionUserName, connectionPassword,dialect,resource.getSchemaCheck(),resource.getCacheSize());
 		} catch (XMLParserException e) {
 			throw new DatabaseException(Messages.getString("DBHelper.UnableConfigDb"), e); //$NON-NLS-1$
 		}
@@ -127,11 +127,12 @@ public class DBHelper {
 	 * @param password Password of the DB user
 	 * @param dialect The SQL dialect to used when talking to the database
 	 * @param schemaCheck The hibernate hbm2ddl.auto setting value
+	 * @param cacheSize The maximum number of entries in each second-level cache region, or 0 if it is not used
 	 * @return The Configuration
 	 * @throws XMLParserException Thrown if their is a problem
 	 */
 	private static Configuration getConfiguration(String url, String username,
-			String password, String dialect,SchemaCheck schemaCheck) throws XMLParserException {
+			String password, String dialect,SchemaCheck schemaCheck,int cacheSize) throws XMLParserException {
 		Document dom = XMLParser
 				.parse(DBHelper.class
 						.getResourceAsStream("hibernate.config.xml"), null); //$NON-NLS-1$
@@ -159,6 +160,22 @@ public class DBHelper {
 			node.setTextContent(schemaCheck.getValue());
 		}
 
+		if (cacheSize>0) {
+			// The shows and seasons are cached, along with the queries used to find them
+			Node node = XMLParser.selectSingleNode(element, "property[@name='hibernate.cache.use_second_level_cache']"); //$NON-NLS-1$
+			node.setTextContent("true"); //$NON-NLS-1$
+			node = XMLParser.selectSingleNode(element, "property[@name='hibernate.cache.use_query_cache']"); //$NON-NLS-1$
+			node.setTextContent("true"); //$NON-NLS-1$
+			propEl = dom.createElement("property"); //$NON-NLS-1$
+			propEl.setAttribute("name", "hibernate.cache.region.factory_class"); //$NON-NLS-1$ //$NON-NLS-2$
+			propEl.appendChild(dom.createTextNode(LRURegionFactory.class.getName()));
+			element.appendChild(propEl);
+			propEl = dom.createElement("property"); //$NON-NLS-1$
+			propEl.setAttribute("name", LRURegionFactory.PROP_MAX_ENTRIES); //$NON-NLS-1$
+			propEl.appendChild(dom.createTextNode(String.valueOf(cacheSize)));
+			element.appendChild(propEl);
+		}
+
 		Configuration configuration = new Configuration().configure(dom);
 		return configuration;
 	}
@@ -171,7 +188,7 @@ public class DBHelper {
 	 */
 	public String getSchema(String dialect) throws DatabaseException {
 		try {
-			Configuration config = getConfiguration("","","",dialect,SchemaCheck.NONE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			Configuration config = getConfiguration("","","",dialect,SchemaCheck.NONE,0); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			SchemaExport exporter = new SchemaExport(config);
 			exporter.setFormat(true);
 			File file = FileHelper.createTempFile("schema", ".sql");  //$NON-NLS-1$//$NON-NLS-2$
@@ -0,0 +1,447 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.database;
+
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.cache.CacheDataDescription;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.CollectionRegion;
+import org.hibernate.cache.EntityRegion;
+import org.hibernate.cache.QueryResultsRegion;
+import org.hibernate.cache.RegionFactory;
+import org.hibernate.cache.TimestampsRegion;
+import org.hibernate.cache.Timestamper;
+import org.hibernate.cache.access.AccessType;
+import org.hibernate.cache.access.CollectionRegionAccessStrategy;
+import org.hibernate.cache.access.EntityRegionAccessStrategy;
+import org.hibernate.cache.access.SoftLock;
+import org.hibernate.cfg.Settings;
+import org.stanwood.media.collections.LRUMapCache;
+
+/**
+ * <p>This is a hibernate second-level cache region factory that keeps the cached entities and
+ * queries in memory. Each cache region holds at most the number of entries given by the
+ * {@link #PROP_MAX_ENTRIES} property, the entries that were used last been removed when
+ * the region is full.</p>
+ * <p>The region that holds the times the tables were last updated is never trimmed, as
+ * the cached queries would not know when they are out of date. It only has a entry for
+ * each table.</p>
+ * <p>The entities and collections are cached using read-write access. While a entry is been
+ * changed it is locked, and values loaded from the database are not cached until it is
+ * unlocked and the transactions that started before it was unlocked are finished. The locks
+ * are kept apart from the cached entries so that they are never trimmed while a change is in
+ * progress. A lock is removed once a value is loaded after it, or a minute after it was
+ * unlocked.</p>
+ */
+public class LRURegionFactory implements RegionFactory {
+
+	/** The hibernate property used to set the maximum number of entries in each cache region */
+	public final static String PROP_MAX_ENTRIES = "hibernate.cache.lru_max_entries"; //$NON-NLS-1$
+	/** The maximum number of entries in each cache region if the property is not set */
+	public final static int DEFAULT_MAX_ENTRIES = 1000;
+
+	private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+	/**
+	 * The constructor
+	 * @param properties The hibernate properties
+	 */
+	public LRURegionFactory(Properties properties) {
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void start(Settings settings, Properties properties) throws CacheException {
+		String value = properties.getProperty(PROP_MAX_ENTRIES);
+		if (value!=null) {
+			try {
+				maxEntries = Integer.parseInt(value);
+			}
+			catch (NumberFormatException e) {
+				throw new CacheException(e);
+			}
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void stop() {
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean isMinimalPutsEnabledByDefault() {
+		return false;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public AccessType getDefaultAccessType() {
+		return AccessType.READ_WRITE;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public long nextTimestamp() {
+		return Timestamper.next();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public EntityRegion buildEntityRegion(String regionName, Properties properties, CacheDataDescription metadata) throws CacheException {
+		return new LRUEntityRegion(regionName,new LRUMapCache<Object,Object>(maxEntries),metadata);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public CollectionRegion buildCollectionRegion(String regionName, Properties properties, CacheDataDescription metadata) throws CacheException {
+		return new LRUCollectionRegion(regionName,new LRUMapCache<Object,Object>(maxEntries),metadata);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public QueryResultsRegion buildQueryResultsRegion(String regionName, Properties properties) throws CacheException {
+		return new LRUGeneralRegion(regionName,new LRUMapCache<Object,Object>(maxEntries));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public TimestampsRegion buildTimestampsRegion(String regionName, Properties properties) throws CacheException {
+		return new LRUGeneralRegion(regionName,new HashMap<Object,Object>());
+	}
+
+	private static void checkAccessType(AccessType accessType) throws CacheException {
+		if (accessType.equals(AccessType.TRANSACTIONAL)) {
+			throw new CacheException(MessageFormat.format(Messages.getString("LRURegionFactory.UnsupportedAccessType"),accessType.getName())); //$NON-NLS-1$
+		}
+	}
+
+	private static class LRURegion {
+
+		private final String regionName;
+		private final Map<Object,Object> entries;
+
+		public LRURegion(String regionName,Map<Object,Object> entries) {
+			this.regionName = regionName;
+			this.entries = entries;
+		}
+
+		public String getName() {
+			return regionName;
+		}
+
+		public synchronized Object get(Object key) throws CacheException {
+			return entries.get(key);
+		}
+
+		public synchronized void put(Object key, Object value) throws CacheException {
+			entries.put(key, value);
+		}
+
+		public synchronized void evict(Object key) throws CacheException {
+			entries.remove(key);
+		}
+
+		public synchronized void evictAll() throws CacheException {
+			entries.clear();
+		}
+
+		public void destroy() throws CacheException {
+			evictAll();
+		}
+
+		public synchronized boolean contains(Object key) {
+			return entries.containsKey(key);
+		}
+
+		public long getSizeInMemory() {
+			return -1;
+		}
+
+		public synchronized long getElementCountInMemory() {
+			return entries.size();
+		}
+
+		public long getElementCountOnDisk() {
+			return 0;
+		}
+
+		@SuppressWarnings("rawtypes")
+		public synchronized Map toMap() {
+			return new HashMap<Object,Object>(entries);
+		}
+
+		public long nextTimestamp() {
+			return Timestamper.next();
+		}
+
+		public int getTimeout() {
+			// One minute, in the units used by the timestamps
+			return Timestamper.ONE_MS * 60000;
+		}
+	}
+
+	private static class LRUGeneralRegion extends LRURegion implements QueryResultsRegion, TimestampsRegion {
+
+		public LRUGeneralRegion(String regionName,Map<Object,Object> entries) {
+			super(regionName,entries);
+		}
+	}
+
+	private static class LRUTransactionalRegion extends LRURegion {
+
+		private final CacheDataDescription metadata;
+		private final Map<Object,Lock> locks = new HashMap<Object,Lock>();
+
+		public LRUTransactionalRegion(String regionName,Map<Object,Object> entries,CacheDataDescription metadata) {
+			super(regionName,entries);
+			this.metadata = metadata;
+		}
+
+		public boolean isTransactionAware() {
+			return false;
+		}
+
+		public CacheDataDescription getCacheDataDescription() {
+			return metadata;
+		}
+
+		public synchronized Lock getLock(Object key) {
+			return locks.get(key);
+		}
+
+		public synchronized void putLock(Object key,Lock lock) {
+			locks.put(key, lock);
+		}
+
+		public synchronized void removeLock(Object key) {
+			locks.remove(key);
+		}
+
+		/**
+		 * Used to remove the locks that were unlocked longer ago than the timeout
+		 */
+		public synchronized void purgeLocks() {
+			long expired = nextTimestamp()-getTimeout();
+			Iterator<Lock> it = locks.values().iterator();
+			while (it.hasNext()) {
+				Lock lock = it.next();
+				if (lock.count==0 && lock.unlockTime<expired) {
+					it.remove();
+				}
+			}
+		}
+
+		@Override
+		public synchronized void destroy() throws CacheException {
+			super.destroy();
+			locks.clear();
+		}
+	}
+
+	private static class LRUEntityRegion extends LRUTransactionalRegion implements EntityRegion {
+
+		public LRUEntityRegion(String regionName,Map<Object,Object> entries,CacheDataDescription metadata) {
+			super(regionName,entries,metadata);
+		}
+
+		@Override
+		public EntityRegionAccessStrategy buildAccessStrategy(AccessType accessType) throws CacheException {
+			checkAccessType(accessType);
+			return new EntityAccessStrategy(this);
+		}
+	}
+
+	private static class LRUCollectionRegion extends LRUTransactionalRegion implements CollectionRegion {
+
+		public LRUCollectionRegion(String regionName,Map<Object,Object> entries,CacheDataDescription metadata) {
+			super(regionName,entries,metadata);
+		}
+
+		@Override
+		public CollectionRegionAccessStrategy buildAccessStrategy(AccessType accessType) throws CacheException {
+			checkAccessType(accessType);
+			return new CollectionAccessStrategy(this);
+		}
+	}
+
+	/**
+	 * This is stored against a entry while it is been changed
+	 */
+	private static class Lock implements SoftLock {
+		private int count = 1;
+		private long unlockTime = -1;
+	}
+
+	private static class ReadWriteAccessStrategy {
+
+		protected final LRUTransactionalRegion region;
+
+		public ReadWriteAccessStrategy(LRUTransactionalRegion region) {
+			this.region = region;
+		}
+
+		public Object get(Object key, long txTimestamp) throws CacheException {
+			synchronized (region) {
+				Lock lock = region.getLock(key);
+				if (lock!=null && lock.count>0) {
+					return null;
+				}
+				return region.get(key);
+			}
+		}
+
+		public boolean putFromLoad(Object key, Object value, long txTimestamp, Object version) throws CacheException {
+			return putFromLoad(key, value, txTimestamp, version, false);
+		}
+
+		public boolean putFromLoad(Object key, Object value, long txTimestamp, Object version, boolean minimalPutOverride) throws CacheException {
+			synchronized (region) {
+				Lock lock = region.getLock(key);
+				if (lock!=null) {
+					if (lock.count>0 || txTimestamp<=lock.unlockTime) {
+						return false;
+					}
+					region.removeLock(key);
+				}
+				else if (minimalPutOverride && region.contains(key)) {
+					return false;
+				}
+				region.put(key, value);
+				return true;
+			}
+		}
+
+		public SoftLock lockItem(Object key, Object version) throws CacheException {
+			synchronized (region) {
+				Lock lock = region.getLock(key);
+				if (lock==null) {
+					lock = new Lock();
+					region.putLock(key, lock);
+				}
+				else {
+					lock.count++;
+				}
+				region.evict(key);
+				return lock;
+			}
+		}
+
+		public SoftLock lockRegion() throws CacheException {
+			region.evictAll();
+			return null;
+		}
+
+		public void unlockItem(Object key, SoftLock lock) throws CacheException {
+			synchronized (region) {
+				Lock currentLock = region.getLock(key);
+				if (currentLock!=null) {
+					if (currentLock.count>0) {
+						currentLock.count--;
+					}
+					currentLock.unlockTime = region.nextTimestamp();
+				}
+				region.purgeLocks();
+			}
+		}
+
+		public void unlockRegion(SoftLock lock) throws CacheException {
+			region.evictAll();
+		}
+
+		public void remove(Object key) throws CacheException {
+			// The entry is locked while it is removed
+		}
+
+		public void removeAll() throws CacheException {
+			region.evictAll();
+		}
+
+		public void evict(Object key) throws CacheException {
+			region.evict(key);
+		}
+
+		public void evictAll() throws CacheException {
+			region.evictAll();
+		}
+	}
+
+	private static class EntityAccessStrategy extends ReadWriteAccessStrategy implements EntityRegionAccessStrategy {
+
+		public EntityAccessStrategy(LRUEntityRegion region) {
+			super(region);
+		}
+
+		@Override
+		public EntityRegion getRegion() {
+			return (EntityRegion)region;
+		}
+
+		@Override
+		public boolean insert(Object key, Object value, Object version) throws CacheException {
+			return false;
+		}
+
+		@Override
+		public boolean afterInsert(Object key, Object value, Object version) throws CacheException {
+			synchronized (region) {
+				if (region.getLock(key)!=null || region.contains(key)) {
+					return false;
+				}
+				region.put(key, value);
+				return true;
+			}
+		}
+
+		@Override
+		public boolean update(Object key, Object value, Object currentVersion, Object previousVersion) throws CacheException {
+			return false;
+		}
+
+		@Override
+		public boolean afterUpdate(Object key, Object value, Object currentVersion, Object previousVersion, SoftLock lock)
+				throws CacheException {
+			synchronized (region) {
+				Lock current = region.getLock(key);
+				boolean cached = false;
+				if (current==lock && current.count==1) {
+					region.put(key, value);
+					cached = true;
+				}
+				unlockItem(key, lock);
+				return cached;
+			}
+		}
+	}
+
+	private static class CollectionAccessStrategy extends ReadWriteAccessStrategy implements CollectionRegionAccessStrategy {
+
+		public CollectionAccessStrategy(LRUCollectionRegion region) {
+			super(region);
+		}
+
+		@Override
+		public CollectionRegion getRegion() {
+			return (CollectionRegion)region;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.info;
+
+import java.io.File;
+
+import org.stanwood.media.logging.StanwoodException;
+
+/**
+ * This is used to pass the information of a media file to code that may not need it. The
+ * information is only read, which can mean running the mediainfo command, the first time
+ * {@link #get()} is called.
+ */
+public class LazyMediaFileInfo {
+
+	private final MediaFileInfoFetcher fetcher;
+	private final File file;
+	private boolean fetched = false;
+	private IMediaFileInfo info;
+
+	LazyMediaFileInfo(MediaFileInfoFetcher fetcher,File file) {
+		this.fetcher = fetcher;
+		this.file = file;
+	}
+
+	/**
+	 * Used to get the media file
+	 * @return The media file
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Used to get the information on the media file. It is read the first time this is called.
+	 * @return The information object, or null if it could not be read. If this is a video
+	 *         file then it will be of type {@link IVideoFileInfo}.
+	 * @throws StanwoodException Thrown if their are any problems
+	 */
+	public synchronized IMediaFileInfo get() throws StanwoodException {
+		if (!fetched) {
+			info = fetcher.getInformation(file);
+			fetched = true;
+			fetcher.lazyInformationFetched();
+		}
+		return info;
+	}
+
+	/**
+	 * Used to find out if the information has been read
+	 * @return True if the information has been read
+	 */
+	public synchronized boolean isFetched() {
+		return fetched;
+	}
+}
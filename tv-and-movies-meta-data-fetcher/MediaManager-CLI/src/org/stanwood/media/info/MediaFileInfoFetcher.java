@@ -21,6 +21,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.text.MessageFormat;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecutor;
@@ -29,7 +30,6 @@ import org.apache.commons.exec.PumpStreamHandler;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.log4j.Level;
-import org.stanwood.media.collections.LRUMapCache;
 import org.stanwood.media.logging.LoggerOutputStream;
 import org.stanwood.media.logging.StanwoodException;
 import org.stanwood.media.util.FileHelper;
@@ -48,27 +48,52 @@ public class MediaFileInfoFetcher {
 	private final static Log log = LogFactory.getLog(MediaFileInfoFetcher.class);
 
 	private String mediaInfoCmdPath;
+	/** Null until the mediainfo command has been checked, then true if it can be executed */
+	private Boolean mediaInfoFound;
 
-	private LRUMapCache<File,IMediaFileInfo> infoCache;
+	private MediaInfoCache infoCache;
 
+	private final AtomicLong lazyRequests = new AtomicLong();
+	private final AtomicLong lazyFetches = new AtomicLong();
 
 	/**
-	 * The constructor
+	 * The constructor. The media information is only cached in memory. The native
+	 * apps are not checked until they are first needed.
 	 * @param nativeDir The native application directory
 	 * @throws StanwoodException Thrown if their is a problem finding the native apps
 	 */
 	public MediaFileInfoFetcher(File nativeDir) throws StanwoodException {
+		this(nativeDir,new MediaInfoCache(null,false));
+	}
+
+	/**
+	 * The constructor. The native apps are not checked until they are first needed, so
+	 * that a process is not started each time the application starts.
+	 * @param nativeDir The native application directory
+	 * @param infoCache The cache used to store the media information of files, so that
+	 *                  mediainfo is not run again on files that have not changed
+	 * @throws StanwoodException Thrown if their is a problem finding the native apps
+	 */
+	public MediaFileInfoFetcher(File nativeDir,MediaInfoCache infoCache) throws StanwoodException {
 		mediaInfoCmdPath = NativeHelper.getNativeApplication(nativeDir,"mediainfo"); //$NON-NLS-1$
-		boolean errors = false;
-		if (!checkCommand(mediaInfoCmdPath)) {
-			log.error(MessageFormat.format(Messages.getString("MediaFileInfoFetcher.UNABLE_EXEC_COMMAND"),mediaInfoCmdPath)); //$NON-NLS-1$
-			errors = true;
+		this.infoCache = infoCache;
+	}
+
+	/**
+	 * Check the mediainfo command can be executed the first time it's needed. The result
+	 * is remembered, so the command is only checked once.
+	 * @throws StanwoodException Thrown if the command can't be executed
+	 */
+	private synchronized void checkMediaInfo() throws StanwoodException {
+		if (mediaInfoFound==null) {
+			mediaInfoFound = checkCommand(mediaInfoCmdPath);
+			if (!mediaInfoFound) {
+				log.error(MessageFormat.format(Messages.getString("MediaFileInfoFetcher.UNABLE_EXEC_COMMAND"),mediaInfoCmdPath)); //$NON-NLS-1$
+			}
 		}
-		if (errors) {
+		if (!mediaInfoFound) {
 			throw new StanwoodException(Messages.getString("MediaFileInfoFetcher.RequiredCommandNotFound")); //$NON-NLS-1$
 		}
-
-		infoCache = new LRUMapCache<File,IMediaFileInfo>(100);
 	}
 
 	/**
@@ -81,6 +106,7 @@ public class MediaFileInfoFetcher {
 	public IMediaFileInfo getInformation(File file) throws StanwoodException {
 		IMediaFileInfo info = infoCache.get(file);
 		if (info==null) {
+			checkMediaInfo();
 			try {
 				File infoFile = FileHelper.createTempFile("output", ".xml"); //$NON-NLS-1$ //$NON-NLS-2$
 				if (!infoFile.delete() && infoFile.exists()) {
@@ -113,6 +139,30 @@ public class MediaFileInfoFetcher {
 		return info;
 	}
 
+	/**
+	 * Used to get the information on a media file only if it is needed. The information is
+	 * not read until {@link LazyMediaFileInfo#get()} is called.
+	 * @param file The media file
+	 * @return The lazy information object
+	 */
+	public LazyMediaFileInfo getLazyInformation(File file) {
+		lazyRequests.incrementAndGet();
+		return new LazyMediaFileInfo(this,file);
+	}
+
+	void lazyInformationFetched() {
+		lazyFetches.incrementAndGet();
+	}
+
+	/**
+	 * Used to get the number of lazy information requests whose information has not been
+	 * needed, so the file was not probed
+	 * @return The number of probes avoided
+	 */
+	public long getAvoidedProbeCount() {
+		return lazyRequests.get()-lazyFetches.get();
+	}
+
 	private boolean checkCommand(String cmd) {
 		try {
 			boolean capture = !log.isDebugEnabled();
@@ -0,0 +1,353 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.info;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * This is used to cache the media information of files, so that the information does not
+ * need to be read again when the file has not changed. The information is keyed on the
+ * path of the file, and is only used if the size and last modified time of the file still
+ * match. If content hashing is enabled, then a hash of the start and end of the file must
+ * also match.
+ *
+ * If a cache file is given, then the information is stored in it in a compact binary form.
+ * The file is not read until the cache is first used. New entries are appended to the file
+ * as they are added, and the file is rewritten once it contains too many out of date entries.
+ * Entries of files that have been removed or changed are dropped when the file is rewritten.
+ */
+public class MediaInfoCache {
+
+	private final static Log log = LogFactory.getLog(MediaInfoCache.class);
+
+	private final static int FILE_VERSION = 1;
+	private final static int HASH_BLOCK_SIZE = 64*1024;
+	private final static int MIN_COMPACT_RECORDS = 100;
+	private final static byte TYPE_MEDIA = 0;
+	private final static byte TYPE_VIDEO = 1;
+
+	private final File cacheFile;
+	private final boolean hashContent;
+	private Map<String,Entry> entries;
+	private int records;
+
+	/**
+	 * The constructor
+	 * @param cacheFile The file used to store the cache, or null if the cache is only held in memory
+	 * @param hashContent If true, then a hash of part of the files contents is also used to check
+	 *                    that the file has not changed
+	 */
+	public MediaInfoCache(File cacheFile,boolean hashContent) {
+		this.cacheFile = cacheFile;
+		this.hashContent = hashContent;
+	}
+
+	/**
+	 * Used to get the cached information for a file
+	 * @param file The media file
+	 * @return The information, or null if it is not cached or the file has changed
+	 */
+	public synchronized IMediaFileInfo get(File file) {
+		load();
+		Entry entry = entries.get(file.getAbsolutePath());
+		if (entry==null || entry.size!=file.length() || entry.lastModified!=file.lastModified()) {
+			return null;
+		}
+		if (hashContent && (entry.hash==null || !entry.hash.equals(hash(file)))) {
+			return null;
+		}
+		return entry.info;
+	}
+
+	/**
+	 * Used to add the information of a file to the cache
+	 * @param file The media file
+	 * @param info The information about the file
+	 */
+	public synchronized void put(File file,IMediaFileInfo info) {
+		load();
+		Entry entry = new Entry();
+		entry.path = file.getAbsolutePath();
+		entry.size = file.length();
+		entry.lastModified = file.lastModified();
+		if (hashContent) {
+			entry.hash = hash(file);
+		}
+		entry.info = info;
+		entries.put(entry.path, entry);
+		if (cacheFile!=null) {
+			append(entry);
+		}
+	}
+
+	private void load() {
+		if (entries!=null) {
+			return;
+		}
+		entries = new HashMap<String,Entry>();
+		records = 0;
+		if (cacheFile==null || !cacheFile.exists()) {
+			return;
+		}
+		boolean compact = false;
+		DataInputStream is = null;
+		try {
+			is = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+			if (is.readInt()!=FILE_VERSION) {
+				compact = true;
+			}
+			else {
+				while (true) {
+					is.mark(1);
+					if (is.read()==-1) {
+						break;
+					}
+					is.reset();
+					Entry entry = readEntry(is);
+					entries.put(entry.path, entry);
+					records++;
+				}
+			}
+		}
+		catch (IOException e) {
+			// A entry that was only partly written, the file will be rewritten without it
+			log.warn(MessageFormat.format(Messages.getString("MediaInfoCache.UnableReadCache"),cacheFile),e); //$NON-NLS-1$
+			compact = true;
+		}
+		finally {
+			close(is);
+		}
+		if (compact || records>Math.max(MIN_COMPACT_RECORDS, entries.size()*2)) {
+			compact();
+		}
+	}
+
+	private void append(Entry entry) {
+		DataOutputStream os = null;
+		try {
+			boolean exists = cacheFile.exists();
+			os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(cacheFile,true)));
+			if (!exists) {
+				os.writeInt(FILE_VERSION);
+			}
+			writeEntry(os, entry);
+			os.flush();
+			records++;
+		}
+		catch (IOException e) {
+			log.error(MessageFormat.format(Messages.getString("MediaInfoCache.UnableWriteCache"),cacheFile),e); //$NON-NLS-1$
+		}
+		finally {
+			close(os);
+		}
+	}
+
+	private void compact() {
+		if (log.isDebugEnabled()) {
+			log.debug("Compacting media information cache with "+records+" records and "+entries.size()+" entries"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		File tmpFile = new File(cacheFile.getParentFile(),cacheFile.getName()+".tmp"); //$NON-NLS-1$
+		DataOutputStream os = null;
+		try {
+			os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+			os.writeInt(FILE_VERSION);
+			Iterator<Entry> it = entries.values().iterator();
+			while (it.hasNext()) {
+				Entry entry = it.next();
+				// Files that have been removed or changed since they were cached are left out
+				File file = new File(entry.path);
+				if (!file.exists() || entry.size!=file.length() || entry.lastModified!=file.lastModified()) {
+					it.remove();
+				}
+				else {
+					writeEntry(os, entry);
+				}
+			}
+			os.close();
+			os = null;
+			if ((!cacheFile.delete() && cacheFile.exists()) || !tmpFile.renameTo(cacheFile)) {
+				throw new IOException(MessageFormat.format(Messages.getString("MediaInfoCache.UnableReplaceCache"),cacheFile)); //$NON-NLS-1$
+			}
+			records = entries.size();
+		}
+		catch (IOException e) {
+			log.error(MessageFormat.format(Messages.getString("MediaInfoCache.UnableWriteCache"),cacheFile),e); //$NON-NLS-1$
+		}
+		finally {
+			close(os);
+			if (tmpFile.exists() && !tmpFile.delete()) {
+				log.error(MessageFormat.format(Messages.getString("MediaFileInfoFetcher.UnableDeleteFile"),tmpFile)); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private Entry readEntry(DataInputStream is) throws IOException {
+		Entry entry = new Entry();
+		entry.path = is.readUTF();
+		entry.size = is.readLong();
+		entry.lastModified = is.readLong();
+		entry.hash = readString(is);
+		byte type = is.readByte();
+		if (type==TYPE_VIDEO) {
+			Integer width = is.readBoolean() ? is.readInt() : null;
+			Integer height = is.readBoolean() ? is.readInt() : null;
+			Float frameRate = is.readBoolean() ? is.readFloat() : null;
+			AspectRatio aspectRatio;
+			try {
+				aspectRatio = AspectRatio.valueOf(is.readUTF());
+			}
+			catch (IllegalArgumentException e) {
+				aspectRatio = AspectRatio.Unknown;
+			}
+			boolean interlaced = is.readBoolean();
+			String audioFormatProfile = readString(is);
+			Long audioBitRate = is.readBoolean() ? is.readLong() : null;
+			entry.info = new VideoFileInfo(entry.size, width, height, frameRate, aspectRatio, interlaced, audioFormatProfile, audioBitRate);
+		}
+		else if (type==TYPE_MEDIA) {
+			entry.info = new MediaFileInfo(entry.size);
+		}
+		else {
+			throw new IOException(MessageFormat.format(Messages.getString("MediaInfoCache.UnknownEntryType"),type)); //$NON-NLS-1$
+		}
+		return entry;
+	}
+
+	private void writeEntry(DataOutputStream os,Entry entry) throws IOException {
+		os.writeUTF(entry.path);
+		os.writeLong(entry.size);
+		os.writeLong(entry.lastModified);
+		writeString(os,entry.hash);
+		if (entry.info instanceof VideoFileInfo) {
+			VideoFileInfo info = (VideoFileInfo) entry.info;
+			os.writeByte(TYPE_VIDEO);
+			os.writeBoolean(info.getWidthValue()!=null);
+			if (info.getWidthValue()!=null) {
+				os.writeInt(info.getWidthValue());
+			}
+			os.writeBoolean(info.getHeightValue()!=null);
+			if (info.getHeightValue()!=null) {
+				os.writeInt(info.getHeightValue());
+			}
+			os.writeBoolean(info.getFrameRate()!=null);
+			if (info.getFrameRate()!=null) {
+				os.writeFloat(info.getFrameRate());
+			}
+			os.writeUTF(info.getAspectRatio()==null ? AspectRatio.Unknown.name() : info.getAspectRatio().name());
+			os.writeBoolean(info.isInterlaced());
+			writeString(os,info.getAudioFormatProfile());
+			os.writeBoolean(info.getAudioBitRate()!=null);
+			if (info.getAudioBitRate()!=null) {
+				os.writeLong(info.getAudioBitRate());
+			}
+		}
+		else {
+			os.writeByte(TYPE_MEDIA);
+		}
+	}
+
+	private static String readString(DataInputStream is) throws IOException {
+		if (is.readBoolean()) {
+			return is.readUTF();
+		}
+		return null;
+	}
+
+	private static void writeString(DataOutputStream os,String value) throws IOException {
+		os.writeBoolean(value!=null);
+		if (value!=null) {
+			os.writeUTF(value);
+		}
+	}
+
+	/**
+	 * Hash the first and last blocks of the file. This is enough to notice most changes
+	 * to a media file without reading the whole file.
+	 */
+	private static String hash(File file) {
+		RandomAccessFile raf = null;
+		try {
+			MessageDigest digest = MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+			raf = new RandomAccessFile(file,"r"); //$NON-NLS-1$
+			byte buffer[] = new byte[HASH_BLOCK_SIZE];
+			int read = raf.read(buffer);
+			if (read>0) {
+				digest.update(buffer,0,read);
+			}
+			if (raf.length()>HASH_BLOCK_SIZE) {
+				raf.seek(Math.max(HASH_BLOCK_SIZE, raf.length()-HASH_BLOCK_SIZE));
+				read = raf.read(buffer);
+				if (read>0) {
+					digest.update(buffer,0,read);
+				}
+			}
+			StringBuilder result = new StringBuilder();
+			for (byte b : digest.digest()) {
+				result.append(Integer.toHexString((b & 0xff) | 0x100).substring(1));
+			}
+			return result.toString();
+		}
+		catch (IOException e) {
+			log.error(MessageFormat.format(Messages.getString("MediaInfoCache.UnableHashFile"),file),e); //$NON-NLS-1$
+			return null;
+		}
+		catch (NoSuchAlgorithmException e) {
+			log.error(e.getMessage(),e);
+			return null;
+		}
+		finally {
+			close(raf);
+		}
+	}
+
+	private static void close(Closeable c) {
+		if (c!=null) {
+			try {
+				c.close();
+			}
+			catch (IOException e) {
+				log.error(e.getMessage(),e);
+			}
+		}
+	}
+
+	private static class Entry {
+		private String path;
+		private long size;
+		private long lastModified;
+		private String hash;
+		private IMediaFileInfo info;
+	}
+}
@@ -34,17 +34,12 @@ public class MediaInfoFactory {
 	 * @return The file information
 	 * @throws StanwoodException Thrown if their are any problems
 	 */
-	public static IMediaFileInfo createMediaInfo(final File mediaFile,Document document) throws StanwoodException {
+	public static IMediaFileInfo createMediaInfo(File mediaFile,Document document) throws StanwoodException {
 		if (XMLParser.hasNode(document, "Mediainfo/File/track[@type='Video']")) { //$NON-NLS-1$
 			VideoInfoParser parser = new VideoInfoParser(document);
 			return new VideoFileInfo(mediaFile,parser);
 		}
-		return new IMediaFileInfo() {
-			@Override
-			public long getFileSize() {
-				return mediaFile.length();
-			}
-		};
+		return new MediaFileInfo(mediaFile.length());
 	}
 
 }
@@ -40,17 +40,43 @@ public class VideoFileInfo implements IVideoFileInfo {
 	 * @throws XMLParserException Thrown if their their is a XML parser problem
 	 */
 	public VideoFileInfo(File mediaFile, VideoInfoParser parser) throws XMLParserException {
-		height = parser.getHeight();
-		width = parser.getWidth();
-		size = mediaFile.length();
-		frameRate = parser.getFrameRate();
-		aspectRatio = AspectRatio.fromString(parser.getAspectRatio());
-		interlaced = parser.getInterlaced();
+		this(mediaFile.length(),parser.getWidth(),parser.getHeight(),parser.getFrameRate(),
+			 AspectRatio.fromString(parser.getAspectRatio()),parser.getInterlaced(),
+			 parser.getAudioFormatProfile(),parser.getAudioBitRate());
+	}
+
+	/**
+	 * The constructor used to create the information from values that have already been
+	 * read, such as those held by the {@link MediaInfoCache}.
+	 * @param size The size of the file
+	 * @param width The width in pixels, or null if not known
+	 * @param height The height in pixels, or null if not known
+	 * @param frameRate The frame rate, or null if not known
+	 * @param aspectRatio The display aspect ratio
+	 * @param interlaced True if the video is interlaced
+	 * @param audioFormatProfile The audio format profile, or null if not known
+	 * @param audioBitRate The audio bit rate, or null if not known
+	 */
+	VideoFileInfo(long size,Integer width,Integer height,Float frameRate,AspectRatio aspectRatio,boolean interlaced,String audioFormatProfile,Long audioBitRate) {
+		this.size = size;
+		this.width = width;
+		this.height = height;
+		this.frameRate = frameRate;
+		this.aspectRatio = aspectRatio;
+		this.interlaced = interlaced;
 		if (width!=null && height!=null) {
 			resolutionFormat = ResolutionFormat.getFormat(width, height, interlaced);
 		}
-		audioFormatProfile = parser.getAudioFormatProfile();
-		audioBitRate = parser.getAudioBitRate();
+		this.audioFormatProfile = audioFormatProfile;
+		this.audioBitRate = audioBitRate;
+	}
+
+	Integer getWidthValue() {
+		return width;
+	}
+
+	Integer getHeightValue() {
+		return height;
 	}
 
 	/** {@inheritDoc} */
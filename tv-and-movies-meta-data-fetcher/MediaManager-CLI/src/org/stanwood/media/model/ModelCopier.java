@@ -0,0 +1,203 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is used to take copies of the media details. The copies are plain model objects
+ * that share no state with the objects they were copied from, so they can be used
+ * after the store that created the original has moved on, for example when the store
+ * is shared by more than one thread or clears it's session.
+ */
+public final class ModelCopier {
+
+	private ModelCopier() {
+	}
+
+	/**
+	 * Used to copy the details of a show
+	 * @param show The show to copy, can be null
+	 * @return The copy, or null if the show was null
+	 */
+	public static IShow copyShow(IShow show) {
+		if (show==null) {
+			return null;
+		}
+		Show copy = new Show(show.getShowId());
+		copy.setSourceId(show.getSourceId());
+		copy.setName(show.getName());
+		copy.setLongSummary(show.getLongSummary());
+		copy.setShortSummary(show.getShortSummary());
+		copy.setShowURL(show.getShowURL());
+		copy.setImageURL(show.getImageURL());
+		copy.setStudio(show.getStudio());
+		copy.setGenres(copyList(show.getGenres()));
+		copy.setPreferredGenre(show.getPreferredGenre());
+		copy.setCertifications(copyCertifications(show.getCertifications()));
+		if (show.getExtraInfo()!=null) {
+			copy.setExtraInfo(new HashMap<String,String>(show.getExtraInfo()));
+		}
+		return copy;
+	}
+
+	/**
+	 * Used to copy the details of a season and the show it belongs too
+	 * @param season The season to copy, can be null
+	 * @return The copy, or null if the season was null
+	 */
+	public static ISeason copySeason(ISeason season) {
+		if (season==null) {
+			return null;
+		}
+		return copySeason(season,new IdentityHashMap<Object,Object>());
+	}
+
+	/**
+	 * Used to copy the details of a episode and the season and show it belongs too
+	 * @param episode The episode to copy, can be null
+	 * @return The copy, or null if the episode was null
+	 */
+	public static IEpisode copyEpisode(IEpisode episode) {
+		if (episode==null) {
+			return null;
+		}
+		return copyEpisode(episode,new IdentityHashMap<Object,Object>());
+	}
+
+	/**
+	 * Used to copy the details of a film
+	 * @param film The film to copy, can be null
+	 * @return The copy, or null if the film was null
+	 */
+	public static IFilm copyFilm(IFilm film) {
+		if (film==null) {
+			return null;
+		}
+		Film copy = new Film(film.getId(),film.getFilmUrl());
+		copy.setSourceId(film.getSourceId());
+		copy.setTitle(film.getTitle());
+		copy.setSummary(film.getSummary());
+		copy.setDescription(film.getDescription());
+		copy.setDate(film.getDate());
+		copy.setImageURL(film.getImageURL());
+		copy.setCountry(film.getCountry());
+		copy.setStudio(film.getStudio());
+		copy.setRating(copyRating(film.getRating()));
+		copy.setGenres(copyList(film.getGenres()));
+		copy.setPreferredGenre(film.getPreferredGenre());
+		copy.setDirectors(copyList(film.getDirectors()));
+		copy.setWriters(copyList(film.getWriters()));
+		copy.setActors(copyActors(film.getActors()));
+		copy.setCertifications(copyCertifications(film.getCertifications()));
+		if (film.getChapters()!=null) {
+			List<Chapter> chapters = new ArrayList<Chapter>();
+			for (Chapter chapter : film.getChapters()) {
+				chapters.add(new Chapter(chapter.getName(),chapter.getNumber()));
+			}
+			copy.setChapters(chapters);
+		}
+		copyFiles(film.getFiles(),copy);
+		return copy;
+	}
+
+	private static ISeason copySeason(ISeason season,Map<Object,Object> copies) {
+		ISeason copy = (ISeason) copies.get(season);
+		if (copy==null) {
+			IShow show = (IShow) copies.get(season.getShow());
+			if (show==null && season.getShow()!=null) {
+				show = copyShow(season.getShow());
+				copies.put(season.getShow(),show);
+			}
+			copy = new Season(show,season.getSeasonNumber());
+			copy.setURL(season.getURL());
+			copies.put(season,copy);
+		}
+		return copy;
+	}
+
+	private static IEpisode copyEpisode(IEpisode episode,Map<Object,Object> copies) {
+		ISeason season = null;
+		if (episode.getSeason()!=null) {
+			season = copySeason(episode.getSeason(),copies);
+		}
+		Episode copy = new Episode(episode.getEpisodeNumber(),season,episode.isSpecial());
+		copy.setEpisodes(copyList(episode.getEpisodes()));
+		copy.setEpisodeId(episode.getEpisodeId());
+		copy.setTitle(episode.getTitle());
+		copy.setSummary(episode.getSummary());
+		copy.setDate(episode.getDate());
+		copy.setUrl(episode.getUrl());
+		copy.setImageURL(episode.getImageURL());
+		copy.setRating(copyRating(episode.getRating()));
+		copy.setDirectors(copyList(episode.getDirectors()));
+		copy.setWriters(copyList(episode.getWriters()));
+		copy.setActors(copyActors(episode.getActors()));
+		copyFiles(episode.getFiles(),copy);
+		return copy;
+	}
+
+	private static void copyFiles(List<VideoFile> files,IVideo copy) {
+		if (files==null) {
+			copy.setFiles(null);
+			return;
+		}
+		for (VideoFile file : files) {
+			copy.getFiles().add(new VideoFile(file.getLocation(),file.getOrginalLocation(),file.getPart(),file.getMediaDirectory()));
+		}
+	}
+
+	private static <T> List<T> copyList(List<T> list) {
+		if (list==null) {
+			return null;
+		}
+		return new ArrayList<T>(list);
+	}
+
+	private static List<Actor> copyActors(List<Actor> actors) {
+		if (actors==null) {
+			return null;
+		}
+		List<Actor> copy = new ArrayList<Actor>();
+		for (Actor actor : actors) {
+			copy.add(new Actor(actor.getName(),actor.getRole()));
+		}
+		return copy;
+	}
+
+	private static List<Certification> copyCertifications(List<Certification> certifications) {
+		if (certifications==null) {
+			return null;
+		}
+		List<Certification> copy = new ArrayList<Certification>();
+		for (Certification certification : certifications) {
+			copy.add(new Certification(certification.getCertification(),certification.getType()));
+		}
+		return copy;
+	}
+
+	private static Rating copyRating(Rating rating) {
+		if (rating==null) {
+			return null;
+		}
+		return new Rating(rating.getRating(),rating.getNumberOfVotes());
+	}
+}
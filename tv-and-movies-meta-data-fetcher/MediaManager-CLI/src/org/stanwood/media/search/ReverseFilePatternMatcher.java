@@ -1,18 +1,16 @@
 package org.stanwood.media.search;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import org.stanwood.media.actions.rename.RenamePattern;
 import org.stanwood.media.actions.rename.Token;
 
 /**
  * This class provides methods that will take a file path and a search pattern, then
  * parse the file path using the pattern. This is used to find the value of the tokens
- * in the pattern when applyed to the file path.
+ * in the pattern when applyed to the file path. The patterns are compiled once by
+ * {@link RenamePattern#compile(String)}.
  */
 public class ReverseFilePatternMatcher {
 
@@ -25,52 +23,10 @@ public class ReverseFilePatternMatcher {
 	 * @param pattern The rename pattern
 	 */
 	public void parse(String path,String pattern) {
-		List<Character> tokens = new ArrayList<Character>();
-		StringBuilder regexp = new StringBuilder();
-		int i=0;
-		while (i<pattern.length()) {
-			char c = pattern.charAt(i);
-			if (c=='{') {
-				regexp.append("(?:"); //$NON-NLS-1$
-			}
-			else if (c=='}') {
-				regexp.append(")?"); //$NON-NLS-1$
-			}
-			else if (c=='%') {
-				i++;
-				Token token = Token.fromToken(pattern.charAt(i));
-				if (token == Token.PERCENT) {
-					regexp.append("%"); //$NON-NLS-1$
-				}
-				else {
-					tokens.add(token.getToken());
-					regexp.append(token.getPattern());
-				}
-			}
-			else {
-				if (c=='.' || c=='$' || c=='?' || c=='^' || c=='|' || c=='(' || c==')' || c=='\\') {
-					regexp.append("\\"+c); //$NON-NLS-1$
-				}
-				else {
-					regexp.append(c);
-				}
-			}
-			i++;
+		Map<Token,String> matched = RenamePattern.compile(pattern).match(path);
+		if (matched!=null) {
+			this.values = matched;
 		}
-		matchPattern(path, tokens, regexp);
-	}
-
-	private boolean matchPattern(String path, List<Character> tokens, StringBuilder regexp) {
-		Pattern p = Pattern.compile("^"+regexp.toString()+"$"); //$NON-NLS-1$ //$NON-NLS-2$
-		Matcher m = p.matcher(path);
-		if (m.matches()) {
-			this.values= new HashMap<Token,String>();
-			for (int i=1;i<=m.groupCount();i++) {
-				values.put(Token.fromToken(tokens.get(i-1)),m.group(i));
-			}
-			return true;
-		}
-		return false;
 	}
 
 	/**
@@ -3,9 +3,11 @@ package org.stanwood.media.search;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.stanwood.media.MediaDirectory;
+import org.stanwood.media.actions.rename.RenamePattern;
 import org.stanwood.media.actions.rename.Token;
 import org.stanwood.media.setup.WatchDirConfig;
 
@@ -70,18 +72,17 @@ public class ReversePatternSearchStrategy implements ISearchStrategy {
 				}
 			}
 
-			ReverseFilePatternMatcher rfpm = new ReverseFilePatternMatcher();
-			rfpm.parse(fileName, renamePattern);
-			if (rfpm.getValues()!=null) {
-				String term =rfpm.getValues().get(termToken);
+			Map<Token,String> values = RenamePattern.compile(renamePattern).match(fileName);
+			if (values!=null) {
+				String term =values.get(termToken);
 				if (term!=null) {
-					String value = rfpm.getValues().get(Token.PART);
+					String value = values.get(Token.PART);
 					Integer part = null;
 					if (value!=null) {
 						part = Integer.parseInt(value);
 					}
 
-					value = rfpm.getValues().get(Token.YEAR);
+					value = values.get(Token.YEAR);
 
 					return new SearchDetails(term,value,part);
 				}
@@ -22,7 +22,6 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -44,6 +43,7 @@ import org.stanwood.media.model.IEpisode;
 import org.stanwood.media.model.IFilm;
 import org.stanwood.media.model.IVideo;
 import org.stanwood.media.model.Mode;
+import org.stanwood.media.model.ModelCopier;
 import org.stanwood.media.progress.IProgressMonitor;
 import org.stanwood.media.progress.NullProgressMonitor;
 import org.stanwood.media.progress.SubProgressMonitor;
@@ -51,15 +51,20 @@ import org.stanwood.media.search.MediaSearchResult;
 import org.stanwood.media.search.MediaSearcher;
 import org.stanwood.media.setup.ConfigException;
 import org.stanwood.media.setup.WatchDirConfig;
+import org.stanwood.media.store.IBulkStore;
 import org.stanwood.media.store.IStore;
 import org.stanwood.media.store.StoreException;
 import org.stanwood.media.util.FileHelper;
+import org.stanwood.media.util.MediaScanner;
 
 /**
  * This command is used to import media from watch directiores
  */
 public class ImportMediaCommand extends AbstractServerCommand<ImportMediaResult> {
 
+	/** The number of imported files that the stores are told about between each bulk session checkpoint */
+	private final static int FILES_PER_CHECKPOINT = 50;
+
 	private boolean useDefaults = true;
 	private boolean deleteNonMedia = false;
 	private boolean executeActions;
@@ -119,8 +124,10 @@ public class ImportMediaCommand extends AbstractServerCommand<ImportMediaResult>
 			}
 
 			SubProgressMonitor renamedFilesMonitor = new SubProgressMonitor(monitor,100);
+			List<IBulkStore> bulkStores = beginBulkSessions(importedEntries);
 			try {
 				renamedFilesMonitor.beginTask(Messages.getString("ImportMediaCommand.InformingStores"), importedEntries.size()); //$NON-NLS-1$
+				int cached = 0;
 				for (ImportedEntry e : importedEntries) {
 					for (IStore store : e.getMediaDirectory().getStores()) {
 						File mediaDir = e.getMediaDirectory().getMediaDirConfig().getMediaDir();
@@ -133,9 +140,14 @@ public class ImportMediaCommand extends AbstractServerCommand<ImportMediaResult>
 						}
 					}
 					renamedFilesMonitor.worked(1);
+					// The entries hold copies of the media details, so the stores can release the details they returned
+					if (++cached%FILES_PER_CHECKPOINT==0) {
+						checkpointBulkSessions(logger,bulkStores);
+					}
 				}
 			}
 			finally {
+				endBulkSessions(logger,bulkStores);
 				renamedFilesMonitor.done();
 			}
 
@@ -168,12 +180,60 @@ public class ImportMediaCommand extends AbstractServerCommand<ImportMediaResult>
 		return null;
 	}
 
+	private List<IBulkStore> beginBulkSessions(List<ImportedEntry> importedEntries) throws StoreException {
+		List<IBulkStore> bulkStores = new ArrayList<IBulkStore>();
+		for (ImportedEntry e : importedEntries) {
+			for (IStore store : e.getMediaDirectory().getStores()) {
+				if (store instanceof IBulkStore && !bulkStores.contains(store)) {
+					((IBulkStore)store).beginBulkSession();
+					bulkStores.add((IBulkStore)store);
+				}
+			}
+		}
+		return bulkStores;
+	}
+
+	private void checkpointBulkSessions(ICommandLogger logger,List<IBulkStore> bulkStores) {
+		for (IBulkStore store : bulkStores) {
+			try {
+				store.bulkCheckpoint();
+			}
+			catch (StoreException e) {
+				logger.error(MessageFormat.format(Messages.getString("ImportMediaCommand.UnableCheckpointBulkSession"),store),e); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private void endBulkSessions(ICommandLogger logger,List<IBulkStore> bulkStores) {
+		for (IBulkStore store : bulkStores) {
+			try {
+				store.endBulkSession();
+			}
+			catch (StoreException e) {
+				logger.error(MessageFormat.format(Messages.getString("ImportMediaCommand.UnableEndBulkSession"),store),e); //$NON-NLS-1$
+			}
+		}
+	}
+
 	private void cleanUpNonMediaFiles(ICommandLogger logger,Set<String>extensions) {
 		for (WatchDirConfig wd : getController().getWatchDirectories()) {
-			List<File> dirs = FileHelper.listDirectories(wd.getWatchDir());
-			Collections.reverse(dirs);
-			for (File d : dirs) {
-				if (d !=null && !d.equals(wd.getWatchDir()) && !dirContainsMedia(extensions,d)) {
+			MediaScanner scanner = new MediaScanner(extensions,null,1);
+			try {
+				scanner.scan(wd.getWatchDir());
+			}
+			catch (StanwoodException e) {
+				logger.error(e.getMessage(),e);
+				continue;
+			}
+			Set<File> dirsWithMedia = new HashSet<File>();
+			for (File f : scanner.getFiles()) {
+				File parent = f.getParentFile();
+				while (parent!=null && dirsWithMedia.add(parent)) {
+					parent = parent.getParentFile();
+				}
+			}
+			for (File d : scanner.getDirectories()) {
+				if (!dirsWithMedia.contains(d)) {
 					if (getController().isTestRun()) {
 						logger.info(MessageFormat.format(Messages.getString("CLIImportMedia.UNABLE_DELETE_FOLDER_TEST_MODE"), d)); //$NON-NLS-1$
 					}
@@ -209,26 +269,6 @@ public class ImportMediaCommand extends AbstractServerCommand<ImportMediaResult>
 		return newFiles;
 	}
 
-	private boolean dirContainsMedia(Set<String>extensions,File d) {
-		File files[] = d.listFiles();
-		if (files!=null) {
-			for (File f : files) {
-				if (f.isDirectory()) {
-					if (dirContainsMedia(extensions,f)) {
-						return true;
-					}
-				}
-				else {
-					if (extensions.contains(FileHelper.getExtension(f))) {
-						return true;
-					}
-				}
-			}
-		}
-		return false;
-	}
-
-
 	private MediaDirectory findMediaDir(File file, IVideo video) throws ConfigException, StoreException, MalformedURLException, IOException {
 		if (video instanceof IFilm) {
 			List<MediaDirectory> mediaDirs = getController().getMediaDirectories(Mode.FILM);
@@ -286,7 +326,7 @@ public class ImportMediaCommand extends AbstractServerCommand<ImportMediaResult>
 					@Override
 					public void sendEventRenamedFile(File oldName, File newName)
 							throws ActionException {
-						renamed.add(new ImportedEntry(oldName, newName,dir,result.getVideo(),part));
+						renamed.add(new ImportedEntry(oldName, newName,dir,ModelCopier.copyFilm((IFilm)result.getVideo()),part));
 						newFiles.get(mediaDirLoc).add(newName);
 					}
 
@@ -305,7 +345,7 @@ public class ImportMediaCommand extends AbstractServerCommand<ImportMediaResult>
 					@Override
 					public void sendEventRenamedFile(File oldName, File newName)
 							throws ActionException {
-						renamed.add(new ImportedEntry(oldName, newName,dir,result.getVideo(),null));
+						renamed.add(new ImportedEntry(oldName, newName,dir,ModelCopier.copyEpisode((IEpisode)result.getVideo()),null));
 						newFiles.get(mediaDirLoc).add(newName);
 					}
 
@@ -91,6 +91,8 @@ public class ConfigReader extends BaseConfigReader {
 	private List<Plugin> plugins = new ArrayList<Plugin>();
 	private File configDir;
 	private File nativeFolder;
+	private boolean mediaInfoContentHash = false;
+	private boolean verifyFileTransfers = false;
 
 	private String xbmcAddonSite = DEFAULT_XBMC_ADDON_DIR;
 	private SeenDatabaseConfig seenDBConfig;
@@ -187,7 +189,11 @@ public class ConfigReader extends BaseConfigReader {
 				document.append(" default=\"true\""); //$NON-NLS-1$
 			}
 			document.append(" pattern=\""+dir.getPattern()+"\""); //$NON-NLS-1$ //$NON-NLS-2$
-			document.append(" ignoreSeen=\""+dir.getIgnoreSeen()+"\">"+FileHelper.LS); //$NON-NLS-1$ //$NON-NLS-2$
+			document.append(" ignoreSeen=\""+dir.getIgnoreSeen()+"\""); //$NON-NLS-1$ //$NON-NLS-2$
+			if (dir.getWorkerThreads()>1) {
+				document.append(" workerThreads=\""+dir.getWorkerThreads()+"\""); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			document.append(">"+FileHelper.LS); //$NON-NLS-1$
 
 			if (dir.getIgnorePatterns()!=null) {
 				for (Pattern p : dir.getIgnorePatterns()) {
@@ -272,6 +278,9 @@ public class ConfigReader extends BaseConfigReader {
 				if (resource.getSchemaCheck()!=null) {
 					document.append("      <schemaCheck>"+resource.getSchemaCheck().getValue()+"</schemaCheck>"+FileHelper.LS);  //$NON-NLS-1$//$NON-NLS-2$
 				}
+				if (resource.getCacheSize()>0) {
+					document.append("      <cacheSize>"+resource.getCacheSize()+"</cacheSize>"+FileHelper.LS);  //$NON-NLS-1$//$NON-NLS-2$
+				}
 				document.append("    </databaseResource>"+FileHelper.LS); //$NON-NLS-1$
 
 			}
@@ -310,6 +319,20 @@ public class ConfigReader extends BaseConfigReader {
 				}
 				dbResource.setSchemaCheck(sc);
 			}
+			String cacheSizeValue = getStringFromXMLOrNull(dbRsourceNode, "cacheSize/text()"); //$NON-NLS-1$
+			if (cacheSizeValue!=null) {
+				int cacheSize;
+				try {
+					cacheSize = Integer.parseInt(cacheSizeValue);
+				}
+				catch (NumberFormatException e) {
+					throw new ConfigException(MessageFormat.format(Messages.getString("ConfigReader.INVALID_CACHE_SIZE"),cacheSizeValue,id),e); //$NON-NLS-1$
+				}
+				if (cacheSize<0) {
+					throw new ConfigException(MessageFormat.format(Messages.getString("ConfigReader.INVALID_CACHE_SIZE"),cacheSizeValue,id)); //$NON-NLS-1$
+				}
+				dbResource.setCacheSize(cacheSize);
+			}
 			databaseResources.put(id,dbResource);
 		}
 	}
@@ -364,10 +387,25 @@ public class ConfigReader extends BaseConfigReader {
 				name = null;
 			}
 
+			String workerThreadsValue = dirNode.getAttribute("workerThreads"); //$NON-NLS-1$
+			int workerThreads = 1;
+			if (workerThreadsValue!=null && workerThreadsValue.length()>0) {
+				try {
+					workerThreads = Integer.parseInt(workerThreadsValue);
+				}
+				catch (NumberFormatException e) {
+					throw new ConfigException(MessageFormat.format(Messages.getString("ConfigReader.INVALID_WORKER_THREADS"),workerThreadsValue,dir.getAbsolutePath()),e); //$NON-NLS-1$
+				}
+				if (workerThreads<1) {
+					throw new ConfigException(MessageFormat.format(Messages.getString("ConfigReader.INVALID_WORKER_THREADS"),workerThreadsValue,dir.getAbsolutePath())); //$NON-NLS-1$
+				}
+			}
+
 			dirConfig.setName(name);
 			dirConfig.setPattern(pattern);
 			dirConfig.setMode(mode);
 			dirConfig.setIgnoreSeen(ignoreSeen);
+			dirConfig.setWorkerThreads(workerThreads);
 
 			dirConfig.setSources(readSources(node,mode));
 			dirConfig.setStores(readStores(node,mode));
@@ -711,7 +749,7 @@ public class ConfigReader extends BaseConfigReader {
 	}
 
 
-	private void parseGlobal(Document configNode) throws XMLParserException {
+	private void parseGlobal(Document configNode) throws XMLParserException, ConfigException {
 		Element node = (Element) selectSingleNode(configNode, "/mediaManager/global"); //$NON-NLS-1$
 		if (node!=null) {
 			try {
@@ -732,6 +770,20 @@ public class ConfigReader extends BaseConfigReader {
 			catch (XMLParserNotFoundException e) {
 				// Ignore
 			}
+			try {
+				String value = parseString(getStringFromXML(node, "mediaInfoContentHash/text()")); //$NON-NLS-1$
+				mediaInfoContentHash = parseBoolean(value,"mediaInfoContentHash"); //$NON-NLS-1$
+			}
+			catch (XMLParserNotFoundException e) {
+				// Ignore
+			}
+			try {
+				String value = parseString(getStringFromXML(node, "verifyFileTransfers/text()")); //$NON-NLS-1$
+				verifyFileTransfers = parseBoolean(value,"verifyFileTransfers"); //$NON-NLS-1$
+			}
+			catch (XMLParserNotFoundException e) {
+				// Ignore
+			}
 		}
 	}
 
@@ -744,6 +796,12 @@ public class ConfigReader extends BaseConfigReader {
 		if (nativeFolder!=null) {
 			subDoc.append("    <native>"+nativeFolder.getAbsolutePath()+"</native>"+FileHelper.LS); //$NON-NLS-1$ //$NON-NLS-2$
 		}
+		if (mediaInfoContentHash) {
+			subDoc.append("    <mediaInfoContentHash>true</mediaInfoContentHash>"+FileHelper.LS); //$NON-NLS-1$
+		}
+		if (verifyFileTransfers) {
+			subDoc.append("    <verifyFileTransfers>true</verifyFileTransfers>"+FileHelper.LS); //$NON-NLS-1$
+		}
 		if (subDoc.length()>0) {
 			document.append("  <global>"+FileHelper.LS); //$NON-NLS-1$
 			document.append(subDoc);
@@ -864,6 +922,20 @@ public class ConfigReader extends BaseConfigReader {
 		return input;
 	}
 
+	/**
+	 * Used to parse a xs:boolean setting, which can be true, false, 1 or 0
+	 */
+	private boolean parseBoolean(String value,String setting) throws ConfigException {
+		value = value.trim();
+		if (value.equals("true") || value.equals("1")) { //$NON-NLS-1$ //$NON-NLS-2$
+			return true;
+		}
+		if (value.equals("false") || value.equals("0")) { //$NON-NLS-1$ //$NON-NLS-2$
+			return false;
+		}
+		throw new ConfigException(MessageFormat.format(Messages.getString("ConfigReader.INVALID_BOOLEAN"),value,setting)); //$NON-NLS-1$
+	}
+
 	/**
 	 * Used to the default configuration filename
 	 * @return The default configuration filename
@@ -923,6 +995,25 @@ public class ConfigReader extends BaseConfigReader {
 		return nativeFolder;
 	}
 
+	/**
+	 * Used to find out if a hash of part of a media files contents should be used, as well
+	 * as the size and last modified time, to check if the cached media information of the file
+	 * is still valid.
+	 * @return True if the content hash should be used
+	 */
+	public boolean getMediaInfoContentHash() {
+		return mediaInfoContentHash;
+	}
+
+	/**
+	 * Used to find out if the checksum of a file should be checked when it is copied to
+	 * another file system while being moved, before the original is deleted.
+	 * @return True if the checksum should be checked
+	 */
+	public boolean getVerifyFileTransfers() {
+		return verifyFileTransfers;
+	}
+
 	/**
 	 * Used to get the addon site url
 	 * @return the addon site url
@@ -27,6 +27,7 @@ public class DBResource {
 	private String dialect;
 	private String resourceId;
 	private SchemaCheck schemaCheck;
+	private int cacheSize;
 
 	/**
 	 * Used to get the schema check
@@ -124,5 +125,21 @@ public class DBResource {
 		this.dialect = dialect;
 	}
 
+	/**
+	 * Used to get the maximum number of entries in each region of the second-level
+	 * cache. If this is 0, then the cache is not used.
+	 * @return The cache size
+	 */
+	public int getCacheSize() {
+		return cacheSize;
+	}
 
+	/**
+	 * Used to set the maximum number of entries in each region of the second-level
+	 * cache. If this is 0, then the cache is not used.
+	 * @param cacheSize The cache size
+	 */
+	public void setCacheSize(int cacheSize) {
+		this.cacheSize = cacheSize;
+	}
 }
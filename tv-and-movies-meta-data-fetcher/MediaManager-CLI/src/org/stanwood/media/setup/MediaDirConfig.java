@@ -23,6 +23,7 @@ public class MediaDirConfig {
 	private String name;
 	private boolean defaultForMode;
 	private List<Pattern> stripTokens;
+	private int workerThreads = 1;
 
 	/**
 	 * The constructor
@@ -224,6 +225,23 @@ public class MediaDirConfig {
 		this.defaultForMode = defaultForMode;
 	}
 
+	/**
+	 * Used to get the number of worker threads used to lookup media details when performing actions.
+	 * A value of 1 means files are processed one at a time.
+	 * @return The number of worker threads
+	 */
+	public int getWorkerThreads() {
+		return workerThreads;
+	}
+
+	/**
+	 * Used to set the number of worker threads used to lookup media details when performing actions.
+	 * @param workerThreads The number of worker threads, a value of 1 means files are processed one at a time.
+	 */
+	public void setWorkerThreads(int workerThreads) {
+		this.workerThreads = workerThreads;
+	}
+
 
 
 }
@@ -185,7 +185,7 @@ public class TagChimpSource extends XMLParser implements ISource {
 		final List<SearchResult>unlockedResults = new ArrayList<SearchResult>();
 		try {
 			final URL url = getSearchUrl(name);
-			StreamProcessor processor = new StreamProcessor("text/xml") { //$NON-NLS-1$
+			StreamProcessor processor = new StreamProcessor(url.toExternalForm(),"text/xml") { //$NON-NLS-1$
 				@Override
 				protected Stream getStream() throws ExtensionException, IOException {
 					return getStreamToURL(url);
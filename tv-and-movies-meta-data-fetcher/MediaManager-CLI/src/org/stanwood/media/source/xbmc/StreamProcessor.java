@@ -5,11 +5,12 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -18,7 +19,10 @@ import org.apache.commons.logging.LogFactory;
 import org.stanwood.media.extensions.ExtensionException;
 import org.stanwood.media.source.SourceException;
 import org.stanwood.media.util.FileHelper;
+import org.stanwood.media.util.HttpFetcher;
+import org.stanwood.media.util.HtmlEntityDecoder;
 import org.stanwood.media.util.HttpCache;
+import org.stanwood.media.util.SingleFlight;
 import org.stanwood.media.util.Stream;
 
 /**
@@ -30,6 +34,7 @@ import org.stanwood.media.util.Stream;
 public abstract class StreamProcessor {
 
 	private final static Log log = LogFactory.getLog(StreamProcessor.class);
+	private final static int BUFFER_SIZE = 8192;
 
 	private Stream stream = null;
 	private String forcedContentType = null;
@@ -38,33 +43,8 @@ public abstract class StreamProcessor {
 
 	private HttpCache cache = HttpCache.getInstance();
 
-	private static Map<String,String> HTML_ENTITIES;
-	  static {
-	    HTML_ENTITIES = new HashMap<String,String>();
-//	    HTML_ENTITIES.put("&lt;","<")    ; HTML_ENTITIES.put("&gt;",">");
-//	    HTML_ENTITIES.put("&amp;","&")   ; HTML_ENTITIES.put("&quot;","\"");
-	    HTML_ENTITIES.put("&agrave;","à"); HTML_ENTITIES.put("&Agrave;","À"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&acirc;","â") ; HTML_ENTITIES.put("&auml;","ä"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&Auml;","Ä")  ; HTML_ENTITIES.put("&Acirc;","Â"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&aring;","å") ; HTML_ENTITIES.put("&Aring;","Å"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&aelig;","æ") ; HTML_ENTITIES.put("&AElig;","Æ" ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&ccedil;","ç"); HTML_ENTITIES.put("&Ccedil;","Ç"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&eacute;","é"); HTML_ENTITIES.put("&Eacute;","É" ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&egrave;","è"); HTML_ENTITIES.put("&Egrave;","È"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&ecirc;","ê") ; HTML_ENTITIES.put("&Ecirc;","Ê"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&euml;","ë")  ; HTML_ENTITIES.put("&Euml;","Ë"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&iuml;","ï")  ; HTML_ENTITIES.put("&Iuml;","Ï"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&ocirc;","ô") ; HTML_ENTITIES.put("&Ocirc;","Ô"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&ouml;","ö")  ; HTML_ENTITIES.put("&Ouml;","Ö"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&oslash;","ø") ; HTML_ENTITIES.put("&Oslash;","Ø"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&szlig;","ß") ; HTML_ENTITIES.put("&ugrave;","ù"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&Ugrave;","Ù"); HTML_ENTITIES.put("&ucirc;","û"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&Ucirc;","Û") ; HTML_ENTITIES.put("&uuml;","ü"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&Uuml;","Ü")  ; HTML_ENTITIES.put("&nbsp;"," "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-	    HTML_ENTITIES.put("&copy;","\u00a9"); //$NON-NLS-1$ //$NON-NLS-2$
-	    HTML_ENTITIES.put("&reg;","\u00ae"); //$NON-NLS-1$ //$NON-NLS-2$
-	    HTML_ENTITIES.put("&euro;","\u20a0"); //$NON-NLS-1$ //$NON-NLS-2$
-	  }
+	/** Downloads that are in progress, so that requests for the same key share one download */
+	private final static SingleFlight<String,List<String>> IN_FLIGHT = new SingleFlight<String,List<String>>();
 
 	/**
 	 * The constructor
@@ -111,11 +91,7 @@ public abstract class StreamProcessor {
 				if (e==null) {
 					e = e1;
 				}
-				try {
-					Thread.sleep(FileHelper.RETRY_SLEEP_TIME);
-				} catch (InterruptedException e2) {
-					// Ignore
-				}
+				HttpFetcher.getInstance().sleepBeforeRetry(tryCount);
 			}
 		}
 		if (e!=null) {
@@ -128,20 +104,70 @@ public abstract class StreamProcessor {
 		}
 	}
 
+	/**
+	 * Used to get the number of downloads that were saved because the same
+	 * resource was already being downloaded by another thread
+	 * @return The number of saved downloads
+	 */
+	public static long getSharedFetchCount() {
+		return IN_FLIGHT.getSharedCount();
+	}
+
 	private void processStream() throws SourceException, SocketTimeoutException {
 		List<String> cacheValue = cache.get(cacheKey);
 		if (cacheValue!=null) {
 			if (log.isDebugEnabled()) {
 				log.debug("Cache hit for key "+cacheKey); //$NON-NLS-1$
 			}
-			for (String contents : cacheValue) {
-				processContents(contents);
-			}
-			return;
 		}
+		else {
+			cacheValue = fetchContents();
+		}
+		for (String contents : cacheValue) {
+			processContents(contents);
+		}
+	}
+
+	private List<String> fetchContents() throws SourceException, SocketTimeoutException {
+		try {
+			return IN_FLIGHT.load(cacheKey, new SingleFlight.Loader<List<String>,Exception>() {
+				@Override
+				public List<String> load() throws Exception {
+					List<String> cacheValue = cache.get(cacheKey);
+					if (cacheValue!=null) {
+						return cacheValue;
+					}
+					return readStream();
+				}
+			});
+		}
+		catch (SourceException e) {
+			throw e;
+		}
+		catch (SocketTimeoutException e) {
+			throw e;
+		}
+		catch (RuntimeException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new SourceException(MessageFormat.format(Messages.getString("StreamProcessor.UNABLE_READ_URL"),cacheKey),e); //$NON-NLS-1$
+		}
+	}
+
+	private List<String> readStream() throws SourceException, SocketTimeoutException {
+		List<String>lcontents = new ArrayList<String>();
 		try {
 			this.stream = openStream();
 
+			if (stream.isNotModified()) {
+				List<String> cacheValue = cache.revalidated(stream.getCacheKey());
+				if (cacheValue==null) {
+					throw new SourceException(MessageFormat.format(Messages.getString("StreamProcessor.UNABLE_READ_URL"),stream.getURL())); //$NON-NLS-1$
+				}
+				return cacheValue;
+			}
+
 			String contentType = stream.getMineType();
 			if (this.forcedContentType!=null) {
 				contentType = this.forcedContentType;
@@ -149,39 +175,20 @@ public abstract class StreamProcessor {
 			if (stream.getInputStream() instanceof ZipInputStream) {
 				ZipInputStream zis = (ZipInputStream) stream.getInputStream();
 				ZipEntry entry = null;
-				List<String>lcontents = new ArrayList<String>();
 	            while ((entry = zis.getNextEntry())!=null) {
-	            	StringBuilder contents = new StringBuilder();
 	                if (!entry.isDirectory()) {
-						int count;
-						byte data[] = new byte[1000];
-						while ((count = zis.read(data,0,1000)) != -1)
-			            {
-							byte dest[];
-							if (count < 1000) {
-								dest = new byte[count];
-								System.arraycopy(data, 0, dest, 0, count);
-							}
-							else {
-								dest = data;
-							}
-							//TODO check the encoding
-							String encoding = "iso-8859-1"; //$NON-NLS-1$
-							if (entry.getName().endsWith(".xml")) { //$NON-NLS-1$
-								encoding = "UTF-8"; //$NON-NLS-1$
-							}
-							contents.append(new String(dest,encoding));
-			            }
-	                }
-
-	                if (contents.length()>0) {
-	                	lcontents.add(contents.toString());
+						//TODO check the encoding
+						String encoding = "iso-8859-1"; //$NON-NLS-1$
+						if (entry.getName().endsWith(".xml")) { //$NON-NLS-1$
+							encoding = "UTF-8"; //$NON-NLS-1$
+						}
+						String contents = readEntry(zis,entry,encoding);
+						if (contents.length()>0) {
+							lcontents.add(contents);
+						}
 	                }
 	            }
-	            for (String contents : lcontents) {
-                	cache(cacheKey,lcontents);
-	            	processContents(contents);
-	            }
+	            cache(cacheKey,lcontents);
 			}
 			else {
 				String data = null;
@@ -210,7 +217,7 @@ public abstract class StreamProcessor {
 						data = str;
 
 						if (contentType.equals("text/html")) { //$NON-NLS-1$
-							data = unescapeHTML(data);
+							data = HtmlEntityDecoder.getInstance().decode(data);
 						}
 					}
 				}
@@ -224,12 +231,11 @@ public abstract class StreamProcessor {
 				}
 
 				if (data!=null) {
-					List<String>lcontents = new ArrayList<String>();
 					lcontents.add(data);
 					cache(cacheKey,lcontents);
-					processContents(data);
 				}
 			}
+			return lcontents;
 		}
 		catch (SocketTimeoutException e) {
 			throw e;
@@ -267,39 +273,29 @@ public abstract class StreamProcessor {
 		}
 	}
 
-	private void cache(String cacheKey,List<String> value) {
-		cache.put(cacheKey,value);
+	/**
+	 * Read the contents of a zip entry. The bytes are decoded as they are read, so characters
+	 * that are split across reads are decoded correctly.
+	 */
+	private String readEntry(ZipInputStream zis,ZipEntry entry,String encoding) throws IOException {
+		CharsetDecoder decoder = Charset.forName(encoding).newDecoder();
+		decoder.onMalformedInput(CodingErrorAction.REPLACE);
+		decoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		Reader r = new InputStreamReader(zis,decoder);
+		int size = (int)entry.getSize();
+		StringBuilder contents = new StringBuilder(size>0 ? size : BUFFER_SIZE);
+		char[] buffer = new char[BUFFER_SIZE];
+		for (int n; (n = r.read(buffer)) != -1; ) {
+			contents.append(buffer, 0, n);
+		}
+		return contents.toString();
 	}
 
-
-	private String unescapeHTML(String source) {
-	      int i, j;
-
-	      boolean continueLoop;
-	      int skip = 0;
-	      do {
-	         continueLoop = false;
-	         i = source.indexOf("&", skip); //$NON-NLS-1$
-	         if (i > -1) {
-	           j = source.indexOf(";", i); //$NON-NLS-1$
-	           if (j > i) {
-	             String entityToLookFor = source.substring(i, j + 1);
-	             String value = HTML_ENTITIES.get(entityToLookFor);
-	             if (value != null) {
-	               source = source.substring(0, i)
-	                        + value + source.substring(j + 1);
-	               continueLoop = true;
-	             }
-	             else if (value == null){
-	                skip = i+1;
-	                continueLoop = true;
-	             }
-	           }
-	         }
-	      } while (continueLoop);
-	      return source;
+	private void cache(String cacheKey,List<String> value) {
+		cache.put(cacheKey,value,stream.getETag(),stream.getLastModified());
 	}
 
+
 	/**
 	 * This method is called each time a streams contents are read. If the stream is
 	 * a instance of {@link ZipInputStream}, then it is called for each of the files within the zip
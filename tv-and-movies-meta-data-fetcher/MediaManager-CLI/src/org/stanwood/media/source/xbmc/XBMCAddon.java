@@ -33,7 +33,9 @@ import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
 /**
- * This class is used to manage XBMC addon's
+ * This class is used to manage XBMC addon's.
+ * The addons are shared by all the threads that look up media details, so access to
+ * the parsed addon files and the addon settings is synchronized.
  */
 public class XBMCAddon extends XMLParser {
 
@@ -47,6 +49,8 @@ public class XBMCAddon extends XMLParser {
 	private File addonFile;
 	private Map<File, Document> docs = new HashMap<File,Document>();
 	private ExpressionEval eval = new ExpressionEval();
+	private boolean settingsParsed = false;
+	private XBMCAddonRegistry.Entry registryEntry;
 
 	/**
 	 * Used to create a instance of the addon class
@@ -64,7 +68,30 @@ public class XBMCAddon extends XMLParser {
 		parseSettings();
 	}
 
-	private void parseSettings() throws XBMCException {
+	/**
+	 * Used to create a instance of the addon class from the details stored in the addon
+	 * registry. The addon files are not parsed until they are needed.
+	 * @param addonMgr The XBMC addon manager
+	 * @param addonDir The directory contain the XBMC addons
+	 * @param locale The locale to use with the scrapers
+	 * @param registryEntry The details of the addon from the registry
+	 */
+	XBMCAddon(XBMCAddonManager addonMgr,File addonDir,Locale locale,XBMCAddonRegistry.Entry registryEntry) {
+		this.addonDir = addonDir;
+		this.locale = locale;
+		this.addonMgr = addonMgr;
+		this.addonFile = new File(addonDir,"addon.xml"); //$NON-NLS-1$
+		this.registryEntry = registryEntry;
+	}
+
+	/**
+	 * The settings are parsed the first time they are needed. If they can't be parsed,
+	 * they are parsed again the next time they are needed.
+	 */
+	private synchronized void parseSettings() throws XBMCException {
+		if (settingsParsed) {
+			return;
+		}
 		if (log.isDebugEnabled()) {
 			log.debug("Checking for addon " + addonDir.getName() + " settings");  //$NON-NLS-1$//$NON-NLS-2$
 		}
@@ -86,6 +113,7 @@ public class XBMCAddon extends XMLParser {
 				throw new XBMCException(MessageFormat.format(Messages.getString("XBMCAddon.UNABLE_PARSE_SETTINGS_FILE"), settingsFile),e); //$NON-NLS-1$
 			}
 		}
+		settingsParsed = true;
 	}
 
 	private void addSetting(Element node) throws XBMCException {
@@ -166,7 +194,8 @@ public class XBMCAddon extends XMLParser {
 	 * @return The value of the addon setting
 	 * @throws XBMCException Thrown if their is a problem getting the setting
 	 */
-	public Value getSetting(String id) throws XBMCException {
+	public synchronized Value getSetting(String id) throws XBMCException {
+		parseSettings();
 		try {
 			return eval.getVariables().get(id);
 		}
@@ -180,10 +209,16 @@ public class XBMCAddon extends XMLParser {
 	 * @return The addon settings
 	 */
 	public Map<String,Value>getSettings() {
+		try {
+			parseSettings();
+		}
+		catch (XBMCException e) {
+			log.error(e.getMessage(),e);
+		}
 		return eval.getVariables();
 	}
 
-	private Document getDocument(File file) throws XBMCException {
+	private synchronized Document getDocument(File file) throws XBMCException {
 		Document doc = docs.get(file);
 		if (doc==null) {
 //			File addonFile = new File(addonDir,"addon.xml");
@@ -219,7 +254,10 @@ public class XBMCAddon extends XMLParser {
 	 * @return the id of the addon
 	 * @throws XBMCException Thrown if their are any problems
 	 */
-	public String getId() throws XBMCException {
+	public synchronized String getId() throws XBMCException {
+		if (registryEntry!=null) {
+			return registryEntry.id;
+		}
 		try {
 			return getStringFromXML(getDocument(addonFile), "addon/@id"); //$NON-NLS-1$
 		} catch (Exception e) {
@@ -232,7 +270,7 @@ public class XBMCAddon extends XMLParser {
 	 * @return gets a list of required addons by this addon
 	 * @throws XBMCException Thrown if their is a problem
 	 */
-	public List<XBMCAddon>getRquiredAddons() throws XBMCException {
+	public synchronized List<XBMCAddon>getRquiredAddons() throws XBMCException {
 		if (requiredAddons==null) {
 			requiredAddons = new ArrayList<XBMCAddon>();
 			try {
@@ -264,7 +302,10 @@ public class XBMCAddon extends XMLParser {
 	 * @return the version of the addon
 	 * @throws XBMCException Thrown if their are any problems
 	 */
-	public Version getVersion() throws XBMCException {
+	public synchronized Version getVersion() throws XBMCException {
+		if (registryEntry!=null) {
+			return new Version(registryEntry.version);
+		}
 		try {
 			return new Version(getStringFromXML(getDocument(addonFile), "addon/@version")); //$NON-NLS-1$
 		} catch (Exception e) {
@@ -277,7 +318,7 @@ public class XBMCAddon extends XMLParser {
 	 * @return the provider name of the addon
 	 * @throws XBMCException Thrown if their are any problems
 	 */
-	public String getProviderName() throws XBMCException {
+	public synchronized String getProviderName() throws XBMCException {
 		try {
 			return getStringFromXML(getDocument(addonFile), "addon/@provider-name"); //$NON-NLS-1$
 		} catch (Exception e) {
@@ -292,6 +333,9 @@ public class XBMCAddon extends XMLParser {
 	 * @throws XBMCException Thrown if their is any problems while checking
 	 */
 	public boolean supportsMode(Mode mode) throws XBMCException {
+		if (registryEntry!=null) {
+			return registryEntry.modes.contains(mode);
+		}
 		for (XBMCExtension extension : getExtensions()) {
 			if (extension instanceof XBMCScraper && ((XBMCScraper)extension).getMode().equals(mode)) {
 				return true;
@@ -300,7 +344,7 @@ public class XBMCAddon extends XMLParser {
 		return false;
 	}
 
-	private List<XBMCExtension> getExtensions() throws XBMCException {
+	private synchronized List<XBMCExtension> getExtensions() throws XBMCException {
 		if (extensions == null ) {
 			extensions = new ArrayList<XBMCExtension>();
 			try {
@@ -342,7 +386,7 @@ public class XBMCAddon extends XMLParser {
 	 * @return the summary of the addon
 	 * @throws XBMCException Thrown if their are any problems
 	 */
-	public String getSummary() throws XBMCException {
+	public synchronized String getSummary() throws XBMCException {
 		try {
 			return getStringFromXML(getDocument(addonFile), "addon/extension[@point='xbmc.addon.metadata']/summary[@lang='"+locale.getLanguage()+"']/text()"); //$NON-NLS-1$ //$NON-NLS-2$
 		} catch (Exception e) {
@@ -355,7 +399,7 @@ public class XBMCAddon extends XMLParser {
 	 * @return the description of the addon
 	 * @throws XBMCException Thrown if their are any problems
 	 */
-	public String getDescription() throws XBMCException {
+	public synchronized String getDescription() throws XBMCException {
 		try {
 			return getStringFromXML(getDocument(addonFile), "addon/extension[@point='xbmc.addon.metadata']/description[@lang='"+locale.getLanguage()+"']/text()"); //$NON-NLS-1$ //$NON-NLS-2$
 		} catch (Exception e) {
@@ -368,7 +412,7 @@ public class XBMCAddon extends XMLParser {
 	 * @return the name of the addon
 	 * @throws XBMCException Thrown if their are any problems
 	 */
-	public String getName() throws XBMCException {
+	public synchronized String getName() throws XBMCException {
 		try {
 			return getStringFromXML(getDocument(addonFile), "addon/@name"); //$NON-NLS-1$
 		} catch (Exception e) {
@@ -382,10 +426,11 @@ public class XBMCAddon extends XMLParser {
 	 * @return The info setting value
 	 * @throws XBMCException Thrown if not able to find the setting
 	 */
-	public String getInfoSetting(String key) throws XBMCException {
+	public synchronized String getInfoSetting(String key) throws XBMCException {
 		if (key.equals("language")) { //$NON-NLS-1$
 			return locale.getLanguage();
 		}
+		parseSettings();
 
 		try {
 			Value value = eval.getVariables().get(key);
@@ -458,6 +503,9 @@ public class XBMCAddon extends XMLParser {
 	 * @throws XBMCException Thrown if their are any problems
 	 */
 	public boolean hasScrapers() throws XBMCException {
+		if (registryEntry!=null) {
+			return registryEntry.hasScrapers;
+		}
 		for (XBMCExtension ext : getExtensions()) {
 			if (ext instanceof XBMCScraper) {
 				return true;
@@ -473,8 +521,8 @@ public class XBMCAddon extends XMLParser {
 	 * @return The value the expression evaluates to
 	 * @throws XBMCException Thrown if their are any problems
 	 */
-	public boolean checkCondition(String expression) throws XBMCException {
-
+	public synchronized boolean checkCondition(String expression) throws XBMCException {
+		parseSettings();
 		try {
 			Value value = eval.eval(expression);
 			if (value.getType() == ValueType.BOOLEAN) {
@@ -495,7 +543,8 @@ public class XBMCAddon extends XMLParser {
 	 * @param expression The expression to evaluate and store in the setting
 	 * @throws XBMCException Thrown if their are any problems.
 	 */
-	public void setSetting(String key, String expression) throws XBMCException {
+	public synchronized void setSetting(String key, String expression) throws XBMCException {
+		parseSettings();
 		try {
 			if (!eval.getVariables().containsKey(key)) {
 				return;
@@ -4,7 +4,9 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -28,6 +30,8 @@ public class XBMCAddonManager implements IContentFetcher {
 
 	private final static Log log = LogFactory.getLog(XBMCAddonManager.class);
 
+	private final static String REGISTRY_FILE = "addonRegistry.dat"; //$NON-NLS-1$
+
 	private Map<String,XBMCAddon> addons = null;
 	private IXBMCUpdater updater;
 	private ConfigReader config;
@@ -84,21 +88,45 @@ public class XBMCAddonManager implements IContentFetcher {
 	}
 
 	/**
-	 * Used to register all the XBMC addons that are found in the addon directory
+	 * Used to register all the XBMC addons that are found in the addon directory. The details
+	 * of the addons are kept in a registry file next to the addon directory, so only addons
+	 * that have changed since the last time they were registered need to be parsed.
 	 * @throws XBMCException Thrown if their is a problem
 	 */
 	public void registerAddons() throws XBMCException {
 		addons = new HashMap<String,XBMCAddon>();
 		try {
-			for (File f : config.getXBMCAddonDir().listFiles()) {
+			File addonDir = config.getXBMCAddonDir();
+			XBMCAddonRegistry registry = new XBMCAddonRegistry(new File(addonDir.getAbsoluteFile().getParentFile(),REGISTRY_FILE),addonDir);
+			List<String> dirNames = new ArrayList<String>();
+			for (File f : addonDir.listFiles()) {
 				if (f.isDirectory() && !f.getName().equals("newplugins")) { //$NON-NLS-1$
-					XBMCAddon addon = new XBMCAddon(this,f,config.getXBMCLocale());
+					XBMCAddon addon;
+					XBMCAddonRegistry.Entry entry = registry.get(f);
+					if (entry!=null) {
+						addon = new XBMCAddon(this,f,config.getXBMCLocale(),entry);
+					}
+					else {
+						addon = new XBMCAddon(this,f,config.getXBMCLocale());
+						try {
+							registry.put(f,addon);
+						}
+						catch (XBMCException e) {
+							// The addon will be parsed again next time
+							if (log.isDebugEnabled()) {
+								log.debug("Unable to add addon " + f + " to the registry",e); //$NON-NLS-1$ //$NON-NLS-2$
+							}
+						}
+					}
 					if (log.isDebugEnabled()) {
 						log.debug("Registered addon " + addon.getId()); //$NON-NLS-1$
 					}
 					addons.put(addon.getId(),addon);
+					dirNames.add(f.getName());
 				}
 			}
+			registry.retain(dirNames);
+			registry.save();
 		} catch (ConfigException e) {
 			throw new XBMCException(Messages.getString("XBMCAddonManager.UNABLE_TO_GET_ADDON_DIR"),e); //$NON-NLS-1$
 		}
@@ -0,0 +1,240 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.source.xbmc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.stanwood.media.model.Mode;
+
+/**
+ * <p>This is a snapshot of the details of the installed XBMC addons that are needed when
+ * the application starts. It is stored in a file, so that the addon files don't need to
+ * be parsed each time the application starts.</p>
+ * <p>The details of a addon are only used if the last modified time of it's directory and
+ * the last modified time and size of it's addon.xml file have not changed since they were
+ * read, otherwise the addon is parsed again.</p>
+ */
+class XBMCAddonRegistry {
+
+	private final static Log log = LogFactory.getLog(XBMCAddonRegistry.class);
+
+	private final static int FILE_VERSION = 1;
+
+	private final File registryFile;
+	private final File addonDir;
+	private Map<String,Entry> entries = new HashMap<String,Entry>();
+	private boolean changed = false;
+
+	/**
+	 * The details of a addon
+	 */
+	static class Entry {
+		private String dirName;
+		private long dirModified;
+		private long fileModified;
+		private long fileLength;
+		/** The addon id */
+		String id;
+		/** The addon version */
+		String version;
+		/** True if the addon has scrapers */
+		boolean hasScrapers;
+		/** The modes supported by the addon scrapers */
+		Set<Mode> modes = new HashSet<Mode>();
+	}
+
+	/**
+	 * The constructor
+	 * @param registryFile The file the registry is stored in
+	 * @param addonDir The directory that contains the addons
+	 */
+	XBMCAddonRegistry(File registryFile,File addonDir) {
+		this.registryFile = registryFile;
+		this.addonDir = addonDir;
+		load();
+	}
+
+	/**
+	 * Used to get the details of a addon
+	 * @param dir The directory of the addon
+	 * @return The details, or null if they are not known or the addon has changed
+	 */
+	Entry get(File dir) {
+		Entry entry = entries.get(dir.getName());
+		File addonFile = new File(dir,"addon.xml"); //$NON-NLS-1$
+		if (entry==null || entry.dirModified!=dir.lastModified() || entry.fileModified!=addonFile.lastModified()
+				|| entry.fileLength!=addonFile.length()) {
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * Used to store the details of a addon that has been parsed
+	 * @param dir The directory of the addon
+	 * @param addon The addon
+	 * @throws XBMCException Thrown if the details of the addon can't be read
+	 */
+	void put(File dir,XBMCAddon addon) throws XBMCException {
+		File addonFile = new File(dir,"addon.xml"); //$NON-NLS-1$
+		Entry entry = new Entry();
+		entry.dirName = dir.getName();
+		entry.dirModified = dir.lastModified();
+		entry.fileModified = addonFile.lastModified();
+		entry.fileLength = addonFile.length();
+		entry.id = addon.getId();
+		entry.version = addon.getVersion().toString();
+		entry.hasScrapers = addon.hasScrapers();
+		for (Mode mode : Mode.values()) {
+			if (addon.supportsMode(mode)) {
+				entry.modes.add(mode);
+			}
+		}
+		entries.put(entry.dirName, entry);
+		changed = true;
+	}
+
+	/**
+	 * Used to remove the details of addons that are no longer installed
+	 * @param dirNames The names of the directories of the installed addons
+	 */
+	void retain(Collection<String> dirNames) {
+		Iterator<String> it = entries.keySet().iterator();
+		while (it.hasNext()) {
+			if (!dirNames.contains(it.next())) {
+				it.remove();
+				changed = true;
+			}
+		}
+	}
+
+	private void load() {
+		if (!registryFile.exists()) {
+			return;
+		}
+		DataInputStream is = null;
+		try {
+			is = new DataInputStream(new BufferedInputStream(new FileInputStream(registryFile)));
+			if (is.readInt()!=FILE_VERSION || !is.readUTF().equals(addonDir.getAbsolutePath())) {
+				changed = true;
+				return;
+			}
+			int count = is.readInt();
+			for (int i=0;i<count;i++) {
+				Entry entry = new Entry();
+				entry.dirName = is.readUTF();
+				entry.dirModified = is.readLong();
+				entry.fileModified = is.readLong();
+				entry.fileLength = is.readLong();
+				entry.id = is.readUTF();
+				entry.version = is.readUTF();
+				entry.hasScrapers = is.readBoolean();
+				int modes = is.readInt();
+				for (int m=0;m<modes;m++) {
+					entry.modes.add(Mode.valueOf(is.readUTF()));
+				}
+				entries.put(entry.dirName, entry);
+			}
+		}
+		catch (IOException e) {
+			log.warn(MessageFormat.format(Messages.getString("XBMCAddonRegistry.UnableReadRegistry"),registryFile),e); //$NON-NLS-1$
+			entries.clear();
+			changed = true;
+		}
+		catch (IllegalArgumentException e) {
+			log.warn(MessageFormat.format(Messages.getString("XBMCAddonRegistry.UnableReadRegistry"),registryFile),e); //$NON-NLS-1$
+			entries.clear();
+			changed = true;
+		}
+		finally {
+			close(is);
+		}
+	}
+
+	/**
+	 * Used to write the registry to it's file if it has changed since it was read
+	 */
+	void save() {
+		if (!changed) {
+			return;
+		}
+		File tmpFile = new File(registryFile.getParentFile(),registryFile.getName()+".tmp"); //$NON-NLS-1$
+		DataOutputStream os = null;
+		try {
+			os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+			os.writeInt(FILE_VERSION);
+			os.writeUTF(addonDir.getAbsolutePath());
+			os.writeInt(entries.size());
+			for (Entry entry : entries.values()) {
+				os.writeUTF(entry.dirName);
+				os.writeLong(entry.dirModified);
+				os.writeLong(entry.fileModified);
+				os.writeLong(entry.fileLength);
+				os.writeUTF(entry.id);
+				os.writeUTF(entry.version);
+				os.writeBoolean(entry.hasScrapers);
+				os.writeInt(entry.modes.size());
+				for (Mode mode : entry.modes) {
+					os.writeUTF(mode.name());
+				}
+			}
+			os.close();
+			os = null;
+			if ((!registryFile.delete() && registryFile.exists()) || !tmpFile.renameTo(registryFile)) {
+				throw new IOException(MessageFormat.format(Messages.getString("XBMCAddonRegistry.UnableWriteRegistry"),registryFile)); //$NON-NLS-1$
+			}
+			changed = false;
+		}
+		catch (IOException e) {
+			log.warn(MessageFormat.format(Messages.getString("XBMCAddonRegistry.UnableWriteRegistry"),registryFile),e); //$NON-NLS-1$
+		}
+		finally {
+			close(os);
+			if (tmpFile.exists() && !tmpFile.delete()) {
+				log.warn(MessageFormat.format(Messages.getString("XBMCAddonRegistry.UnableWriteRegistry"),tmpFile)); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private static void close(Closeable c) {
+		if (c!=null) {
+			try {
+				c.close();
+			}
+			catch (IOException e) {
+				log.error(e.getMessage(),e);
+			}
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package org.stanwood.media.source.xbmc;
 
+import java.util.ArrayList;
+
+import org.stanwood.media.model.Actor;
 import org.stanwood.media.model.Episode;
 import org.stanwood.media.model.ISeason;
 
@@ -76,6 +79,36 @@ public class XBMCEpisode extends Episode {
 		return season;
 	}
 
+	/**
+	 * Used to create a copy of the episode that belongs to the given season. The lists
+	 * of the episode are copied, so changes to the copy don't change this episode.
+	 * @param season The season the copy belongs to
+	 * @return The copy of the episode
+	 */
+	public XBMCEpisode copy(ISeason season) {
+		XBMCEpisode copy = new XBMCEpisode(getEpisodeNumber(),season,special);
+		copy.setEpisodes(new ArrayList<Integer>(getEpisodes()));
+		copy.setDisplaySeason(displaySeason);
+		copy.setDisplayEpisode(displayEpisode);
+		copy.setSummary(getSummary());
+		copy.setTitle(getTitle());
+		copy.setDate(getDate());
+		copy.setUrl(getUrl());
+		copy.setEpisodeId(getEpisodeId());
+		copy.setRating(getRating());
+		copy.setImageURL(getImageURL());
+		if (getActors()!=null) {
+			copy.setActors(new ArrayList<Actor>(getActors()));
+		}
+		if (getDirectors()!=null) {
+			copy.setDirectors(new ArrayList<String>(getDirectors()));
+		}
+		if (getWriters()!=null) {
+			copy.setWriters(new ArrayList<String>(getWriters()));
+		}
+		return copy;
+	}
+
 	/**
 	 * Used to mark this episode as a special
 	 * @param special if true, then mark this episode as special
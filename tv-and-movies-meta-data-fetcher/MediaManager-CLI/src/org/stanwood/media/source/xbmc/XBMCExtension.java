@@ -3,6 +3,7 @@ package org.stanwood.media.source.xbmc;
 import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -13,6 +14,7 @@ import javax.xml.parsers.ParserConfigurationException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.stanwood.media.collections.LRUMapCache;
 import org.stanwood.media.xml.SimpleErrorHandler;
 import org.stanwood.media.xml.XMLParser;
 import org.stanwood.media.xml.XMLParserException;
@@ -34,11 +36,21 @@ public abstract class XBMCExtension extends XMLParser {
 	private final static Pattern INFO_PATTERN1 = Pattern.compile("(\\$INFO\\[.*?\\])"); //$NON-NLS-1$
 	private final static Pattern INFO_PATTERN2 = Pattern.compile("\\$INFO\\[(.*?)\\]"); //$NON-NLS-1$
 	private final static Pattern PARAM_PATTERN = Pattern.compile("(\\$\\$\\d+)"); //$NON-NLS-1$
+	private final static Pattern TAG_PATTERN = Pattern.compile("\\<.*?\\>"); //$NON-NLS-1$
+	private final static Pattern GROUP_PATTERNS[] = new Pattern[10];
+	static {
+		for (int i=1;i<GROUP_PATTERNS.length;i++) {
+			GROUP_PATTERNS[i] = Pattern.compile("\\\\"+i); //$NON-NLS-1$
+		}
+	}
+	private final static int MAX_CACHED_PATTERNS = 100;
 
 	private Document doc = null;
 	private String point;
 	private File scraperFile;
 	private XBMCAddon addon;
+	private final Map<String,XBMCRegExp> functions = new HashMap<String,XBMCRegExp>();
+	private final Map<String,Pattern> patternCache = new LRUMapCache<String,Pattern>(MAX_CACHED_PATTERNS);
 
 	/**
 	 * The constructor
@@ -52,7 +64,7 @@ public abstract class XBMCExtension extends XMLParser {
 		this.addon = addon;
 	}
 
-	protected Document getDocument() throws XBMCException  {
+	protected synchronized Document getDocument() throws XBMCException  {
 		if (doc==null) {
 			File file = scraperFile;
 			if (!file.exists()) {
@@ -90,12 +102,43 @@ public abstract class XBMCExtension extends XMLParser {
 	 * @throws XMLParserException Thrown if their is a XML problem
 	 */
 	public String executeXBMCFunction(Element functionNode,Map<Integer,String> params) throws  XBMCException, XMLParserException {
-		if (log.isDebugEnabled()) {
-			log.debug("Executing function : " + functionNode.getNodeName()); //$NON-NLS-1$
+		return executeXBMCFunction(compileFunction(functionNode),params);
+	}
+
+	/**
+	 * Used to get the compiled form of a XBMC function. The function is compiled the first time
+	 * it is used, and the compiled form is reused by later calls.
+	 * @param rootNodeName The name of the root node of the scraper XML
+	 * @param functionName The name of the function
+	 * @return The compiled function, or null if it could not be found
+	 * @throws XBMCException Thrown if their is a XBMC problem
+	 * @throws XMLParserException Thrown if their is a XML problem
+	 */
+	protected XBMCRegExp getFunction(String rootNodeName,String functionName) throws XBMCException, XMLParserException {
+		synchronized (functions) {
+			XBMCRegExp function = functions.get(functionName);
+			if (function==null) {
+				Element functionNode = (Element) selectSingleNode(getDocument(), rootNodeName+"/"+functionName); //$NON-NLS-1$
+				if (functionNode==null) {
+					return null;
+				}
+				function = compileFunction(functionNode);
+				functions.put(functionName, function);
+			}
+			return function;
 		}
+	}
 
-		executeChildNodes(functionNode,params);
-		int dest = getDestParam(functionNode);
+	/**
+	 * Used to execute a compiled XBMC function
+	 * @param function The compiled function
+	 * @param params The parameters been passed to the function
+	 * @return The result of executing the function
+	 * @throws XBMCException Thrown if their is a XBMC problem
+	 */
+	protected String executeXBMCFunction(XBMCRegExp function,Map<Integer,String> params) throws XBMCException {
+		executeChildNodes(function,params);
+		int dest = function.getDest();
 		if (dest!=-1) {
 			return params.get(dest);
 		}
@@ -105,46 +148,96 @@ public abstract class XBMCExtension extends XMLParser {
 		}
 	}
 
-	private void executeChildNodes(Element functionNode,Map<Integer,String> params) throws XBMCException {
-		NodeList nodes = functionNode.getChildNodes();
+	private XBMCRegExp compileFunction(Element functionNode) throws XBMCException {
+		XBMCRegExp function = new XBMCRegExp(false);
+		function.setDest(getDestParam(functionNode));
+		compileChildNodes(function,functionNode);
+		return function;
+	}
+
+	private void compileChildNodes(XBMCRegExp parent,Element parentNode) throws XBMCException {
+		NodeList nodes = parentNode.getChildNodes();
 		for (int i=0;i<nodes.getLength();i++) {
 			if (nodes.item(i) instanceof Element ) {
 				Element node = (Element) nodes.item(i);
-
+				boolean regExp = node.getNodeName().equals("RegExp"); //$NON-NLS-1$
+				XBMCRegExp child = new XBMCRegExp(regExp);
 				if (node.hasChildNodes()) {
-					executeChildNodes(node,params);
+					compileChildNodes(child,node);
 				}
-
-				if (node.getNodeName().equals("RegExp")) { //$NON-NLS-1$
-					performRegexp(params, node);
+				if (regExp) {
+					compileRegexp(child,node);
+				}
+				if (regExp || !child.getChildren().isEmpty()) {
+					parent.addChild(child);
 				}
 			}
 		}
 	}
 
-	private void performRegexp(Map<Integer, String> params, Element node) throws XBMCException {
-		String input = getInputAttr(params,node);
-		String orgOutput = getOutputAttr(params,node);
+	private void compileRegexp(XBMCRegExp regExp,Element node) throws XBMCException {
+		String input = node.getAttribute("input"); //$NON-NLS-1$
+		if (input==null || input.equals("")) { //$NON-NLS-1$
+			input="$$1"; //$NON-NLS-1$
+		}
+		regExp.setInput(input);
+		regExp.setOutput(node.getAttribute("output")); //$NON-NLS-1$
+		regExp.setConditional(node.getAttribute("conditional")); //$NON-NLS-1$
+		regExp.setDest(getDestParam(node));
+		regExp.setAppendToDest(shouldAppendToBuffer(node));
 
-		String conditional = node.getAttribute("conditional"); //$NON-NLS-1$
+		Element expNode = (Element) getChildNodeByName(node, "expression"); //$NON-NLS-1$
+		if (expNode !=null) {
+			XBMCExpression expr = new XBMCExpression();
+			String regexp = "(.+)"; //$NON-NLS-1$
+			if (expNode.getTextContent().length()>0) {
+				regexp = expNode.getTextContent();
+			}
+			if (!XBMCRegExp.hasParams(regexp) && !XBMCRegExp.hasInfoVars(regexp)) {
+				expr.setPattern(compilePattern(regexp));
+			}
+			expr.setNoClean(expNode.getAttribute("noclean")); //$NON-NLS-1$
+			expr.setTrim(expNode.getAttribute("trim")); //$NON-NLS-1$
+			expr.setClear((expNode.getAttribute("clear").equals("yes"))); //$NON-NLS-1$ //$NON-NLS-2$
+			expr.setRepeat((expNode.getAttribute("repeat").equals("yes"))); //$NON-NLS-1$ //$NON-NLS-2$
+			regExp.setExpression(expr, regexp);
+		}
+	}
+
+	private void executeChildNodes(XBMCRegExp parent,Map<Integer,String> params) throws XBMCException {
+		for (XBMCRegExp node : parent.getChildren()) {
+			if (!node.getChildren().isEmpty()) {
+				executeChildNodes(node,params);
+			}
+			if (node.isRegExp()) {
+				performRegexp(params, node);
+			}
+		}
+	}
+
+	private void performRegexp(Map<Integer, String> params, XBMCRegExp node) throws XBMCException {
+		String conditional = node.getConditional();
 		if ( (!conditional.equals("")) && !addon.checkCondition(conditional)) { //$NON-NLS-1$
 			return;
 		}
 
-		StringBuffer newOutput = new StringBuffer();
+		String input = substituteParams(node.getInput(),params);
+		String orgOutput = substituteParams(node.getOutput(),params);
+
+		StringBuilder newOutput = new StringBuilder();
 
-		int dest = getDestParam(node);
-		boolean appendToDest = shouldAppendToBuffer(node);
-		XBMCExpression expression = getExpression(node,params);
+		int dest = node.getDest();
+		XBMCExpression expression = node.getExpression();
 		if (expression!=null) {
+			Pattern pattern = getPattern(node,params);
 			if (log.isDebugEnabled()) {
 				String in = input;
 				if (in.length()>50) {
 					in = in.substring(0,50);
 				}
-				log.debug("perform expr " + expression.toString() +" on [" + in+"]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				log.debug("perform expr " + pattern.toString() +" on [" + in+"]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			}
-			Matcher m = expression.getPattern().matcher(input);
+			Matcher m = pattern.matcher(input);
 			boolean found = false;
 
 			while (m.find()) {
@@ -155,12 +248,9 @@ public abstract class XBMCExtension extends XMLParser {
 					String value = m.group(j);
 					if (value!=null) {
 						value = processValue(expression,value,j);
-						output = output.replaceAll("\\\\"+(j), Matcher.quoteReplacement(value)); //$NON-NLS-1$
+						output = getGroupPattern(j).matcher(output).replaceAll(Matcher.quoteReplacement(value));
 					}
 				}
-				if (found==false && expression.getClear()) {
-					output = ""; //$NON-NLS-1$
-				}
 				newOutput.append(output);
 
 				if (!expression.getRepeat()) {
@@ -175,15 +265,16 @@ public abstract class XBMCExtension extends XMLParser {
 			newOutput.append(input);
 		}
 
-//		String s = XMLParser.encodeAttributeValue(newOutput.toString());
-		String s = newOutput.toString();
-		String output = processInfoVars(s);
+		String output = newOutput.toString();
+		if (XBMCRegExp.hasInfoVars(output)) {
+			output = processInfoVars(output);
+		}
 
 		if (dest!=-1) {
 			if (log.isDebugEnabled()) {
 				log.debug("Put param " + dest + " - " + output);  //$NON-NLS-1$//$NON-NLS-2$
 			}
-			if (appendToDest) {
+			if (node.isAppendToDest()) {
 				String orgValue = params.get(Integer.valueOf(dest));
 				if (orgValue!=null) {
 					output = orgValue+output;
@@ -195,9 +286,23 @@ public abstract class XBMCExtension extends XMLParser {
 
 	}
 
+	private String substituteParams(String value,Map<Integer, String> params) {
+		if (XBMCRegExp.hasParams(value)) {
+			return applyParams(value,params);
+		}
+		return value;
+	}
+
+	private Pattern getGroupPattern(int group) {
+		if (group<GROUP_PATTERNS.length) {
+			return GROUP_PATTERNS[group];
+		}
+		return Pattern.compile("\\\\"+group); //$NON-NLS-1$
+	}
+
 	private String processValue(XBMCExpression expression,String value,int group) {
 		if (!expression.getNoClean(group)) {
-			value = value.replaceAll("\\<.*?\\>", ""); //$NON-NLS-1$ //$NON-NLS-2$
+			value = TAG_PATTERN.matcher(value).replaceAll(""); //$NON-NLS-1$
 		}
 
 		if (expression.getTrim(group)) {
@@ -206,44 +311,37 @@ public abstract class XBMCExtension extends XMLParser {
 		return value;
 	}
 
-	private XBMCExpression getExpression(Element node,Map<Integer, String> params) throws XBMCException {
-		Element expNode = (Element) getChildNodeByName(node, "expression"); //$NON-NLS-1$
-
-		if (expNode !=null) {
-			XBMCExpression expr = new XBMCExpression();
-			String regexp = "(.+)"; //$NON-NLS-1$
-			if (expNode.getTextContent().length()>0) {
-				regexp = expNode.getTextContent();
-			}
-
-			regexp = applyParams(regexp, params);
+	private Pattern getPattern(XBMCRegExp node,Map<Integer, String> params) throws XBMCException {
+		Pattern p = node.getExpression().getPattern();
+		if (p!=null) {
+			return p;
+		}
+		String regexp = substituteParams(node.getExpressionText(), params);
+		if (XBMCRegExp.hasInfoVars(regexp)) {
 			regexp = processInfoVars(regexp);
+		}
+		synchronized (patternCache) {
+			p = patternCache.get(regexp);
+			if (p==null) {
+				p = compilePattern(regexp);
+				patternCache.put(regexp, p);
+			}
+		}
+		return p;
+	}
 
-			Pattern p;
+	private static Pattern compilePattern(String regexp) {
+		try {
+			return Pattern.compile(regexp,Pattern.MULTILINE | Pattern.DOTALL);
+		}
+		catch (java.util.regex.PatternSyntaxException e) {
 			try {
-				p = Pattern.compile(regexp,Pattern.MULTILINE | Pattern.DOTALL);
+				return Pattern.compile(regexp.replaceAll(Pattern.quote("{"), Matcher.quoteReplacement("\\{")),Pattern.MULTILINE | Pattern.DOTALL);  //$NON-NLS-1$//$NON-NLS-2$
 			}
-			catch (java.util.regex.PatternSyntaxException e) {
-				try {
-					p = Pattern.compile(regexp.replaceAll(Pattern.quote("{"), Matcher.quoteReplacement("\\{")),Pattern.MULTILINE | Pattern.DOTALL);  //$NON-NLS-1$//$NON-NLS-2$
-				}
-				catch (java.util.regex.PatternSyntaxException e1) {
-					throw e;
-				}
+			catch (java.util.regex.PatternSyntaxException e1) {
+				throw e;
 			}
-			expr.setPattern(p);
-
-			expr.setNoClean(expNode.getAttribute("noclean")); //$NON-NLS-1$
-
-
-			expr.setClear((expNode.getAttribute("clear").equals("yes"))); //$NON-NLS-1$ //$NON-NLS-2$
-
-			expr.setRepeat((expNode.getAttribute("repeat").equals("yes"))); //$NON-NLS-1$ //$NON-NLS-2$
-
-			return expr;
 		}
-
-		return null;
 	}
 
 	/* package for test*/ String applyParams(String output, Map<Integer, String> params) {
@@ -303,21 +401,6 @@ public abstract class XBMCExtension extends XMLParser {
 		return (sDest.endsWith("+")); //$NON-NLS-1$
 	}
 
-	private String getInputAttr(Map<Integer, String> params, Element node) {
-		String value = node.getAttribute("input"); //$NON-NLS-1$
-		if (value==null || value.equals("")) { //$NON-NLS-1$
-			value="$$1"; //$NON-NLS-1$
-		}
-		value = applyParams(value,params);
-		return value;
-	}
-
-	private String getOutputAttr(Map<Integer, String> params, Element node) {
-		String value = node.getAttribute("output"); //$NON-NLS-1$
-		value = applyParams(value,params);
-		return value;
-	}
-
 	/**
 	 * Used to get the XML scraper file been used
 	 * @return The XML scraper file
@@ -340,6 +423,14 @@ public abstract class XBMCExtension extends XMLParser {
 		return addon;
 	}
 
+	/**
+	 * Used to get the addon extension point of this extension
+	 * @return The extension point
+	 */
+	public String getPoint() {
+		return point;
+	}
+
 
 	/** {@inheritDoc} */
 	@Override
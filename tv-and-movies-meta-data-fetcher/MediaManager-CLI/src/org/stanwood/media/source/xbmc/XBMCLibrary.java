@@ -5,7 +5,6 @@ import java.text.MessageFormat;
 import java.util.Map;
 
 import org.stanwood.media.xml.XMLParserException;
-import org.w3c.dom.Element;
 
 /**
  * A library type of XBMC extensions
@@ -27,11 +26,11 @@ public class XBMCLibrary extends XBMCExtension {
 	/** {@inheritDoc} */
 	@Override
 	public String executeXBMCScraperFunction(String functionName,Map<Integer,String> params) throws  XBMCException, XMLParserException {
-		Element functionNode = (Element) selectSingleNode(getDocument(), ROOT_NODE_NAME+"/"+functionName); //$NON-NLS-1$
-		if (functionNode==null) {
+		XBMCRegExp function = getFunction(ROOT_NODE_NAME,functionName);
+		if (function==null) {
 			throw new XBMCFunctionNotFoundException(MessageFormat.format(Messages.getString("XBMCLibrary.UNABLE_PARSE_SCRAPER_FUNC"),functionName)); //$NON-NLS-1$
 		}
-		return executeXBMCFunction(functionNode,params);
+		return executeXBMCFunction(function,params);
 	}
 
 }
@@ -0,0 +1,186 @@
+package org.stanwood.media.source.xbmc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is a compiled form of a node within a XBMC scraper function. It is created
+ * once from the scraper XML so that the function can be executed without walking the DOM.
+ * If the node is a RegExp node, then it holds the parsed attributes and expression of
+ * the node. Child nodes are executed before the node itself.
+ */
+public class XBMCRegExp {
+
+	private final static String PARAM_MARKER = "$$"; //$NON-NLS-1$
+	private final static String INFO_MARKER = "$INFO["; //$NON-NLS-1$
+
+	private List<XBMCRegExp> children = new ArrayList<XBMCRegExp>();
+	private boolean regExp;
+	private String input;
+	private String output;
+	private String conditional;
+	private int dest = -1;
+	private boolean appendToDest;
+	private XBMCExpression expression;
+	private String expressionText;
+
+	/**
+	 * The constructor
+	 * @param regExp True if the node is a RegExp node, false if it only contains other nodes
+	 */
+	public XBMCRegExp(boolean regExp) {
+		this.regExp = regExp;
+	}
+
+	/**
+	 * Used to find out if this node is a RegExp node that should be performed
+	 * @return True if it is a RegExp node
+	 */
+	public boolean isRegExp() {
+		return regExp;
+	}
+
+	/**
+	 * Used to get the child nodes that are executed before this node
+	 * @return The child nodes
+	 */
+	public List<XBMCRegExp> getChildren() {
+		return children;
+	}
+
+	/**
+	 * Used to add a child node
+	 * @param child The child node
+	 */
+	public void addChild(XBMCRegExp child) {
+		children.add(child);
+	}
+
+	/**
+	 * Used to get the input attribute of the node
+	 * @return The input attribute
+	 */
+	public String getInput() {
+		return input;
+	}
+
+	/**
+	 * Used to set the input attribute of the node
+	 * @param input The input attribute
+	 */
+	public void setInput(String input) {
+		this.input = input;
+	}
+
+	/**
+	 * Used to get the output attribute of the node
+	 * @return The output attribute
+	 */
+	public String getOutput() {
+		return output;
+	}
+
+	/**
+	 * Used to set the output attribute of the node
+	 * @param output The output attribute
+	 */
+	public void setOutput(String output) {
+		this.output = output;
+	}
+
+	/**
+	 * Used to get the conditional attribute of the node
+	 * @return The conditional attribute, or a empty string if it was not set
+	 */
+	public String getConditional() {
+		return conditional;
+	}
+
+	/**
+	 * Used to set the conditional attribute of the node
+	 * @param conditional The conditional attribute
+	 */
+	public void setConditional(String conditional) {
+		this.conditional = conditional;
+	}
+
+	/**
+	 * Used to get the number of the parameter the result is stored in
+	 * @return The parameter number, or -1 if it was not set
+	 */
+	public int getDest() {
+		return dest;
+	}
+
+	/**
+	 * Used to set the number of the parameter the result is stored in
+	 * @param dest The parameter number, or -1 if it was not set
+	 */
+	public void setDest(int dest) {
+		this.dest = dest;
+	}
+
+	/**
+	 * Used to find out if the result should be appended to the dest parameter
+	 * @return True if the result should be appended
+	 */
+	public boolean isAppendToDest() {
+		return appendToDest;
+	}
+
+	/**
+	 * Used to set if the result should be appended to the dest parameter
+	 * @param appendToDest True if the result should be appended
+	 */
+	public void setAppendToDest(boolean appendToDest) {
+		this.appendToDest = appendToDest;
+	}
+
+	/**
+	 * Used to get the expression of the node. If the expression text contains parameters or
+	 * info settings, then the pattern of the expression is not set and must be compiled
+	 * from {@link #getExpressionText()} when the node is performed.
+	 * @return The expression, or null if the node does not have one
+	 */
+	public XBMCExpression getExpression() {
+		return expression;
+	}
+
+	/**
+	 * Used to get the raw expression text
+	 * @return The expression text
+	 */
+	public String getExpressionText() {
+		return expressionText;
+	}
+
+	/**
+	 * Used to set the expression of the node
+	 * @param expression The expression
+	 * @param expressionText The raw expression text
+	 */
+	public void setExpression(XBMCExpression expression,String expressionText) {
+		this.expression = expression;
+		this.expressionText = expressionText;
+	}
+
+	/**
+	 * Used to find out if a attribute or expression value contains parameters that
+	 * must be substituted when the node is performed
+	 * @param value The value
+	 * @return True if the value contains parameters
+	 */
+	public static boolean hasParams(String value) {
+		return value.indexOf(PARAM_MARKER)!=-1;
+	}
+
+	/**
+	 * Used to find out if a attribute or expression value contains info settings that
+	 * must be substituted when the node is performed
+	 * @param value The value
+	 * @return True if the value contains info settings
+	 */
+	public static boolean hasInfoVars(String value) {
+		return value.indexOf(INFO_MARKER)!=-1;
+	}
+}
@@ -141,6 +141,15 @@ public class XBMCScraper extends XBMCExtension {
 		}
 		try {
 			Map<Integer, String> params = convertParams(contents);
+			XBMCScraperCache cache = XBMCScraperCache.getInstance();
+			String key = cache.getKey(this, funcName, params);
+			Document doc = cache.get(key);
+			if (doc!=null) {
+				if (log.isDebugEnabled()) {
+					log.debug("Using cached result of scraper function: " + funcName); //$NON-NLS-1$
+				}
+				return doc;
+			}
 
 			String result = executeXBMCScraperFunction(funcName,params);
 			if (log.isDebugEnabled()) {
@@ -150,9 +159,10 @@ public class XBMCScraper extends XBMCExtension {
 				result = ""; //$NON-NLS-1$
 			}
 			try {
-				Document doc = XMLParser.strToDom(XMLParser.fixXMl(result));
+				doc = XMLParser.strToDom(XMLParser.fixXMl(result));
 				checkForError(doc,funcName);
 				resolveElements(doc);
+				cache.put(key, doc);
 				return doc;
 			}
 			catch (XMLParserException e) {
@@ -278,11 +288,11 @@ public class XBMCScraper extends XBMCExtension {
 	 */
 	@Override
 	public String executeXBMCScraperFunction(String functionName,Map<Integer,String> params) throws  XBMCException, XMLParserException {
-		Element functionNode = (Element) selectSingleNode(getDocument(), ROOT_NODE_NAME+"/"+functionName); //$NON-NLS-1$
-		if (functionNode==null) {
+		XBMCRegExp function = getFunction(ROOT_NODE_NAME,functionName);
+		if (function==null) {
 			throw new XBMCFunctionNotFoundException(MessageFormat.format(Messages.getString("XBMCScraper.UNABLE_FIND_SCRAPER_FUNCTION"),functionName)); //$NON-NLS-1$
 		}
-		return executeXBMCFunction(functionNode,params);
+		return executeXBMCFunction(function,params);
 	}
 
 	/**
@@ -0,0 +1,179 @@
+package org.stanwood.media.source.xbmc;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.stanwood.media.source.xbmc.expression.Value;
+import org.stanwood.media.util.FileHelper;
+import org.stanwood.media.util.HttpCache;
+import org.stanwood.media.xml.XMLParser;
+import org.stanwood.media.xml.XMLParserException;
+import org.w3c.dom.Document;
+
+/**
+ * This is used to cache the results of XBMC scraper functions, so that a function is not run
+ * again when it is called with the same parameters. For example when the episodes of a season are
+ * processed, the episode list only needs to be parsed once. The results are keyed on the addon id,
+ * addon version, extension point, function name and a hash of the parameters and addon settings.
+ * The results are held in memory, and if a cache directory has been set, they are also written to
+ * disk so that they can be reused by later runs of the application.
+ */
+public class XBMCScraperCache {
+
+	/** The default maximum size in bytes of the disk cache */
+	public final static long DEFAULT_MAX_DISK_SIZE = 50L*1024*1024;
+
+	private final static String CHARSET = "UTF-8"; //$NON-NLS-1$
+
+	private static XBMCScraperCache instance;
+
+	private final HttpCache cache = new HttpCache(200);
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	private XBMCScraperCache() {
+
+	}
+
+	/**
+	 * Used to set the directory the cached results are stored on disk
+	 * @param cacheDir The cache directory, or null if results should only be cached in memory
+	 * @param maxDiskSize The maximum size in bytes of the disk cache
+	 * @param ttl The time in milliseconds that new results are valid for
+	 */
+	public void setCacheDir(File cacheDir,long maxDiskSize,long ttl) {
+		cache.setCacheDir(cacheDir, maxDiskSize, ttl);
+	}
+
+	/**
+	 * Used to get the key of a function result
+	 * @param scraper The scraper the function belongs to
+	 * @param functionName The name of the function
+	 * @param params The parameters passed to the function
+	 * @return The key
+	 * @throws XBMCException Thrown if their is a problem reading the addon details
+	 */
+	public String getKey(XBMCScraper scraper,String functionName,Map<Integer,String>params) throws XBMCException {
+		XBMCAddon addon = scraper.getAddon();
+		try {
+			MessageDigest md = MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+			for (Entry<Integer,String> e : new TreeMap<Integer,String>(params).entrySet()) {
+				update(md,String.valueOf(e.getKey()));
+				update(md,e.getValue());
+			}
+			for (Entry<String,Value> e : new TreeMap<String,Value>(addon.getSettings()).entrySet()) {
+				update(md,e.getKey());
+				update(md,e.getValue()==null ? null : String.valueOf(e.getValue().getValue()));
+			}
+			StringBuilder key = new StringBuilder();
+			key.append(addon.getId());
+			key.append(':');
+			key.append(addon.getVersion());
+			key.append(':');
+			key.append(scraper.getPoint());
+			key.append(':');
+			key.append(functionName);
+			key.append(':');
+			key.append(FileHelper.bytesToHexString(md.digest()));
+			return key.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+		catch (UnsupportedEncodingException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static void update(MessageDigest md,String value) throws UnsupportedEncodingException {
+		if (value==null) {
+			md.update((byte)0);
+		}
+		else {
+			md.update((byte)1);
+			md.update(value.getBytes(CHARSET));
+			md.update((byte)0);
+		}
+	}
+
+	/**
+	 * Used to get a cached function result. A new document is returned each time, so it
+	 * can be changed by the caller.
+	 * @param key The key of the result
+	 * @return The result, or null if it has not been cached
+	 * @throws XMLParserException Thrown if the cached result can't be parsed
+	 */
+	public Document get(String key) throws XMLParserException {
+		List<String> value = cache.get(key);
+		if (value==null || value.size()!=1) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		return XMLParser.strToDom(value.get(0));
+	}
+
+	/**
+	 * Used to cache a function result
+	 * @param key The key of the result
+	 * @param result The result
+	 * @throws XMLParserException Thrown if the result can't be converted to a string
+	 */
+	public void put(String key,Document result) throws XMLParserException {
+		try {
+			Transformer transformer = TransformerFactory.newInstance().newTransformer();
+			transformer.setOutputProperty(OutputKeys.INDENT, "no"); //$NON-NLS-1$
+			StringWriter writer = new StringWriter();
+			transformer.transform(new DOMSource(result), new StreamResult(writer));
+			List<String> value = new ArrayList<String>(1);
+			value.add(writer.toString());
+			cache.put(key, value);
+		}
+		catch (TransformerException e) {
+			throw new XMLParserException(Messages.getString("XBMCScraperCache.UnableCacheResult"),e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Used to get the number of function calls that used a cached result
+	 * @return The number of cache hits
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Used to get the number of function calls that did not find a cached result
+	 * @return The number of cache misses
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Used to get a singleton instance of the cache
+	 * @return a singleton instance of the cache
+	 */
+	public synchronized static XBMCScraperCache getInstance() {
+		if (instance==null) {
+			instance = new XBMCScraperCache();
+		}
+		return instance;
+	}
+}
@@ -8,13 +8,24 @@ import java.text.MessageFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.transform.TransformerException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.stanwood.media.MediaDirectory;
+import org.stanwood.media.collections.LRUMapCache;
 import org.stanwood.media.extensions.ExtensionException;
 import org.stanwood.media.extensions.ExtensionInfo;
 import org.stanwood.media.model.Actor;
@@ -56,10 +67,21 @@ public class XBMCSource extends XMLParser implements ISource {
 	private static final SimpleDateFormat EPISODE_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd"); //$NON-NLS-1$
 	private final static Log log = LogFactory.getLog(XBMCSource.class);
 
+	/** The name of the parameter used to read the details of all the episodes in a season on the first lookup */
+	private final static String PARAM_PREFETCH = "prefetch"; //$NON-NLS-1$
+	/** The name of the parameter used to set the number of episode pages downloaded at the same time when prefetching */
+	private final static String PARAM_PREFETCH_THREADS = "prefetchThreads"; //$NON-NLS-1$
+	private final static int MAX_CACHED_SEASONS = 20;
+	/** The time in milliseconds before a cached episode guide is read again when it does not contain a episode */
+	private final static long MIN_GUIDE_AGE = 60000;
+
 	private XBMCAddon addon;
 	private String id;
 	private XBMCAddonManager mgr;
 	private ExtensionInfo<? extends ISource> sourceInfo;
+	private boolean prefetch = false;
+	private int prefetchThreads = 1;
+	private final Map<String,EpisodeGuide> episodeGuides = new LRUMapCache<String,EpisodeGuide>(MAX_CACHED_SEASONS);
 
 	/**
 	 * Used to create a instance of this class
@@ -93,26 +115,117 @@ public class XBMCSource extends XMLParser implements ISource {
 	}
 
 	private IEpisode parseEpisode(ISeason season, int episodeNum) throws SourceException, IOException {
-		List<XBMCEpisode> episodes = getEpisodeList(season.getShow(), season);
-		for (final XBMCEpisode episode : episodes) {
-			if (episode.getEpisodeNumber() == episodeNum) {
-				StreamProcessor processor = new StreamProcessor(episode.getUrl().toExternalForm()) {
-					@Override
-					protected Stream getStream() throws ExtensionException, IOException {
-						return mgr.getStreamToURL(episode.getUrl());
-					}
+		EpisodeGuide guide = getEpisodeGuide(season.getShow(), season);
+		XBMCEpisode episode = guide.getEpisode(episodeNum);
+		if (episode==null) {
+			// The episode may have been added since the guide was read
+			guide = refreshEpisodeGuide(season.getShow(), season, guide);
+			episode = guide.getEpisode(episodeNum);
+			if (episode==null) {
+				return null;
+			}
+		}
+		if (prefetch) {
+			readEpisodeDetails(guide);
+		}
+		else {
+			readEpisodeDetails(guide,episode);
+		}
+		// The guide episodes are shared, so the caller is given a copy
+		return episode.copy(season);
+	}
+
+	/**
+	 * Used to read the details of a episode. The guide is locked while the episode is read, so
+	 * that the shared episode is only parsed once and is not changed while it's been copied.
+	 */
+	private void readEpisodeDetails(EpisodeGuide guide,final XBMCEpisode episode) throws SourceException {
+		synchronized (guide) {
+			if (guide.isRead(episode)) {
+				return;
+			}
+			StreamProcessor processor = new StreamProcessor(episode.getUrl().toExternalForm()) {
+				@Override
+				protected Stream getStream() throws ExtensionException, IOException {
+					return mgr.getStreamToURL(episode.getUrl());
+				}
 
+				@Override
+				public void processContents(String contents) throws SourceException {
+					Document doc = addon.getScraper(Mode.TV_SHOW).getGetEpisodeDetails(contents,String.valueOf(episode.getEpisodeId()));
+					parseEpisode(episode, doc);
+				}
+			};
+			processor.handleStream();
+			guide.setRead(episode);
+		}
+	}
+
+	/**
+	 * Used to read the details of all the episodes in a episode guide. If more than one prefetch thread
+	 * has been set, then the episode pages are first downloaded at the same time into the HTTP cache.
+	 * The scraper is always run on one thread.
+	 */
+	private void readEpisodeDetails(EpisodeGuide guide) throws SourceException {
+		List<XBMCEpisode> unread = new ArrayList<XBMCEpisode>();
+		for (XBMCEpisode episode : guide.getEpisodes()) {
+			if (!guide.isRead(episode)) {
+				unread.add(episode);
+			}
+		}
+		if (unread.size()>1 && prefetchThreads>1) {
+			downloadEpisodePages(unread);
+		}
+		for (XBMCEpisode episode : unread) {
+			readEpisodeDetails(guide,episode);
+		}
+	}
+
+	private void downloadEpisodePages(List<XBMCEpisode> episodes) throws SourceException {
+		Set<String> urls = new LinkedHashSet<String>();
+		for (XBMCEpisode episode : episodes) {
+			urls.add(episode.getUrl().toExternalForm());
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(prefetchThreads,urls.size()));
+		try {
+			List<Future<Object>> results = new ArrayList<Future<Object>>();
+			for (final String url : urls) {
+				results.add(executor.submit(new Callable<Object>() {
 					@Override
-					public void processContents(String contents) throws SourceException {
-						Document doc = addon.getScraper(Mode.TV_SHOW).getGetEpisodeDetails(contents,String.valueOf(episode.getEpisodeId()));
-						parseEpisode(episode, doc);
+					public Object call() throws Exception {
+						StreamProcessor processor = new StreamProcessor(url) {
+							@Override
+							protected Stream getStream() throws ExtensionException, IOException {
+								return mgr.getStreamToURL(new URL(url));
+							}
+
+							@Override
+							public void processContents(String contents) {
+								// Only downloaded into the cache, the contents are parsed later
+							}
+						};
+						processor.handleStream();
+						return null;
 					}
-				};
-				processor.handleStream();
-				return episode;
+				}));
+			}
+			for (Future<Object> result : results) {
+				try {
+					result.get();
+				}
+				catch (ExecutionException e) {
+					// The page is downloaded again when it's parsed, which will report the problem
+					log.debug("Unable to prefetch episode page",e.getCause()); //$NON-NLS-1$
+				}
 			}
 		}
-		return null;
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SourceException(org.stanwood.media.source.xbmc.Messages.getString("XBMCSource.UNABLE_PARSE_EPISODE"),e); //$NON-NLS-1$
+		}
+		finally {
+			executor.shutdownNow();
+		}
 	}
 
 	/**
@@ -136,7 +249,11 @@ public class XBMCSource extends XMLParser implements ISource {
 		try {
 			URL url = new URL(show.getExtraInfo().get("episodeGuideURL")); //$NON-NLS-1$
 			season.setURL(url);
-			if (getEpisodeList(show, season).size()>0) {
+			EpisodeGuide guide = getEpisodeGuide(show, season);
+			if (guide.getEpisodes().size()==0) {
+				guide = refreshEpisodeGuide(show, season, guide);
+			}
+			if (guide.getEpisodes().size()>0) {
 				return season;
 			}
 			return null;
@@ -145,6 +262,35 @@ public class XBMCSource extends XMLParser implements ISource {
 		}
 	}
 
+	private synchronized EpisodeGuide getEpisodeGuide(IShow show,ISeason season) throws SourceException, IOException {
+		String key = getEpisodeGuideKey(season);
+		EpisodeGuide guide = episodeGuides.get(key);
+		if (guide==null) {
+			guide = new EpisodeGuide(getEpisodeList(show, season));
+			episodeGuides.put(key, guide);
+		}
+		return guide;
+	}
+
+	/**
+	 * Used to drop a cached episode guide that did not contain a wanted episode and read it
+	 * again. Guides that have only just been read are not read again.
+	 */
+	private synchronized EpisodeGuide refreshEpisodeGuide(IShow show,ISeason season,EpisodeGuide guide) throws SourceException, IOException {
+		if (System.currentTimeMillis()-guide.getReadTime()<MIN_GUIDE_AGE) {
+			return guide;
+		}
+		String key = getEpisodeGuideKey(season);
+		if (episodeGuides.get(key)==guide) {
+			episodeGuides.remove(key);
+		}
+		return getEpisodeGuide(show, season);
+	}
+
+	private String getEpisodeGuideKey(ISeason season) {
+		return season.getURL().toExternalForm()+"#"+season.getSeasonNumber(); //$NON-NLS-1$
+	}
+
 	private List<XBMCEpisode>getEpisodeList(final IShow show,final ISeason season) throws SourceException, IOException {
 		final List<XBMCEpisode>episodes = new ArrayList<XBMCEpisode>();
 
@@ -516,32 +662,19 @@ public class XBMCSource extends XMLParser implements ISource {
 
 	private List<XBMCEpisode> getSpecialList(IShow show) throws SourceException, IOException {
 		ISeason specialSeason = getSeason(show, 0);
-		List<XBMCEpisode> episodes = getEpisodeList(show, specialSeason);
-		for (final XBMCEpisode episode : episodes) {
-			StreamProcessor processor = new StreamProcessor(episode.getUrl().toExternalForm()) {
-				@Override
-				protected Stream getStream() throws ExtensionException, IOException {
-					return mgr.getStreamToURL(episode.getUrl());
-				}
-
-				@Override
-				public void processContents(String contents) throws SourceException {
-					Document doc = addon.getScraper(Mode.TV_SHOW).getGetEpisodeDetails(contents,String.valueOf(episode.getEpisodeId()));
-					parseEpisode(episode, doc);
-				}
-			};
-
-			processor.handleStream();
+		if (specialSeason==null) {
+			return new ArrayList<XBMCEpisode>();
 		}
-		return episodes;
+		EpisodeGuide guide = getEpisodeGuide(show, specialSeason);
+		readEpisodeDetails(guide);
+		return guide.getEpisodes();
 	}
 
 	private IEpisode parseSpecial(ISeason season, int specialNumber) throws SourceException, IOException {
 		List<XBMCEpisode> episodes = getSpecialList(season.getShow());
 		for (final XBMCEpisode episode : episodes) {
 			if (episode.getDisplayEpisode() == specialNumber && episode.getDisplaySeason() == season.getSeasonNumber()) {
-				episode.setSeason(season);
-				return episode;
+				return episode.copy(season);
 			}
 		}
 		return null;
@@ -671,6 +804,19 @@ public class XBMCSource extends XMLParser implements ISource {
 
 	@Override
 	public void setParameter(String key, String value) throws SourceException {
+		if (key.equals(PARAM_PREFETCH)) {
+			prefetch = Boolean.parseBoolean(value);
+			return;
+		}
+		if (key.equals(PARAM_PREFETCH_THREADS)) {
+			try {
+				prefetchThreads = Math.max(1,Integer.parseInt(value));
+			}
+			catch (NumberFormatException e) {
+				throw new SourceException(MessageFormat.format(Messages.getString("XBMCSource.InvalidParamValue"),key,value),e); //$NON-NLS-1$
+			}
+			return;
+		}
 		addon.setSetting(key,value);
 	}
 
@@ -682,6 +828,12 @@ public class XBMCSource extends XMLParser implements ISource {
 	 */
 	@Override
 	public String getParameter(String key) throws SourceException {
+		if (key.equals(PARAM_PREFETCH)) {
+			return String.valueOf(prefetch);
+		}
+		if (key.equals(PARAM_PREFETCH_THREADS)) {
+			return String.valueOf(prefetchThreads);
+		}
 		return addon.getSetting(key).toString();
 	}
 
@@ -703,5 +855,45 @@ public class XBMCSource extends XMLParser implements ISource {
 		return sourceInfo;
 	}
 
+	/**
+	 * The episodes of a season in the order they appear in the episode guide. This also keeps
+	 * track of the episodes whose details have been read.
+	 */
+	private static class EpisodeGuide {
+		private final List<XBMCEpisode> episodes;
+		private final Map<Integer,XBMCEpisode> numbers = new HashMap<Integer,XBMCEpisode>();
+		private final Set<XBMCEpisode> read = new HashSet<XBMCEpisode>();
+		private final long readTime = System.currentTimeMillis();
+
+		public EpisodeGuide(List<XBMCEpisode> episodes) {
+			this.episodes = episodes;
+			for (XBMCEpisode episode : episodes) {
+				if (!numbers.containsKey(episode.getEpisodeNumber())) {
+					numbers.put(episode.getEpisodeNumber(), episode);
+				}
+			}
+		}
+
+		public List<XBMCEpisode> getEpisodes() {
+			return episodes;
+		}
+
+		public XBMCEpisode getEpisode(int episodeNum) {
+			return numbers.get(episodeNum);
+		}
+
+		public long getReadTime() {
+			return readTime;
+		}
+
+		public synchronized boolean isRead(XBMCEpisode episode) {
+			return read.contains(episode);
+		}
+
+		public synchronized void setRead(XBMCEpisode episode) {
+			read.add(episode);
+		}
+	}
+
 
 }
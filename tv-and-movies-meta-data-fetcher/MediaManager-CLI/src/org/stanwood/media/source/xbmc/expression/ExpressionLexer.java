@@ -0,0 +1,1097 @@
+// $ANTLR 3.1.3 Mar 17, 2009 19:23:44 /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g 2026-10-17 17:51:04
+package org.stanwood.media.source.xbmc.expression;
+
+/*
+ *  Copyright (C) 2008  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+ 
+import java.util.HashMap;
+import java.util.Map;
+
+
+import org.antlr.runtime.*;
+import java.util.Stack;
+import java.util.List;
+import java.util.ArrayList;
+
+@SuppressWarnings("all")
+public class ExpressionLexer extends Lexer {
+    public static final int LETTER=5;
+    public static final int LT=22;
+    public static final int MINUS=12;
+    public static final int NOTEQUALS=19;
+    public static final int MULT=13;
+    public static final int WHITESPACE=9;
+    public static final int LTEQ=23;
+    public static final int IDENTIFIER=7;
+    public static final int EOF=-1;
+    public static final int INTEGER=8;
+    public static final int OR=20;
+    public static final int MOD=26;
+    public static final int EQUALS=18;
+    public static final int NEWLINE=10;
+    public static final int LBRACKET=15;
+    public static final int RBRACKET=16;
+    public static final int DIGIT=4;
+    public static final int GT=24;
+    public static final int BOOLEAN=6;
+    public static final int DIV=14;
+    public static final int NOT=17;
+    public static final int AND=21;
+    public static final int GTEQ=25;
+    public static final int PLUS=11;
+
+      @SuppressWarnings("all")
+
+      @Override
+      public void reportError(RecognitionException e) {
+        throw new ExpressionParserException(e);
+      }
+
+
+    // delegates
+    // delegators
+
+    public ExpressionLexer() {;} 
+    public ExpressionLexer(CharStream input) {
+        this(input, new RecognizerSharedState());
+    }
+    public ExpressionLexer(CharStream input, RecognizerSharedState state) {
+        super(input,state);
+
+    }
+    public String getGrammarFileName() { return "/root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g"; }
+
+    // $ANTLR start "DIGIT"
+    public final void mDIGIT() throws RecognitionException {
+        try {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:36:16: ( ( '0' .. '9' ) )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:36:18: ( '0' .. '9' )
+            {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:36:18: ( '0' .. '9' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:36:19: '0' .. '9'
+            {
+            matchRange('0','9'); 
+
+            }
+
+
+            }
+
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "DIGIT"
+
+    // $ANTLR start "LETTER"
+    public final void mLETTER() throws RecognitionException {
+        try {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:38:17: ( ( 'a' .. 'z' | 'A' .. 'Z' ) )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:38:19: ( 'a' .. 'z' | 'A' .. 'Z' )
+            {
+            if ( (input.LA(1)>='A' && input.LA(1)<='Z')||(input.LA(1)>='a' && input.LA(1)<='z') ) {
+                input.consume();
+
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;}
+
+
+            }
+
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "LETTER"
+
+    // $ANTLR start "BOOLEAN"
+    public final void mBOOLEAN() throws RecognitionException {
+        try {
+            int _type = BOOLEAN;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:41:5: ( ( 'true' | 'false' | 'yes' | 'no' ) )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:41:7: ( 'true' | 'false' | 'yes' | 'no' )
+            {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:41:7: ( 'true' | 'false' | 'yes' | 'no' )
+            int alt1=4;
+            switch ( input.LA(1) ) {
+            case 't':
+                {
+                alt1=1;
+                }
+                break;
+            case 'f':
+                {
+                alt1=2;
+                }
+                break;
+            case 'y':
+                {
+                alt1=3;
+                }
+                break;
+            case 'n':
+                {
+                alt1=4;
+                }
+                break;
+            default:
+                NoViableAltException nvae =
+                    new NoViableAltException("", 1, 0, input);
+
+                throw nvae;
+            }
+
+            switch (alt1) {
+                case 1 :
+                    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:41:8: 'true'
+                    {
+                    match("true"); 
+
+
+                    }
+                    break;
+                case 2 :
+                    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:41:17: 'false'
+                    {
+                    match("false"); 
+
+
+                    }
+                    break;
+                case 3 :
+                    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:41:27: 'yes'
+                    {
+                    match("yes"); 
+
+
+                    }
+                    break;
+                case 4 :
+                    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:41:35: 'no'
+                    {
+                    match("no"); 
+
+
+                    }
+                    break;
+
+            }
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "BOOLEAN"
+
+    // $ANTLR start "IDENTIFIER"
+    public final void mIDENTIFIER() throws RecognitionException {
+        try {
+            int _type = IDENTIFIER;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:45:5: ( ( LETTER | '_' ) ( LETTER | '_' | DIGIT )* )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:45:10: ( LETTER | '_' ) ( LETTER | '_' | DIGIT )*
+            {
+            if ( (input.LA(1)>='A' && input.LA(1)<='Z')||input.LA(1)=='_'||(input.LA(1)>='a' && input.LA(1)<='z') ) {
+                input.consume();
+
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;}
+
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:45:25: ( LETTER | '_' | DIGIT )*
+            loop2:
+            do {
+                int alt2=4;
+                switch ( input.LA(1) ) {
+                case 'A':
+                case 'B':
+                case 'C':
+                case 'D':
+                case 'E':
+                case 'F':
+                case 'G':
+                case 'H':
+                case 'I':
+                case 'J':
+                case 'K':
+                case 'L':
+                case 'M':
+                case 'N':
+                case 'O':
+                case 'P':
+                case 'Q':
+                case 'R':
+                case 'S':
+                case 'T':
+                case 'U':
+                case 'V':
+                case 'W':
+                case 'X':
+                case 'Y':
+                case 'Z':
+                case 'a':
+                case 'b':
+                case 'c':
+                case 'd':
+                case 'e':
+                case 'f':
+                case 'g':
+                case 'h':
+                case 'i':
+                case 'j':
+                case 'k':
+                case 'l':
+                case 'm':
+                case 'n':
+                case 'o':
+                case 'p':
+                case 'q':
+                case 'r':
+                case 's':
+                case 't':
+                case 'u':
+                case 'v':
+                case 'w':
+                case 'x':
+                case 'y':
+                case 'z':
+                    {
+                    alt2=1;
+                    }
+                    break;
+                case '_':
+                    {
+                    alt2=2;
+                    }
+                    break;
+                case '0':
+                case '1':
+                case '2':
+                case '3':
+                case '4':
+                case '5':
+                case '6':
+                case '7':
+                case '8':
+                case '9':
+                    {
+                    alt2=3;
+                    }
+                    break;
+
+                }
+
+                switch (alt2) {
+            	case 1 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:45:26: LETTER
+            	    {
+            	    mLETTER(); 
+
+            	    }
+            	    break;
+            	case 2 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:45:35: '_'
+            	    {
+            	    match('_'); 
+
+            	    }
+            	    break;
+            	case 3 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:45:40: DIGIT
+            	    {
+            	    mDIGIT(); 
+
+            	    }
+            	    break;
+
+            	default :
+            	    break loop2;
+                }
+            } while (true);
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "IDENTIFIER"
+
+    // $ANTLR start "INTEGER"
+    public final void mINTEGER() throws RecognitionException {
+        try {
+            int _type = INTEGER;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:49:5: ( ( DIGIT )+ )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:49:10: ( DIGIT )+
+            {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:49:10: ( DIGIT )+
+            int cnt3=0;
+            loop3:
+            do {
+                int alt3=2;
+                int LA3_0 = input.LA(1);
+
+                if ( ((LA3_0>='0' && LA3_0<='9')) ) {
+                    alt3=1;
+                }
+
+
+                switch (alt3) {
+            	case 1 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:49:10: DIGIT
+            	    {
+            	    mDIGIT(); 
+
+            	    }
+            	    break;
+
+            	default :
+            	    if ( cnt3 >= 1 ) break loop3;
+                        EarlyExitException eee =
+                            new EarlyExitException(3, input);
+                        throw eee;
+                }
+                cnt3++;
+            } while (true);
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "INTEGER"
+
+    // $ANTLR start "WHITESPACE"
+    public final void mWHITESPACE() throws RecognitionException {
+        try {
+            int _type = WHITESPACE;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:52:12: ( ( ' ' | '\\t' )+ )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:52:14: ( ' ' | '\\t' )+
+            {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:52:14: ( ' ' | '\\t' )+
+            int cnt4=0;
+            loop4:
+            do {
+                int alt4=2;
+                int LA4_0 = input.LA(1);
+
+                if ( (LA4_0=='\t'||LA4_0==' ') ) {
+                    alt4=1;
+                }
+
+
+                switch (alt4) {
+            	case 1 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:
+            	    {
+            	    if ( input.LA(1)=='\t'||input.LA(1)==' ' ) {
+            	        input.consume();
+
+            	    }
+            	    else {
+            	        MismatchedSetException mse = new MismatchedSetException(null,input);
+            	        recover(mse);
+            	        throw mse;}
+
+
+            	    }
+            	    break;
+
+            	default :
+            	    if ( cnt4 >= 1 ) break loop4;
+                        EarlyExitException eee =
+                            new EarlyExitException(4, input);
+                        throw eee;
+                }
+                cnt4++;
+            } while (true);
+
+             skip(); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "WHITESPACE"
+
+    // $ANTLR start "NEWLINE"
+    public final void mNEWLINE() throws RecognitionException {
+        try {
+            int _type = NEWLINE;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:53:9: ( ( '\\r' | '\\n' )+ )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:53:11: ( '\\r' | '\\n' )+
+            {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:53:11: ( '\\r' | '\\n' )+
+            int cnt5=0;
+            loop5:
+            do {
+                int alt5=2;
+                int LA5_0 = input.LA(1);
+
+                if ( (LA5_0=='\n'||LA5_0=='\r') ) {
+                    alt5=1;
+                }
+
+
+                switch (alt5) {
+            	case 1 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:
+            	    {
+            	    if ( input.LA(1)=='\n'||input.LA(1)=='\r' ) {
+            	        input.consume();
+
+            	    }
+            	    else {
+            	        MismatchedSetException mse = new MismatchedSetException(null,input);
+            	        recover(mse);
+            	        throw mse;}
+
+
+            	    }
+            	    break;
+
+            	default :
+            	    if ( cnt5 >= 1 ) break loop5;
+                        EarlyExitException eee =
+                            new EarlyExitException(5, input);
+                        throw eee;
+                }
+                cnt5++;
+            } while (true);
+
+             skip(); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "NEWLINE"
+
+    // $ANTLR start "PLUS"
+    public final void mPLUS() throws RecognitionException {
+        try {
+            int _type = PLUS;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:55:7: ( '+' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:55:12: '+'
+            {
+            match('+'); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "PLUS"
+
+    // $ANTLR start "MINUS"
+    public final void mMINUS() throws RecognitionException {
+        try {
+            int _type = MINUS;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:56:7: ( '-' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:56:12: '-'
+            {
+            match('-'); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "MINUS"
+
+    // $ANTLR start "MULT"
+    public final void mMULT() throws RecognitionException {
+        try {
+            int _type = MULT;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:57:7: ( '*' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:57:12: '*'
+            {
+            match('*'); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "MULT"
+
+    // $ANTLR start "DIV"
+    public final void mDIV() throws RecognitionException {
+        try {
+            int _type = DIV;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:58:7: ( '/' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:58:12: '/'
+            {
+            match('/'); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "DIV"
+
+    // $ANTLR start "LBRACKET"
+    public final void mLBRACKET() throws RecognitionException {
+        try {
+            int _type = LBRACKET;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:59:10: ( '(' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:59:12: '('
+            {
+            match('('); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "LBRACKET"
+
+    // $ANTLR start "RBRACKET"
+    public final void mRBRACKET() throws RecognitionException {
+        try {
+            int _type = RBRACKET;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:60:10: ( ')' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:60:12: ')'
+            {
+            match(')'); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "RBRACKET"
+
+    // $ANTLR start "NOT"
+    public final void mNOT() throws RecognitionException {
+        try {
+            int _type = NOT;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:61:10: ( '!' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:61:12: '!'
+            {
+            match('!'); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "NOT"
+
+    // $ANTLR start "EQUALS"
+    public final void mEQUALS() throws RecognitionException {
+        try {
+            int _type = EQUALS;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:62:10: ( '==' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:62:12: '=='
+            {
+            match("=="); 
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "EQUALS"
+
+    // $ANTLR start "NOTEQUALS"
+    public final void mNOTEQUALS() throws RecognitionException {
+        try {
+            int _type = NOTEQUALS;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:63:10: ( '!=' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:63:12: '!='
+            {
+            match("!="); 
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "NOTEQUALS"
+
+    // $ANTLR start "OR"
+    public final void mOR() throws RecognitionException {
+        try {
+            int _type = OR;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:64:10: ( '||' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:64:12: '||'
+            {
+            match("||"); 
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "OR"
+
+    // $ANTLR start "AND"
+    public final void mAND() throws RecognitionException {
+        try {
+            int _type = AND;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:65:10: ( '&&' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:65:12: '&&'
+            {
+            match("&&"); 
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "AND"
+
+    // $ANTLR start "LT"
+    public final void mLT() throws RecognitionException {
+        try {
+            int _type = LT;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:66:7: ( '<' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:66:12: '<'
+            {
+            match('<'); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "LT"
+
+    // $ANTLR start "LTEQ"
+    public final void mLTEQ() throws RecognitionException {
+        try {
+            int _type = LTEQ;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:67:7: ( '<=' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:67:12: '<='
+            {
+            match("<="); 
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "LTEQ"
+
+    // $ANTLR start "GT"
+    public final void mGT() throws RecognitionException {
+        try {
+            int _type = GT;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:68:7: ( '>' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:68:12: '>'
+            {
+            match('>'); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "GT"
+
+    // $ANTLR start "GTEQ"
+    public final void mGTEQ() throws RecognitionException {
+        try {
+            int _type = GTEQ;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:69:7: ( '>=' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:69:12: '>='
+            {
+            match(">="); 
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "GTEQ"
+
+    // $ANTLR start "MOD"
+    public final void mMOD() throws RecognitionException {
+        try {
+            int _type = MOD;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:70:7: ( '%' )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:70:12: '%'
+            {
+            match('%'); 
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+        }
+    }
+    // $ANTLR end "MOD"
+
+    public void mTokens() throws RecognitionException {
+        // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:8: ( BOOLEAN | IDENTIFIER | INTEGER | WHITESPACE | NEWLINE | PLUS | MINUS | MULT | DIV | LBRACKET | RBRACKET | NOT | EQUALS | NOTEQUALS | OR | AND | LT | LTEQ | GT | GTEQ | MOD )
+        int alt6=21;
+        alt6 = dfa6.predict(input);
+        switch (alt6) {
+            case 1 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:10: BOOLEAN
+                {
+                mBOOLEAN(); 
+
+                }
+                break;
+            case 2 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:18: IDENTIFIER
+                {
+                mIDENTIFIER(); 
+
+                }
+                break;
+            case 3 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:29: INTEGER
+                {
+                mINTEGER(); 
+
+                }
+                break;
+            case 4 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:37: WHITESPACE
+                {
+                mWHITESPACE(); 
+
+                }
+                break;
+            case 5 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:48: NEWLINE
+                {
+                mNEWLINE(); 
+
+                }
+                break;
+            case 6 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:56: PLUS
+                {
+                mPLUS(); 
+
+                }
+                break;
+            case 7 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:61: MINUS
+                {
+                mMINUS(); 
+
+                }
+                break;
+            case 8 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:67: MULT
+                {
+                mMULT(); 
+
+                }
+                break;
+            case 9 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:72: DIV
+                {
+                mDIV(); 
+
+                }
+                break;
+            case 10 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:76: LBRACKET
+                {
+                mLBRACKET(); 
+
+                }
+                break;
+            case 11 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:85: RBRACKET
+                {
+                mRBRACKET(); 
+
+                }
+                break;
+            case 12 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:94: NOT
+                {
+                mNOT(); 
+
+                }
+                break;
+            case 13 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:98: EQUALS
+                {
+                mEQUALS(); 
+
+                }
+                break;
+            case 14 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:105: NOTEQUALS
+                {
+                mNOTEQUALS(); 
+
+                }
+                break;
+            case 15 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:115: OR
+                {
+                mOR(); 
+
+                }
+                break;
+            case 16 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:118: AND
+                {
+                mAND(); 
+
+                }
+                break;
+            case 17 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:122: LT
+                {
+                mLT(); 
+
+                }
+                break;
+            case 18 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:125: LTEQ
+                {
+                mLTEQ(); 
+
+                }
+                break;
+            case 19 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:130: GT
+                {
+                mGT(); 
+
+                }
+                break;
+            case 20 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:133: GTEQ
+                {
+                mGTEQ(); 
+
+                }
+                break;
+            case 21 :
+                // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionLexer.g:1:138: MOD
+                {
+                mMOD(); 
+
+                }
+                break;
+
+        }
+
+    }
+
+
+    protected DFA6 dfa6 = new DFA6(this);
+    static final String DFA6_eotS =
+        "\1\uffff\4\5\12\uffff\1\33\3\uffff\1\35\1\37\1\uffff\3\5\1\43\6"+
+        "\uffff\2\5\1\43\1\uffff\1\43\1\5\1\43";
+    static final String DFA6_eofS =
+        "\47\uffff";
+    static final String DFA6_minS =
+        "\1\11\1\162\1\141\1\145\1\157\12\uffff\1\75\3\uffff\2\75\1\uffff"+
+        "\1\165\1\154\1\163\1\60\6\uffff\1\145\1\163\1\60\1\uffff\1\60\1"+
+        "\145\1\60";
+    static final String DFA6_maxS =
+        "\1\174\1\162\1\141\1\145\1\157\12\uffff\1\75\3\uffff\2\75\1\uffff"+
+        "\1\165\1\154\1\163\1\172\6\uffff\1\145\1\163\1\172\1\uffff\1\172"+
+        "\1\145\1\172";
+    static final String DFA6_acceptS =
+        "\5\uffff\1\2\1\3\1\4\1\5\1\6\1\7\1\10\1\11\1\12\1\13\1\uffff\1\15"+
+        "\1\17\1\20\2\uffff\1\25\4\uffff\1\16\1\14\1\22\1\21\1\24\1\23\3"+
+        "\uffff\1\1\3\uffff";
+    static final String DFA6_specialS =
+        "\47\uffff}>";
+    static final String[] DFA6_transitionS = {
+            "\1\7\1\10\2\uffff\1\10\22\uffff\1\7\1\17\3\uffff\1\25\1\22\1"+
+            "\uffff\1\15\1\16\1\13\1\11\1\uffff\1\12\1\uffff\1\14\12\6\2"+
+            "\uffff\1\23\1\20\1\24\2\uffff\32\5\4\uffff\1\5\1\uffff\5\5\1"+
+            "\2\7\5\1\4\5\5\1\1\4\5\1\3\1\5\1\uffff\1\21",
+            "\1\26",
+            "\1\27",
+            "\1\30",
+            "\1\31",
+            "",
+            "",
+            "",
+            "",
+            "",
+            "",
+            "",
+            "",
+            "",
+            "",
+            "\1\32",
+            "",
+            "",
+            "",
+            "\1\34",
+            "\1\36",
+            "",
+            "\1\40",
+            "\1\41",
+            "\1\42",
+            "\12\5\7\uffff\32\5\4\uffff\1\5\1\uffff\32\5",
+            "",
+            "",
+            "",
+            "",
+            "",
+            "",
+            "\1\44",
+            "\1\45",
+            "\12\5\7\uffff\32\5\4\uffff\1\5\1\uffff\32\5",
+            "",
+            "\12\5\7\uffff\32\5\4\uffff\1\5\1\uffff\32\5",
+            "\1\46",
+            "\12\5\7\uffff\32\5\4\uffff\1\5\1\uffff\32\5"
+    };
+
+    static final short[] DFA6_eot = DFA.unpackEncodedString(DFA6_eotS);
+    static final short[] DFA6_eof = DFA.unpackEncodedString(DFA6_eofS);
+    static final char[] DFA6_min = DFA.unpackEncodedStringToUnsignedChars(DFA6_minS);
+    static final char[] DFA6_max = DFA.unpackEncodedStringToUnsignedChars(DFA6_maxS);
+    static final short[] DFA6_accept = DFA.unpackEncodedString(DFA6_acceptS);
+    static final short[] DFA6_special = DFA.unpackEncodedString(DFA6_specialS);
+    static final short[][] DFA6_transition;
+
+    static {
+        int numStates = DFA6_transitionS.length;
+        DFA6_transition = new short[numStates][];
+        for (int i=0; i<numStates; i++) {
+            DFA6_transition[i] = DFA.unpackEncodedString(DFA6_transitionS[i]);
+        }
+    }
+
+    class DFA6 extends DFA {
+
+        public DFA6(BaseRecognizer recognizer) {
+            this.recognizer = recognizer;
+            this.decisionNumber = 6;
+            this.eot = DFA6_eot;
+            this.eof = DFA6_eof;
+            this.min = DFA6_min;
+            this.max = DFA6_max;
+            this.accept = DFA6_accept;
+            this.special = DFA6_special;
+            this.transition = DFA6_transition;
+        }
+        public String getDescription() {
+            return "1:1: Tokens : ( BOOLEAN | IDENTIFIER | INTEGER | WHITESPACE | NEWLINE | PLUS | MINUS | MULT | DIV | LBRACKET | RBRACKET | NOT | EQUALS | NOTEQUALS | OR | AND | LT | LTEQ | GT | GTEQ | MOD );";
+        }
+    }
+ 
+
+}
\ No newline at end of file
@@ -0,0 +1,1107 @@
+// $ANTLR 3.1.3 Mar 17, 2009 19:23:44 /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g 2026-10-17 17:51:05
+
+package org.stanwood.media.source.xbmc.expression;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+import org.antlr.runtime.*;
+import java.util.Stack;
+import java.util.List;
+import java.util.ArrayList;
+
+
+import org.antlr.runtime.tree.*;
+
+@SuppressWarnings("all")
+public class ExpressionParser extends Parser {
+    public static final String[] tokenNames = new String[] {
+        "<invalid>", "<EOR>", "<DOWN>", "<UP>", "DIGIT", "LETTER", "BOOLEAN", "IDENTIFIER", "INTEGER", "WHITESPACE", "NEWLINE", "PLUS", "MINUS", "MULT", "DIV", "LBRACKET", "RBRACKET", "NOT", "EQUALS", "NOTEQUALS", "OR", "AND", "LT", "LTEQ", "GT", "GTEQ", "MOD"
+    };
+    public static final int LETTER=5;
+    public static final int LT=22;
+    public static final int MINUS=12;
+    public static final int NOTEQUALS=19;
+    public static final int MULT=13;
+    public static final int WHITESPACE=9;
+    public static final int LTEQ=23;
+    public static final int IDENTIFIER=7;
+    public static final int EOF=-1;
+    public static final int INTEGER=8;
+    public static final int OR=20;
+    public static final int MOD=26;
+    public static final int EQUALS=18;
+    public static final int NEWLINE=10;
+    public static final int LBRACKET=15;
+    public static final int RBRACKET=16;
+    public static final int DIGIT=4;
+    public static final int GT=24;
+    public static final int BOOLEAN=6;
+    public static final int DIV=14;
+    public static final int NOT=17;
+    public static final int AND=21;
+    public static final int GTEQ=25;
+    public static final int PLUS=11;
+
+    // delegates
+    // delegators
+
+
+        public ExpressionParser(TokenStream input) {
+            this(input, new RecognizerSharedState());
+        }
+        public ExpressionParser(TokenStream input, RecognizerSharedState state) {
+            super(input, state);
+             
+        }
+        
+    protected TreeAdaptor adaptor = new CommonTreeAdaptor();
+
+    public void setTreeAdaptor(TreeAdaptor adaptor) {
+        this.adaptor = adaptor;
+    }
+    public TreeAdaptor getTreeAdaptor() {
+        return adaptor;
+    }
+
+    public String[] getTokenNames() { return ExpressionParser.tokenNames; }
+    public String getGrammarFileName() { return "/root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g"; }
+
+
+    @SuppressWarnings("all")
+
+    /** Map Value name to Integer object holding value */
+    private Map<String,Value> variables;
+
+    public Map<String,Value> getVariables() {
+      return this.variables; 
+    }
+
+    public void setVariables(Map<String,Value> variables) {
+      this.variables = variables;
+    }
+        
+
+
+    public static class parse_return extends ParserRuleReturnScope {
+        public Value value;
+        Object tree;
+        public Object getTree() { return tree; }
+    };
+
+    // $ANTLR start "parse"
+    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:33:1: parse returns [Value value] : exp= logicalExpression ;
+    public final ExpressionParser.parse_return parse() throws RecognitionException {
+        ExpressionParser.parse_return retval = new ExpressionParser.parse_return();
+        retval.start = input.LT(1);
+
+        Object root_0 = null;
+
+        ExpressionParser.logicalExpression_return exp = null;
+
+
+
+        try {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:34:5: (exp= logicalExpression )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:34:10: exp= logicalExpression
+            {
+            root_0 = (Object)adaptor.nil();
+
+            pushFollow(FOLLOW_logicalExpression_in_parse67);
+            exp=logicalExpression();
+
+            state._fsp--;
+
+            adaptor.addChild(root_0, exp.getTree());
+             retval.value = (exp!=null?exp.value:null);
+
+            }
+
+            retval.stop = input.LT(-1);
+
+            retval.tree = (Object)adaptor.rulePostProcessing(root_0);
+            adaptor.setTokenBoundaries(retval.tree, retval.start, retval.stop);
+
+        }
+        catch (RecognitionException re) {
+            reportError(re);
+            recover(input,re);
+    	retval.tree = (Object)adaptor.errorNode(input, retval.start, input.LT(-1), re);
+
+        }
+        finally {
+        }
+        return retval;
+    }
+    // $ANTLR end "parse"
+
+    public static class logicalExpression_return extends ParserRuleReturnScope {
+        public Value value;
+        Object tree;
+        public Object getTree() { return tree; }
+    };
+
+    // $ANTLR start "logicalExpression"
+    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:37:1: logicalExpression returns [Value value] : b1= booleanAndExpression ( OR b2= booleanAndExpression )* ;
+    public final ExpressionParser.logicalExpression_return logicalExpression() throws RecognitionException {
+        ExpressionParser.logicalExpression_return retval = new ExpressionParser.logicalExpression_return();
+        retval.start = input.LT(1);
+
+        Object root_0 = null;
+
+        Token OR1=null;
+        ExpressionParser.booleanAndExpression_return b1 = null;
+
+        ExpressionParser.booleanAndExpression_return b2 = null;
+
+
+        Object OR1_tree=null;
+
+        try {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:38:5: (b1= booleanAndExpression ( OR b2= booleanAndExpression )* )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:38:10: b1= booleanAndExpression ( OR b2= booleanAndExpression )*
+            {
+            root_0 = (Object)adaptor.nil();
+
+            pushFollow(FOLLOW_booleanAndExpression_in_logicalExpression95);
+            b1=booleanAndExpression();
+
+            state._fsp--;
+
+            adaptor.addChild(root_0, b1.getTree());
+            retval.value = (b1!=null?b1.value:null);
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:39:10: ( OR b2= booleanAndExpression )*
+            loop1:
+            do {
+                int alt1=2;
+                int LA1_0 = input.LA(1);
+
+                if ( (LA1_0==OR) ) {
+                    alt1=1;
+                }
+
+
+                switch (alt1) {
+            	case 1 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:39:12: OR b2= booleanAndExpression
+            	    {
+            	    OR1=(Token)match(input,OR,FOLLOW_OR_in_logicalExpression111); 
+            	    OR1_tree = (Object)adaptor.create(OR1);
+            	    adaptor.addChild(root_0, OR1_tree);
+
+            	    pushFollow(FOLLOW_booleanAndExpression_in_logicalExpression115);
+            	    b2=booleanAndExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, b2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.OR,retval.value,(b2!=null?b2.value:null));
+
+            	    }
+            	    break;
+
+            	default :
+            	    break loop1;
+                }
+            } while (true);
+
+
+            }
+
+            retval.stop = input.LT(-1);
+
+            retval.tree = (Object)adaptor.rulePostProcessing(root_0);
+            adaptor.setTokenBoundaries(retval.tree, retval.start, retval.stop);
+
+        }
+        catch (RecognitionException re) {
+            reportError(re);
+            recover(input,re);
+    	retval.tree = (Object)adaptor.errorNode(input, retval.start, input.LT(-1), re);
+
+        }
+        finally {
+        }
+        return retval;
+    }
+    // $ANTLR end "logicalExpression"
+
+    public static class booleanAndExpression_return extends ParserRuleReturnScope {
+        public Value value;
+        Object tree;
+        public Object getTree() { return tree; }
+    };
+
+    // $ANTLR start "booleanAndExpression"
+    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:43:1: booleanAndExpression returns [Value value] : b1= equalityExpression ( AND b2= equalityExpression )* ;
+    public final ExpressionParser.booleanAndExpression_return booleanAndExpression() throws RecognitionException {
+        ExpressionParser.booleanAndExpression_return retval = new ExpressionParser.booleanAndExpression_return();
+        retval.start = input.LT(1);
+
+        Object root_0 = null;
+
+        Token AND2=null;
+        ExpressionParser.equalityExpression_return b1 = null;
+
+        ExpressionParser.equalityExpression_return b2 = null;
+
+
+        Object AND2_tree=null;
+
+        try {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:44:5: (b1= equalityExpression ( AND b2= equalityExpression )* )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:44:10: b1= equalityExpression ( AND b2= equalityExpression )*
+            {
+            root_0 = (Object)adaptor.nil();
+
+            pushFollow(FOLLOW_equalityExpression_in_booleanAndExpression164);
+            b1=equalityExpression();
+
+            state._fsp--;
+
+            adaptor.addChild(root_0, b1.getTree());
+            retval.value = (b1!=null?b1.value:null);
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:45:10: ( AND b2= equalityExpression )*
+            loop2:
+            do {
+                int alt2=2;
+                int LA2_0 = input.LA(1);
+
+                if ( (LA2_0==AND) ) {
+                    alt2=1;
+                }
+
+
+                switch (alt2) {
+            	case 1 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:45:12: AND b2= equalityExpression
+            	    {
+            	    AND2=(Token)match(input,AND,FOLLOW_AND_in_booleanAndExpression179); 
+            	    AND2_tree = (Object)adaptor.create(AND2);
+            	    adaptor.addChild(root_0, AND2_tree);
+
+            	    pushFollow(FOLLOW_equalityExpression_in_booleanAndExpression183);
+            	    b2=equalityExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, b2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.AND,retval.value,(b2!=null?b2.value:null));
+
+            	    }
+            	    break;
+
+            	default :
+            	    break loop2;
+                }
+            } while (true);
+
+
+            }
+
+            retval.stop = input.LT(-1);
+
+            retval.tree = (Object)adaptor.rulePostProcessing(root_0);
+            adaptor.setTokenBoundaries(retval.tree, retval.start, retval.stop);
+
+        }
+        catch (RecognitionException re) {
+            reportError(re);
+            recover(input,re);
+    	retval.tree = (Object)adaptor.errorNode(input, retval.start, input.LT(-1), re);
+
+        }
+        finally {
+        }
+        return retval;
+    }
+    // $ANTLR end "booleanAndExpression"
+
+    public static class equalityExpression_return extends ParserRuleReturnScope {
+        public Value value;
+        Object tree;
+        public Object getTree() { return tree; }
+    };
+
+    // $ANTLR start "equalityExpression"
+    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:49:1: equalityExpression returns [Value value] : b1= relationalExpression ( EQUALS a2= relationalExpression | NOTEQUALS a2= relationalExpression )* ;
+    public final ExpressionParser.equalityExpression_return equalityExpression() throws RecognitionException {
+        ExpressionParser.equalityExpression_return retval = new ExpressionParser.equalityExpression_return();
+        retval.start = input.LT(1);
+
+        Object root_0 = null;
+
+        Token EQUALS3=null;
+        Token NOTEQUALS4=null;
+        ExpressionParser.relationalExpression_return b1 = null;
+
+        ExpressionParser.relationalExpression_return a2 = null;
+
+
+        Object EQUALS3_tree=null;
+        Object NOTEQUALS4_tree=null;
+
+        try {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:50:5: (b1= relationalExpression ( EQUALS a2= relationalExpression | NOTEQUALS a2= relationalExpression )* )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:50:10: b1= relationalExpression ( EQUALS a2= relationalExpression | NOTEQUALS a2= relationalExpression )*
+            {
+            root_0 = (Object)adaptor.nil();
+
+            pushFollow(FOLLOW_relationalExpression_in_equalityExpression227);
+            b1=relationalExpression();
+
+            state._fsp--;
+
+            adaptor.addChild(root_0, b1.getTree());
+            retval.value = (b1!=null?b1.value:null);
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:51:10: ( EQUALS a2= relationalExpression | NOTEQUALS a2= relationalExpression )*
+            loop3:
+            do {
+                int alt3=3;
+                int LA3_0 = input.LA(1);
+
+                if ( (LA3_0==EQUALS) ) {
+                    alt3=1;
+                }
+                else if ( (LA3_0==NOTEQUALS) ) {
+                    alt3=2;
+                }
+
+
+                switch (alt3) {
+            	case 1 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:51:12: EQUALS a2= relationalExpression
+            	    {
+            	    EQUALS3=(Token)match(input,EQUALS,FOLLOW_EQUALS_in_equalityExpression243); 
+            	    EQUALS3_tree = (Object)adaptor.create(EQUALS3);
+            	    adaptor.addChild(root_0, EQUALS3_tree);
+
+            	    pushFollow(FOLLOW_relationalExpression_in_equalityExpression247);
+            	    a2=relationalExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, a2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.EQUALS,retval.value,(a2!=null?a2.value:null));
+
+            	    }
+            	    break;
+            	case 2 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:52:12: NOTEQUALS a2= relationalExpression
+            	    {
+            	    NOTEQUALS4=(Token)match(input,NOTEQUALS,FOLLOW_NOTEQUALS_in_equalityExpression263); 
+            	    NOTEQUALS4_tree = (Object)adaptor.create(NOTEQUALS4);
+            	    adaptor.addChild(root_0, NOTEQUALS4_tree);
+
+            	    pushFollow(FOLLOW_relationalExpression_in_equalityExpression267);
+            	    a2=relationalExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, a2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.NOTEQUALS,retval.value,(a2!=null?a2.value:null));
+
+            	    }
+            	    break;
+
+            	default :
+            	    break loop3;
+                }
+            } while (true);
+
+
+            }
+
+            retval.stop = input.LT(-1);
+
+            retval.tree = (Object)adaptor.rulePostProcessing(root_0);
+            adaptor.setTokenBoundaries(retval.tree, retval.start, retval.stop);
+
+        }
+        catch (RecognitionException re) {
+            reportError(re);
+            recover(input,re);
+    	retval.tree = (Object)adaptor.errorNode(input, retval.start, input.LT(-1), re);
+
+        }
+        finally {
+        }
+        return retval;
+    }
+    // $ANTLR end "equalityExpression"
+
+    public static class relationalExpression_return extends ParserRuleReturnScope {
+        public Value value;
+        Object tree;
+        public Object getTree() { return tree; }
+    };
+
+    // $ANTLR start "relationalExpression"
+    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:56:1: relationalExpression returns [Value value] : b1= additiveExpression ( LT b2= additiveExpression | LTEQ b2= additiveExpression | GT b2= additiveExpression | GTEQ b2= additiveExpression )* ;
+    public final ExpressionParser.relationalExpression_return relationalExpression() throws RecognitionException {
+        ExpressionParser.relationalExpression_return retval = new ExpressionParser.relationalExpression_return();
+        retval.start = input.LT(1);
+
+        Object root_0 = null;
+
+        Token LT5=null;
+        Token LTEQ6=null;
+        Token GT7=null;
+        Token GTEQ8=null;
+        ExpressionParser.additiveExpression_return b1 = null;
+
+        ExpressionParser.additiveExpression_return b2 = null;
+
+
+        Object LT5_tree=null;
+        Object LTEQ6_tree=null;
+        Object GT7_tree=null;
+        Object GTEQ8_tree=null;
+
+        try {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:57:5: (b1= additiveExpression ( LT b2= additiveExpression | LTEQ b2= additiveExpression | GT b2= additiveExpression | GTEQ b2= additiveExpression )* )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:57:10: b1= additiveExpression ( LT b2= additiveExpression | LTEQ b2= additiveExpression | GT b2= additiveExpression | GTEQ b2= additiveExpression )*
+            {
+            root_0 = (Object)adaptor.nil();
+
+            pushFollow(FOLLOW_additiveExpression_in_relationalExpression312);
+            b1=additiveExpression();
+
+            state._fsp--;
+
+            adaptor.addChild(root_0, b1.getTree());
+            retval.value = (b1!=null?b1.value:null);
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:58:10: ( LT b2= additiveExpression | LTEQ b2= additiveExpression | GT b2= additiveExpression | GTEQ b2= additiveExpression )*
+            loop4:
+            do {
+                int alt4=5;
+                switch ( input.LA(1) ) {
+                case LT:
+                    {
+                    alt4=1;
+                    }
+                    break;
+                case LTEQ:
+                    {
+                    alt4=2;
+                    }
+                    break;
+                case GT:
+                    {
+                    alt4=3;
+                    }
+                    break;
+                case GTEQ:
+                    {
+                    alt4=4;
+                    }
+                    break;
+
+                }
+
+                switch (alt4) {
+            	case 1 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:58:11: LT b2= additiveExpression
+            	    {
+            	    LT5=(Token)match(input,LT,FOLLOW_LT_in_relationalExpression327); 
+            	    LT5_tree = (Object)adaptor.create(LT5);
+            	    adaptor.addChild(root_0, LT5_tree);
+
+            	    pushFollow(FOLLOW_additiveExpression_in_relationalExpression331);
+            	    b2=additiveExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, b2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.LESS,retval.value,(b2!=null?b2.value:null));
+
+            	    }
+            	    break;
+            	case 2 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:59:12: LTEQ b2= additiveExpression
+            	    {
+            	    LTEQ6=(Token)match(input,LTEQ,FOLLOW_LTEQ_in_relationalExpression347); 
+            	    LTEQ6_tree = (Object)adaptor.create(LTEQ6);
+            	    adaptor.addChild(root_0, LTEQ6_tree);
+
+            	    pushFollow(FOLLOW_additiveExpression_in_relationalExpression351);
+            	    b2=additiveExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, b2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.LESS_EQUALS,retval.value,(b2!=null?b2.value:null));
+
+            	    }
+            	    break;
+            	case 3 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:60:11: GT b2= additiveExpression
+            	    {
+            	    GT7=(Token)match(input,GT,FOLLOW_GT_in_relationalExpression373); 
+            	    GT7_tree = (Object)adaptor.create(GT7);
+            	    adaptor.addChild(root_0, GT7_tree);
+
+            	    pushFollow(FOLLOW_additiveExpression_in_relationalExpression377);
+            	    b2=additiveExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, b2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.GREATER,retval.value,(b2!=null?b2.value:null));
+
+            	    }
+            	    break;
+            	case 4 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:61:12: GTEQ b2= additiveExpression
+            	    {
+            	    GTEQ8=(Token)match(input,GTEQ,FOLLOW_GTEQ_in_relationalExpression392); 
+            	    GTEQ8_tree = (Object)adaptor.create(GTEQ8);
+            	    adaptor.addChild(root_0, GTEQ8_tree);
+
+            	    pushFollow(FOLLOW_additiveExpression_in_relationalExpression396);
+            	    b2=additiveExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, b2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.GREATER_EQUALS,retval.value,(b2!=null?b2.value:null));
+
+            	    }
+            	    break;
+
+            	default :
+            	    break loop4;
+                }
+            } while (true);
+
+
+            }
+
+            retval.stop = input.LT(-1);
+
+            retval.tree = (Object)adaptor.rulePostProcessing(root_0);
+            adaptor.setTokenBoundaries(retval.tree, retval.start, retval.stop);
+
+        }
+        catch (RecognitionException re) {
+            reportError(re);
+            recover(input,re);
+    	retval.tree = (Object)adaptor.errorNode(input, retval.start, input.LT(-1), re);
+
+        }
+        finally {
+        }
+        return retval;
+    }
+    // $ANTLR end "relationalExpression"
+
+    public static class additiveExpression_return extends ParserRuleReturnScope {
+        public Value value;
+        Object tree;
+        public Object getTree() { return tree; }
+    };
+
+    // $ANTLR start "additiveExpression"
+    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:65:1: additiveExpression returns [Value value] : m1= multiplicativeExpression ( PLUS m2= multiplicativeExpression | MINUS m2= multiplicativeExpression )* ;
+    public final ExpressionParser.additiveExpression_return additiveExpression() throws RecognitionException {
+        ExpressionParser.additiveExpression_return retval = new ExpressionParser.additiveExpression_return();
+        retval.start = input.LT(1);
+
+        Object root_0 = null;
+
+        Token PLUS9=null;
+        Token MINUS10=null;
+        ExpressionParser.multiplicativeExpression_return m1 = null;
+
+        ExpressionParser.multiplicativeExpression_return m2 = null;
+
+
+        Object PLUS9_tree=null;
+        Object MINUS10_tree=null;
+
+        try {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:66:5: (m1= multiplicativeExpression ( PLUS m2= multiplicativeExpression | MINUS m2= multiplicativeExpression )* )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:66:10: m1= multiplicativeExpression ( PLUS m2= multiplicativeExpression | MINUS m2= multiplicativeExpression )*
+            {
+            root_0 = (Object)adaptor.nil();
+
+            pushFollow(FOLLOW_multiplicativeExpression_in_additiveExpression443);
+            m1=multiplicativeExpression();
+
+            state._fsp--;
+
+            adaptor.addChild(root_0, m1.getTree());
+            retval.value =  (m1!=null?m1.value:null);
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:67:9: ( PLUS m2= multiplicativeExpression | MINUS m2= multiplicativeExpression )*
+            loop5:
+            do {
+                int alt5=3;
+                int LA5_0 = input.LA(1);
+
+                if ( (LA5_0==PLUS) ) {
+                    alt5=1;
+                }
+                else if ( (LA5_0==MINUS) ) {
+                    alt5=2;
+                }
+
+
+                switch (alt5) {
+            	case 1 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:67:11: PLUS m2= multiplicativeExpression
+            	    {
+            	    PLUS9=(Token)match(input,PLUS,FOLLOW_PLUS_in_additiveExpression463); 
+            	    PLUS9_tree = (Object)adaptor.create(PLUS9);
+            	    adaptor.addChild(root_0, PLUS9_tree);
+
+            	    pushFollow(FOLLOW_multiplicativeExpression_in_additiveExpression467);
+            	    m2=multiplicativeExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, m2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.ADDITION,retval.value,(m2!=null?m2.value:null));
+
+            	    }
+            	    break;
+            	case 2 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:68:11: MINUS m2= multiplicativeExpression
+            	    {
+            	    MINUS10=(Token)match(input,MINUS,FOLLOW_MINUS_in_additiveExpression482); 
+            	    MINUS10_tree = (Object)adaptor.create(MINUS10);
+            	    adaptor.addChild(root_0, MINUS10_tree);
+
+            	    pushFollow(FOLLOW_multiplicativeExpression_in_additiveExpression486);
+            	    m2=multiplicativeExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, m2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.SUBTRACTION,retval.value,(m2!=null?m2.value:null));
+
+            	    }
+            	    break;
+
+            	default :
+            	    break loop5;
+                }
+            } while (true);
+
+
+            }
+
+            retval.stop = input.LT(-1);
+
+            retval.tree = (Object)adaptor.rulePostProcessing(root_0);
+            adaptor.setTokenBoundaries(retval.tree, retval.start, retval.stop);
+
+        }
+        catch (RecognitionException re) {
+            reportError(re);
+            recover(input,re);
+    	retval.tree = (Object)adaptor.errorNode(input, retval.start, input.LT(-1), re);
+
+        }
+        finally {
+        }
+        return retval;
+    }
+    // $ANTLR end "additiveExpression"
+
+    public static class multiplicativeExpression_return extends ParserRuleReturnScope {
+        public Value value;
+        Object tree;
+        public Object getTree() { return tree; }
+    };
+
+    // $ANTLR start "multiplicativeExpression"
+    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:72:1: multiplicativeExpression returns [Value value] : a1= unaryExpression ( MULT a2= unaryExpression | DIV a2= unaryExpression )* ;
+    public final ExpressionParser.multiplicativeExpression_return multiplicativeExpression() throws RecognitionException {
+        ExpressionParser.multiplicativeExpression_return retval = new ExpressionParser.multiplicativeExpression_return();
+        retval.start = input.LT(1);
+
+        Object root_0 = null;
+
+        Token MULT11=null;
+        Token DIV12=null;
+        ExpressionParser.unaryExpression_return a1 = null;
+
+        ExpressionParser.unaryExpression_return a2 = null;
+
+
+        Object MULT11_tree=null;
+        Object DIV12_tree=null;
+
+        try {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:73:5: (a1= unaryExpression ( MULT a2= unaryExpression | DIV a2= unaryExpression )* )
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:73:9: a1= unaryExpression ( MULT a2= unaryExpression | DIV a2= unaryExpression )*
+            {
+            root_0 = (Object)adaptor.nil();
+
+            pushFollow(FOLLOW_unaryExpression_in_multiplicativeExpression526);
+            a1=unaryExpression();
+
+            state._fsp--;
+
+            adaptor.addChild(root_0, a1.getTree());
+            retval.value = (a1!=null?a1.value:null);
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:74:9: ( MULT a2= unaryExpression | DIV a2= unaryExpression )*
+            loop6:
+            do {
+                int alt6=3;
+                int LA6_0 = input.LA(1);
+
+                if ( (LA6_0==MULT) ) {
+                    alt6=1;
+                }
+                else if ( (LA6_0==DIV) ) {
+                    alt6=2;
+                }
+
+
+                switch (alt6) {
+            	case 1 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:74:11: MULT a2= unaryExpression
+            	    {
+            	    MULT11=(Token)match(input,MULT,FOLLOW_MULT_in_multiplicativeExpression546); 
+            	    MULT11_tree = (Object)adaptor.create(MULT11);
+            	    adaptor.addChild(root_0, MULT11_tree);
+
+            	    pushFollow(FOLLOW_unaryExpression_in_multiplicativeExpression550);
+            	    a2=unaryExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, a2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.MULTIPLY,retval.value,(a2!=null?a2.value:null));
+
+            	    }
+            	    break;
+            	case 2 :
+            	    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:75:11: DIV a2= unaryExpression
+            	    {
+            	    DIV12=(Token)match(input,DIV,FOLLOW_DIV_in_multiplicativeExpression565); 
+            	    DIV12_tree = (Object)adaptor.create(DIV12);
+            	    adaptor.addChild(root_0, DIV12_tree);
+
+            	    pushFollow(FOLLOW_unaryExpression_in_multiplicativeExpression569);
+            	    a2=unaryExpression();
+
+            	    state._fsp--;
+
+            	    adaptor.addChild(root_0, a2.getTree());
+            	    retval.value = OperationHelper.performOperation(Operation.DIVIDE,retval.value,(a2!=null?a2.value:null));
+
+            	    }
+            	    break;
+
+            	default :
+            	    break loop6;
+                }
+            } while (true);
+
+
+            }
+
+            retval.stop = input.LT(-1);
+
+            retval.tree = (Object)adaptor.rulePostProcessing(root_0);
+            adaptor.setTokenBoundaries(retval.tree, retval.start, retval.stop);
+
+        }
+        catch (RecognitionException re) {
+            reportError(re);
+            recover(input,re);
+    	retval.tree = (Object)adaptor.errorNode(input, retval.start, input.LT(-1), re);
+
+        }
+        finally {
+        }
+        return retval;
+    }
+    // $ANTLR end "multiplicativeExpression"
+
+    public static class unaryExpression_return extends ParserRuleReturnScope {
+        public Value value;
+        Object tree;
+        public Object getTree() { return tree; }
+    };
+
+    // $ANTLR start "unaryExpression"
+    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:79:1: unaryExpression returns [Value value] : (u1= primaryExpression | NOT u1= primaryExpression );
+    public final ExpressionParser.unaryExpression_return unaryExpression() throws RecognitionException {
+        ExpressionParser.unaryExpression_return retval = new ExpressionParser.unaryExpression_return();
+        retval.start = input.LT(1);
+
+        Object root_0 = null;
+
+        Token NOT13=null;
+        ExpressionParser.primaryExpression_return u1 = null;
+
+
+        Object NOT13_tree=null;
+
+        try {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:80:5: (u1= primaryExpression | NOT u1= primaryExpression )
+            int alt7=2;
+            int LA7_0 = input.LA(1);
+
+            if ( ((LA7_0>=BOOLEAN && LA7_0<=INTEGER)||LA7_0==LBRACKET) ) {
+                alt7=1;
+            }
+            else if ( (LA7_0==NOT) ) {
+                alt7=2;
+            }
+            else {
+                NoViableAltException nvae =
+                    new NoViableAltException("", 7, 0, input);
+
+                throw nvae;
+            }
+            switch (alt7) {
+                case 1 :
+                    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:80:9: u1= primaryExpression
+                    {
+                    root_0 = (Object)adaptor.nil();
+
+                    pushFollow(FOLLOW_primaryExpression_in_unaryExpression623);
+                    u1=primaryExpression();
+
+                    state._fsp--;
+
+                    adaptor.addChild(root_0, u1.getTree());
+                     retval.value = (u1!=null?u1.value:null); 
+
+                    }
+                    break;
+                case 2 :
+                    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:81:9: NOT u1= primaryExpression
+                    {
+                    root_0 = (Object)adaptor.nil();
+
+                    NOT13=(Token)match(input,NOT,FOLLOW_NOT_in_unaryExpression641); 
+                    NOT13_tree = (Object)adaptor.create(NOT13);
+                    adaptor.addChild(root_0, NOT13_tree);
+
+                    pushFollow(FOLLOW_primaryExpression_in_unaryExpression645);
+                    u1=primaryExpression();
+
+                    state._fsp--;
+
+                    adaptor.addChild(root_0, u1.getTree());
+                     retval.value = OperationHelper.performOperation(Operation.NOT,(u1!=null?u1.value:null)); 
+
+                    }
+                    break;
+
+            }
+            retval.stop = input.LT(-1);
+
+            retval.tree = (Object)adaptor.rulePostProcessing(root_0);
+            adaptor.setTokenBoundaries(retval.tree, retval.start, retval.stop);
+
+        }
+        catch (RecognitionException re) {
+            reportError(re);
+            recover(input,re);
+    	retval.tree = (Object)adaptor.errorNode(input, retval.start, input.LT(-1), re);
+
+        }
+        finally {
+        }
+        return retval;
+    }
+    // $ANTLR end "unaryExpression"
+
+    public static class primaryExpression_return extends ParserRuleReturnScope {
+        public Value value;
+        Object tree;
+        public Object getTree() { return tree; }
+    };
+
+    // $ANTLR start "primaryExpression"
+    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:84:1: primaryExpression returns [Value value] : (v= INTEGER | v= BOOLEAN | i= IDENTIFIER | LBRACKET exp= logicalExpression RBRACKET );
+    public final ExpressionParser.primaryExpression_return primaryExpression() throws RecognitionException {
+        ExpressionParser.primaryExpression_return retval = new ExpressionParser.primaryExpression_return();
+        retval.start = input.LT(1);
+
+        Object root_0 = null;
+
+        Token v=null;
+        Token i=null;
+        Token LBRACKET14=null;
+        Token RBRACKET15=null;
+        ExpressionParser.logicalExpression_return exp = null;
+
+
+        Object v_tree=null;
+        Object i_tree=null;
+        Object LBRACKET14_tree=null;
+        Object RBRACKET15_tree=null;
+
+        try {
+            // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:85:5: (v= INTEGER | v= BOOLEAN | i= IDENTIFIER | LBRACKET exp= logicalExpression RBRACKET )
+            int alt8=4;
+            switch ( input.LA(1) ) {
+            case INTEGER:
+                {
+                alt8=1;
+                }
+                break;
+            case BOOLEAN:
+                {
+                alt8=2;
+                }
+                break;
+            case IDENTIFIER:
+                {
+                alt8=3;
+                }
+                break;
+            case LBRACKET:
+                {
+                alt8=4;
+                }
+                break;
+            default:
+                NoViableAltException nvae =
+                    new NoViableAltException("", 8, 0, input);
+
+                throw nvae;
+            }
+
+            switch (alt8) {
+                case 1 :
+                    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:85:10: v= INTEGER
+                    {
+                    root_0 = (Object)adaptor.nil();
+
+                    v=(Token)match(input,INTEGER,FOLLOW_INTEGER_in_primaryExpression673); 
+                    v_tree = (Object)adaptor.create(v);
+                    adaptor.addChild(root_0, v_tree);
+
+                     retval.value = ValueFactory.createValue(ValueType.INTEGER,(v!=null?v.getText():null));
+
+                    }
+                    break;
+                case 2 :
+                    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:86:10: v= BOOLEAN
+                    {
+                    root_0 = (Object)adaptor.nil();
+
+                    v=(Token)match(input,BOOLEAN,FOLLOW_BOOLEAN_in_primaryExpression702); 
+                    v_tree = (Object)adaptor.create(v);
+                    adaptor.addChild(root_0, v_tree);
+
+                     retval.value = ValueFactory.createValue(ValueType.BOOLEAN,(v!=null?v.getText():null));
+
+                    }
+                    break;
+                case 3 :
+                    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:87:10: i= IDENTIFIER
+                    {
+                    root_0 = (Object)adaptor.nil();
+
+                    i=(Token)match(input,IDENTIFIER,FOLLOW_IDENTIFIER_in_primaryExpression744); 
+                    i_tree = (Object)adaptor.create(i);
+                    adaptor.addChild(root_0, i_tree);
+
+                     Value value1 = getVariables().get((i!=null?i.getText():null));
+                                                       if (value1==null) {
+                                                          throw new ExpressionParserException("Unable to find variable "+(i!=null?i.getText():null));
+                                                       }
+                                                       retval.value = value1; 
+
+                    }
+                    break;
+                case 4 :
+                    // /root/project/tv-and-movies-meta-data-fetcher/MediaManager-CLI/src/org/stanwood/media/source/xbmc/expression/ExpressionParser.g:92:10: LBRACKET exp= logicalExpression RBRACKET
+                    {
+                    root_0 = (Object)adaptor.nil();
+
+                    LBRACKET14=(Token)match(input,LBRACKET,FOLLOW_LBRACKET_in_primaryExpression768); 
+                    LBRACKET14_tree = (Object)adaptor.create(LBRACKET14);
+                    adaptor.addChild(root_0, LBRACKET14_tree);
+
+                    pushFollow(FOLLOW_logicalExpression_in_primaryExpression772);
+                    exp=logicalExpression();
+
+                    state._fsp--;
+
+                    adaptor.addChild(root_0, exp.getTree());
+                    RBRACKET15=(Token)match(input,RBRACKET,FOLLOW_RBRACKET_in_primaryExpression774); 
+                    RBRACKET15_tree = (Object)adaptor.create(RBRACKET15);
+                    adaptor.addChild(root_0, RBRACKET15_tree);
+
+                    retval.value = (exp!=null?exp.value:null);
+
+                    }
+                    break;
+
+            }
+            retval.stop = input.LT(-1);
+
+            retval.tree = (Object)adaptor.rulePostProcessing(root_0);
+            adaptor.setTokenBoundaries(retval.tree, retval.start, retval.stop);
+
+        }
+        catch (RecognitionException re) {
+            reportError(re);
+            recover(input,re);
+    	retval.tree = (Object)adaptor.errorNode(input, retval.start, input.LT(-1), re);
+
+        }
+        finally {
+        }
+        return retval;
+    }
+    // $ANTLR end "primaryExpression"
+
+    // Delegated rules
+
+
+ 
+
+    public static final BitSet FOLLOW_logicalExpression_in_parse67 = new BitSet(new long[]{0x0000000000000002L});
+    public static final BitSet FOLLOW_booleanAndExpression_in_logicalExpression95 = new BitSet(new long[]{0x0000000000100002L});
+    public static final BitSet FOLLOW_OR_in_logicalExpression111 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_booleanAndExpression_in_logicalExpression115 = new BitSet(new long[]{0x0000000000100002L});
+    public static final BitSet FOLLOW_equalityExpression_in_booleanAndExpression164 = new BitSet(new long[]{0x0000000000200002L});
+    public static final BitSet FOLLOW_AND_in_booleanAndExpression179 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_equalityExpression_in_booleanAndExpression183 = new BitSet(new long[]{0x0000000000200002L});
+    public static final BitSet FOLLOW_relationalExpression_in_equalityExpression227 = new BitSet(new long[]{0x00000000000C0002L});
+    public static final BitSet FOLLOW_EQUALS_in_equalityExpression243 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_relationalExpression_in_equalityExpression247 = new BitSet(new long[]{0x00000000000C0002L});
+    public static final BitSet FOLLOW_NOTEQUALS_in_equalityExpression263 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_relationalExpression_in_equalityExpression267 = new BitSet(new long[]{0x00000000000C0002L});
+    public static final BitSet FOLLOW_additiveExpression_in_relationalExpression312 = new BitSet(new long[]{0x0000000003C00002L});
+    public static final BitSet FOLLOW_LT_in_relationalExpression327 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_additiveExpression_in_relationalExpression331 = new BitSet(new long[]{0x0000000003C00002L});
+    public static final BitSet FOLLOW_LTEQ_in_relationalExpression347 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_additiveExpression_in_relationalExpression351 = new BitSet(new long[]{0x0000000003C00002L});
+    public static final BitSet FOLLOW_GT_in_relationalExpression373 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_additiveExpression_in_relationalExpression377 = new BitSet(new long[]{0x0000000003C00002L});
+    public static final BitSet FOLLOW_GTEQ_in_relationalExpression392 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_additiveExpression_in_relationalExpression396 = new BitSet(new long[]{0x0000000003C00002L});
+    public static final BitSet FOLLOW_multiplicativeExpression_in_additiveExpression443 = new BitSet(new long[]{0x0000000000001802L});
+    public static final BitSet FOLLOW_PLUS_in_additiveExpression463 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_multiplicativeExpression_in_additiveExpression467 = new BitSet(new long[]{0x0000000000001802L});
+    public static final BitSet FOLLOW_MINUS_in_additiveExpression482 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_multiplicativeExpression_in_additiveExpression486 = new BitSet(new long[]{0x0000000000001802L});
+    public static final BitSet FOLLOW_unaryExpression_in_multiplicativeExpression526 = new BitSet(new long[]{0x0000000000006002L});
+    public static final BitSet FOLLOW_MULT_in_multiplicativeExpression546 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_unaryExpression_in_multiplicativeExpression550 = new BitSet(new long[]{0x0000000000006002L});
+    public static final BitSet FOLLOW_DIV_in_multiplicativeExpression565 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_unaryExpression_in_multiplicativeExpression569 = new BitSet(new long[]{0x0000000000006002L});
+    public static final BitSet FOLLOW_primaryExpression_in_unaryExpression623 = new BitSet(new long[]{0x0000000000000002L});
+    public static final BitSet FOLLOW_NOT_in_unaryExpression641 = new BitSet(new long[]{0x00000000000081C0L});
+    public static final BitSet FOLLOW_primaryExpression_in_unaryExpression645 = new BitSet(new long[]{0x0000000000000002L});
+    public static final BitSet FOLLOW_INTEGER_in_primaryExpression673 = new BitSet(new long[]{0x0000000000000002L});
+    public static final BitSet FOLLOW_BOOLEAN_in_primaryExpression702 = new BitSet(new long[]{0x0000000000000002L});
+    public static final BitSet FOLLOW_IDENTIFIER_in_primaryExpression744 = new BitSet(new long[]{0x0000000000000002L});
+    public static final BitSet FOLLOW_LBRACKET_in_primaryExpression768 = new BitSet(new long[]{0x00000000000281C0L});
+    public static final BitSet FOLLOW_logicalExpression_in_primaryExpression772 = new BitSet(new long[]{0x0000000000010000L});
+    public static final BitSet FOLLOW_RBRACKET_in_primaryExpression774 = new BitSet(new long[]{0x0000000000000002L});
+
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store;
+
+/**
+ * This interface is implemented by stores that can write changes more efficiently when
+ * they know many files are going to be cached. While a bulk session is open the store
+ * may group the changes into batches, so they might not be written until the next batch is
+ * full or the session is ended. The store must keep the media details it has returned
+ * usable until the next checkpoint, or until the session is ended.
+ */
+public interface IBulkStore {
+
+	/**
+	 * Called before many files are going to be cached by the store
+	 * @throws StoreException Thrown if their is a problem
+	 */
+	public void beginBulkSession() throws StoreException;
+
+	/**
+	 * Called during a bulk session when none of the media details got from the store are
+	 * still been used, so that the store can release anything it has been holding on to.
+	 * @throws StoreException Thrown if their is a problem
+	 */
+	public void bulkCheckpoint() throws StoreException;
+
+	/**
+	 * Called once the files have been cached, so that any changes that have not been
+	 * written yet can be written.
+	 * @throws StoreException Thrown if their is a problem
+	 */
+	public void endBulkSession() throws StoreException;
+}
@@ -0,0 +1,302 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.Collection;
+import java.util.List;
+
+import org.stanwood.media.MediaDirectory;
+import org.stanwood.media.model.IEpisode;
+import org.stanwood.media.model.IFilm;
+import org.stanwood.media.model.ISeason;
+import org.stanwood.media.model.IShow;
+import org.stanwood.media.model.Mode;
+import org.stanwood.media.model.ModelCopier;
+import org.stanwood.media.model.SearchResult;
+import org.stanwood.media.progress.IProgressMonitor;
+import org.stanwood.media.setup.MediaDirConfig;
+
+/**
+ * This store wraps another store and makes sure that only one thread at a time
+ * can access it. All the stores of a media directory share the same lock so that
+ * lookups which read from one store and cache in another see a consistent view.
+ * It is used when media details are looked up by more than one worker thread.
+ * The media details returned by the lookups are copies taken while the lock is held,
+ * so worker threads never share the objects, or any lazily loaded state, of the
+ * wrapped store.
+ * Bulk sessions are passed on to the wrapped store if it supports them.
+ */
+public class SynchronizedStore implements IStore, IBulkStore {
+
+	private final IStore store;
+	private final Object lock;
+
+	/**
+	 * The constructor
+	 * @param store The store that is been wrapped
+	 * @param lock The object used to lock access to the store
+	 */
+	public SynchronizedStore(IStore store,Object lock) {
+		this.store = store;
+		this.lock = lock;
+	}
+
+	/**
+	 * Used to get the store that is been wrapped
+	 * @return The wrapped store
+	 */
+	public IStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Used to get the store that does the work, which is the wrapped store if the store
+	 * is a synchronized store. This should be used when the identity or class of a store
+	 * is checked.
+	 * @param store The store
+	 * @return The wrapped store, or the store if it is not wrapped
+	 */
+	public static IStore unwrap(IStore store) {
+		if (store instanceof SynchronizedStore) {
+			return ((SynchronizedStore)store).getStore();
+		}
+		return store;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void cacheEpisode(File rootMediaDir, File episodeFile, File orginalFile, IEpisode episode) throws StoreException {
+		synchronized (lock) {
+			store.cacheEpisode(rootMediaDir, episodeFile, orginalFile, episode);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void cacheSeason(File rootMediaDir, File episodeFile, ISeason season) throws StoreException {
+		synchronized (lock) {
+			store.cacheSeason(rootMediaDir, episodeFile, season);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void cacheShow(File rootMediaDir, File episodeFile, IShow show) throws StoreException {
+		synchronized (lock) {
+			store.cacheShow(rootMediaDir, episodeFile, show);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void cacheFilm(File rootMediaDir, File filmFile, File orginalFile, IFilm film, Integer part) throws StoreException {
+		synchronized (lock) {
+			store.cacheFilm(rootMediaDir, filmFile, orginalFile, film, part);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public IEpisode getEpisode(File rootMediaDir, File episodeFile, ISeason season, List<Integer> episodeNums) throws StoreException, MalformedURLException, IOException {
+		synchronized (lock) {
+			return ModelCopier.copyEpisode(store.getEpisode(rootMediaDir, episodeFile, season, episodeNums));
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public ISeason getSeason(File rootMediaDir, File episodeFile, IShow show, int seasonNum) throws StoreException, IOException {
+		synchronized (lock) {
+			return ModelCopier.copySeason(store.getSeason(rootMediaDir, episodeFile, show, seasonNum));
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public IShow getShow(File rootMediaDir, File episodeFile, String showId) throws StoreException, MalformedURLException, IOException {
+		synchronized (lock) {
+			return ModelCopier.copyShow(store.getShow(rootMediaDir, episodeFile, showId));
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public IEpisode getSpecial(File rootMediaDir, File episodeFile, ISeason season, List<Integer> specialNumbers) throws MalformedURLException, IOException, StoreException {
+		synchronized (lock) {
+			return ModelCopier.copyEpisode(store.getSpecial(rootMediaDir, episodeFile, season, specialNumbers));
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public SearchResult searchMedia(String name, Mode mode, Integer part, MediaDirConfig dirConfig, File mediaFile) throws StoreException {
+		synchronized (lock) {
+			return store.searchMedia(name, mode, part, dirConfig, mediaFile);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void renamedFile(File rootMediaDir, File oldFile, File newFile) throws StoreException {
+		synchronized (lock) {
+			store.renamedFile(rootMediaDir, oldFile, newFile);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public IFilm getFilm(File rootMediaDir, File filmFile, String filmId) throws StoreException, MalformedURLException, IOException {
+		synchronized (lock) {
+			return ModelCopier.copyFilm(store.getFilm(rootMediaDir, filmFile, filmId));
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setParameter(String key, String value) throws StoreException {
+		synchronized (lock) {
+			store.setParameter(key, value);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String getParameter(String key) throws StoreException {
+		synchronized (lock) {
+			return store.getParameter(key);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void performedActions(MediaDirectory dir) throws StoreException {
+		synchronized (lock) {
+			store.performedActions(dir);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void fileDeleted(MediaDirectory dir, File file) throws StoreException {
+		synchronized (lock) {
+			store.fileDeleted(dir, file);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public IEpisode getEpisode(MediaDirectory dir, File file) throws StoreException {
+		synchronized (lock) {
+			return ModelCopier.copyEpisode(store.getEpisode(dir, file));
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public IFilm getFilm(MediaDirectory dir, File file) throws StoreException {
+		synchronized (lock) {
+			return ModelCopier.copyFilm(store.getFilm(dir, file));
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void init() throws StoreException {
+		synchronized (lock) {
+			store.init();
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Collection<IEpisode> listEpisodes(MediaDirConfig dirConfig, IProgressMonitor monitor) throws StoreException {
+		synchronized (lock) {
+			return store.listEpisodes(dirConfig, monitor);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Collection<IFilm> listFilms(MediaDirConfig dirConfig, IProgressMonitor monitor) throws StoreException {
+		synchronized (lock) {
+			return store.listFilms(dirConfig, monitor);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void upgrade(MediaDirectory mediaDirectory) throws StoreException {
+		synchronized (lock) {
+			store.upgrade(mediaDirectory);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void fileUpdated(MediaDirectory mediaDirectory, File file) throws StoreException {
+		synchronized (lock) {
+			store.fileUpdated(mediaDirectory, file);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean fileKnownByStore(MediaDirectory mediaDirectory, File file) throws StoreException {
+		synchronized (lock) {
+			return store.fileKnownByStore(mediaDirectory, file);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void beginBulkSession() throws StoreException {
+		if (store instanceof IBulkStore) {
+			synchronized (lock) {
+				((IBulkStore)store).beginBulkSession();
+			}
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void bulkCheckpoint() throws StoreException {
+		if (store instanceof IBulkStore) {
+			synchronized (lock) {
+				((IBulkStore)store).bulkCheckpoint();
+			}
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void endBulkSession() throws StoreException {
+		if (store instanceof IBulkStore) {
+			synchronized (lock) {
+				((IBulkStore)store).endBulkSession();
+			}
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String toString() {
+		return store.toString();
+	}
+}
@@ -13,6 +13,7 @@ import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Index;
 import org.hibernate.annotations.Type;
 import org.stanwood.media.model.Film;
 import org.stanwood.media.store.StoreVersion;
@@ -30,6 +31,7 @@ public class DBMediaDirectory implements Serializable {
 	@Column(name = "id")
 	private Long id;
 	@Column(name = "location")
+	@Index(name = "mediaDirLoc")
 	private String location;
 	@Column(name = "version")
 	@Type(type= "org.stanwood.media.store.db.VersionType")
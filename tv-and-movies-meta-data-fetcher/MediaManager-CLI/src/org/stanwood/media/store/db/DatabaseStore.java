@@ -6,9 +6,20 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -30,6 +41,7 @@ import org.stanwood.media.model.VideoFile;
 import org.stanwood.media.progress.IProgressMonitor;
 import org.stanwood.media.setup.DBResource;
 import org.stanwood.media.setup.MediaDirConfig;
+import org.stanwood.media.store.IBulkStore;
 import org.stanwood.media.store.IStore;
 import org.stanwood.media.store.StoreException;
 import org.stanwood.media.store.StoreVersion;
@@ -41,10 +53,16 @@ import org.stanwood.media.util.Version;
  * <p>This source supports the following parameters:
  * <ul>
  * <li>resourceId - Required option, The ID of the database resource</li>
+ * <li>batchSize - The number of changes written in each transaction of a bulk session, defaults to 100</li>
  * </ul>
  * </p>
+ * <p>When a bulk session is open, the changes are written in batches of transactions, and the
+ * media directories, shows and seasons that have been looked up are remembered. The entities
+ * returned by the store may still be in use after a batch is written, so the session is only
+ * cleared at the next checkpoint of the bulk session once a batch has been written, so that
+ * it does not grow.</p>
  */
-public class DatabaseStore implements IStore {
+public class DatabaseStore implements IStore, IBulkStore {
 
 	private final static Log log = LogFactory.getLog(DatabaseStore.class);
 	private final static StoreVersion STORE_VERSION = new StoreVersion(new Version("1.0"),1); //$NON-NLS-1$
@@ -53,6 +71,22 @@ public class DatabaseStore implements IStore {
 	private Transaction currentTransaction = null;
 	private Controller controller;
 
+	/** The default number of changes written in each transaction of a bulk session */
+	public final static int DEFAULT_BATCH_SIZE = 100;
+	/** The number of missing files deleted by each statement */
+	private final static int DELETE_BATCH_SIZE = 500;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private boolean bulkSession = false;
+	private int batchWrites = 0;
+	private boolean clearAtCheckpoint = false;
+	private long batchStart;
+	private long bulkBatchCount;
+	private long bulkWriteCount;
+	private long bulkTime;
+	private final Map<String,DBMediaDirectory> batchMediaDirs = new HashMap<String,DBMediaDirectory>();
+	private final Map<String,DBShow> batchShows = new HashMap<String,DBShow>();
+	private final Map<String,DBSeason> batchSeasons = new HashMap<String,DBSeason>();
+
 	/**
 	 * The constructor
 	 * @param controller The controller
@@ -67,7 +101,7 @@ public class DatabaseStore implements IStore {
 			IEpisode episode) throws StoreException {
 		beginTransaction();
 		cacheEpisodeNoTrans(rootMediaDir, episodeFile,oldFileName, episode);
-		commitTransaction();
+		commitWriteTransaction();
 	}
 
 	protected void cacheEpisodeNoTrans(File rootMediaDir, File episodeFile,File oldFileName,
@@ -102,15 +136,153 @@ public class DatabaseStore implements IStore {
 	}
 
 	protected void commitTransaction() {
+		if (bulkSession) {
+			// The transaction is committed when the batch is full
+			return;
+		}
 		currentTransaction.commit();
 		currentTransaction= null;
 	}
 
+	/**
+	 * Used to commit a transaction that changed the database. When a bulk session is open,
+	 * the transaction is only committed when the batch is full.
+	 */
+	protected void commitWriteTransaction() {
+		if (!bulkSession) {
+			commitTransaction();
+			return;
+		}
+		batchWrites++;
+		if (batchWrites>=batchSize) {
+			commitBatch();
+		}
+	}
+
 	protected void beginTransaction() throws StoreException {
 		if (currentTransaction!=null) {
+			if (bulkSession) {
+				return;
+			}
 			throw new StoreException(Messages.getString("DatabaseStore.TransactionAlreadyOpen")); //$NON-NLS-1$
 		}
 		currentTransaction = session.beginTransaction();
+		if (bulkSession) {
+			batchStart = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * The session is cleared at the checkpoints of a bulk session, so entities got before
+	 * the last checkpoint are looked up again instead of been used directly.
+	 */
+	private boolean isAttached(Object entity) {
+		return !bulkSession || session.contains(entity);
+	}
+
+	private void commitBatch() {
+		if (currentTransaction!=null) {
+			long commitStart = System.currentTimeMillis();
+			session.flush();
+			currentTransaction.commit();
+			currentTransaction = null;
+			clearAtCheckpoint = true;
+			long now = System.currentTimeMillis();
+			if (batchWrites>0) {
+				bulkBatchCount++;
+				bulkWriteCount+=batchWrites;
+				bulkTime+=now-batchStart;
+				if (log.isDebugEnabled()) {
+					log.debug(MessageFormat.format(Messages.getString("DatabaseStore.WroteBatch"),batchWrites,now-batchStart,now-commitStart)); //$NON-NLS-1$
+				}
+			}
+		}
+		batchWrites = 0;
+	}
+
+	private void clearBatchLookups() {
+		batchMediaDirs.clear();
+		batchShows.clear();
+		batchSeasons.clear();
+	}
+
+	/**
+	 * Used to start a bulk session. Until the session is ended, the changes are written
+	 * in transactions of the configured batch size.
+	 * @throws StoreException Thrown if their is a problem
+	 */
+	@Override
+	public void beginBulkSession() throws StoreException {
+		if (bulkSession) {
+			return;
+		}
+		bulkSession = true;
+		batchWrites = 0;
+		clearAtCheckpoint = false;
+		bulkBatchCount = 0;
+		bulkWriteCount = 0;
+		bulkTime = 0;
+	}
+
+	/**
+	 * Used to clear the session if a batch has been written since the last checkpoint. Any
+	 * changes that have not been written yet are written first.
+	 * @throws StoreException Thrown if their is a problem
+	 */
+	@Override
+	public void bulkCheckpoint() throws StoreException {
+		if (!bulkSession || !clearAtCheckpoint) {
+			return;
+		}
+		commitBatch();
+		session.clear();
+		clearBatchLookups();
+		clearAtCheckpoint = false;
+	}
+
+	/**
+	 * Used to end a bulk session and write the changes that have not been written yet
+	 * @throws StoreException Thrown if their is a problem
+	 */
+	@Override
+	public void endBulkSession() throws StoreException {
+		if (!bulkSession) {
+			return;
+		}
+		try {
+			commitBatch();
+		}
+		finally {
+			bulkSession = false;
+			clearBatchLookups();
+		}
+		if (bulkWriteCount>0 && log.isInfoEnabled()) {
+			log.info(MessageFormat.format(Messages.getString("DatabaseStore.WroteBulkSession"),bulkWriteCount,bulkBatchCount,bulkTime)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Used to get the number of batches written by the last bulk session
+	 * @return The number of batches
+	 */
+	public long getBulkBatchCount() {
+		return bulkBatchCount;
+	}
+
+	/**
+	 * Used to get the number of changes written by the last bulk session
+	 * @return The number of changes
+	 */
+	public long getBulkWriteCount() {
+		return bulkWriteCount;
+	}
+
+	/**
+	 * Used to get the time in milliseconds taken to write the batches of the last bulk session
+	 * @return The time in milliseconds
+	 */
+	public long getBulkTime() {
+		return bulkTime;
 	}
 
 	protected void updateEpisode(IEpisode episode, DBEpisode dbEpisode,File episodeFile,File oldFileName,File rootMediaDir) {
@@ -145,7 +317,7 @@ public class DatabaseStore implements IStore {
 
 	private DBEpisode findEpisode(File mediaDir, IEpisode episode) {
 
-		if (episode instanceof DBEpisode) {
+		if (episode instanceof DBEpisode && isAttached(episode)) {
 			return (DBEpisode) episode;
 		}
 
@@ -172,19 +344,28 @@ public class DatabaseStore implements IStore {
 	}
 
 	private DBShow findShow(File mediaDir, IShow show) {
-		if (show instanceof DBShow) {
+		if (show instanceof DBShow && isAttached(show)) {
 			return (DBShow) show;
 		}
 
+		String key = mediaDir.getAbsolutePath()+"|"+show.getShowURL().toExternalForm(); //$NON-NLS-1$
+		if (bulkSession && batchShows.containsKey(key)) {
+			return batchShows.get(key);
+		}
 		Query q = session.createQuery("  from DBShow as show" + //$NON-NLS-1$
 				" where show.showURL = :showUrl " + //$NON-NLS-1$
 				"   and show.mediaDirectory.location = :mediaDir"); //$NON-NLS-1$
 		q.setString("showUrl", show.getShowURL().toExternalForm()); //$NON-NLS-1$
 		q.setString("mediaDir", mediaDir.getAbsolutePath()); //$NON-NLS-1$
+		q.setCacheable(true);
 		@SuppressWarnings("rawtypes")
 		List result = q.list();
 		if (result.size() > 0) {
-			return (DBShow) result.get(0);
+			DBShow found = (DBShow) result.get(0);
+			if (bulkSession) {
+				batchShows.put(key, found);
+			}
+			return found;
 		}
 		return null;
 	}
@@ -195,7 +376,7 @@ public class DatabaseStore implements IStore {
 			throws StoreException {
 		beginTransaction();
 		cacheSeasonNoTrans(rootMediaDir, episodeFile, season);
-		commitTransaction();
+		commitWriteTransaction();
 	}
 
 	protected void cacheSeasonNoTrans(File rootMediaDir, File episodeFile,
@@ -237,10 +418,14 @@ public class DatabaseStore implements IStore {
 	}
 
 	private DBSeason findSeason(File mediaDir, ISeason season) {
-		if (season instanceof DBSeason) {
+		if (season instanceof DBSeason && isAttached(season)) {
 			return (DBSeason) season;
 		}
 
+		String key = mediaDir.getAbsolutePath()+"|"+season.getShow().getShowURL().toExternalForm()+"|"+season.getSeasonNumber(); //$NON-NLS-1$ //$NON-NLS-2$
+		if (bulkSession && batchSeasons.containsKey(key)) {
+			return batchSeasons.get(key);
+		}
 		Query q = session.createQuery(" from DBSeason as season " + //$NON-NLS-1$
 				"where season.show.showURL = :showUrl " + //$NON-NLS-1$
 				"  and season.seasonNumber = :seasonNum" + //$NON-NLS-1$
@@ -248,10 +433,15 @@ public class DatabaseStore implements IStore {
 		q.setString("showUrl", season.getShow().getShowURL().toExternalForm()); //$NON-NLS-1$
 		q.setInteger("seasonNum", season.getSeasonNumber()); //$NON-NLS-1$
 		q.setString("mediaDir", mediaDir.getAbsolutePath()); //$NON-NLS-1$
+		q.setCacheable(true);
 		@SuppressWarnings("rawtypes")
 		List result = q.list();
 		if (result.size() > 0) {
-			return (DBSeason) result.get(0);
+			DBSeason found = (DBSeason) result.get(0);
+			if (bulkSession) {
+				batchSeasons.put(key, found);
+			}
+			return found;
 		}
 		return null;
 	}
@@ -263,7 +453,7 @@ public class DatabaseStore implements IStore {
 		beginTransaction();
 		cacheShowNoTrans(rootMediaDir,episodeFile, show);
 
-		commitTransaction();
+		commitWriteTransaction();
 	}
 
 	protected void cacheShowNoTrans(File rootMediaDir,File episodeFile, IShow show) {
@@ -384,8 +574,13 @@ public class DatabaseStore implements IStore {
 		foundFilm.setFiles(files);
 
 		session.saveOrUpdate(dir);
-		commitTransaction();
-		session.flush();
+		if (bulkSession) {
+			commitWriteTransaction();
+		}
+		else {
+			commitTransaction();
+			session.flush();
+		}
 	}
 
 	private Film findFilm(File file, File mediaDirLocation) {
@@ -414,6 +609,9 @@ public class DatabaseStore implements IStore {
 
 	private DBMediaDirectory getMediaDir(File rootMediaDir,
 			boolean createIfNotFound) {
+		if (bulkSession && batchMediaDirs.containsKey(rootMediaDir.getAbsolutePath())) {
+			return batchMediaDirs.get(rootMediaDir.getAbsolutePath());
+		}
 		Query q = session
 				.createQuery("from DBMediaDirectory where location = :rootMediaDir"); //$NON-NLS-1$
 		q.setParameter("rootMediaDir", rootMediaDir.getAbsolutePath()); //$NON-NLS-1$
@@ -425,6 +623,9 @@ public class DatabaseStore implements IStore {
 			dir.setLocation(rootMediaDir.getAbsolutePath());
 			session.save(dir);
 		}
+		if (bulkSession && dir!=null) {
+			batchMediaDirs.put(rootMediaDir.getAbsolutePath(), dir);
+		}
 		return dir;
 	}
 
@@ -534,7 +735,7 @@ public class DatabaseStore implements IStore {
 			vf.setLocation(newFile);
 			session.update(vf);
 		}
-		commitTransaction();
+		commitWriteTransaction();
 	}
 
 	/** {@inheritDoc} */
@@ -543,6 +744,17 @@ public class DatabaseStore implements IStore {
 		if (key.equalsIgnoreCase(DatabaseStoreInfo.PARAM_DATABASE_RESOURCE_ID.getName())) {
 			resourceId = value;
 		}
+		else if (key.equalsIgnoreCase(DatabaseStoreInfo.PARAM_BATCH_SIZE.getName())) {
+			try {
+				batchSize = Integer.parseInt(value);
+			}
+			catch (NumberFormatException e) {
+				throw new StoreException(MessageFormat.format(Messages.getString("DatabaseStore.InvalidParamValue"),value,key),e); //$NON-NLS-1$
+			}
+			if (batchSize<1) {
+				throw new StoreException(MessageFormat.format(Messages.getString("DatabaseStore.InvalidParamValue"),value,key)); //$NON-NLS-1$
+			}
+		}
 		else {
 			throw new StoreException(MessageFormat.format(
 					Messages.getString("DatabaseStore.UnknownParam"), key)); //$NON-NLS-1$
@@ -554,51 +766,127 @@ public class DatabaseStore implements IStore {
 	public String getParameter(String key) throws StoreException {
 		if (key.equalsIgnoreCase(DatabaseStoreInfo.PARAM_DATABASE_RESOURCE_ID.getName())) {
 			return resourceId;
+		}
+		else if (key.equalsIgnoreCase(DatabaseStoreInfo.PARAM_BATCH_SIZE.getName())) {
+			return String.valueOf(batchSize);
 		} else {
 			throw new StoreException(MessageFormat.format(
 					Messages.getString("DatabaseStore.UnknownParam"), key)); //$NON-NLS-1$
 		}
 	}
 
-	/** {@inheritDoc} */
+	/**
+	 * Used to remove the files that no longer exist from the store. The locations of the
+	 * files in the media directory are read with one query and checked by the worker
+	 * threads of the media directory. Only the episodes and films that have missing files
+	 * are loaded, then the missing files are deleted in batches.
+	 * @param dir The media directory
+	 * @throws StoreException Thrown if their is a problem
+	 */
 	@Override
 	public void performedActions(MediaDirectory dir) throws StoreException {
-		beginTransaction();
 		log.info(Messages.getString("DatabaseStore.CheckForDeletedFIles")); //$NON-NLS-1$
-		Collection<IEpisode> epList = listEpisodesNoTrans(dir.getMediaDirConfig());
-		for (IEpisode ep : epList) {
-			DBEpisode dbEp = (DBEpisode) ep;
-			Iterator<VideoFile> it = dbEp.getFiles().iterator();
-			boolean changed = false;
-			while (it.hasNext()) {
-				VideoFile vf = it.next();
-				if (!vf.getLocation().exists()) {
-					it.remove();
-					changed = true;
-				}
+		beginTransaction();
+		Query q = session.createQuery("select vf.id, vf.location from VideoFile as vf where vf.mediaDirectory = :dir"); //$NON-NLS-1$
+		q.setString("dir", dir.getMediaDirConfig().getMediaDir().getAbsolutePath()); //$NON-NLS-1$
+		@SuppressWarnings("unchecked")
+		List<Object[]> files = q.list();
+		List<Long> missing = findMissingFiles(files,dir.getMediaDirConfig().getWorkerThreads());
+		for (int i=0;i<missing.size();i+=DELETE_BATCH_SIZE) {
+			removeFiles(missing.subList(i, Math.min(missing.size(), i+DELETE_BATCH_SIZE)));
+		}
+		if (missing.size()>0 && log.isDebugEnabled()) {
+			log.debug(MessageFormat.format(Messages.getString("DatabaseStore.RemovedMissingFiles"),missing.size(),files.size())); //$NON-NLS-1$
+		}
+		commitTransaction();
+		session.flush();
+	}
+
+	private List<Long> findMissingFiles(List<Object[]> files,int workerThreads) throws StoreException {
+		if (workerThreads<=1 || files.size()<=1) {
+			return checkFilesExist(files);
+		}
+		ExecutorService threadPool = Executors.newFixedThreadPool(workerThreads,new ThreadFactory() {
+			private int count = 0;
+			@Override
+			public synchronized Thread newThread(Runnable r) {
+				Thread thread = new Thread(r,"DatabaseStore-"+(++count)); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			List<Future<List<Long>>> results = new ArrayList<Future<List<Long>>>();
+			int chunkSize = (files.size()+workerThreads-1)/workerThreads;
+			for (int i=0;i<files.size();i+=chunkSize) {
+				final List<Object[]> chunk = files.subList(i, Math.min(files.size(), i+chunkSize));
+				results.add(threadPool.submit(new Callable<List<Long>>() {
+					@Override
+					public List<Long> call() {
+						return checkFilesExist(chunk);
+					}
+				}));
 			}
-			if (changed) {
-				session.update(dbEp);
+			List<Long> missing = new ArrayList<Long>();
+			for (Future<List<Long>> result : results) {
+				missing.addAll(result.get());
 			}
+			return missing;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new StoreException(Messages.getString("DatabaseStore.UnableCheckFiles"),e); //$NON-NLS-1$
 		}
+		catch (ExecutionException e) {
+			throw new StoreException(Messages.getString("DatabaseStore.UnableCheckFiles"),e.getCause()); //$NON-NLS-1$
+		}
+		finally {
+			threadPool.shutdownNow();
+		}
+	}
 
-		Collection<IFilm> films = listFilmsNoTrans(dir.getMediaDirConfig());
-		for (IFilm film : films) {
-			Iterator<VideoFile> it = film.getFiles().iterator();
-			boolean changed = false;
-			while (it.hasNext()) {
-				VideoFile vf = it.next();
-				if (!vf.getLocation().exists()) {
-					it.remove();
-					changed = true;
-				}
-			}
-			if (changed) {
-				session.update(film);
+	private static List<Long> checkFilesExist(List<Object[]> files) {
+		List<Long> missing = new ArrayList<Long>();
+		for (Object[] file : files) {
+			if (!((File)file[1]).exists()) {
+				missing.add((Long)file[0]);
 			}
 		}
-		commitTransaction();
+		return missing;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void removeFiles(List<Long> ids) {
+		Set<Long> idSet = new HashSet<Long>(ids);
+		List<VideoFile> removed = new ArrayList<VideoFile>();
+		Query q = session.createQuery("select distinct episode from DBEpisode as episode join episode.files as file where file.id in (:ids)"); //$NON-NLS-1$
+		q.setParameterList("ids", ids); //$NON-NLS-1$
+		for (DBEpisode episode : (List<DBEpisode>)q.list()) {
+			removeFiles(episode.getFiles(),idSet,removed);
+		}
+		q = session.createQuery("select distinct film from Film as film join film.files as file where file.id in (:ids)"); //$NON-NLS-1$
+		q.setParameterList("ids", ids); //$NON-NLS-1$
+		for (Film film : (List<Film>)q.list()) {
+			removeFiles(film.getFiles(),idSet,removed);
+		}
 		session.flush();
+		for (VideoFile vf : removed) {
+			session.evict(vf);
+		}
+		q = session.createQuery("delete from VideoFile where id in (:ids)"); //$NON-NLS-1$
+		q.setParameterList("ids", ids); //$NON-NLS-1$
+		q.executeUpdate();
+	}
+
+	private void removeFiles(List<VideoFile> files,Set<Long> ids,List<VideoFile> removed) {
+		Iterator<VideoFile> it = files.iterator();
+		while (it.hasNext()) {
+			VideoFile vf = it.next();
+			if (vf!=null && ids.contains(vf.getId())) {
+				it.remove();
+				removed.add(vf);
+			}
+		}
 	}
 
 	/** {@inheritDoc} */
@@ -633,7 +921,7 @@ public class DatabaseStore implements IStore {
 			session.update(film);
 
 		}
-		commitTransaction();
+		commitWriteTransaction();
 	}
 
 	/** {@inheritDoc} */
@@ -13,8 +13,10 @@ public class DatabaseStoreInfo extends ExtensionInfo<DatabaseStore>  {
 
 	/** Parameter key for resourceId */
 	public static final ParameterType PARAM_DATABASE_RESOURCE_ID = new ParameterType("resourceId",String.class,false); //$NON-NLS-1$
+	/** The number of changes that are written to the database in each transaction when many files are cached */
+	public static final ParameterType PARAM_BATCH_SIZE = new ParameterType("batchSize",Integer.class,false); //$NON-NLS-1$
 
-	private final static ParameterType PARAM_TYPES[] = new ParameterType[]{PARAM_DATABASE_RESOURCE_ID};
+	private final static ParameterType PARAM_TYPES[] = new ParameterType[]{PARAM_DATABASE_RESOURCE_ID,PARAM_BATCH_SIZE};
 
 
 
@@ -21,11 +21,17 @@ import org.stanwood.media.store.StoreException;
  * called &quot;mediaInfo.db.&quot;
  * </p>
  * <p>
- * This store has no parameters
+ * This store has the following parameters:
+ * <ul>
+ * <li>batchSize - The number of changes written in each transaction of a bulk session, defaults to 100</li>
+ * <li>cacheSize - The number of shows and seasons kept in memory by the database cache, the cache is not used if this is not set</li>
+ * </ul>
  * </p>
  */
 public class FileDatabaseStore extends DatabaseStore {
 
+	private int cacheSize = 0;
+
 	/**
 	 * The constructor
 	 * @param controller The controller
@@ -45,7 +51,9 @@ public class FileDatabaseStore extends DatabaseStore {
 			resource.setPassword(""); //$NON-NLS-1$
 			resource.setUrl("jdbc:hsqldb:file:"+file.getAbsolutePath()); //$NON-NLS-1$
 			resource.setResourceId("file-"+file.getAbsolutePath()); //$NON-NLS-1$
-			resource.setSchemaCheck(SchemaCheck.NONE);
+			// Updating the schema adds the indexes that are missing from older files
+			resource.setSchemaCheck(SchemaCheck.UPDATE);
+			resource.setCacheSize(cacheSize);
 
 			if (!file.exists()) {
 				try {
@@ -71,12 +79,34 @@ public class FileDatabaseStore extends DatabaseStore {
 	/** {@inheritDoc} */
 	@Override
 	public void setParameter(String key, String value) throws StoreException {
+		if (key.equalsIgnoreCase(DatabaseStoreInfo.PARAM_BATCH_SIZE.getName())) {
+			super.setParameter(key, value);
+			return;
+		}
+		if (key.equalsIgnoreCase(FileDatabaseStoreInfo.PARAM_CACHE_SIZE.getName())) {
+			try {
+				cacheSize = Integer.parseInt(value);
+			}
+			catch (NumberFormatException e) {
+				throw new StoreException(MessageFormat.format(Messages.getString("DatabaseStore.InvalidParamValue"),value,key),e); //$NON-NLS-1$
+			}
+			if (cacheSize<0) {
+				throw new StoreException(MessageFormat.format(Messages.getString("DatabaseStore.InvalidParamValue"),value,key)); //$NON-NLS-1$
+			}
+			return;
+		}
 		throw new StoreException(MessageFormat.format(Messages.getString("FileDatabaseStore.KnownParam"), key)); //$NON-NLS-1$
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public String getParameter(String key) throws StoreException {
+		if (key.equalsIgnoreCase(DatabaseStoreInfo.PARAM_BATCH_SIZE.getName())) {
+			return super.getParameter(key);
+		}
+		if (key.equalsIgnoreCase(FileDatabaseStoreInfo.PARAM_CACHE_SIZE.getName())) {
+			return String.valueOf(cacheSize);
+		}
 		throw new StoreException(MessageFormat.format(Messages.getString("FileDatabaseStore.KnownParam"), key)); //$NON-NLS-1$
 	}
 }
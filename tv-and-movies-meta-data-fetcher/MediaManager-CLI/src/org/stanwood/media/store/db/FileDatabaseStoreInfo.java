@@ -11,7 +11,10 @@ import org.stanwood.media.extensions.ParameterType;
  */
 public class FileDatabaseStoreInfo extends ExtensionInfo<FileDatabaseStore>  {
 
-	private final static ParameterType PARAM_TYPES[] = new ParameterType[0];
+	/** The number of shows and seasons kept in memory by the database cache */
+	public static final ParameterType PARAM_CACHE_SIZE = new ParameterType("cacheSize",Integer.class,false); //$NON-NLS-1$
+
+	private final static ParameterType PARAM_TYPES[] = new ParameterType[]{DatabaseStoreInfo.PARAM_BATCH_SIZE,PARAM_CACHE_SIZE};
 
 	/**
 	 * The constructor
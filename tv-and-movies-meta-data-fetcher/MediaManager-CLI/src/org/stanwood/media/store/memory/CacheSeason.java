@@ -19,6 +19,7 @@ public class CacheSeason extends Season {
 
 	private Map<List<Integer>,IEpisode>episodes = new HashMap<List<Integer>,IEpisode>();
 	private Map<List<Integer>,IEpisode>specials = new HashMap<List<Integer>,IEpisode>();
+	private Map<String,IEpisode>episodeIds = new HashMap<String,IEpisode>();
 	private ISeason season;
 
 
@@ -54,6 +55,15 @@ public class CacheSeason extends Season {
 		return specials.get(specialNums);
 	}
 
+	/**
+	 * Used to get a episode with the given episode id
+	 * @param episodeId The id of the episode
+	 * @return The episode, or null if it is not in the season
+	 */
+	public IEpisode getEpisodeById(String episodeId) {
+		return episodeIds.get(episodeId);
+	}
+
 	/**
 	 * Get all the episodes in the season
 	 * @return The episodes in the season
@@ -82,9 +92,15 @@ public class CacheSeason extends Season {
 	/**
 	 * Adds a episode to the season
 	 * @param episode The episode to add to the season
+	 * @return The episode with the same episode numbers that was replaced, or null
 	 */
-	public void addEpisode(IEpisode episode) {
-		episodes.put(episode.getEpisodes(),episode);
+	public IEpisode addEpisode(IEpisode episode) {
+		IEpisode replaced = episodes.put(episode.getEpisodes(),episode);
+		if (replaced!=null && episodeIds.get(replaced.getEpisodeId())==replaced) {
+			episodeIds.remove(replaced.getEpisodeId());
+		}
+		episodeIds.put(episode.getEpisodeId(),episode);
+		return replaced;
 	}
 
 	/**
@@ -2,13 +2,12 @@ package org.stanwood.media.store.memory;
 
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.stanwood.media.model.ISeason;
 import org.stanwood.media.model.IShow;
-import org.stanwood.media.model.Season;
 import org.stanwood.media.model.Show;
 
 /**
@@ -16,7 +15,7 @@ import org.stanwood.media.model.Show;
  */
 public class CacheShow extends Show {
 
-	private List<CacheSeason> seasons = new ArrayList<CacheSeason>();
+	private Map<Integer,CacheSeason> seasons = new LinkedHashMap<Integer,CacheSeason>();
 	private IShow show;
 
 	/**
@@ -39,26 +38,16 @@ public class CacheShow extends Show {
 	 * @return The season, or null if it can't be found
 	 */
 	public ISeason getSeason(int seasonNum) {
-		for (Season season : seasons) {
-			if (season.getSeasonNumber() == seasonNum) {
-				return season;
-			}
-		}
-		return null;
+		return seasons.get(seasonNum);
 	}
 
 	/**
 	 * Used to remove a season with the given season number from the show.
 	 * @param seasonNumber The season number of the season to remove
+	 * @return The season that was removed, or null if the show did not have the season
 	 */
-	public void removeSeason(int seasonNumber) {
-		Iterator<CacheSeason> it = seasons.iterator();
-		while (it.hasNext()) {
-			CacheSeason foundSeason = it.next();
-			if (foundSeason.getSeasonNumber() == seasonNumber) {
-				it.remove();
-			}
-		}
+	public CacheSeason removeSeason(int seasonNumber) {
+		return seasons.remove(seasonNumber);
 	}
 
 	/**
@@ -66,7 +55,7 @@ public class CacheShow extends Show {
 	 * @param season The season to add to the show.
 	 */
 	public void addSeason(CacheSeason season) {
-		seasons.add(season);
+		seasons.put(season.getSeasonNumber(),season);
 	}
 
 	/**
@@ -260,7 +249,7 @@ public class CacheShow extends Show {
 	 * @return a list of seasons in the show
 	 */
 	public List<CacheSeason>getSeasons() {
-		return seasons;
+		return new ArrayList<CacheSeason>(seasons.values());
 	}
 
 
@@ -19,14 +19,18 @@ package org.stanwood.media.store.memory;
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.stanwood.media.MediaDirectory;
+import org.stanwood.media.collections.LRUMapCache;
 import org.stanwood.media.model.IEpisode;
 import org.stanwood.media.model.IFilm;
 import org.stanwood.media.model.ISeason;
@@ -44,11 +48,115 @@ import org.stanwood.media.store.StoreException;
  * This store is used to store the show information in memory. This allows the tool
  * reuse the show information without having to fetch it from other stores or sources
  * (which would be slower). This information will be lost once the application exits.
+ * <p>The shows are held in hash maps keyed by their source and show id, their show id and their
+ * name, and the episodes are also indexed by the files they are stored in, so that lookups don't
+ * need to search all the cached information. The store is thread safe. If the cacheSize parameter
+ * is set, then it is the maximum number of shows and films that are kept, the ones that were
+ * used least recently been removed first.</p>
  */
 public class MemoryStore implements IStore {
 
-	private List<CacheShow> shows = new ArrayList<CacheShow>();
-	private Map<File,IFilm> films = new HashMap<File,IFilm>();
+	private int cacheSize = 0;
+	private Map<List<String>,CacheShow> shows;
+	private Map<String,CacheShow> showIds = new HashMap<String,CacheShow>();
+	private Map<String,CacheShow> showNames = new HashMap<String,CacheShow>();
+	private Map<File,IEpisode> episodeFiles = new HashMap<File,IEpisode>();
+	private Map<File,IFilm> films;
+
+	/**
+	 * The constructor
+	 */
+	public MemoryStore() {
+		createMaps();
+	}
+
+	@SuppressWarnings("serial")
+	private void createMaps() {
+		Map<List<String>,CacheShow> oldShows = shows;
+		Map<File,IFilm> oldFilms = films;
+		if (cacheSize>0) {
+			shows = new LRUMapCache<List<String>,CacheShow>(cacheSize) {
+				@Override
+				protected boolean removeEldestEntry(Entry<List<String>, CacheShow> eldest) {
+					if (super.removeEldestEntry(eldest)) {
+						removeShowIndexes(eldest.getValue());
+						return true;
+					}
+					return false;
+				}
+			};
+			films = new LRUMapCache<File,IFilm>(cacheSize);
+		}
+		else {
+			shows = new LinkedHashMap<List<String>,CacheShow>();
+			films = new HashMap<File,IFilm>();
+		}
+		if (oldShows!=null) {
+			shows.putAll(oldShows);
+			films.putAll(oldFilms);
+		}
+	}
+
+	private static List<String> getShowKey(IShow show) {
+		return Arrays.asList(show.getSourceId(),show.getShowId());
+	}
+
+	private void addShowIndexes(CacheShow show) {
+		showIds.put(show.getShowId(),show);
+		showNames.put(show.getName(),show);
+	}
+
+	private void removeShowIndexes(CacheShow show) {
+		if (showIds.get(show.getShowId())==show) {
+			showIds.remove(show.getShowId());
+		}
+		if (showNames.get(show.getName())==show) {
+			showNames.remove(show.getName());
+		}
+		for (CacheSeason season : show.getSeasons()) {
+			removeSeasonIndexes(season);
+		}
+	}
+
+	private void removeSeasonIndexes(CacheSeason season) {
+		for (IEpisode episode : season.getEpisodes()) {
+			removeEpisodeIndexes(episode);
+		}
+		for (IEpisode special : season.getSpecials()) {
+			removeEpisodeIndexes(special);
+		}
+	}
+
+	private void addEpisodeIndexes(IEpisode episode) {
+		for (VideoFile vf : episode.getFiles()) {
+			episodeFiles.put(vf.getLocation(),episode);
+		}
+	}
+
+	private void removeEpisodeIndexes(IEpisode episode) {
+		for (VideoFile vf : episode.getFiles()) {
+			if (episodeFiles.get(vf.getLocation())==episode) {
+				episodeFiles.remove(vf.getLocation());
+			}
+		}
+	}
+
+	/** Used to get the cached show, marking it as been used */
+	private CacheShow getCachedShow(IShow show) {
+		if (show==null) {
+			return null;
+		}
+		return shows.get(getShowKey(show));
+	}
+
+	private static VideoFile findFile(IEpisode episode,File file) {
+		for (VideoFile vf : episode.getFiles()) {
+			if (vf.getLocation().equals(file)) {
+				return vf;
+			}
+		}
+		return null;
+	}
 
 	/**
 	 * This does nothing as it's all done by the cacheSeason and cacheShow methods
@@ -57,19 +165,12 @@ public class MemoryStore implements IStore {
 	 * @throws StoreException Thrown if their is a store exception problem
 	 */
 	@Override
-	public void cacheEpisode(File rootMediaDir,File episodeFile,File oldFileName,IEpisode episode) throws StoreException {
+	public synchronized void cacheEpisode(File rootMediaDir,File episodeFile,File oldFileName,IEpisode episode) throws StoreException {
 		try {
 			IShow show = episode.getSeason().getShow();
 			ISeason season = episode.getSeason();
 			CacheSeason cacheSeason = (CacheSeason) getSeason(rootMediaDir,episodeFile,show,season.getSeasonNumber());
-			boolean foundEp = false;
-			for (IEpisode ep : cacheSeason.getEpisodes()) {
-				if (ep.getEpisodeId().equals(episode.getEpisodeId())) {
-					foundEp = true;
-					break;
-				}
-			}
-			if (!foundEp) {
+			if (cacheSeason.getEpisodeById(episode.getEpisodeId())==null) {
 				List<VideoFile> files = episode.getFiles();
 				boolean found = false;
 				for (VideoFile vf : files ) {
@@ -84,7 +185,11 @@ public class MemoryStore implements IStore {
 					files.add(new VideoFile(episodeFile, oldFileName, null, rootMediaDir));
 				}
 				episode.setFiles(files);
-				cacheSeason.addEpisode(episode);
+				IEpisode replaced = cacheSeason.addEpisode(episode);
+				if (replaced!=null) {
+					removeEpisodeIndexes(replaced);
+				}
+				addEpisodeIndexes(episode);
 			}
 		}
 		catch (IOException e) {
@@ -99,15 +204,14 @@ public class MemoryStore implements IStore {
 	 * @throws StoreException Thrown if their is a problem with the source
 	 */
 	@Override
-	public void cacheSeason(File rootMediaDir,File episodeFile,ISeason season) throws StoreException {
-		IShow show = season.getShow();
-		for (CacheShow cs : shows) {
-			if (cs.equals(show)) {
-				if (cs.getSeason(season.getSeasonNumber())!=null) {
-					cs.removeSeason(season.getSeasonNumber());
-				}
-				cs.addSeason(new CacheSeason(cs,season));
+	public synchronized void cacheSeason(File rootMediaDir,File episodeFile,ISeason season) throws StoreException {
+		CacheShow cs = getCachedShow(season.getShow());
+		if (cs!=null) {
+			CacheSeason oldSeason = cs.removeSeason(season.getSeasonNumber());
+			if (oldSeason!=null) {
+				removeSeasonIndexes(oldSeason);
 			}
+			cs.addSeason(new CacheSeason(cs,season));
 		}
 	}
 
@@ -118,22 +222,21 @@ public class MemoryStore implements IStore {
 	 * @throws StoreException Thrown if their is a problem with the source
 	 */
 	@Override
-	public void cacheShow(File rootMediaDir,File episodeFile,IShow show) throws StoreException {
+	public synchronized void cacheShow(File rootMediaDir,File episodeFile,IShow show) throws StoreException {
 		if (!(show instanceof CacheShow)) {
-			Iterator<CacheShow> it = shows.iterator();
-			while (it.hasNext()) {
-				CacheShow foundShow = it.next();
-				if (foundShow.getShowId().equals(show.getShowId()) && foundShow.getSourceId().equals(show.getSourceId())) {
-					it.remove();
-				}
+			CacheShow cs = new CacheShow(show);
+			CacheShow oldShow = shows.remove(getShowKey(show));
+			if (oldShow!=null) {
+				removeShowIndexes(oldShow);
 			}
-			shows.add(new CacheShow(show));
+			shows.put(getShowKey(cs),cs);
+			addShowIndexes(cs);
 		}
 	}
 
 	/** {@inheritDoc} */
 	@Override
-	public IEpisode getEpisode(File rootMediaDir,File episodeFile,ISeason season, List<Integer> episodeNums)
+	public synchronized IEpisode getEpisode(File rootMediaDir,File episodeFile,ISeason season, List<Integer> episodeNums)
 			throws StoreException, MalformedURLException, IOException {
 		if (!(season instanceof CacheSeason)) {
 			season = this.getSeason(rootMediaDir, episodeFile, season.getShow(), season.getSeasonNumber());
@@ -149,7 +252,7 @@ public class MemoryStore implements IStore {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public IEpisode getSpecial(File rootMediaDir,File episodeFile,ISeason season, List<Integer> specialNumbers)
+	public synchronized IEpisode getSpecial(File rootMediaDir,File episodeFile,ISeason season, List<Integer> specialNumbers)
 			throws MalformedURLException, IOException, StoreException {
 		if (!(season instanceof CacheSeason)) {
 			season = this.getSeason(rootMediaDir, episodeFile, season.getShow(), season.getSeasonNumber());
@@ -169,16 +272,15 @@ public class MemoryStore implements IStore {
 	 * @throws StoreException Thrown if their is a problem with the source
 	 */
 	@Override
-	public ISeason getSeason(File rootMediaDir,File episodeFile,IShow show, int seasonNum) throws StoreException,
+	public synchronized ISeason getSeason(File rootMediaDir,File episodeFile,IShow show, int seasonNum) throws StoreException,
 			IOException {
 		if (show instanceof CacheShow) {
 			return ((CacheShow)show).getSeason(seasonNum);
 		}
 		else {
-			for (CacheShow cs : shows) {
-				if (cs.getShowId().equals(show.getShowId()) && cs.getSourceId().equals(show.getSourceId())) {
-					return cs.getSeason(seasonNum);
-				}
+			CacheShow cs = getCachedShow(show);
+			if (cs!=null) {
+				return cs.getSeason(seasonNum);
 			}
 		}
 		return null;
@@ -195,25 +297,19 @@ public class MemoryStore implements IStore {
 	 * @throws IOException Thrown if their is a I/O related problem.
 	 */
 	@Override
-	public Show getShow(File rootMediaDir,File episodeFile, String showId)
+	public synchronized Show getShow(File rootMediaDir,File episodeFile, String showId)
 			throws StoreException, MalformedURLException, IOException {
-		for (CacheShow show : shows) {
-			if (show.getShowId().equals(showId)) {
-				return show;
-			}
-		}
-		return null;
+		return getCachedShow(showIds.get(showId));
 	}
 
 	/** {@inheritDoc} */
 	@Override
-	public SearchResult searchMedia(String name, Mode mode, Integer part,MediaDirConfig dirConfig, File mediaFile) throws StoreException {
+	public synchronized SearchResult searchMedia(String name, Mode mode, Integer part,MediaDirConfig dirConfig, File mediaFile) throws StoreException {
 		if (mode==Mode.TV_SHOW) {
-			for (CacheShow show : shows) {
-				if (show.getName().equals(name)) {
-					//TODO look for the media file and work out the part
-					return new SearchResult(show.getShowId(), show.getSourceId(), show.getShowURL().toExternalForm(), null,mode);
-				}
+			CacheShow show = getCachedShow(showNames.get(name));
+			if (show!=null) {
+				//TODO look for the media file and work out the part
+				return new SearchResult(show.getShowId(), show.getSourceId(), show.getShowURL().toExternalForm(), null,mode);
 			}
 		}
 		else if (mode==Mode.FILM) {
@@ -237,7 +333,7 @@ public class MemoryStore implements IStore {
 	 * @throws StoreException Thrown if their is a problem with the store
 	 */
 	@Override
-	public void cacheFilm(File rootMediaDir,File filmFile,File oldFileName, IFilm film,Integer part) throws StoreException {
+	public synchronized void cacheFilm(File rootMediaDir,File filmFile,File oldFileName, IFilm film,Integer part) throws StoreException {
 		List<VideoFile> files = film.getFiles();
 		boolean found = false;
 		for (VideoFile vf : files ) {
@@ -261,7 +357,7 @@ public class MemoryStore implements IStore {
 	 * @param newFile The new file
 	 */
 	@Override
-	public void renamedFile(File rootMediaDir,File oldFile, File newFile) {
+	public synchronized void renamedFile(File rootMediaDir,File oldFile, File newFile) {
 		IFilm film = films.get(oldFile);
 		if (film!=null) {
 			films.remove(oldFile);
@@ -275,19 +371,36 @@ public class MemoryStore implements IStore {
 	 * @param filmId The id of the film
 	 */
 	@Override
-	public IFilm getFilm(File rootMediaDir,File filmFile, String filmId) throws StoreException, MalformedURLException, IOException {
+	public synchronized IFilm getFilm(File rootMediaDir,File filmFile, String filmId) throws StoreException, MalformedURLException, IOException {
 		return films.get(filmFile);
 	}
 
 	/** {@inheritDoc} */
 	@Override
-	public void setParameter(String key, String value) {
+	public synchronized void setParameter(String key, String value) throws StoreException {
+		if (key.equalsIgnoreCase(MemoryStoreInfo.PARAM_CACHE_SIZE.getName())) {
+			try {
+				cacheSize = Integer.parseInt(value);
+			}
+			catch (NumberFormatException e) {
+				throw new StoreException(MessageFormat.format(Messages.getString("InvalidParamValue"),value,key),e); //$NON-NLS-1$
+			}
+			if (cacheSize<0) {
+				throw new StoreException(MessageFormat.format(Messages.getString("InvalidParamValue"),value,key)); //$NON-NLS-1$
+			}
+			createMaps();
+			return;
+		}
+		throw new StoreException(MessageFormat.format(Messages.getString("UnknownParam"), key)); //$NON-NLS-1$
 	}
 
 	/** {@inheritDoc} */
 	@Override
-	public String getParameter(String key) {
-		return null;
+	public synchronized String getParameter(String key) throws StoreException {
+		if (key.equalsIgnoreCase(MemoryStoreInfo.PARAM_CACHE_SIZE.getName())) {
+			return String.valueOf(cacheSize);
+		}
+		throw new StoreException(MessageFormat.format(Messages.getString("UnknownParam"), key)); //$NON-NLS-1$
 	}
 
 	/** {@inheritDoc} */
@@ -297,65 +410,34 @@ public class MemoryStore implements IStore {
 
 	/** {@inheritDoc} */
 	@Override
-	public void fileDeleted(MediaDirectory dir, File file) {
+	public synchronized void fileDeleted(MediaDirectory dir, File file) {
 		films.remove(file);
 
-		for (CacheShow show : shows) {
-			for (CacheSeason season : show.getSeasons()) {
-				for (IEpisode episode : season.getEpisodes()) {
-					Iterator<VideoFile> it  = episode.getFiles().iterator();
-					while (it.hasNext()) {
-						VideoFile f = it.next();
-						if (f.getLocation().equals(file)) {
-							it.remove();
-						}
-					}
-				}
-				for (IEpisode special : season.getSpecials()) {
-					Iterator<VideoFile> it  = special.getFiles().iterator();
-					while (it.hasNext()) {
-						VideoFile f = it.next();
-						if (f.getLocation().equals(file)) {
-							it.remove();
-						}
-					}
-				}
+		IEpisode episode = episodeFiles.remove(file);
+		if (episode!=null) {
+			VideoFile vf = findFile(episode, file);
+			if (vf!=null) {
+				episode.getFiles().remove(vf);
 			}
 		}
 	}
 
 	/** {@inheritDoc} */
 	@Override
-	public IEpisode getEpisode(MediaDirectory dir, File file)
+	public synchronized IEpisode getEpisode(MediaDirectory dir, File file)
 			throws StoreException {
-		for (CacheShow show : shows) {
-			for (CacheSeason season : show.getSeasons()) {
-				for (IEpisode episode : season.getEpisodes()) {
-					Iterator<VideoFile> it  = episode.getFiles().iterator();
-					while (it.hasNext()) {
-						VideoFile f = it.next();
-						if (f.getLocation().equals(file)) {
-							return episode;
-						}
-					}
-				}
-				for (IEpisode special : season.getSpecials()) {
-					Iterator<VideoFile> it  = special.getFiles().iterator();
-					while (it.hasNext()) {
-						VideoFile f = it.next();
-						if (f.getLocation().equals(file)) {
-							return special;
-						}
-					}
-				}
-			}
+		IEpisode episode = episodeFiles.get(file);
+		if (episode!=null && findFile(episode, file)==null) {
+			// The file has been removed from the episode since it was cached
+			episodeFiles.remove(file);
+			return null;
 		}
-		return null;
+		return episode;
 	}
 
 	/** {@inheritDoc} */
 	@Override
-	public IFilm getFilm(MediaDirectory dir, File file) throws StoreException {
+	public synchronized IFilm getFilm(MediaDirectory dir, File file) throws StoreException {
 		return films.get(file);
 	}
 
@@ -366,9 +448,9 @@ public class MemoryStore implements IStore {
 
 	/** {@inheritDoc} */
 	@Override
-	public Collection<IEpisode> listEpisodes(MediaDirConfig dirConfig,IProgressMonitor monitor) {
+	public synchronized Collection<IEpisode> listEpisodes(MediaDirConfig dirConfig,IProgressMonitor monitor) {
 		ArrayList<IEpisode>episodes = new ArrayList<IEpisode>();
-		for (CacheShow show : shows) {
+		for (CacheShow show : shows.values()) {
 			for (CacheSeason season : show.getSeasons()) {
 				for (IEpisode episode : season.getEpisodes()) {
 					episodes.add(episode);
@@ -380,8 +462,8 @@ public class MemoryStore implements IStore {
 
 	/** {@inheritDoc} */
 	@Override
-	public Collection<IFilm> listFilms(MediaDirConfig dirConfig,IProgressMonitor monitor) {
-		return films.values();
+	public synchronized Collection<IFilm> listFilms(MediaDirConfig dirConfig,IProgressMonitor monitor) {
+		return new ArrayList<IFilm>(films.values());
 	}
 
 	/** {@inheritDoc} */
@@ -399,7 +481,7 @@ public class MemoryStore implements IStore {
 
 	/** {@inheritDoc}} */
 	@Override
-	public boolean fileKnownByStore(MediaDirectory mediaDirectory, File file) throws StoreException {
+	public synchronized boolean fileKnownByStore(MediaDirectory mediaDirectory, File file) throws StoreException {
 		if (getEpisode(mediaDirectory,file)!=null) {
 			return true;
 		}
@@ -26,11 +26,16 @@ import org.stanwood.media.extensions.ParameterType;
  */
 public class MemoryStoreInfo extends ExtensionInfo<MemoryStore> {
 
+	/** The maximum number of shows and films kept in memory */
+	public static final ParameterType PARAM_CACHE_SIZE = new ParameterType("cacheSize",Integer.class,false); //$NON-NLS-1$
+
+	private final static ParameterType PARAM_TYPES[] = new ParameterType[]{PARAM_CACHE_SIZE};
+
 	/**
 	 * The constructor
 	 */
 	public MemoryStoreInfo() {
-		super(MemoryStore.class.getName(),ExtensionType.STORE, new ParameterType[0]);
+		super(MemoryStore.class.getName(),ExtensionType.STORE, PARAM_TYPES);
 	}
 
 	@Override
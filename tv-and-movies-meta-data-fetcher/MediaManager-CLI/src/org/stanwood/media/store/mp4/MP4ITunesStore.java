@@ -63,7 +63,9 @@ import org.stanwood.media.setup.MediaDirConfig;
 import org.stanwood.media.store.IStore;
 import org.stanwood.media.store.StoreException;
 import org.stanwood.media.store.StoreVersion;
+import org.stanwood.media.store.SynchronizedStore;
 import org.stanwood.media.store.mp4.atomicparsley.MP4AtomicParsleyManager;
+import org.stanwood.media.store.mp4.direct.MP4DirectManager;
 import org.stanwood.media.util.FileHelper;
 import org.stanwood.media.util.NativeHelper;
 import org.stanwood.media.util.Version;
@@ -75,8 +77,11 @@ import org.stanwood.media.util.Version;
  * their meta data.
  * </p>
  * <p>
- * In order to function, this store uses the command line tools provided by the AtomicParsley application.
- * Their are different forks of this application on the Internet. The most feature rich version I've
+ * By default the meta data atoms are read and written directly by the {@link MP4DirectManager} class,
+ * which only rewrites the moov atom of the file when it can. The manager can be changed with the
+ * optional store parameter <code>manager</code>. If it is set to {@link MP4AtomicParsleyManager}, then
+ * the command line tools provided by the AtomicParsley application are used instead. Their are different forks
+ * of this application on the Internet. The most feature rich version I've
  * found is at {@link "https://bitbucket.org/shield007/atomicparsley"}. Media manager uses this one to add
  * atoms that some of the other versions can't. The application must be installed on the PATH, or pointed
  * to by the optional store parameters.
@@ -88,6 +93,7 @@ import org.stanwood.media.util.Version;
  * </p>
  * <p>This store has following optional parameters:
  * 	<ul>
+ * 		<li>manager - The class name of the MP4 manager used to read and write the atoms</li>
  * 		<li>atomicparsley - The path to the AtomicParsley command</li>
  *  </ul>
  * </p>
@@ -103,11 +109,12 @@ public class MP4ITunesStore implements IStore {
 	private final static Log log = LogFactory.getLog(MP4ITunesStore.class);
 
 	private IMP4Manager mp4Manager;
-	private Class<? extends IMP4Manager> manager = MP4AtomicParsleyManager.class;
+	private Class<? extends IMP4Manager> manager = MP4DirectManager.class;
 	private String atomicParsleyCmd;
 	private MP4ITunesStoreInfo storeInfo;
 	private Controller controller;
-	private static LRUMapCache<URL,IAtom> artworkCache = new LRUMapCache<URL,IAtom>(10);
+	/** The downloaded artwork, the atoms are created by the manager that is writing the file */
+	private final static LRUMapCache<URL,Artwork> artworkCache = new LRUMapCache<URL,Artwork>(10);
 
 	private final static StoreVersion STORE_VERSION = new StoreVersion(new Version("2.1"),4); //$NON-NLS-1$
 
@@ -124,7 +131,7 @@ public class MP4ITunesStore implements IStore {
 	/** {@inheritDoc} */
 	@Override
 	public void init() throws StoreException {
-		if (atomicParsleyCmd == null) {
+		if (atomicParsleyCmd == null && MP4AtomicParsleyManager.class.isAssignableFrom(manager)) {
 			atomicParsleyCmd = NativeHelper.getNativeApplication(controller.getNativeFolder(),MP4ITunesStoreInfo.PARAM_ATOMIC_PARSLEY_KEY.getName());
 		}
 		try {
@@ -292,7 +299,7 @@ public class MP4ITunesStore implements IStore {
 			try {
 				mp4Manager = manager.newInstance();
 			} catch (Exception e) {
-				throw new StoreException(MessageFormat.format(Messages.getString("MP4ITunesStore.UNABLE_CREATE_MANAGER"),manager.getClass()),e); //$NON-NLS-1$
+				throw new StoreException(MessageFormat.format(Messages.getString("MP4ITunesStore.UNABLE_CREATE_MANAGER"),manager.getName()),e); //$NON-NLS-1$
 			}
 
 			mp4Manager.setParameter(MP4ITunesStoreInfo.PARAM_ATOMIC_PARSLEY_KEY.getName(),atomicParsleyCmd);
@@ -310,9 +317,11 @@ public class MP4ITunesStore implements IStore {
 			} catch (ClassNotFoundException e) {
 				throw new StoreException(MessageFormat.format(Messages.getString("MP4ITunesStore.UNABLE_FIND_MANAGER") ,value),e); //$NON-NLS-1$
 			}
+			return;
 		}
 		else if (key.equalsIgnoreCase(MP4ITunesStoreInfo.PARAM_ATOMIC_PARSLEY_KEY.getName())){
 			atomicParsleyCmd = value;
+			return;
 		}
 		throw new StoreException(MessageFormat.format(Messages.getString("MP4ITunesStore.UNSUPPORTED_PARAM"),key)); //$NON-NLS-1$
 	}
@@ -491,8 +500,11 @@ public class MP4ITunesStore implements IStore {
 		File artwork = null;
 		try {
 				try {
-					IAtom artworkAtom = artworkCache.get(imageUrl);
-					if (artworkAtom==null) {
+					Artwork cached;
+					synchronized (artworkCache) {
+						cached = artworkCache.get(imageUrl);
+					}
+					if (cached==null) {
 						artwork = mp4Manager.getArtworkFile(imageUrl);
 						byte data[] = getBytesFromFile(artwork);
 
@@ -503,10 +515,12 @@ public class MP4ITunesStore implements IStore {
 							type = MP4ArtworkType.MP4_ART_PNG;
 						}
 
-						artworkAtom = mp4Manager.createAtom(MP4AtomKey.ARTWORK, type,data.length,data );
-						artworkCache.put(imageUrl,artworkAtom);
+						cached = new Artwork(type,data);
+						synchronized (artworkCache) {
+							artworkCache.put(imageUrl,cached);
+						}
 					}
-					return artworkAtom;
+					return mp4Manager.createAtom(MP4AtomKey.ARTWORK, cached.type,cached.data.length,cached.data);
 				} catch (SocketTimeoutException e) {
 					throw new MP4Exception(MessageFormat.format(Messages.getString("MP4ITunesStore.UnableFetchImage"),imageUrl.toExternalForm()),e); //$NON-NLS-1$
 				} catch (IOException e) {
@@ -916,7 +930,7 @@ public class MP4ITunesStore implements IStore {
 
 	private void doUpgrade(List<IAtom> atoms,MediaDirectory mediaDir,File file) throws StoreException, MP4Exception {
 		for (IStore store : mediaDir.getStores()) {
-			if (store!=this) {
+			if (SynchronizedStore.unwrap(store)!=this) {
 				store.upgrade(mediaDir);
 			}
 		}
@@ -1108,4 +1122,14 @@ public class MP4ITunesStore implements IStore {
 		}
 		return false;
 	}
+
+	private static class Artwork {
+		private final MP4ArtworkType type;
+		private final byte data[];
+
+		public Artwork(MP4ArtworkType type,byte data[]) {
+			this.type = type;
+			this.data = data;
+		}
+	}
 }
@@ -0,0 +1,87 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store.mp4.direct;
+
+import org.stanwood.media.store.mp4.IAtom;
+import org.stanwood.media.store.mp4.MP4AtomKey;
+
+/**
+ * The base class of atoms used by the {@link MP4DirectManager}. Each atom knows how
+ * to encode its value as the contents of a ilst data box.
+ */
+public abstract class AbstractDirectAtom implements IAtom {
+
+	/** The data box type used for data that has no explicit type, such as ranges */
+	final static int TYPE_IMPLICIT = 0;
+	/** The data box type used for UTF-8 strings */
+	final static int TYPE_UTF8 = 1;
+	/** The data box type used for UTF-16 strings */
+	final static int TYPE_UTF16 = 2;
+	/** The data box type used for GIF images */
+	final static int TYPE_GIF = 12;
+	/** The data box type used for JPEG images */
+	final static int TYPE_JPEG = 13;
+	/** The data box type used for PNG images */
+	final static int TYPE_PNG = 14;
+	/** The data box type used for big endian signed integers */
+	final static int TYPE_INTEGER = 21;
+	/** The data box type used for BMP images */
+	final static int TYPE_BMP = 27;
+
+	private MP4AtomKey key;
+
+	/**
+	 * The constructor
+	 * @param key The key of the atom
+	 */
+	public AbstractDirectAtom(MP4AtomKey key) {
+		if (key==null) {
+			throw new NullPointerException();
+		}
+		this.key = key;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String getDisplayName() {
+		return key.getDisplayName();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String getName() {
+		return key.getId();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public MP4AtomKey getKey() {
+		return key;
+	}
+
+	/**
+	 * Used to get the type of the data, which is stored in the data box
+	 * @return The type of the data
+	 */
+	abstract int getDataType();
+
+	/**
+	 * Used to get the value of the atom encoded as it is stored in the data box
+	 * @return The encoded value
+	 */
+	abstract byte[] getData();
+}
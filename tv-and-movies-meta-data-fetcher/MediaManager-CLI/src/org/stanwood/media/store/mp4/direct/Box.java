@@ -0,0 +1,299 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store.mp4.direct;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A box (atom) of a MP4 file that is held in memory. Container boxes that are on the
+ * path to the meta data or the chunk offset tables are split into their child boxes,
+ * all other boxes are held as their raw bytes so that they are written back unchanged.
+ */
+class Box {
+
+	/** The character set used by box types */
+	final static Charset TYPE_CHARSET = Charset.forName("ISO-8859-1"); //$NON-NLS-1$
+
+	private final static Set<String> CONTAINERS = new HashSet<String>(Arrays.asList(new String[] {
+			"moov","trak","mdia","minf","stbl","udta","meta","ilst"})); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+
+	private String type;
+	private byte[] data;
+	private byte[] trailer;
+	private List<Box> children;
+
+	/**
+	 * Used to create a box that contains raw data. For container boxes, the
+	 * data is anything that comes before the child boxes.
+	 * @param type The type of the box
+	 * @param data The data of the box
+	 */
+	Box(String type,byte[] data) {
+		this.type = type;
+		this.data = data;
+	}
+
+	/**
+	 * Used to create a container box
+	 * @param type The type of the box
+	 * @param data Any data that comes before the child boxes
+	 * @param children The child boxes
+	 */
+	Box(String type,byte[] data,List<Box> children) {
+		this.type = type;
+		this.data = data;
+		this.children = children;
+	}
+
+	/**
+	 * Used to parse a box and any child boxes on the path to the meta data
+	 * @param type The type of the box
+	 * @param buffer The contents of the box, from the position to the limit of the buffer
+	 * @param parent The type of the parent box, or null if this is a top level box
+	 * @return The box
+	 */
+	static Box parse(String type,ByteBuffer buffer,String parent) {
+		int prefix = 0;
+		if (type.equals("meta")) { //$NON-NLS-1$
+			// MP4 meta boxes are full boxes, but quicktime ones are not
+			prefix = 4;
+			if (buffer.remaining()>=8 && "hdlr".equals(getType(buffer,buffer.position()+4))) { //$NON-NLS-1$
+				prefix = 0;
+			}
+		}
+		boolean container = CONTAINERS.contains(type) || "ilst".equals(parent); //$NON-NLS-1$
+		if (container && buffer.remaining()>=prefix) {
+			ByteBuffer childBuffer = buffer.duplicate();
+			childBuffer.position(buffer.position()+prefix);
+			List<Box> children = parseChildren(childBuffer,type);
+			if (children!=null) {
+				Box box = new Box(type,getBytes(buffer,buffer.position(),prefix),children);
+				if (childBuffer.hasRemaining()) {
+					box.trailer = getBytes(childBuffer, childBuffer.position(), childBuffer.remaining());
+				}
+				return box;
+			}
+		}
+		return new Box(type,getBytes(buffer,buffer.position(),buffer.remaining()));
+	}
+
+	/**
+	 * Used to parse the child boxes that are in a buffer. On return the position of the
+	 * buffer is after the last complete box.
+	 * @param buffer The buffer
+	 * @param parent The type of the parent box
+	 * @return The boxes, or null if the data is not a list of boxes
+	 */
+	private static List<Box> parseChildren(ByteBuffer buffer,String parent) {
+		List<Box> boxes = new ArrayList<Box>();
+		while (buffer.remaining()>=8) {
+			int start = buffer.position();
+			long size = buffer.getInt(start) & 0xffffffffL;
+			String childType = getType(buffer,start+4);
+			int headerSize = 8;
+			if (size==1) {
+				if (buffer.remaining()<16) {
+					return null;
+				}
+				size = buffer.getLong(start+8);
+				headerSize = 16;
+			}
+			else if (size==0) {
+				size = buffer.remaining();
+			}
+			if (size<headerSize || size>buffer.remaining()) {
+				if (isPadding(buffer)) {
+					break;
+				}
+				return null;
+			}
+			ByteBuffer childBuffer = buffer.duplicate();
+			childBuffer.position(start+headerSize);
+			childBuffer.limit(start+(int)size);
+			boxes.add(parse(childType,childBuffer,parent));
+			buffer.position(start+(int)size);
+		}
+		return boxes;
+	}
+
+	private static boolean isPadding(ByteBuffer buffer) {
+		for (int i=buffer.position();i<buffer.limit();i++) {
+			if (buffer.get(i)!=0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Used to read a box type from a buffer
+	 * @param buffer The buffer
+	 * @param pos The position of the type in the buffer
+	 * @return The type
+	 */
+	static String getType(ByteBuffer buffer,int pos) {
+		return new String(getBytes(buffer,pos,4),TYPE_CHARSET);
+	}
+
+	private static byte[] getBytes(ByteBuffer buffer,int pos,int length) {
+		byte bytes[] = new byte[length];
+		ByteBuffer b = buffer.duplicate();
+		b.position(pos);
+		b.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Used to get the type of the box
+	 * @return The type of the box
+	 */
+	String getType() {
+		return type;
+	}
+
+	/**
+	 * Used to change the type of the box
+	 * @param type The type of the box
+	 */
+	void setType(String type) {
+		this.type = type;
+	}
+
+	/**
+	 * Used to get the raw data of the box. For container boxes this is the data that
+	 * comes before the child boxes.
+	 * @return The data
+	 */
+	byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * Used to set the raw data of the box
+	 * @param data The data
+	 */
+	void setData(byte[] data) {
+		this.data = data;
+	}
+
+	/**
+	 * Used to get the child boxes
+	 * @return The child boxes, or null if this box is not split into child boxes
+	 */
+	List<Box> getChildren() {
+		return children;
+	}
+
+	/**
+	 * Used to find the first child box of a given type
+	 * @param childType The type of the child box
+	 * @return The child box, or null if it could not be found
+	 */
+	Box getChild(String childType) {
+		if (children!=null) {
+			for (Box child : children) {
+				if (child.getType().equals(childType)) {
+					return child;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Used to remove all the child boxes of a given type
+	 * @param childType The type of the child boxes
+	 * @return The total size of the removed boxes
+	 */
+	long removeChildren(String childType) {
+		long removed = 0;
+		if (children!=null) {
+			Iterator<Box> it = children.iterator();
+			while (it.hasNext()) {
+				Box child = it.next();
+				if (child.getType().equals(childType)) {
+					removed+=child.getSize();
+					it.remove();
+				}
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Used to get the size of the box including its header
+	 * @return The size of the box
+	 */
+	long getSize() {
+		long size = 8+data.length;
+		if (children!=null) {
+			for (Box child : children) {
+				size+=child.getSize();
+			}
+		}
+		if (trailer!=null) {
+			size+=trailer.length;
+		}
+		if (size>0xffffffffL) {
+			size+=8;
+		}
+		return size;
+	}
+
+	/**
+	 * Used to write the box to a buffer
+	 * @param buffer The buffer
+	 */
+	void write(ByteBuffer buffer) {
+		long size = getSize();
+		if (size>0xffffffffL) {
+			buffer.putInt(1);
+			buffer.put(type.getBytes(TYPE_CHARSET));
+			buffer.putLong(size);
+		}
+		else {
+			buffer.putInt((int)size);
+			buffer.put(type.getBytes(TYPE_CHARSET));
+		}
+		buffer.put(data);
+		if (children!=null) {
+			for (Box child : children) {
+				child.write(buffer);
+			}
+		}
+		if (trailer!=null) {
+			buffer.put(trailer);
+		}
+	}
+
+	/**
+	 * Used to get the box as bytes
+	 * @return The bytes of the box
+	 */
+	byte[] toBytes() {
+		ByteBuffer buffer = ByteBuffer.allocate((int)getSize());
+		write(buffer);
+		return buffer.array();
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store.mp4.direct;
+
+import java.text.MessageFormat;
+
+import org.stanwood.media.store.mp4.MP4ArtworkType;
+import org.stanwood.media.store.mp4.MP4AtomKey;
+
+/**
+ * Used to represent a piece of artwork that is to be written to a file
+ */
+public class DirectAtomArtwork extends AbstractDirectAtom {
+
+	private byte[] data;
+	private int size;
+	private MP4ArtworkType type;
+
+	/**
+	 * The constructor
+	 * @param name The name of the atom
+	 * @param type The type of the artwork
+	 * @param size the size of the artwork
+	 * @param data the artwork data
+	 */
+	public DirectAtomArtwork(MP4AtomKey name, MP4ArtworkType type, int size, byte[] data) {
+		super(name);
+		this.type = type;
+		this.size = size;
+		this.data = data.clone();
+	}
+
+	/**
+	 * Print out the contents of the atom
+	 * @return Textual value of the atom
+	 */
+	@Override
+	public String toString() {
+		return MessageFormat.format(Messages.getString("DirectAtomArtwork.AtomValueMsg"),getDisplayName(),getName(),getDisplayType(),size); //$NON-NLS-1$
+	}
+
+	private String getDisplayType() {
+		switch (type) {
+			case  MP4_ART_BMP: return "BMP"; //$NON-NLS-1$
+			case  MP4_ART_JPEG: return "JPEG"; //$NON-NLS-1$
+			case  MP4_ART_PNG: return "PNG"; //$NON-NLS-1$
+			case  MP4_ART_GIF: return "GIF"; //$NON-NLS-1$
+			default: return "UNDEFINED"; //$NON-NLS-1$
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	int getDataType() {
+		switch (type) {
+			case  MP4_ART_BMP: return TYPE_BMP;
+			case  MP4_ART_JPEG: return TYPE_JPEG;
+			case  MP4_ART_PNG: return TYPE_PNG;
+			case  MP4_ART_GIF: return TYPE_GIF;
+			default: return TYPE_IMPLICIT;
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	byte[] getData() {
+		return data;
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store.mp4.direct;
+
+import java.text.MessageFormat;
+
+import org.stanwood.media.store.mp4.MP4AtomKey;
+
+/**
+ * Used to represent a piece of artwork that was read from a file. The
+ * image itself is not read, so this atom can't be written to a file.
+ */
+public class DirectAtomArtworkSummary extends AbstractDirectAtom {
+
+	private int count;
+
+	/**
+	 * The artwork summary constructor
+	 * @param name Name of the atom
+	 * @param count The count of artworks
+	 */
+	public DirectAtomArtworkSummary(MP4AtomKey name,int count) {
+		super(name);
+		this.count = count;
+	}
+
+	/**
+	 * Print out the contents of the atom
+	 * @return Textual value of the atom
+	 */
+	@Override
+	public String toString() {
+		return MessageFormat.format(Messages.getString("DirectAtomArtworkSummary.SummaryMsg"),getKey().getDisplayName(),getName(),count); //$NON-NLS-1$
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	int getDataType() {
+		throw new UnsupportedOperationException(Messages.getString("DirectAtomArtworkSummary.ReadOnly")); //$NON-NLS-1$
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	byte[] getData() {
+		throw new UnsupportedOperationException(Messages.getString("DirectAtomArtworkSummary.ReadOnly")); //$NON-NLS-1$
+	}
+}
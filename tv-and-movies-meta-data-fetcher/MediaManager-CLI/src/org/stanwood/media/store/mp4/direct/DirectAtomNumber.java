@@ -0,0 +1,89 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store.mp4.direct;
+
+import java.text.MessageFormat;
+
+import org.stanwood.media.store.mp4.IAtomNumber;
+import org.stanwood.media.store.mp4.MP4AtomKey;
+
+/**
+ * Used to represent a number atom. The number of bytes used to store the
+ * value depends on the type of the atom key.
+ */
+public class DirectAtomNumber extends AbstractDirectAtom implements IAtomNumber {
+
+	private long value;
+
+	/**
+	 * The constructor
+	 *
+	 * @param name The name of the atom
+	 * @param value The value of the atom
+	 */
+	public DirectAtomNumber(MP4AtomKey name,long value) {
+		super(name);
+		this.value = value;
+	}
+
+	/**
+	 * Print out the contents of the atom
+	 * @return Textual value of the atom
+	 */
+	@Override
+	public String toString() {
+		return MessageFormat.format("{0}: [{1}={2}]",getDisplayName(),getName(),value); //$NON-NLS-1$
+	}
+
+	/**
+	 * Used to get the value of the atom
+	 * @return The value of the atom
+	 */
+	@Override
+	public long getValue() {
+		return value;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	int getDataType() {
+		return TYPE_INTEGER;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	byte[] getData() {
+		int length;
+		switch (getKey().getType()) {
+		case Byte:
+		case Enum:
+		case Boolean:
+			length = 1;
+			break;
+		case Short:
+			length = 2;
+			break;
+		default:
+			length = 4;
+		}
+		byte data[] = new byte[length];
+		for (int i=0;i<length;i++) {
+			data[i] = (byte)(value >> (8*(length-i-1)));
+		}
+		return data;
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store.mp4.direct;
+
+import java.text.MessageFormat;
+
+import org.stanwood.media.store.mp4.MP4AtomKey;
+
+/**
+ * Used to represent a range atom, such as the track or disk number
+ */
+public class DirectAtomRange extends AbstractDirectAtom {
+
+	private short number;
+	private short total;
+
+	/**
+	 * The constructor
+	 * @param name The name of the atom
+	 * @param number the number of items in the rage
+	 * @param total the maximum number in the range
+	 */
+	public DirectAtomRange(MP4AtomKey name,short number,short total) {
+		super(name);
+		this.number = number;
+		this.total = total;
+	}
+
+	/**
+	 * Print out the contents of the atom
+	 * @return Textual value of the atom
+	 */
+	@Override
+	public String toString() {
+		return MessageFormat.format("{0}: [{1}={2} of {3}]",getDisplayName(),getName(),number,total); //$NON-NLS-1$
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	int getDataType() {
+		return TYPE_IMPLICIT;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	byte[] getData() {
+		// The track number has a extra two bytes of padding that the disk number does not
+		byte data[] = new byte[getKey()==MP4AtomKey.TRACK_NUMBER ? 8 : 6];
+		data[2] = (byte)(number>>8);
+		data[3] = (byte)number;
+		data[4] = (byte)(total>>8);
+		data[5] = (byte)total;
+		return data;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store.mp4.direct;
+
+import java.nio.charset.Charset;
+import java.text.MessageFormat;
+import java.util.regex.Matcher;
+
+import org.stanwood.media.store.mp4.IAtomString;
+import org.stanwood.media.store.mp4.MP4AtomKey;
+import org.stanwood.media.util.FileHelper;
+
+/**
+ * Used to represent a string atom
+ */
+public class DirectAtomString extends AbstractDirectAtom implements IAtomString {
+
+	private final static Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+	private String value;
+
+	/**
+	 * The constructor. Trailing line breaks are removed from the value, so that it reads
+	 * back the same as it does with AtomicParsley.
+	 * @param name The name of the atom
+	 * @param value The value of the atom
+	 */
+	public DirectAtomString(MP4AtomKey name,String value) {
+		super(name);
+		value = value.replaceAll("(\\r\\n|\\r|\\n)+$", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		this.value = value.replaceAll("\\r\\n|\\r|\\n", Matcher.quoteReplacement(FileHelper.LS)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Print out the contents of the atom
+	 * @return Textual value of the atom
+	 */
+	@Override
+	public String toString() {
+		return MessageFormat.format("{0}: [{1}={2}]",getDisplayName(),getKey().toString(),value); //$NON-NLS-1$
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String getValue() {
+		return value;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	int getDataType() {
+		if (getKey()==MP4AtomKey.GENRE_PRE_DEFINED) {
+			return TYPE_IMPLICIT;
+		}
+		return TYPE_UTF8;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	byte[] getData() {
+		if (getKey()==MP4AtomKey.GENRE_PRE_DEFINED) {
+			try {
+				short genre = Short.parseShort(value.trim());
+				return new byte[] {(byte)(genre>>8),(byte)genre};
+			}
+			catch (NumberFormatException e) {
+				throw new UnsupportedOperationException(MessageFormat.format(Messages.getString("DirectAtom.UnsupportedAtom"),getKey().getId()),e); //$NON-NLS-1$
+			}
+		}
+		return value.replaceAll("\\r\\n|\\r|\\n", "\n").getBytes(UTF8); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -0,0 +1,763 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store.mp4.direct;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.stanwood.media.store.mp4.IAtom;
+import org.stanwood.media.store.mp4.IMP4Manager;
+import org.stanwood.media.store.mp4.MP4ArtworkType;
+import org.stanwood.media.store.mp4.MP4AtomKey;
+import org.stanwood.media.store.mp4.MP4AtomKeyType;
+import org.stanwood.media.store.mp4.MP4Exception;
+import org.stanwood.media.util.FileHelper;
+
+/**
+ * <p>A MP4 Manager class that reads and writes the iTunes meta data atoms itself, without
+ * using any external applications.</p>
+ * <p>Only the moov box of the file is read into memory. When the meta data is changed,
+ * the new moov box is written over the old one if it fits in the space used by the old
+ * moov box and any free boxes that follow it, or if the moov box is at the end of the file.
+ * In these cases the media data is not touched. Otherwise the file is rewritten with
+ * extra padding after the moov box, so that later changes can be made in place. When the
+ * file is rewritten the chunk offset tables (stco/co64) are updated to point at the new
+ * location of the media data.</p>
+ */
+public class MP4DirectManager implements IMP4Manager {
+
+	private final static Log log = LogFactory.getLog(MP4DirectManager.class);
+
+	/** The size of the free box written after the moov box when the file is rewritten */
+	private final static int PADDING = 2048;
+
+	private final static Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+	private final static Charset UTF16 = Charset.forName("UTF-16BE"); //$NON-NLS-1$
+
+	private final static String MOOV = "moov"; //$NON-NLS-1$
+	private final static String UDTA = "udta"; //$NON-NLS-1$
+	private final static String META = "meta"; //$NON-NLS-1$
+	private final static String HDLR = "hdlr"; //$NON-NLS-1$
+	private final static String ILST = "ilst"; //$NON-NLS-1$
+	private final static String DATA = "data"; //$NON-NLS-1$
+	private final static String MEAN = "mean"; //$NON-NLS-1$
+	private final static String NAME = "name"; //$NON-NLS-1$
+	private final static String FREE = "free"; //$NON-NLS-1$
+	private final static String SKIP = "skip"; //$NON-NLS-1$
+	private final static String STCO = "stco"; //$NON-NLS-1$
+	private final static String CO64 = "co64"; //$NON-NLS-1$
+	private final static String MOOF = "moof"; //$NON-NLS-1$
+	private final static String RDNS = "----"; //$NON-NLS-1$
+
+	/** {@inheritDoc} */
+	@Override
+	public void init(File nativeDir) throws MP4Exception {
+		// No external applications are needed
+	}
+
+	/**
+	 * This manager does not have any parameters, so they are ignored
+	 * @param key The name of the parameter
+	 * @param value The value of the parameter
+	 */
+	@Override
+	public void setParameter(String key, String value) {
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public List<IAtom> listAtoms(File mp4File) throws MP4Exception {
+		if (!mp4File.exists()) {
+			throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.UnableFindMp4File"),mp4File)); //$NON-NLS-1$
+		}
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(mp4File,"r"); //$NON-NLS-1$
+			FileChannel channel = raf.getChannel();
+			Layout layout = readLayout(channel, mp4File);
+			Box moov = readMoov(channel, layout);
+			return listAtoms(moov);
+		}
+		catch (IOException e) {
+			throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.UnableReadMp4File"),mp4File),e); //$NON-NLS-1$
+		}
+		finally {
+			close(raf);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void update(File mp4File, List<IAtom> atoms) throws MP4Exception {
+		if (log.isDebugEnabled()) {
+			log.debug("Upadting MP4 file '" + mp4File+"' with "+atoms.size()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (!mp4File.exists()) {
+			throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.UnableFindMp4File"),mp4File)); //$NON-NLS-1$
+		}
+		File tmpFile = null;
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(mp4File,"rw"); //$NON-NLS-1$
+			FileChannel channel = raf.getChannel();
+			Layout layout = readLayout(channel, mp4File);
+			Box moov = readMoov(channel, layout);
+
+			List<AbstractDirectAtom> newAtoms = getChangedAtoms(listAtoms(moov), atoms);
+			if (newAtoms.isEmpty()) {
+				if (log.isDebugEnabled()) {
+					log.debug("MP4 file already has the atoms '" + mp4File+"'"); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				return;
+			}
+			setAtoms(moov,newAtoms);
+
+			byte newMoov[] = moov.toBytes();
+			long available = layout.regionEnd-layout.moovOffset;
+			if (layout.regionEnd==layout.fileLength) {
+				// Nothing follows the moov box, so it can always be written in place
+				writeInPlace(channel, layout, newMoov);
+				if (newMoov.length+8>available) {
+					channel.truncate(layout.moovOffset+newMoov.length);
+				}
+			}
+			else if (newMoov.length==available || newMoov.length+8<=available) {
+				writeInPlace(channel, layout, newMoov);
+			}
+			else {
+				if (layout.fragmented) {
+					throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.ChunkOffsetsNotSupported"),mp4File)); //$NON-NLS-1$
+				}
+				tmpFile = new File(mp4File.getParentFile(),mp4File.getName()+".tmp"); //$NON-NLS-1$
+				rewrite(channel, layout, moov, tmpFile);
+			}
+			channel.force(false);
+		}
+		catch (IOException e) {
+			throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.UnableUpdateMetadata"),mp4File),e); //$NON-NLS-1$
+		}
+		finally {
+			close(raf);
+		}
+
+		if (tmpFile!=null) {
+			replaceFile(mp4File, tmpFile);
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("MP4 modified '" + mp4File+"'"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private List<AbstractDirectAtom> getChangedAtoms(List<IAtom> existingAtoms,List<IAtom> atoms) throws MP4Exception {
+		List<AbstractDirectAtom> result = new ArrayList<AbstractDirectAtom>();
+		for (IAtom atom : atoms) {
+			if (!(atom instanceof AbstractDirectAtom)) {
+				throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.AtomNotCreatedByManager"),atom)); //$NON-NLS-1$
+			}
+			if (!hasAtom(existingAtoms,atom)) {
+				result.add((AbstractDirectAtom)atom);
+			}
+		}
+		return result;
+	}
+
+	private boolean hasAtom(List<IAtom> atoms, IAtom atom1) {
+		for (IAtom atom2 : atoms) {
+			if (atom1.getKey() == MP4AtomKey.PURCHASED_DATE) {
+				if (atom2.getKey().equals(atom1.getKey())) {
+					return true;
+				}
+			}
+			else {
+				if (atom2.getKey().equals(atom1.getKey()) && atom2.toString().equals(atom1.toString())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Write the new moov box over the old one, followed by a free box that fills any
+	 * remaining space up to the next box
+	 */
+	private void writeInPlace(FileChannel channel,Layout layout,byte newMoov[]) throws IOException {
+		if (log.isDebugEnabled()) {
+			log.debug("Writing moov atom in place"); //$NON-NLS-1$
+		}
+		write(channel,layout.moovOffset,ByteBuffer.wrap(newMoov));
+		long padding = layout.regionEnd-layout.moovOffset-newMoov.length;
+		if (padding>=8) {
+			write(channel,layout.moovOffset+newMoov.length,createFreeHeader(padding));
+		}
+	}
+
+	/**
+	 * Write a new copy of the file with the new moov box and some padding after it. The chunk
+	 * offsets are moved by the change in size. If this makes a 32 bit offset overflow, the table
+	 * is changed into a 64 bit one, which changes the size again, so this is repeated until the
+	 * size does not change.
+	 */
+	private void rewrite(FileChannel in,Layout layout,Box moov,File tmpFile) throws IOException {
+		if (log.isDebugEnabled()) {
+			log.debug("Rewriting MP4 file with a larger moov atom"); //$NON-NLS-1$
+		}
+		List<Box> chunkOffsetBoxes = new ArrayList<Box>();
+		findChunkOffsetBoxes(moov,chunkOffsetBoxes);
+		Map<Box,byte[]> originalData = new HashMap<Box,byte[]>();
+		for (Box box : chunkOffsetBoxes) {
+			originalData.put(box, box.getData());
+		}
+		long oldSize = layout.regionEnd-layout.moovOffset;
+		long shift = 0;
+		long newSize;
+		while (true) {
+			for (Box box : chunkOffsetBoxes) {
+				patchChunkOffsets(box, originalData.get(box), layout.regionEnd, shift);
+			}
+			newSize = moov.getSize()+PADDING;
+			if (newSize-oldSize==shift) {
+				break;
+			}
+			shift = newSize-oldSize;
+		}
+
+		if (tmpFile.exists()) {
+			FileHelper.delete(tmpFile);
+		}
+		FileOutputStream fos = new FileOutputStream(tmpFile);
+		try {
+			FileChannel out = fos.getChannel();
+			transfer(in,0,layout.moovOffset,out);
+			ByteBuffer buffer = ByteBuffer.allocate((int)newSize);
+			moov.write(buffer);
+			buffer.put(createFreeHeader(PADDING));
+			buffer.position(buffer.limit());
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				out.write(buffer);
+			}
+			transfer(in,layout.regionEnd,layout.fileLength-layout.regionEnd,out);
+			out.force(false);
+		}
+		finally {
+			fos.close();
+		}
+	}
+
+	private void findChunkOffsetBoxes(Box box,List<Box> result) {
+		if (box.getType().equals(STCO) || box.getType().equals(CO64)) {
+			result.add(box);
+		}
+		else if (box.getChildren()!=null) {
+			for (Box child : box.getChildren()) {
+				findChunkOffsetBoxes(child,result);
+			}
+		}
+	}
+
+	/**
+	 * Used to add a shift to all the chunk offsets that point after the old moov box
+	 * @param box The stco or co64 box
+	 * @param data The original data of the box
+	 * @param threshold Offsets at or after this are shifted
+	 * @param shift The amount to shift the offsets by
+	 */
+	private void patchChunkOffsets(Box box,byte data[],long threshold,long shift) {
+		ByteBuffer src = ByteBuffer.wrap(data);
+		int count = src.getInt(4);
+		long offsets[] = new long[count];
+		boolean overflow = false;
+		int entrySize = data.length==8+count*8L ? 8 : 4;
+		for (int i=0;i<count;i++) {
+			long offset = entrySize==8 ? src.getLong(8+i*8) : src.getInt(8+i*4) & 0xffffffffL;
+			if (offset>=threshold) {
+				offset+=shift;
+			}
+			offsets[i] = offset;
+			if (offset>0xffffffffL) {
+				overflow = true;
+			}
+		}
+		boolean wide = entrySize==8 || overflow;
+		ByteBuffer dst = ByteBuffer.allocate(8+count*(wide ? 8 : 4));
+		dst.put(data,0,4);
+		dst.putInt(count);
+		for (long offset : offsets) {
+			if (wide) {
+				dst.putLong(offset);
+			}
+			else {
+				dst.putInt((int)offset);
+			}
+		}
+		box.setType(wide ? CO64 : STCO);
+		box.setData(dst.array());
+	}
+
+	private void replaceFile(File mp4File,File tmpFile) throws MP4Exception {
+		try {
+			if (!tmpFile.renameTo(mp4File)) {
+				FileHelper.delete(mp4File);
+				FileHelper.move(tmpFile, mp4File);
+			}
+		}
+		catch (IOException e) {
+			throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.UnableReplaceFile"),mp4File,tmpFile),e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Used to replace the ilst items of the atoms keys with the atoms. Items are replaced
+	 * in the position of the first item with the same key, new items are added to the end.
+	 */
+	private void setAtoms(Box moov,List<AbstractDirectAtom> atoms) throws MP4Exception {
+		Map<MP4AtomKey,Box> newItems = new LinkedHashMap<MP4AtomKey,Box>();
+		for (AbstractDirectAtom atom : atoms) {
+			Box item = newItems.get(atom.getKey());
+			if (item==null) {
+				item = createItem(atom.getKey());
+				newItems.put(atom.getKey(), item);
+			}
+			else if (atom.getKey()!=MP4AtomKey.ARTWORK) {
+				item.removeChildren(DATA);
+			}
+			item.getChildren().add(createDataBox(atom));
+		}
+
+		Box ilst = getIlst(moov,true);
+		List<Box> items = new ArrayList<Box>();
+		Set<MP4AtomKey> added = new HashSet<MP4AtomKey>();
+		for (Box item : ilst.getChildren()) {
+			MP4AtomKey key = getKey(item);
+			if (key!=null && newItems.containsKey(key)) {
+				if (added.add(key)) {
+					items.add(newItems.get(key));
+				}
+			}
+			else {
+				items.add(item);
+			}
+		}
+		for (Map.Entry<MP4AtomKey,Box> e : newItems.entrySet()) {
+			if (!added.contains(e.getKey())) {
+				items.add(e.getValue());
+			}
+		}
+		ilst.getChildren().clear();
+		ilst.getChildren().addAll(items);
+	}
+
+	private Box createItem(MP4AtomKey key) {
+		Box item = new Box(key.getId(),new byte[0],new ArrayList<Box>());
+		if (key.getDnsName()!=null) {
+			item.getChildren().add(new Box(MEAN,createString(key.getDnsDomain())));
+			item.getChildren().add(new Box(NAME,createString(key.getDnsName())));
+		}
+		return item;
+	}
+
+	private byte[] createString(String value) {
+		byte bytes[] = value.getBytes(UTF8);
+		byte data[] = new byte[4+bytes.length];
+		System.arraycopy(bytes, 0, data, 4, bytes.length);
+		return data;
+	}
+
+	private Box createDataBox(AbstractDirectAtom atom) {
+		byte value[] = atom.getData();
+		ByteBuffer data = ByteBuffer.allocate(8+value.length);
+		data.putInt(atom.getDataType());
+		data.putInt(0);
+		data.put(value);
+		return new Box(DATA,data.array());
+	}
+
+	/**
+	 * Used to find the ilst box within the moov box
+	 * @param moov The moov box
+	 * @param create If true, then the ilst box and its parents are created if they don't exist
+	 * @return The ilst box, or null if it does not exist and create is false
+	 */
+	private Box getIlst(Box moov,boolean create) throws MP4Exception {
+		Box udta = getChild(moov,UDTA,create);
+		if (udta==null) {
+			return null;
+		}
+		Box meta = udta.getChild(META);
+		if (meta==null) {
+			if (!create) {
+				return null;
+			}
+			meta = new Box(META,new byte[4],new ArrayList<Box>());
+			udta.getChildren().add(meta);
+		}
+		if (meta.getChildren()==null) {
+			throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.InvalidBox"),META,0,moov)); //$NON-NLS-1$
+		}
+		if (create) {
+			// Free space in the meta box is reused, a new free box is added after the moov box if needed
+			meta.removeChildren(FREE);
+			if (meta.getChild(HDLR)==null) {
+				ByteBuffer hdlr = ByteBuffer.allocate(26);
+				hdlr.putInt(0);
+				hdlr.putInt(0);
+				hdlr.put("mdirappl".getBytes(Box.TYPE_CHARSET)); //$NON-NLS-1$
+				meta.getChildren().add(0,new Box(HDLR,hdlr.array()));
+			}
+		}
+		return getChild(meta,ILST,create);
+	}
+
+	private Box getChild(Box parent,String type,boolean create) throws MP4Exception {
+		Box child = parent.getChild(type);
+		if (child==null && create) {
+			child = new Box(type,new byte[0],new ArrayList<Box>());
+			parent.getChildren().add(child);
+		}
+		if (child!=null && child.getChildren()==null) {
+			throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.InvalidBox"),type,0,parent.getType())); //$NON-NLS-1$
+		}
+		return child;
+	}
+
+	private MP4AtomKey getKey(Box item) {
+		if (item.getType().equals(RDNS)) {
+			String domain = getString(item.getChild(MEAN));
+			String name = getString(item.getChild(NAME));
+			if (domain==null || name==null) {
+				return null;
+			}
+			return MP4AtomKey.fromRDNS(name, domain);
+		}
+		return MP4AtomKey.fromKey(item.getType());
+	}
+
+	private String getString(Box box) {
+		if (box==null || box.getData().length<4) {
+			return null;
+		}
+		return new String(box.getData(),4,box.getData().length-4,UTF8);
+	}
+
+	private List<IAtom> listAtoms(Box moov) throws MP4Exception {
+		List<IAtom> atoms = new ArrayList<IAtom>();
+		Box ilst = getIlst(moov,false);
+		if (ilst==null) {
+			return atoms;
+		}
+		for (Box item : ilst.getChildren()) {
+			MP4AtomKey key = getKey(item);
+			if (key==null) {
+				log.warn(MessageFormat.format(Messages.getString("MP4DirectManager.UnableFindAtom"),item.getType(),getString(item.getChild(MEAN)),getString(item.getChild(NAME)))); //$NON-NLS-1$
+				continue;
+			}
+			if (item.getChildren()==null) {
+				continue;
+			}
+			for (Box data : item.getChildren()) {
+				if (!data.getType().equals(DATA) || data.getData().length<8) {
+					continue;
+				}
+				atoms.add(parseAtom(key,data.getData()));
+				if (key.getType()!=MP4AtomKeyType.Artwork) {
+					break;
+				}
+			}
+		}
+		return atoms;
+	}
+
+	private IAtom parseAtom(MP4AtomKey key,byte data[]) {
+		int dataType = ByteBuffer.wrap(data).getInt() & 0xffffff;
+		int length = data.length-8;
+		switch (key.getType()) {
+		case Artwork:
+			return new DirectAtomArtworkSummary(key, 1);
+		case Range:
+			ByteBuffer range = ByteBuffer.wrap(data,8,length);
+			short number = length>=4 ? range.getShort(10) : 0;
+			short total = length>=6 ? range.getShort(12) : 0;
+			return new DirectAtomRange(key,number,total);
+		case Boolean:
+			return new DirectAtomBoolean(key,getNumber(data)!=0);
+		case Byte:
+		case Short:
+		case Integer:
+		case Enum:
+			return new DirectAtomNumber(key,getNumber(data));
+		default:
+			if (dataType==AbstractDirectAtom.TYPE_IMPLICIT && key==MP4AtomKey.GENRE_PRE_DEFINED) {
+				return new DirectAtomString(key,String.valueOf(getNumber(data)));
+			}
+			return new DirectAtomString(key,new String(data,8,length,dataType==AbstractDirectAtom.TYPE_UTF16 ? UTF16 : UTF8));
+		}
+	}
+
+	/**
+	 * Used to read a big endian number from the data of a data box. Numbers of one or
+	 * two bytes are unsigned, larger numbers are signed.
+	 */
+	private long getNumber(byte data[]) {
+		int length = data.length-8;
+		ByteBuffer buffer = ByteBuffer.wrap(data);
+		switch (length) {
+		case 1:
+			return data[8] & 0xff;
+		case 2:
+			return buffer.getShort(8) & 0xffff;
+		case 4:
+			return buffer.getInt(8);
+		case 8:
+			return buffer.getLong(8);
+		default:
+			long value = 0;
+			for (int i=8;i<data.length;i++) {
+				value = (value<<8) | (data[i] & 0xff);
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * Used to find the location of the moov box and the free boxes that follow it, by
+	 * reading the headers of the top level boxes.
+	 */
+	private Layout readLayout(FileChannel channel,File mp4File) throws IOException, MP4Exception {
+		Layout layout = new Layout();
+		layout.fileLength = channel.size();
+		layout.moovOffset = -1;
+		ByteBuffer header = ByteBuffer.allocate(16);
+		long pos = 0;
+		boolean afterMoov = false;
+		while (pos+8<=layout.fileLength) {
+			header.clear();
+			read(channel,pos,header);
+			long size = header.getInt(0) & 0xffffffffL;
+			String type = Box.getType(header,4);
+			int headerSize = 8;
+			if (size==1) {
+				size = header.getLong(8);
+				headerSize = 16;
+			}
+			else if (size==0) {
+				size = layout.fileLength-pos;
+			}
+			if (size<headerSize || pos+size>layout.fileLength) {
+				throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.InvalidBox"),type,pos,mp4File)); //$NON-NLS-1$
+			}
+			if (type.equals(MOOV) && layout.moovOffset==-1) {
+				layout.moovOffset = pos;
+				layout.moovHeaderSize = headerSize;
+				layout.moovSize = size;
+				afterMoov = true;
+			}
+			else if (afterMoov && (type.equals(FREE) || type.equals(SKIP))) {
+				// Free space after the moov box can be used by the moov box
+			}
+			else {
+				if (afterMoov) {
+					layout.regionEnd = pos;
+					afterMoov = false;
+				}
+				if (type.equals(MOOF)) {
+					layout.fragmented = true;
+				}
+			}
+			pos+=size;
+		}
+		if (layout.moovOffset==-1) {
+			throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.UnableFindMoov"),mp4File)); //$NON-NLS-1$
+		}
+		if (afterMoov) {
+			layout.regionEnd = pos;
+		}
+		if (layout.moovSize>Integer.MAX_VALUE/2) {
+			throw new MP4Exception(MessageFormat.format(Messages.getString("MP4DirectManager.InvalidBox"),MOOV,layout.moovOffset,mp4File)); //$NON-NLS-1$
+		}
+		return layout;
+	}
+
+	private Box readMoov(FileChannel channel,Layout layout) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int)(layout.moovSize-layout.moovHeaderSize));
+		read(channel,layout.moovOffset+layout.moovHeaderSize,buffer);
+		buffer.flip();
+		return Box.parse(MOOV,buffer,null);
+	}
+
+	private ByteBuffer createFreeHeader(long size) {
+		ByteBuffer header = ByteBuffer.allocate(8);
+		header.putInt((int)size);
+		header.put(FREE.getBytes(Box.TYPE_CHARSET));
+		header.flip();
+		return header;
+	}
+
+	private static void read(FileChannel channel,long pos,ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, pos+buffer.position())==-1) {
+				break;
+			}
+		}
+	}
+
+	private static void write(FileChannel channel,long pos,ByteBuffer buffer) throws IOException {
+		long start = pos-buffer.position();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer, start+buffer.position());
+		}
+	}
+
+	private static void transfer(FileChannel in,long pos,long count,FileChannel out) throws IOException {
+		long done = 0;
+		while (done<count) {
+			long transfered = in.transferTo(pos+done, count-done, out);
+			if (transfered<=0) {
+				throw new IOException(Messages.getString("MP4DirectManager.UnableReadMp4File")); //$NON-NLS-1$
+			}
+			done+=transfered;
+		}
+	}
+
+	private static void close(RandomAccessFile raf) {
+		if (raf!=null) {
+			try {
+				raf.close();
+			}
+			catch (IOException e) {
+				log.error(e.getMessage(),e);
+			}
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public IAtom createAtom(MP4AtomKey name, String value) {
+		return new DirectAtomString(name, value);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public IAtom createAtom(MP4AtomKey name, boolean value) {
+		return new DirectAtomBoolean(name, value);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public IAtom createAtom(MP4AtomKey name, int value) {
+		return new DirectAtomNumber(name, value);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public IAtom createAtom(MP4AtomKey name,short number, short total) {
+		return new DirectAtomRange(name,number,total );
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public IAtom createAtom(MP4AtomKey name,MP4ArtworkType type, int size, byte data[]) {
+		return new DirectAtomArtwork(name, type, size, data);
+	}
+
+	/**
+	 * Used to download the artwork from a URL to a file. JPEG and PNG images are used as
+	 * they are, other images are converted to JPEG images.
+	 * @param imageUrl The file URL
+	 * @return The file
+	 * @throws IOException Thrown if their are any problems downloading the file
+	 */
+	@Override
+	public File getArtworkFile(URL imageUrl) throws IOException {
+		File file = FileHelper.createTempFile("artwork", ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (!file.delete()) {
+			throw new IOException(MessageFormat.format("Unable to delete temp file {0}",file.getAbsolutePath())); //$NON-NLS-1$
+		}
+		FileHelper.copy(imageUrl, file);
+		MP4ArtworkType type = getImageType(file);
+		if (type==MP4ArtworkType.MP4_ART_JPEG) {
+			return file;
+		}
+		if (type==MP4ArtworkType.MP4_ART_PNG) {
+			File pngFile = FileHelper.createTempFile("artwork", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+			FileHelper.delete(pngFile);
+			FileHelper.move(file, pngFile);
+			return pngFile;
+		}
+		BufferedImage image = ImageIO.read(file);
+		if (image==null) {
+			throw new IOException(MessageFormat.format(Messages.getString("MP4DirectManager.UnableConvertImage"),imageUrl.toExternalForm())); //$NON-NLS-1$
+		}
+		File jpgFile = FileHelper.createTempFile("artwork", ".jpg"); //$NON-NLS-1$ //$NON-NLS-2$
+		ImageIO.write(image, "jpg", jpgFile); //$NON-NLS-1$
+		FileHelper.delete(file);
+		return jpgFile;
+	}
+
+	private MP4ArtworkType getImageType(File imageFile) throws IOException {
+		byte[] data = new byte[4];
+		InputStream inStream = null;
+		try {
+			inStream = new FileInputStream(imageFile);
+			int len=inStream.read(data);
+			if (len>=3 && data[0]==(byte)0xFF && data[1]==(byte)0xD8 && data[2]==(byte)0xFF) {
+				return MP4ArtworkType.MP4_ART_JPEG;
+			}
+			if (len>=4 && data[0]==(byte)0x89 && data[1]=='P' && data[2]=='N' && data[3]=='G') {
+				return MP4ArtworkType.MP4_ART_PNG;
+			}
+		}
+		finally {
+			if (inStream!=null) {
+				inStream.close();
+			}
+		}
+		return MP4ArtworkType.MP4_ART_UNDEFINED;
+	}
+
+	/** The location of the moov box and the free space that follows it */
+	private static class Layout {
+		private long fileLength;
+		private long moovOffset;
+		private int moovHeaderSize;
+		private long moovSize;
+		/** The end of the moov box and any free boxes that directly follow it */
+		private long regionEnd;
+		private boolean fragmented;
+	}
+}
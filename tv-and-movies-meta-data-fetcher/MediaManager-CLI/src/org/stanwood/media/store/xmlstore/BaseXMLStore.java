@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URL;
+import java.text.MessageFormat;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -35,15 +36,29 @@ public abstract class BaseXMLStore extends XMLParser {
 
 	private final static Log log = LogFactory.getLog(BaseXMLStore.class);
 
+	private final XMLStoreWriter writer = new XMLStoreWriter();
+
 	/**
-	 * Used to write the case document to a file
+	 * Used to write the case document to a file. The document is written to a temporary
+	 * file in the same directory which is then renamed over the old file, so that the
+	 * old file is not left half written if there is a problem. The document is written
+	 * with a streaming writer, see {@link XMLStoreWriter}.
 	 * @param file The file to write it to
 	 * @param doc The contents to write
 	 * @throws StoreException Thrown if their is a problem writing the cache
 	 */
 	protected void writeCache(File file, Document doc) throws StoreException {
+		File tmpFile = new File(file.getParentFile(),file.getName()+".tmp"); //$NON-NLS-1$
 		try {
-			XMLParser.writeXML(file,doc);
+			writer.write(tmpFile,doc);
+			if (!tmpFile.renameTo(file)) {
+				if (file.exists() && !file.delete()) {
+					throw new StoreException(MessageFormat.format(Messages.getString("BaseXMLStore.UNABLE_REPLACE_CACHE"),file)); //$NON-NLS-1$
+				}
+				if (!tmpFile.renameTo(file)) {
+					throw new StoreException(MessageFormat.format(Messages.getString("BaseXMLStore.UNABLE_REPLACE_CACHE"),file)); //$NON-NLS-1$
+				}
+			}
 
 			if (log.isDebugEnabled()) {
 				log.debug("Written cache to file : " + file.getAbsolutePath()); //$NON-NLS-1$
@@ -53,6 +68,11 @@ public abstract class BaseXMLStore extends XMLParser {
 		} catch (IOException e) {
 			throw new StoreException(Messages.getString("BaseXMLStore.UNABLE_WRITE_CACHE"),e); //$NON-NLS-1$
 		}
+		finally {
+			if (tmpFile.exists() && !tmpFile.delete()) {
+				log.error(MessageFormat.format(Messages.getString("BaseXMLStore.UNABLE_DELETE_TMP"),tmpFile)); //$NON-NLS-1$
+			}
+		}
 	}
 
 	/**
@@ -90,10 +90,17 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 
 	private final static Log log = LogFactory.getLog(XMLStore2.class);
 	private final static String FILENAME = ".mediaManager-xmlStore.xml"; //$NON-NLS-1$
-	private static final String STIP_PUNCUATION = "'()[],"; //$NON-NLS-1$
 	private final DateFormat df = new SimpleDateFormat("yyyy-MM-dd"); //$NON-NLS-1$
 	private NodeList fileNodes;
 	private Document storeDoc;
+	private XMLStoreIndex index;
+
+	private boolean writeBehind = false;
+	private boolean validate = false;
+	private long flushInterval = 0;
+	private File dirtyFile;
+	private long lastFlush = System.currentTimeMillis();
+	private Thread shutdownHook;
 
 
 	/**
@@ -130,40 +137,119 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 		fileNodes = null;
 	}
 
+	/**
+	 * This is called when the store document has been changed. If write behind is enabled, the document
+	 * is only marked as changed and is written when {@link #flush()} is called, or when the flush interval
+	 * has passed. Otherwise it is written straight away.
+	 * @param rootMediaDir The root media directory of the store
+	 * @param doc The store document
+	 * @throws StoreException Thrown if their is a problem writing the store
+	 */
+	private synchronized void storeChanged(File rootMediaDir,Document doc) throws StoreException {
+		File cacheFile = getCacheFile(rootMediaDir, FILENAME);
+		if (!writeBehind) {
+			writeCache(cacheFile, doc);
+			return;
+		}
+		dirtyFile = cacheFile;
+		if (shutdownHook==null) {
+			shutdownHook = new Thread() {
+				@Override
+				public void run() {
+					try {
+						flush();
+					} catch (StoreException e) {
+						log.error(e.getMessage(),e);
+					}
+				}
+			};
+			Runtime.getRuntime().addShutdownHook(shutdownHook);
+		}
+		if (flushInterval>0 && System.currentTimeMillis()-lastFlush>=flushInterval) {
+			flush();
+		}
+	}
+
+	/**
+	 * Used to write the store document to disk if it has changes that have not been
+	 * written yet. This is only needed when write behind is enabled. Once the store
+	 * has no unwritten changes, the shutdown hook that flushes it is removed.
+	 * @throws StoreException Thrown if their is a problem writing the store
+	 */
+	public synchronized void flush() throws StoreException {
+		lastFlush = System.currentTimeMillis();
+		if (dirtyFile!=null && storeDoc!=null) {
+			if (log.isDebugEnabled()) {
+				log.debug("Flushing store to " + dirtyFile); //$NON-NLS-1$
+			}
+			writeCache(dirtyFile, storeDoc);
+			dirtyFile = null;
+		}
+		if (dirtyFile==null) {
+			removeShutdownHook();
+		}
+	}
+
+	private void removeShutdownHook() {
+		if (shutdownHook!=null && Thread.currentThread()!=shutdownHook) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(shutdownHook);
+			}
+			catch (IllegalStateException e) {
+				// The JVM is already shutting down, so the hook has been started
+			}
+			shutdownHook = null;
+		}
+	}
+
+	private XMLStoreIndex getIndex(Document doc) throws StoreException {
+		if (index==null) {
+			try {
+				index = new XMLStoreIndex(getStoreNode(doc));
+			} catch (XMLParserException e) {
+				throw new StoreException(Messages.getString("XMLStore2.UNABLE_PARSE_CACHE"), e); //$NON-NLS-1$
+			}
+		}
+		return index;
+	}
+
 	private void cacheEpisode(String nodeName, File rootMediaDir, File episodeFile,File oldFileName, Document doc, IShow show,
 			Element seasonNode, IEpisode episode) throws StoreException {
 		if (log.isDebugEnabled()) {
 			log.debug("cache episode"); //$NON-NLS-1$
 		}
-		try {
-			boolean found = false;
-			for (VideoFile vf : episode.getFiles() ) {
-				if (vf.getLocation().equals(episodeFile)) {
-					found = true;
-				}
+		boolean found = false;
+		for (VideoFile vf : episode.getFiles() ) {
+			if (vf.getLocation().equals(episodeFile)) {
+				found = true;
 			}
-			if (!found) {
-				if (oldFileName==null) {
-					oldFileName = episodeFile;
-				}
-				episode.getFiles().add(new VideoFile(episodeFile, oldFileName, null, rootMediaDir));
+		}
+		if (!found) {
+			if (oldFileName==null) {
+				oldFileName = episodeFile;
 			}
+			episode.getFiles().add(new VideoFile(episodeFile, oldFileName, null, rootMediaDir));
+		}
 
-			Node node = selectSingleNode(seasonNode, nodeName + "[@number=" + episode.getEpisodeNumber() + "]"); //$NON-NLS-1$ //$NON-NLS-2$
-			if (node == null) {
-				node = doc.createElement(nodeName);
-				((Element) node).setAttribute("number", String.valueOf(episode.getEpisodeNumber())); //$NON-NLS-1$
-				seasonNode.appendChild(node);
+		XMLStoreIndex index = getIndex(doc);
+		Element showNode = (Element) seasonNode.getParentNode();
+		Node node = null;
+		for (Element episodeNode : index.getEpisodes(show.getShowId(), showNode.getAttribute("sourceId"), episode.getSeason().getSeasonNumber(), nodeName, episode.getEpisodeNumber())) { //$NON-NLS-1$
+			if (episodeNode.getParentNode()==seasonNode) {
+				node = episodeNode;
+				break;
 			}
+		}
+		if (node == null) {
+			node = doc.createElement(nodeName);
+			((Element) node).setAttribute("number", String.valueOf(episode.getEpisodeNumber())); //$NON-NLS-1$
+			seasonNode.appendChild(node);
+			index.addEpisode(showNode, seasonNode, (Element) node);
+		}
 
-			writeEpisodeCommonData(doc, episode, node, episodeFile, rootMediaDir);
+		writeEpisodeCommonData(doc, episode, node, episodeFile, rootMediaDir);
 
-			File cacheFile = getCacheFile(rootMediaDir, FILENAME);
-			writeCache(cacheFile, doc);
-		} catch (XMLParserException e) {
-			throw new StoreException(Messages.getString("XMLStore2.UNABLE_WRITE_CACHE") //$NON-NLS-1$
-					+ e.getMessage());
-		}
+		storeChanged(rootMediaDir, doc);
 	}
 
 	private void writeEpisodeCommonData(Document doc, IEpisode episode, Node node, File episodeFile, File rootMediaDir)
@@ -224,22 +310,24 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 
 	private void appendFile(Document doc, Node parent, VideoFile file, File rootMediaDir) throws StoreException {
 		if (file != null) {
-			try {
-				String query = "file[@location=" + quoteXPathQuery(makePathRelativeToMediaDir(file.getLocation(), rootMediaDir)) + "]"; //$NON-NLS-1$ //$NON-NLS-2$
-				Element fileNode = (Element) selectSingleNode(
-						parent,
-						query);
-				if (fileNode == null) {
-					fileNode = doc.createElement("file"); //$NON-NLS-1$
-					appendChildAtBottom(parent,fileNode);
+			XMLStoreIndex index = getIndex(doc);
+			String location = makePathRelativeToMediaDir(file.getLocation(), rootMediaDir);
+			Element fileNode = null;
+			for (Element node : index.getFiles(location)) {
+				if (node.getParentNode()==parent) {
+					fileNode = node;
+					break;
 				}
+			}
+			if (fileNode == null) {
+				fileNode = doc.createElement("file"); //$NON-NLS-1$
+				appendChildAtBottom(parent,fileNode);
+				fileNode.setAttribute("location", location); //$NON-NLS-1$
+				index.addFile(fileNode);
+			}
 
-				fileNode.setAttribute("location", makePathRelativeToMediaDir(file.getLocation(), rootMediaDir)); //$NON-NLS-1$
-				if (file.getPart() != null) {
-					fileNode.setAttribute("part", String.valueOf(file.getPart())); //$NON-NLS-1$
-				}
-			} catch (XMLParserException e) {
-				throw new StoreException(Messages.getString("XMLStore2.UNABLE_READ_XML"), e); //$NON-NLS-1$
+			if (file.getPart() != null) {
+				fileNode.setAttribute("part", String.valueOf(file.getPart())); //$NON-NLS-1$
 			}
 		}
 	}
@@ -290,8 +378,7 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 			film.getFiles().add(new VideoFile(filmFile, oldFileName, part, rootMediaDir));
 			appendFilm(doc, storeNode, film, rootMediaDir,false);
 
-			File cacheFile = getCacheFile(rootMediaDir, FILENAME);
-			writeCache(cacheFile, doc);
+			storeChanged(rootMediaDir, doc);
 		} catch (XMLParserException e) {
 			throw new StoreException(Messages.getString("XMLStore2.UNABLE_PARSE_CACHE_FILE"), e); //$NON-NLS-1$
 		}
@@ -299,8 +386,10 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 
 	private void appendFilm(Document doc, Node filmsNode, IFilm film, File rootMediaDir,boolean force) throws XMLParserException,
 			StoreException {
-		Element filmNode = (Element) selectSingleNode(filmsNode, "film[@id='" + film.getId() + "']"); //$NON-NLS-1$ //$NON-NLS-2$
+		XMLStoreIndex index = getIndex(doc);
+		Element filmNode = index.getFilm(film.getId());
 		if (filmNode != null) {
+			index.removeFilm(filmNode);
 			filmNode.getParentNode().removeChild(filmNode);
 		}
 
@@ -308,6 +397,7 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 		filmsNode.appendChild(filmNode);
 
 		filmNode.setAttribute("id", film.getId()); //$NON-NLS-1$
+		index.addFilm(filmNode);
 		filmNode.setAttribute("title", film.getTitle()); //$NON-NLS-1$
 		filmNode.setAttribute("sourceId", film.getSourceId()); //$NON-NLS-1$
 		filmNode.setAttribute("url", urlToText(film.getFilmUrl())); //$NON-NLS-1$
@@ -555,25 +645,22 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 		Element node = getSeasonNode(rootMediaDir, season, doc);
 		node.setAttribute("url", urlToText(season.getURL())); //$NON-NLS-1$
 
-		File cacheFile = getCacheFile(rootMediaDir, FILENAME);
-		writeCache(cacheFile, doc);
+		storeChanged(rootMediaDir, doc);
 	}
 
-	private Element createSeasonNode(ISeason season, Element showNode, Document doc) {
+	private Element createSeasonNode(ISeason season, Element showNode, Document doc) throws StoreException {
 		Element seasonEl = doc.createElement("season"); //$NON-NLS-1$
 		seasonEl.setAttribute("number", String.valueOf(season.getSeasonNumber())); //$NON-NLS-1$
 		showNode.appendChild(seasonEl);
 		seasonEl.setAttribute("url", urlToText(season.getURL())); //$NON-NLS-1$
+		getIndex(doc).addSeason(showNode, seasonEl);
 		return seasonEl;
 	}
 
 	private Node getSeasonNode(ISeason season, Element showNode, Document doc) throws StoreException {
-
-		Node node;
-		try {
-			node = selectSingleNode(showNode, "season[@number=" + season.getSeasonNumber() + "]"); //$NON-NLS-1$ //$NON-NLS-2$
-		} catch (XMLParserException e) {
-			throw new StoreException(e.getMessage(), e);
+		Element node = getIndex(doc).getSeason(showNode.getAttribute("id"), showNode.getAttribute("sourceId"), season.getSeasonNumber()); //$NON-NLS-1$ //$NON-NLS-2$
+		if (node!=null && node.getParentNode()!=showNode) {
+			return null;
 		}
 		return node;
 	}
@@ -596,8 +683,7 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 		Document doc = getCache(rootMediaDir);
 		getShowNode(doc, show,false);
 
-		File cacheFile = getCacheFile(rootMediaDir, FILENAME);
-		writeCache(cacheFile, doc);
+		storeChanged(rootMediaDir, doc);
 	}
 
 	private Element getStoreNode(Document doc) throws XMLParserException, StoreException {
@@ -611,14 +697,18 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 	private Element getShowNode(Document doc, IShow show,boolean force) throws StoreException {
 		try {
 			Node storeNode = getStoreNode(doc);
-			Node node = selectSingleNode(storeNode, "show[@id='" + show.getShowId() + "']"); //$NON-NLS-1$ //$NON-NLS-2$
+			XMLStoreIndex index = getIndex(doc);
+			Node node = index.getShow(show.getShowId());
 			if (node == null || force) {
 				Element showElement;
+				String oldSourceId = null;
 				if (node==null) {
 					showElement = doc.createElement("show"); //$NON-NLS-1$
 				}
 				else {
 					showElement = (Element)node;
+					oldSourceId = showElement.getAttribute("sourceId"); //$NON-NLS-1$
+					index.removeShow(showElement);
 				}
 				showElement.setAttribute("id", String.valueOf(show.getShowId())); //$NON-NLS-1$
 				showElement.setAttribute("url", urlToText(show.getShowURL())); //$NON-NLS-1$
@@ -644,6 +734,13 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 				writeExtraParams(show, showElement);
 
 				storeNode.appendChild(showElement);
+				if (oldSourceId!=null && !oldSourceId.equals(showElement.getAttribute("sourceId"))) { //$NON-NLS-1$
+					// The seasons and episodes of the show are indexed by the old source ID
+					index.rebuild();
+				}
+				else {
+					index.addShow(showElement);
+				}
 				node = showElement;
 			}
 			return (Element) node;
@@ -713,7 +810,7 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 		}
 
 		try {
-			Element filmNode = (Element) selectSingleNode(doc, "store/film[@id='" + filmId + "']"); //$NON-NLS-1$ //$NON-NLS-2$
+			Element filmNode = getIndex(doc).getFilm(filmId);
 			if (filmNode == null) {
 				if (log.isDebugEnabled()) {
 					log.debug("Film with id '" + filmId + "' is not in store " + XMLStore2.class.getName()); //$NON-NLS-1$ //$NON-NLS-2$
@@ -841,9 +938,8 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 			IShow show = season.getShow();
 			Node episodeNode = null;
 			int firstNum = episodeNums.get(0);
-			IterableNodeList episodeNodes = selectNodeList(doc,
-					"store/show[@id='" + show.getShowId() + "' and @sourceId='" + show.getSourceId() + "']/" + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-				    "season[@number=" + season.getSeasonNumber() + "]/"+xmlKey+"[@number=" + firstNum + "]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			XMLStoreIndex index = getIndex(doc);
+			List<Element> episodeNodes = index.getEpisodes(show.getShowId(), show.getSourceId(), season.getSeasonNumber(), xmlKey, firstNum);
 			for (Node en : episodeNodes) {
 				List<Integer> episodes = getEpisodes(en);
 				if (CollectionUtils.isEqualCollection(episodeNums, episodes)) {
@@ -948,9 +1044,8 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 	private ISeason getSeasonFromCache(int seasonNum, IShow show, Document doc) throws StoreException,
 			NotInStoreException, MalformedURLException {
 		try {
-			Node seasonNode = selectSingleNode(
-					doc,
-					"store/show[@id='" + show.getShowId() + "' and @sourceId='" + show.getSourceId() + "']/season[@number=" + seasonNum + "]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			XMLStoreIndex index = getIndex(doc);
+			Node seasonNode = index.getSeason(show.getShowId(), show.getSourceId(), seasonNum);
 			if (seasonNode == null) {
 				throw new NotInStoreException();
 			}
@@ -965,8 +1060,7 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 	private Show getShowFromCache(Document doc, String showId) throws StoreException, NotInStoreException,
 			MalformedURLException {
 		try {
-			Node storeNode = getStoreNode(doc);
-			Element showNode = (Element) selectSingleNode(storeNode, "show[@id=" + quoteXPathQuery(showId) + "]"); //$NON-NLS-1$ //$NON-NLS-2$
+			Element showNode = getIndex(doc).getShow(showId);
 			if (showNode == null) {
 				throw new NotInStoreException();
 			}
@@ -1057,24 +1151,20 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 
 		Document doc = getCache(rootMediaDir);
 		if (doc != null) {
-			try {
-				for (Node node : selectNodeList(doc,
-						"//file[@location=" + quoteXPathQuery(makePathRelativeToMediaDir(oldFile, rootMediaDir)) + "]")) { //$NON-NLS-1$ //$NON-NLS-2$
-					Element fileNode = (Element) node;
-					fileNode.setAttribute("location", makePathRelativeToMediaDir(newFile, rootMediaDir)); //$NON-NLS-1$
-					if (fileNode.getAttribute("orginalLocation").equals("")) { //$NON-NLS-1$ //$NON-NLS-2$
-						fileNode.setAttribute("orginalLocation", makePathRelativeToMediaDir(oldFile, rootMediaDir)); //$NON-NLS-1$
-					}
-					if (log.isDebugEnabled()) {
-						log.debug("XMLStore2 rename file "+oldFile+" to " + newFile);  //$NON-NLS-1$//$NON-NLS-2$
-					}
+			XMLStoreIndex index = getIndex(doc);
+			for (Element fileNode : index.getFiles(makePathRelativeToMediaDir(oldFile, rootMediaDir))) {
+				index.removeFile(fileNode);
+				fileNode.setAttribute("location", makePathRelativeToMediaDir(newFile, rootMediaDir)); //$NON-NLS-1$
+				index.addFile(fileNode);
+				if (fileNode.getAttribute("orginalLocation").equals("")) { //$NON-NLS-1$ //$NON-NLS-2$
+					fileNode.setAttribute("orginalLocation", makePathRelativeToMediaDir(oldFile, rootMediaDir)); //$NON-NLS-1$
+				}
+				if (log.isDebugEnabled()) {
+					log.debug("XMLStore2 rename file "+oldFile+" to " + newFile);  //$NON-NLS-1$//$NON-NLS-2$
 				}
-
-				File cacheFile = getCacheFile(rootMediaDir, FILENAME);
-				writeCache(cacheFile, doc);
-			} catch (XMLParserException e) {
-				throw new StoreException(Messages.getString("XMLStore2.UNABLE_PARSE_XML2"), e); //$NON-NLS-1$
 			}
+
+			storeChanged(rootMediaDir, doc);
 		}
 	}
 
@@ -1089,9 +1179,9 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 				store = getStoreNode(doc);
 				if (store != null) {
 					if (dirConfig.getMode() == Mode.TV_SHOW) {
-						return searchForTVShow(store, mediaFile, dirConfig.getPattern(), dirConfig.getMediaDir(), name);
+						return searchForTVShow(getIndex(doc), mediaFile, dirConfig.getMediaDir(), name);
 					} else {
-						return searchForFilm(store, mediaFile, dirConfig);
+						return searchForFilm(getIndex(doc), mediaFile, dirConfig);
 					}
 				}
 			} catch (XMLParserException e) {
@@ -1101,18 +1191,18 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 		return null;
 	}
 
-	private SearchResult searchForFilm(Node store, File episodeFile, MediaDirConfig dirConfig)
-			throws XMLParserException {
+	private SearchResult searchForFilm(XMLStoreIndex index, File episodeFile, MediaDirConfig dirConfig) {
 		SearchResult result = null;
 
 		// search for film by file name
-		for (Node node : selectNodeList(
-				store,
-				"film/file[@location=" + quoteXPathQuery(makePathRelativeToMediaDir(episodeFile, dirConfig.getMediaDir())) + "]")) { //$NON-NLS-1$ //$NON-NLS-2$
-			Element filmEl = (Element) node.getParentNode();
+		for (Element fileNode : index.getFiles(makePathRelativeToMediaDir(episodeFile, dirConfig.getMediaDir()))) {
+			Element filmEl = (Element) fileNode.getParentNode();
+			if (!filmEl.getNodeName().equals("film")) { //$NON-NLS-1$
+				continue;
+			}
 			Integer part = null;
-			if (!((Element) node).getAttribute("part").equals("")) { //$NON-NLS-1$ //$NON-NLS-2$
-				part = Integer.parseInt(((Element) node).getAttribute("part")); //$NON-NLS-1$
+			if (!fileNode.getAttribute("part").equals("")) { //$NON-NLS-1$ //$NON-NLS-2$
+				part = Integer.parseInt(fileNode.getAttribute("part")); //$NON-NLS-1$
 			}
 			result = new SearchResult(
 					filmEl.getAttribute("id"), filmEl.getAttribute("url"), filmEl.getAttribute("sourceId"), part, dirConfig.getMode()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
@@ -1131,58 +1221,43 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 		}
 	}
 
-	private SearchResult searchForTVShow(Node store, File episodeFile, String renamePattern, File rootMediaDir,
-			String title) throws XMLParserException {
+	private SearchResult searchForTVShow(XMLStoreIndex index, File episodeFile, File rootMediaDir,
+			String title) {
 
-		String query = quoteXPathQuery(makePathRelativeToMediaDir(episodeFile, rootMediaDir));
 		// search for show by file name
-		NodeList showNodes = selectNodeList(store, "show/season/episode/file[@location=" + query + "]"); //$NON-NLS-1$ //$NON-NLS-2$
-		if (showNodes != null && showNodes.getLength() > 0) {
-			Element showEl = (Element) showNodes.item(0).getParentNode().getParentNode().getParentNode();
+		for (Element fileNode : index.getFiles(makePathRelativeToMediaDir(episodeFile, rootMediaDir))) {
+			if (!fileNode.getParentNode().getNodeName().equals("episode")) { //$NON-NLS-1$
+				continue;
+			}
+			Element showEl = (Element) fileNode.getParentNode().getParentNode().getParentNode();
 			Integer part = null;
-			if (!((Element) showNodes.item(0)).getAttribute("part").equals("")) { //$NON-NLS-1$ //$NON-NLS-2$
-				part = Integer.parseInt(((Element) showNodes.item(0)).getAttribute("part")); //$NON-NLS-1$
+			if (!fileNode.getAttribute("part").equals("")) { //$NON-NLS-1$ //$NON-NLS-2$
+				part = Integer.parseInt(fileNode.getAttribute("part")); //$NON-NLS-1$
 			}
 			return new SearchResult(
 					showEl.getAttribute("id"), showEl.getAttribute("sourceId"),showEl.getAttribute("url"), part, Mode.TV_SHOW); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		}
 
-		query = quoteXPathQuery(title);
-		showNodes = selectNodeList(store, "show[@name=" + query + "]"); //$NON-NLS-1$//$NON-NLS-2$
-		if (showNodes != null && showNodes.getLength() > 0) {
-			Element showEl = (Element) showNodes.item(0);
+		Element showEl = index.getShowByName(title);
+		if (showEl == null) {
+			showEl = index.getShowByStrippedName(title);
+		}
+		if (showEl != null) {
 			Integer part = null;
 			return new SearchResult(
 					showEl.getAttribute("id"), showEl.getAttribute("sourceId"),showEl.getAttribute("url"), part, Mode.TV_SHOW); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		}
 
-		for (Node showNode : selectNodeList(store, "show")) { //$NON-NLS-1$
-			Element showEl = (Element) showNode;
-			if (stripPuncuation(showEl.getAttribute("name")).equalsIgnoreCase(title)) { //$NON-NLS-1$
-				Integer part = null;
-				return new SearchResult(
-						showEl.getAttribute("id"), showEl.getAttribute("sourceId"),showEl.getAttribute("url"),  part, Mode.TV_SHOW); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			}
-		}
-
 		return null;
 	}
 
-	private String stripPuncuation(String value) {
-		StringBuilder result = new StringBuilder();
-		for (int i = 0; i < value.length(); i++) {
-			char c = value.charAt(i);
-			if (STIP_PUNCUATION.indexOf(c) == -1) {
-				result.append(c);
-			}
-		}
-		return result.toString();
-	}
-
 	private Document getCache(File rootMediaDirectory) throws StoreException {
 		if (storeDoc == null) {
 			File cacheFile = getCacheFile(rootMediaDirectory, FILENAME);
-			if (cacheFile.exists()) {
+			if (cacheFile.exists() && !validate) {
+				storeDoc = new XMLStoreReader().read(cacheFile);
+			}
+			else if (cacheFile.exists()) {
 				Document doc = null;
 				DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 				factory.setValidating(true);
@@ -1239,14 +1314,41 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 
 	/** {@inheritDoc} */
 	@Override
-	public void setParameter(String key, String value) {
-
+	public void setParameter(String key, String value) throws StoreException {
+		if (key.equalsIgnoreCase(XMLStore2Info.PARAM_WRITE_BEHIND.getName())) {
+			writeBehind = Boolean.parseBoolean(value);
+		}
+		else if (key.equalsIgnoreCase(XMLStore2Info.PARAM_VALIDATE.getName())) {
+			validate = Boolean.parseBoolean(value);
+		}
+		else if (key.equalsIgnoreCase(XMLStore2Info.PARAM_FLUSH_INTERVAL.getName())) {
+			try {
+				flushInterval = Long.parseLong(value)*1000;
+			}
+			catch (NumberFormatException e) {
+				throw new StoreException(MessageFormat.format(Messages.getString("XMLStore2.INVALID_PARAM_VALUE"),value,key),e); //$NON-NLS-1$
+			}
+		}
+		else {
+			throw new StoreException(MessageFormat.format(Messages.getString("XMLStore2.UNKNOWN_PARAM"), key)); //$NON-NLS-1$
+		}
 	}
 
 	/** {@inheritDoc} */
 	@Override
-	public String getParameter(String key) {
-		return null;
+	public String getParameter(String key) throws StoreException {
+		if (key.equalsIgnoreCase(XMLStore2Info.PARAM_WRITE_BEHIND.getName())) {
+			return String.valueOf(writeBehind);
+		}
+		else if (key.equalsIgnoreCase(XMLStore2Info.PARAM_VALIDATE.getName())) {
+			return String.valueOf(validate);
+		}
+		else if (key.equalsIgnoreCase(XMLStore2Info.PARAM_FLUSH_INTERVAL.getName())) {
+			return String.valueOf(flushInterval/1000);
+		}
+		else {
+			throw new StoreException(MessageFormat.format(Messages.getString("XMLStore2.UNKNOWN_PARAM"), key)); //$NON-NLS-1$
+		}
 	}
 
 	/** {@inheritDoc} */
@@ -1306,12 +1408,14 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 			}
 
 			if (changed) {
-				File cacheFile = getCacheFile(rootMediaDir, FILENAME);
-				writeCache(cacheFile, cache);
+				clearCaches();
+				index = null;
+				storeChanged(rootMediaDir, cache);
 			}
 		} catch (XMLParserException e) {
 			throw new StoreException(Messages.getString("XMLStore2.UNABLE_PARSE_STORE_XML2"), e); //$NON-NLS-1$
 		}
+		flush();
 	}
 
 	private boolean hasFileNodes(Node parentNode) throws XMLParserException {
@@ -1324,37 +1428,38 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 	public void fileDeleted(MediaDirectory dir, File file) throws StoreException {
 		File rootMediaDir = dir.getMediaDirConfig().getMediaDir();
 		Document cache = getCache(rootMediaDir);
-		try {
-			boolean changed = false;
-			for (Node fileNode : getFileNodes(cache)) {
-				Element el = (Element) fileNode;
-				File location = new File(dir.getMediaDirConfig().getMediaDir(), el.getAttribute("location")); //$NON-NLS-1$
-				if (location.equals(file)) {
-					if (log.isDebugEnabled()) {
-						log.debug("Unable to find file '" + location.getAbsolutePath() + "' so removing from store"); //$NON-NLS-1$ //$NON-NLS-2$
-					}
-					el.getParentNode().removeChild(el);
-					changed = true;
-				}
+		XMLStoreIndex index = getIndex(cache);
+		boolean changed = false;
+		for (Element el : getFileNodes(index, rootMediaDir, file)) {
+			if (log.isDebugEnabled()) {
+				log.debug("Unable to find file '" + file.getAbsolutePath() + "' so removing from store"); //$NON-NLS-1$ //$NON-NLS-2$
 			}
-			if (changed) {
-				File cacheFile = getCacheFile(rootMediaDir, FILENAME);
-				writeCache(cacheFile, cache);
+			index.removeFile(el);
+			el.getParentNode().removeChild(el);
+			changed = true;
+		}
+		if (changed) {
+			clearCaches();
+			storeChanged(rootMediaDir, cache);
+		}
+	}
+
+	private List<Element> getFileNodes(XMLStoreIndex index, File rootMediaDir, File file) {
+		List<Element> result = new ArrayList<Element>();
+		for (Element el : index.getFiles(makePathRelativeToMediaDir(file, rootMediaDir))) {
+			File location = new File(rootMediaDir, el.getAttribute("location")); //$NON-NLS-1$
+			if (location.equals(file)) {
+				result.add(el);
 			}
-		} catch (XMLParserException e) {
-			throw new StoreException(Messages.getString("XMLStore2.UNABLE_PARSE_STORE_XML1"), e); //$NON-NLS-1$
 		}
+		return result;
 	}
 
-	private Element getNodeWithFile(MediaDirectory dir, File file) throws StoreException, XMLParserException {
+	private Element getNodeWithFile(MediaDirectory dir, File file) throws StoreException {
 		File rootMediaDir = dir.getMediaDirConfig().getMediaDir();
 		Document cache = getCache(rootMediaDir);
-		for (Node fileNode : getFileNodes(cache)) {
-			Element el = (Element) fileNode;
-			File location = new File(dir.getMediaDirConfig().getMediaDir(), el.getAttribute("location")); //$NON-NLS-1$
-			if (location.equals(file)) {
-				return (Element) fileNode.getParentNode();
-			}
+		for (Element fileNode : getFileNodes(getIndex(cache), rootMediaDir, file)) {
+			return (Element) fileNode.getParentNode();
 		}
 		return null;
 	}
@@ -1384,8 +1489,6 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 			}
 			IEpisode episode = parseEpisodeNode(file, rootMediaDir, episodeNode);
 			return episode;
-		} catch (XMLParserException e) {
-			throw new StoreException(Messages.getString("XMLStore2.UNABLE_PARSE_STORE_XML1"), e); //$NON-NLS-1$
 		} catch (MalformedURLException e) {
 			throw new StoreException(Messages.getString("XMLStore2.UNABLE_CREATE_URL"), e); //$NON-NLS-1$
 		}
@@ -1425,8 +1528,6 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 			}
 			IFilm film = getFilm(rootMediaDir, file, filmNode.getAttribute("id")); //$NON-NLS-1$
 			return film;
-		} catch (XMLParserException e) {
-			throw new StoreException(Messages.getString("XMLStore2.UNABLE_PARSE_STORE_XML1"), e); //$NON-NLS-1$
 		} catch (MalformedURLException e) {
 			throw new StoreException(Messages.getString("XMLStore2.UNABLE_CREATE_URL"), e); //$NON-NLS-1$
 		}
@@ -1447,6 +1548,8 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 			Document doc = getCache(dirConfig.getMediaDir());
 			if (doc != null) {
 				Node store = getStoreNode(doc);
+				// The returned media is backed by the store nodes and can change them
+				index = null;
 
 				// TODO use dom todo this?
 				IterableNodeList normalList = selectNodeList(store, "//episode"); //$NON-NLS-1$
@@ -1506,6 +1609,8 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 			Document doc = getCache(dirConfig.getMediaDir());
 			if (doc != null) {
 				Node store = getStoreNode(doc);
+				// The returned media is backed by the store nodes and can change them
+				index = null;
 				List<Element> list = selectChildNodes(store, "film"); //$NON-NLS-1$
 				int size = list.size();
 				monitor.beginTask(MessageFormat.format(
@@ -1565,6 +1670,8 @@ public class XMLStore2 extends BaseXMLStore implements IStore {
 			}
 
 			if (upgraded) {
+				clearCaches();
+				index = null;
 				writeUpgradedStore(rootMediaDirectory, storeNode);
 			}
 		} catch (XMLParserException e) {
@@ -26,11 +26,21 @@ import org.stanwood.media.extensions.ParameterType;
  */
 public class XMLStore2Info extends ExtensionInfo<XMLStore2> {
 
+	/** If this is set to true, then changes to the store are written to disk in batches instead of after every change */
+	public static final ParameterType PARAM_WRITE_BEHIND = new ParameterType("writeBehind",Boolean.class,false); //$NON-NLS-1$
+	/** The maximum number of seconds changes are held in memory before they are written when write behind is enabled. 0 means they are only written when the actions have been performed */
+	public static final ParameterType PARAM_FLUSH_INTERVAL = new ParameterType("flushInterval",Integer.class,false); //$NON-NLS-1$
+
+	/** If this is set to true, then the store file is validated against it's DTD when it is read. This is slower, so it is disabled by default */
+	public static final ParameterType PARAM_VALIDATE = new ParameterType("validate",Boolean.class,false); //$NON-NLS-1$
+
+	private final static ParameterType PARAM_TYPES[] = {PARAM_WRITE_BEHIND,PARAM_FLUSH_INTERVAL,PARAM_VALIDATE};
+
 	/**
 	 * The constructor
 	 */
 	public XMLStore2Info() {
-		super(XMLStore2.class.getName(),ExtensionType.STORE, new ParameterType[0]);
+		super(XMLStore2.class.getName(),ExtensionType.STORE, PARAM_TYPES);
 	}
 
 	@Override
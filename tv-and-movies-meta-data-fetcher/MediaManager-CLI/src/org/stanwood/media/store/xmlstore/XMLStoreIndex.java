@@ -0,0 +1,370 @@
+package org.stanwood.media.store.xmlstore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * This class holds hash indexes of the nodes within the XML store document so that
+ * lookups do not have to scan the whole document with XPath queries. The indexes are
+ * built by walking the document once, and are then kept up to date by the store as it
+ * changes the document. Nodes found with the indexes are checked before they are returned,
+ * if the document has been changed in a way the index does not know about, then the
+ * index is rebuilt.
+ */
+public class XMLStoreIndex {
+
+	private static final String STIP_PUNCUATION = "'()[],"; //$NON-NLS-1$
+
+	private final Element storeNode;
+
+	private Map<String,Element> shows;
+	private Map<String,Element> showNames;
+	private Map<String,Element> strippedShowNames;
+	private Map<String,Element> films;
+	private Map<String,Element> seasons;
+	private Map<String,List<Element>> episodes;
+	private Map<String,List<Element>> files;
+
+	/**
+	 * The constructor
+	 * @param storeNode The root store node of the document that is to be indexed
+	 */
+	public XMLStoreIndex(Element storeNode) {
+		this.storeNode = storeNode;
+		rebuild();
+	}
+
+	/**
+	 * Used to rebuild the indexes from the document
+	 */
+	public void rebuild() {
+		shows = new HashMap<String,Element>();
+		showNames = new HashMap<String,Element>();
+		strippedShowNames = new HashMap<String,Element>();
+		films = new HashMap<String,Element>();
+		seasons = new HashMap<String,Element>();
+		episodes = new HashMap<String,List<Element>>();
+		files = new HashMap<String,List<Element>>();
+
+		for (Element child : getChildElements(storeNode)) {
+			if (child.getNodeName().equals("show")) { //$NON-NLS-1$
+				addShow(child);
+				for (Element seasonNode : getChildElements(child)) {
+					if (seasonNode.getNodeName().equals("season")) { //$NON-NLS-1$
+						addSeason(child, seasonNode);
+						for (Element episodeNode : getChildElements(seasonNode)) {
+							addEpisode(child, seasonNode, episodeNode);
+							addFiles(episodeNode);
+						}
+					}
+				}
+			}
+			else if (child.getNodeName().equals("film")) { //$NON-NLS-1$
+				addFilm(child);
+				addFiles(child);
+			}
+		}
+	}
+
+	private void addFiles(Element parent) {
+		for (Element fileNode : getChildElements(parent)) {
+			if (fileNode.getNodeName().equals("file")) { //$NON-NLS-1$
+				addFile(fileNode);
+			}
+		}
+	}
+
+	/**
+	 * Used to add a show node to the index
+	 * @param showNode The show node
+	 */
+	public void addShow(Element showNode) {
+		putIfAbsent(shows,showNode.getAttribute("id"),showNode); //$NON-NLS-1$
+		String name = showNode.getAttribute("name"); //$NON-NLS-1$
+		putIfAbsent(showNames,name,showNode);
+		putIfAbsent(strippedShowNames,stripPuncuation(name).toLowerCase(),showNode);
+	}
+
+	/**
+	 * Used to remove a show node from the index. The seasons and episodes of the show
+	 * are not removed, as the show node is expected to be updated and added again.
+	 * @param showNode The show node
+	 */
+	public void removeShow(Element showNode) {
+		removeIfSame(shows,showNode.getAttribute("id"),showNode); //$NON-NLS-1$
+		String name = showNode.getAttribute("name"); //$NON-NLS-1$
+		removeIfSame(showNames,name,showNode);
+		removeIfSame(strippedShowNames,stripPuncuation(name).toLowerCase(),showNode);
+	}
+
+	/**
+	 * Used to add a season node to the index
+	 * @param showNode The show node the season belongs to
+	 * @param seasonNode The season node
+	 */
+	public void addSeason(Element showNode,Element seasonNode) {
+		putIfAbsent(seasons,getSeasonKey(showNode.getAttribute("id"),showNode.getAttribute("sourceId"),seasonNode.getAttribute("number")),seasonNode); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	/**
+	 * Used to add a episode or special node to the index
+	 * @param showNode The show node the episode belongs to
+	 * @param seasonNode The season node the episode belongs to
+	 * @param episodeNode The episode or special node
+	 */
+	public void addEpisode(Element showNode,Element seasonNode,Element episodeNode) {
+		String key = getEpisodeKey(showNode.getAttribute("id"),showNode.getAttribute("sourceId"),seasonNode.getAttribute("number"),episodeNode.getNodeName(),episodeNode.getAttribute("number")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		addToList(episodes,key,episodeNode);
+	}
+
+	/**
+	 * Used to add a film node to the index. The file nodes of the film are not added.
+	 * @param filmNode The film node
+	 */
+	public void addFilm(Element filmNode) {
+		putIfAbsent(films,filmNode.getAttribute("id"),filmNode); //$NON-NLS-1$
+	}
+
+	/**
+	 * Used to remove a film node and it's file nodes from the index
+	 * @param filmNode The film node
+	 */
+	public void removeFilm(Element filmNode) {
+		removeIfSame(films,filmNode.getAttribute("id"),filmNode); //$NON-NLS-1$
+		for (Element fileNode : getChildElements(filmNode)) {
+			if (fileNode.getNodeName().equals("file")) { //$NON-NLS-1$
+				removeFile(fileNode);
+			}
+		}
+	}
+
+	/**
+	 * Used to add a file node to the index
+	 * @param fileNode The file node
+	 */
+	public void addFile(Element fileNode) {
+		addToList(files,fileNode.getAttribute("location"),fileNode); //$NON-NLS-1$
+	}
+
+	/**
+	 * Used to remove a file node from the index. This must be called before the location
+	 * of the file node is changed.
+	 * @param fileNode The file node
+	 */
+	public void removeFile(Element fileNode) {
+		String location = fileNode.getAttribute("location"); //$NON-NLS-1$
+		List<Element> list = files.get(location);
+		if (list!=null) {
+			list.remove(fileNode);
+			if (list.isEmpty()) {
+				files.remove(location);
+			}
+		}
+	}
+
+	/**
+	 * Used to find a show node
+	 * @param showId The ID of the show
+	 * @return The show node, or null if it could not be found
+	 */
+	public Element getShow(String showId) {
+		Element showNode = shows.get(showId);
+		if (showNode!=null && !(showId.equals(showNode.getAttribute("id")) && isAttached(showNode))) { //$NON-NLS-1$
+			rebuild();
+			showNode = shows.get(showId);
+		}
+		return showNode;
+	}
+
+	/**
+	 * Used to find a show node by it's name
+	 * @param name The name of the show
+	 * @return The show node, or null if it could not be found
+	 */
+	public Element getShowByName(String name) {
+		Element showNode = showNames.get(name);
+		if (showNode!=null && !(name.equals(showNode.getAttribute("name")) && isAttached(showNode))) { //$NON-NLS-1$
+			rebuild();
+			showNode = showNames.get(name);
+		}
+		return showNode;
+	}
+
+	/**
+	 * Used to find a show node by it's name, ignoring case and punctuation in the name of the show
+	 * @param name The name to search for
+	 * @return The show node, or null if it could not be found
+	 */
+	public Element getShowByStrippedName(String name) {
+		String key = name.toLowerCase();
+		Element showNode = strippedShowNames.get(key);
+		if (showNode!=null && !(key.equals(stripPuncuation(showNode.getAttribute("name")).toLowerCase()) && isAttached(showNode))) { //$NON-NLS-1$
+			rebuild();
+			showNode = strippedShowNames.get(key);
+		}
+		return showNode;
+	}
+
+	/**
+	 * Used to find a film node
+	 * @param filmId The ID of the film
+	 * @return The film node, or null if it could not be found
+	 */
+	public Element getFilm(String filmId) {
+		Element filmNode = films.get(filmId);
+		if (filmNode!=null && !(filmId.equals(filmNode.getAttribute("id")) && isAttached(filmNode))) { //$NON-NLS-1$
+			rebuild();
+			filmNode = films.get(filmId);
+		}
+		return filmNode;
+	}
+
+	/**
+	 * Used to find a season node
+	 * @param showId The ID of the show
+	 * @param sourceId The ID of the source the show was read from
+	 * @param seasonNum The season number
+	 * @return The season node, or null if it could not be found
+	 */
+	public Element getSeason(String showId,String sourceId,int seasonNum) {
+		String key = getSeasonKey(showId,sourceId,String.valueOf(seasonNum));
+		Element seasonNode = seasons.get(key);
+		if (seasonNode!=null && !isSeason(seasonNode,showId,sourceId,seasonNum)) {
+			rebuild();
+			seasonNode = seasons.get(key);
+		}
+		return seasonNode;
+	}
+
+	/**
+	 * Used to find the episode or special nodes with the given number
+	 * @param showId The ID of the show
+	 * @param sourceId The ID of the source the show was read from
+	 * @param seasonNum The season number
+	 * @param nodeName The node name, either episode or special
+	 * @param episodeNum The episode number
+	 * @return The episode or special nodes, a empty list if none could be found
+	 */
+	public List<Element> getEpisodes(String showId,String sourceId,int seasonNum,String nodeName,int episodeNum) {
+		String key = getEpisodeKey(showId,sourceId,String.valueOf(seasonNum),nodeName,String.valueOf(episodeNum));
+		List<Element> list = episodes.get(key);
+		if (list!=null) {
+			for (Element episodeNode : list) {
+				if (!(episodeNode.getAttribute("number").equals(String.valueOf(episodeNum)) && isSeason((Element)episodeNode.getParentNode(),showId,sourceId,seasonNum))) { //$NON-NLS-1$
+					rebuild();
+					list = episodes.get(key);
+					break;
+				}
+			}
+		}
+		if (list==null) {
+			return Collections.emptyList();
+		}
+		return new ArrayList<Element>(list);
+	}
+
+	/**
+	 * Used to find the file nodes with the given location
+	 * @param location The location of the file relative to the media directory
+	 * @return The file nodes, a empty list if none could be found
+	 */
+	public List<Element> getFiles(String location) {
+		List<Element> list = files.get(location);
+		if (list!=null) {
+			for (Element fileNode : list) {
+				if (!(location.equals(fileNode.getAttribute("location")) && isAttached(fileNode))) { //$NON-NLS-1$
+					rebuild();
+					list = files.get(location);
+					break;
+				}
+			}
+		}
+		if (list==null) {
+			return Collections.emptyList();
+		}
+		return new ArrayList<Element>(list);
+	}
+
+	private boolean isSeason(Element seasonNode,String showId,String sourceId,int seasonNum) {
+		if (seasonNode==null || !seasonNode.getAttribute("number").equals(String.valueOf(seasonNum))) { //$NON-NLS-1$
+			return false;
+		}
+		Node node = seasonNode.getParentNode();
+		if (!(node instanceof Element)) {
+			return false;
+		}
+		Element showNode = (Element)node;
+		return showId.equals(showNode.getAttribute("id")) && showNode.getAttribute("sourceId").equals(sourceId) && isAttached(seasonNode); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private boolean isAttached(Node node) {
+		while (node!=null) {
+			if (node==storeNode) {
+				return true;
+			}
+			node = node.getParentNode();
+		}
+		return false;
+	}
+
+	private static String getSeasonKey(String showId,String sourceId,String seasonNum) {
+		return showId+"|"+sourceId+"|"+seasonNum; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static String getEpisodeKey(String showId,String sourceId,String seasonNum,String nodeName,String episodeNum) {
+		return showId+"|"+sourceId+"|"+seasonNum+"|"+nodeName+"|"+episodeNum; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+
+	private static void putIfAbsent(Map<String,Element> map,String key,Element node) {
+		if (!map.containsKey(key)) {
+			map.put(key, node);
+		}
+	}
+
+	private static void removeIfSame(Map<String,Element> map,String key,Element node) {
+		if (map.get(key)==node) {
+			map.remove(key);
+		}
+	}
+
+	private static void addToList(Map<String,List<Element>> map,String key,Element node) {
+		List<Element> list = map.get(key);
+		if (list==null) {
+			list = new ArrayList<Element>(1);
+			map.put(key, list);
+		}
+		list.add(node);
+	}
+
+	private static List<Element> getChildElements(Node parent) {
+		List<Element> result = new ArrayList<Element>();
+		for (Node child = parent.getFirstChild();child!=null;child=child.getNextSibling()) {
+			if (child instanceof Element) {
+				result.add((Element) child);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Used to remove punctuation from a show name
+	 * @param value The show name
+	 * @return The name with the punctuation removed
+	 */
+	public static String stripPuncuation(String value) {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (STIP_PUNCUATION.indexOf(c) == -1) {
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+}
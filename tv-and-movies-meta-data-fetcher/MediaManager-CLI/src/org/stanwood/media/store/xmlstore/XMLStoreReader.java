@@ -0,0 +1,215 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store.xmlstore;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.stanwood.media.store.StoreException;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentType;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * This class is used to read the XML store file using a streaming StAX parser. The
+ * DOM document is built directly from the parser events, so the file is not validated
+ * against the DTD and the white space used to indent the file is not added to the
+ * document. This makes loading large stores a lot quicker and the resulting document
+ * a lot smaller than parsing it with a validating DOM parser.
+ */
+public class XMLStoreReader {
+
+	private final static Log log = LogFactory.getLog(XMLStoreReader.class);
+
+	private final static Pattern DOCTYPE_PATTERN = Pattern.compile("PUBLIC\\s+[\"']([^\"']*)[\"']\\s+[\"']([^\"']*)[\"']"); //$NON-NLS-1$
+
+	private final XMLInputFactory factory;
+
+	/**
+	 * The constructor
+	 */
+	public XMLStoreReader() {
+		factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+	}
+
+	/**
+	 * Used to read a XML store file into a DOM document
+	 * @param file The file to read
+	 * @return The DOM document
+	 * @throws StoreException Thrown if their is a problem reading the file
+	 */
+	public Document read(File file) throws StoreException {
+		if (log.isDebugEnabled()) {
+			log.debug("Reading store file : " + file.getAbsolutePath()); //$NON-NLS-1$
+		}
+		InputStream is = null;
+		try {
+			is = new BufferedInputStream(new FileInputStream(file));
+			return read(is);
+		}
+		catch (IOException e) {
+			throw new StoreException(MessageFormat.format(Messages.getString("XMLStoreReader.UNABLE_READ_FILE"),file),e); //$NON-NLS-1$
+		}
+		catch (XMLStreamException e) {
+			throw new StoreException(MessageFormat.format(Messages.getString("XMLStoreReader.UNABLE_PARSE_FILE"),file),e); //$NON-NLS-1$
+		}
+		catch (ParserConfigurationException e) {
+			throw new StoreException(MessageFormat.format(Messages.getString("XMLStoreReader.UNABLE_PARSE_FILE"),file),e); //$NON-NLS-1$
+		}
+		finally {
+			if (is!=null) {
+				try {
+					is.close();
+				} catch (IOException e) {
+					log.error(Messages.getString("XMLStoreReader.UNABLE_CLOSE_FILE"),e); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
+	private Document read(InputStream is) throws XMLStreamException, ParserConfigurationException {
+		XMLStreamReader reader = factory.createXMLStreamReader(is);
+		try {
+			Document doc = null;
+			String docTypeText = null;
+			List<Element> elements = new ArrayList<Element>();
+			List<Boolean> hasChildElements = new ArrayList<Boolean>();
+			StringBuilder text = new StringBuilder();
+			while (reader.hasNext()) {
+				int event = reader.next();
+				switch (event) {
+				case XMLStreamConstants.DTD:
+					docTypeText = reader.getText();
+					break;
+				case XMLStreamConstants.START_ELEMENT:
+					Element element;
+					if (doc==null) {
+						doc = createDocument(reader.getLocalName(), docTypeText);
+						element = doc.getDocumentElement();
+					}
+					else {
+						int parent = elements.size()-1;
+						appendText(doc, elements.get(parent), text, true);
+						element = doc.createElement(getName(reader.getPrefix(),reader.getLocalName()));
+						elements.get(parent).appendChild(element);
+						hasChildElements.set(parent, Boolean.TRUE);
+					}
+					for (int i=0;i<reader.getAttributeCount();i++) {
+						element.setAttribute(getName(reader.getAttributePrefix(i),reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+					}
+					elements.add(element);
+					hasChildElements.add(Boolean.FALSE);
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					int current = elements.size()-1;
+					appendText(doc, elements.get(current), text, hasChildElements.get(current));
+					elements.remove(current);
+					hasChildElements.remove(current);
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					if (!elements.isEmpty()) {
+						text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					}
+					break;
+				case XMLStreamConstants.COMMENT:
+					if (!elements.isEmpty()) {
+						Element parent = elements.get(elements.size()-1);
+						appendText(doc, parent, text, true);
+						parent.appendChild(doc.createComment(reader.getText()));
+					}
+					break;
+				default:
+					break;
+				}
+			}
+			if (doc==null) {
+				throw new XMLStreamException(Messages.getString("XMLStoreReader.NO_ROOT_ELEMENT")); //$NON-NLS-1$
+			}
+			return doc;
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Add the buffered text to the element. If the text only contains white space and
+	 * the element contains other elements, then the text is only used to indent the
+	 * file and is dropped.
+	 */
+	private void appendText(Document doc,Node parent,StringBuilder text,boolean dropWhiteSpace) {
+		if (text.length()>0) {
+			if (!(dropWhiteSpace && isWhiteSpace(text))) {
+				parent.appendChild(doc.createTextNode(text.toString()));
+			}
+			text.setLength(0);
+		}
+	}
+
+	private Document createDocument(String rootName,String docTypeText) throws ParserConfigurationException {
+		DOMImplementation impl = DocumentBuilderFactory.newInstance().newDocumentBuilder().getDOMImplementation();
+		DocumentType docType = null;
+		if (docTypeText!=null) {
+			Matcher m = DOCTYPE_PATTERN.matcher(docTypeText);
+			if (m.find()) {
+				docType = impl.createDocumentType(rootName, m.group(1), m.group(2));
+			}
+		}
+		return impl.createDocument(null, rootName, docType);
+	}
+
+	private static String getName(String prefix,String localName) {
+		if (prefix==null || prefix.length()==0) {
+			return localName;
+		}
+		return prefix+":"+localName; //$NON-NLS-1$
+	}
+
+	private static boolean isWhiteSpace(CharSequence text) {
+		for (int i=0;i<text.length();i++) {
+			if (!Character.isWhitespace(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.store.xmlstore;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentType;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * This class is used to write a XML store document to a file. The nodes of the document are
+ * streamed out as they are visited, so a serialized copy of the document is never held in
+ * memory. Elements that only contain other elements are indented, elements that contain text
+ * are written on a single line. The values are escaped by this class rather than a StAX writer,
+ * as new lines, carriage returns and tabs in attribute values must be written as character
+ * references to survive attribute value normalization when the file is read back.
+ */
+public class XMLStoreWriter {
+
+	private final static String ENCODING = "UTF-8"; //$NON-NLS-1$
+	private final static String INDENT = "  "; //$NON-NLS-1$
+	private final static String NEW_LINE = "\n"; //$NON-NLS-1$
+
+	/**
+	 * Used to write a document to a file
+	 * @param file The file to write to
+	 * @param doc The document to write
+	 * @throws IOException Thrown if their is a problem writing the file
+	 */
+	public void write(File file,Document doc) throws IOException {
+		OutputStream os = null;
+		try {
+			os = new BufferedOutputStream(new FileOutputStream(file));
+			write(os,doc);
+		}
+		finally {
+			if (os!=null) {
+				os.close();
+			}
+		}
+	}
+
+	/**
+	 * Used to write a document to a stream. The stream is not closed.
+	 * @param os The stream to write to
+	 * @param doc The document to write
+	 * @throws IOException Thrown if their is a problem writing the document
+	 */
+	public void write(OutputStream os,Document doc) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(os, ENCODING));
+		writer.write("<?xml version=\"1.0\" encoding=\""+ENCODING+"\"?>"); //$NON-NLS-1$ //$NON-NLS-2$
+		writer.write(NEW_LINE);
+		DocumentType docType = doc.getDoctype();
+		if (docType!=null && docType.getPublicId()!=null) {
+			writer.write("<!DOCTYPE "+docType.getName()+" PUBLIC \""+docType.getPublicId()+"\" \""+docType.getSystemId()+"\">"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			writer.write(NEW_LINE);
+		}
+		writeElement(writer,doc.getDocumentElement(),0);
+		writer.write(NEW_LINE);
+		writer.flush();
+	}
+
+	private void writeElement(Writer writer,Element element,int depth) throws IOException {
+		Node firstChild = element.getFirstChild();
+		writer.write('<');
+		writer.write(element.getNodeName());
+		writeAttributes(writer, element);
+		if (firstChild==null) {
+			writer.write("/>"); //$NON-NLS-1$
+			return;
+		}
+		writer.write('>');
+		if (!hasChildElements(element)) {
+			for (Node child = firstChild;child!=null;child=child.getNextSibling()) {
+				writeNode(writer, child, depth);
+			}
+		}
+		else {
+			for (Node child = firstChild;child!=null;child=child.getNextSibling()) {
+				if (child.getNodeType()==Node.TEXT_NODE && child.getNodeValue().trim().length()==0) {
+					continue;
+				}
+				writer.write(NEW_LINE);
+				indent(writer,depth+1);
+				writeNode(writer, child, depth+1);
+			}
+			writer.write(NEW_LINE);
+			indent(writer,depth);
+		}
+		writer.write("</"); //$NON-NLS-1$
+		writer.write(element.getNodeName());
+		writer.write('>');
+	}
+
+	private void writeNode(Writer writer,Node node,int depth) throws IOException {
+		switch (node.getNodeType()) {
+		case Node.ELEMENT_NODE:
+			writeElement(writer,(Element)node,depth);
+			break;
+		case Node.TEXT_NODE:
+			writer.write(escape(node.getNodeValue(),false));
+			break;
+		case Node.CDATA_SECTION_NODE:
+			writer.write("<![CDATA["); //$NON-NLS-1$
+			writer.write(node.getNodeValue());
+			writer.write("]]>"); //$NON-NLS-1$
+			break;
+		case Node.COMMENT_NODE:
+			writer.write("<!--"); //$NON-NLS-1$
+			writer.write(node.getNodeValue());
+			writer.write("-->"); //$NON-NLS-1$
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void writeAttributes(Writer writer,Element element) throws IOException {
+		NamedNodeMap attributes = element.getAttributes();
+		for (int i=0;i<attributes.getLength();i++) {
+			Attr attr = (Attr) attributes.item(i);
+			writer.write(' ');
+			writer.write(attr.getName());
+			writer.write("=\""); //$NON-NLS-1$
+			writer.write(escape(attr.getValue(),true));
+			writer.write('"');
+		}
+	}
+
+	private static String escape(String value,boolean attribute) {
+		StringBuilder result = null;
+		for (int i=0;i<value.length();i++) {
+			char c = value.charAt(i);
+			String ref;
+			switch (c) {
+			case '&':
+				ref = "&amp;"; //$NON-NLS-1$
+				break;
+			case '<':
+				ref = "&lt;"; //$NON-NLS-1$
+				break;
+			case '>':
+				ref = "&gt;"; //$NON-NLS-1$
+				break;
+			case '\r':
+				ref = "&#13;"; //$NON-NLS-1$
+				break;
+			case '"':
+				ref = attribute ? "&quot;" : null; //$NON-NLS-1$
+				break;
+			case '\n':
+				ref = attribute ? "&#10;" : null; //$NON-NLS-1$
+				break;
+			case '\t':
+				ref = attribute ? "&#9;" : null; //$NON-NLS-1$
+				break;
+			default:
+				ref = null;
+			}
+			if (ref!=null) {
+				if (result==null) {
+					result = new StringBuilder(value.length()+16);
+					result.append(value, 0, i);
+				}
+				result.append(ref);
+			}
+			else if (result!=null) {
+				result.append(c);
+			}
+		}
+		return result==null ? value : result.toString();
+	}
+
+	private boolean hasChildElements(Element element) {
+		for (Node child = element.getFirstChild();child!=null;child=child.getNextSibling()) {
+			if (child.getNodeType()==Node.ELEMENT_NODE) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void indent(Writer writer,int depth) throws IOException {
+		for (int i=0;i<depth;i++) {
+			writer.write(INDENT);
+		}
+	}
+}
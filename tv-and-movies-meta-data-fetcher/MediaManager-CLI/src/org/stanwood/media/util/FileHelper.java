@@ -21,7 +21,6 @@ import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
@@ -110,21 +109,8 @@ public class FileHelper {
 		}
 	}
 
-	private static void copyFile(File src, File dst)
-			throws FileNotFoundException, IOException {
-		InputStream in = null;
-		try {
-			in = new FileInputStream(src);
-			copy(in,dst);
-		} finally {
-			if (in != null) {
-				try {
-					in.close();
-				} catch (IOException e) {
-					log.error(Messages.getString("FileHelper.UNABLE_CLOSE_INPUT_STREAM"), e); //$NON-NLS-1$
-				}
-			}
-		}
+	private static void copyFile(File src, File dst) throws IOException {
+		new FileTransfer(false).copy(src, dst);
 	}
 
 
@@ -243,11 +229,7 @@ public class FileHelper {
 					}
 					if (retries < MAX_RETRIES - 1) {
 						log.error(MessageFormat.format(Messages.getString("FileHelper.UnableFetch1"),url.toExternalForm())); //$NON-NLS-1$
-						try {
-							Thread.sleep(FileHelper.RETRY_SLEEP_TIME);
-						} catch (InterruptedException e2) {
-							// Ignore
-						}
+						HttpFetcher.getInstance().sleepBeforeRetry(retries);
 					}
 				} catch (SocketTimeoutException e) {
 					if (error==null ) {
@@ -255,11 +237,7 @@ public class FileHelper {
 					}
 					if (retries < MAX_RETRIES - 1) {
 						log.error(MessageFormat.format(Messages.getString("FileHelper.UnableFetch2"),url.toExternalForm())); //$NON-NLS-1$
-						try {
-							Thread.sleep(FileHelper.RETRY_SLEEP_TIME);
-						} catch (InterruptedException e2) {
-							// Ignore
-						}
+						HttpFetcher.getInstance().sleepBeforeRetry(retries);
 					}
 				} catch (IOException e) {
 					if (dest.exists()) {
@@ -327,7 +305,12 @@ public class FileHelper {
 	}
 
 
-	private static String bytesToHexString(byte data[]) {
+	/**
+	 * Used to convert a array of bytes into a hex string
+	 * @param data The bytes
+	 * @return The hex string
+	 */
+	public static String bytesToHexString(byte data[]) {
 
         StringBuilder sb = new StringBuilder(data.length * 2);
         for(int buc = 0; buc < data.length; buc++)
@@ -483,10 +466,14 @@ public class FileHelper {
 	 * @return The files in the directory
 	 */
 	public static List<File> listFiles(File dir) {
-		List<File>files = new ArrayList<File>();
-		listFiles(dir,files);
-		Collections.sort(files);
-		return files;
+		if (!dir.isDirectory()) {
+			List<File>files = new ArrayList<File>();
+			files.add(dir);
+			return files;
+		}
+		MediaScanner scanner = new MediaScanner(null, null, 1);
+		scanner.scanOnCallingThread(dir);
+		return scanner.getFiles();
 	}
 
 	/**
@@ -506,16 +493,6 @@ public class FileHelper {
 		return files;
 	}
 
-	private static void listFiles(File file, List<File> files) {
-		if (file.isDirectory()) {
-			for (File d : file.listFiles()) {
-				listFiles(d,files);
-			}
-		}
-		else {
-			files.add(file);
-		}
-	}
 
 	/**
 	 * Used to add contents to a file
@@ -589,14 +566,38 @@ public class FileHelper {
 	 * @throws IOException Thrown if their are any problems
 	 */
 	public static void move(File from, File to) throws IOException {
+		move(from, to, false);
+	}
+
+	/**
+	 * Used to move a directory or file from once location to another. The move is done as a
+	 * rename if possible, otherwise the files are copied and the originals deleted.
+	 * @param from The old name of the file or directory
+	 * @param to The new name of the file or directory
+	 * @param verify True if the checksum of copied files should be verified before they are deleted
+	 * @throws IOException Thrown if their are any problems
+	 */
+	public static void move(File from, File to,boolean verify) throws IOException {
 		if (!from.exists()) {
 			throw new IOException(MessageFormat.format(Messages.getString("FileHelper.UNABLE_MOVE_FILE_SRC_NOT_FOUND"),from,to)); //$NON-NLS-1$
 		}
 		if (to.exists()) {
 			throw new IOException(MessageFormat.format(Messages.getString("FileHelper.UNABLE_MOVE_FILE_DEST_ALREADY_EXISTS"),from,to)); //$NON-NLS-1$
 		}
-		copy(from, to);
-		delete(from);
+		if (from.isDirectory()) {
+			if (!from.renameTo(to)) {
+				if (!to.mkdir() && !to.exists()) {
+					throw new IOException(MessageFormat.format(Messages.getString("FileHelper.UNABLE_CREATE_DIR"),to)); //$NON-NLS-1$
+				}
+				for (File f : from.listFiles()) {
+					move(f,new File(to,f.getName()),verify);
+				}
+				delete(from);
+			}
+		}
+		else {
+			new FileTransfer(verify).move(from, to);
+		}
 	}
 
 	/**
@@ -629,39 +630,14 @@ public class FileHelper {
 	}
 
 	/**
-	 * Used to get a stream to a URL. If their is a socket timeout exception, then
-	 * this method will wait 5 seconds and try again. It does this 3 times before throwing the
-	 * exception out if the method
+	 * Used to get a stream to a URL. This uses the shared {@link HttpFetcher}, which limits
+	 * the rate of requests to each host and retries requests that time out
 	 * @param url The URL of the stream
 	 * @return The stream
 	 * @throws IOException Thrown if their are any problems
 	 */
 	public static Stream getInputStream(URL url) throws IOException {
-		SocketTimeoutException e = null;
-		for (int tryCount=0;tryCount<3;tryCount++) {
-			try {
-				WebFileInputStream is = new WebFileInputStream(url);
-				String MIME = is.getMIMEType();
-				if (MIME.equals("application/zip")) { //$NON-NLS-1$
-					return new Stream(new ZipInputStream(is),MIME,is.getCharset(),url.toExternalForm(),url);
-				}
-				else {
-					return new Stream(is,MIME,is.getCharset(),url.toExternalForm(),url);
-				}
-			}
-			catch (SocketTimeoutException e1) {
-				log.warn(MessageFormat.format(Messages.getString("FileHelper.Timedout"),url.toExternalForm())); //$NON-NLS-1$
-				if (e==null) {
-					e = e1;
-				}
-				try {
-					Thread.sleep(5000); // Sleep for 3 seconds
-				} catch (InterruptedException e2) {
-					// Ignore
-				}
-			}
-		}
-		throw e;
+		return HttpFetcher.getInstance().getStream(url);
 	}
 
 	/**
@@ -761,14 +737,20 @@ public class FileHelper {
 	 * @throws IOException Thrown if their are any problems
 	 */
 	public static void rename(File oldFile, File newFile) throws IOException {
+		rename(oldFile,newFile,false);
+	}
+
+	/**
+	 * Used to rename a file. This handles the case where java's {@link File#renameTo(File)} fails. It that
+	 * occurs it copies the file and deletes the original
+	 * @param oldFile The old file name
+	 * @param newFile The new file name
+	 * @param verify True if the checksum of the copy should be verified before the original is deleted
+	 * @throws IOException Thrown if their are any problems
+	 */
+	public static void rename(File oldFile, File newFile,boolean verify) throws IOException {
 		if (!oldFile.renameTo(newFile) && !newFile.exists()) {
-			FileHelper.copy(oldFile, newFile);
-			if (newFile.exists() && oldFile.length()==newFile.length())  {
-				FileHelper.delete(oldFile);
-			}
-			else {
-				throw new IOException(MessageFormat.format(Messages.getString("FileHelper.UnableCopy"),oldFile,newFile)); //$NON-NLS-1$
-			}
+			new FileTransfer(verify).move(oldFile, newFile);
 		}
 	}
 }
@@ -0,0 +1,200 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * <p>This is used to copy and move files using NIO channels.</p>
+ * <p>A move is first tried as a rename, which is atomic and does not copy any data when the
+ * source and destination are on the same file system. Otherwise the file is copied and the source
+ * is deleted. Copies use {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+ * so the data does not need to pass through the JVM.</p>
+ * <p>If verification is enabled, then the data is instead copied through a buffer so that a MD5
+ * checksum can be made of it as it is copied. The destination file is then read back and its checksum
+ * must match before the source of a move is deleted.</p>
+ */
+public class FileTransfer {
+
+	private final static Log log = LogFactory.getLog(FileTransfer.class);
+
+	/** The largest block passed to transferTo in one go, some platforms fail with larger blocks */
+	private final static long TRANSFER_BLOCK_SIZE = 64*1024*1024;
+	private final static int BUFFER_SIZE = 1024*1024;
+
+	private final boolean verify;
+
+	/**
+	 * The constructor
+	 * @param verify True if the checksum of the copied data should be verified
+	 */
+	public FileTransfer(boolean verify) {
+		this.verify = verify;
+	}
+
+	/**
+	 * Used to move a file. If the file can't be renamed, then it is copied and the source file deleted.
+	 * @param src The file to move
+	 * @param dst The new location of the file
+	 * @return The details of the transfer
+	 * @throws IOException Thrown if the file could not be moved
+	 */
+	public FileTransferStats move(File src,File dst) throws IOException {
+		long start = System.nanoTime();
+		if (src.renameTo(dst)) {
+			FileTransferStats stats = new FileTransferStats(src, dst, 0, System.nanoTime()-start, true, null);
+			if (log.isDebugEnabled()) {
+				log.debug(stats.toString());
+			}
+			return stats;
+		}
+		FileTransferStats stats = copy(src,dst);
+		if (!dst.setLastModified(src.lastModified())) {
+			log.warn(MessageFormat.format(Messages.getString("FileTransfer.UnableSetModifiedTime"),dst)); //$NON-NLS-1$
+		}
+		FileHelper.delete(src);
+		return stats;
+	}
+
+	/**
+	 * Used to copy a file
+	 * @param src The file to copy
+	 * @param dst The destination file, this must not already exist
+	 * @return The details of the transfer
+	 * @throws IOException Thrown if the file could not be copied, or it's checksum does not match
+	 */
+	public FileTransferStats copy(File src,File dst) throws IOException {
+		if (dst.exists()) {
+			throw new IOException(MessageFormat.format(Messages.getString("FileHelper.UNABLE_COPY_ALREADY_EXISTS"),src,dst)); //$NON-NLS-1$
+		}
+		long start = System.nanoTime();
+		long length = src.length();
+		String checksum = null;
+		boolean done = false;
+		try {
+			FileInputStream in = new FileInputStream(src);
+			try {
+				FileOutputStream out = new FileOutputStream(dst);
+				try {
+					if (verify) {
+						checksum = copyWithChecksum(in.getChannel(),out.getChannel());
+					}
+					else {
+						transfer(in.getChannel(),length,out.getChannel());
+					}
+					out.getChannel().force(false);
+				}
+				finally {
+					close(out);
+				}
+			}
+			finally {
+				close(in);
+			}
+			if (dst.length()!=length) {
+				throw new IOException(MessageFormat.format(Messages.getString("FileHelper.UnableCopy"),src,dst)); //$NON-NLS-1$
+			}
+			if (verify && !checksum.equals(getChecksum(dst))) {
+				throw new IOException(MessageFormat.format(Messages.getString("FileTransfer.ChecksumMismatch"),src,dst)); //$NON-NLS-1$
+			}
+			done = true;
+		}
+		finally {
+			if (!done && dst.exists() && !dst.delete()) {
+				log.error(MessageFormat.format(Messages.getString("FileHelper.UNABLE_DELETE_FILE"),dst)); //$NON-NLS-1$
+			}
+		}
+		FileTransferStats stats = new FileTransferStats(src, dst, length, System.nanoTime()-start, false, checksum);
+		if (log.isDebugEnabled()) {
+			log.debug(stats.toString());
+		}
+		return stats;
+	}
+
+	private static void transfer(FileChannel in,long length,FileChannel out) throws IOException {
+		long pos = 0;
+		while (pos<length) {
+			long count = in.transferTo(pos, Math.min(TRANSFER_BLOCK_SIZE,length-pos), out);
+			if (count<=0) {
+				break;
+			}
+			pos+=count;
+		}
+	}
+
+	private static String copyWithChecksum(FileChannel in,FileChannel out) throws IOException {
+		MessageDigest md = createDigest();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		while (in.read(buffer)!=-1) {
+			buffer.flip();
+			md.update(buffer.duplicate());
+			while (buffer.hasRemaining()) {
+				out.write(buffer);
+			}
+			buffer.clear();
+		}
+		return FileHelper.bytesToHexString(md.digest());
+	}
+
+	private static String getChecksum(File file) throws IOException {
+		MessageDigest md = createDigest();
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			while (channel.read(buffer)!=-1) {
+				buffer.flip();
+				md.update(buffer);
+				buffer.clear();
+			}
+		}
+		finally {
+			close(in);
+		}
+		return FileHelper.bytesToHexString(md.digest());
+	}
+
+	private static MessageDigest createDigest() throws IOException {
+		try {
+			return MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IOException(e.getMessage(),e);
+		}
+	}
+
+	private static void close(Closeable c) {
+		try {
+			c.close();
+		}
+		catch (IOException e) {
+			log.error(Messages.getString("FileHelper.UNABLE_CLOSE_STREAM"),e); //$NON-NLS-1$
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.util;
+
+import java.io.File;
+import java.text.MessageFormat;
+
+/**
+ * This holds the details of a single file transfer made by {@link FileTransfer}
+ */
+public class FileTransferStats {
+
+	private final File source;
+	private final File destination;
+	private final long bytes;
+	private final long time;
+	private final boolean renamed;
+	private final String checksum;
+
+	FileTransferStats(File source,File destination,long bytes,long time,boolean renamed,String checksum) {
+		this.source = source;
+		this.destination = destination;
+		this.bytes = bytes;
+		this.time = time;
+		this.renamed = renamed;
+		this.checksum = checksum;
+	}
+
+	/**
+	 * Used to get the file that was transfered
+	 * @return The source file
+	 */
+	public File getSource() {
+		return source;
+	}
+
+	/**
+	 * Used to get the file that the source was transfered to
+	 * @return The destination file
+	 */
+	public File getDestination() {
+		return destination;
+	}
+
+	/**
+	 * Used to get the number of bytes that were copied. This is 0 if the file was renamed.
+	 * @return The number of bytes copied
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Used to get the time the transfer took
+	 * @return The time in nanoseconds
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * Used to find out if the file was renamed on the same file system instead of being copied
+	 * @return True if the file was renamed
+	 */
+	public boolean isRenamed() {
+		return renamed;
+	}
+
+	/**
+	 * Used to get the MD5 checksum of the copied data
+	 * @return The checksum, or null if the transfer was not verified
+	 */
+	public String getChecksum() {
+		return checksum;
+	}
+
+	/**
+	 * Used to get the speed of the copy
+	 * @return The number of bytes copied per second
+	 */
+	public long getBytesPerSecond() {
+		if (time<=0) {
+			return 0;
+		}
+		return (long)(bytes/(time/1000000000.0));
+	}
+
+	/**
+	 * Used to get a description of the transfer
+	 * @return The description
+	 */
+	@Override
+	public String toString() {
+		if (renamed) {
+			return MessageFormat.format(Messages.getString("FileTransferStats.Renamed"),source,destination,time/1000000); //$NON-NLS-1$
+		}
+		return MessageFormat.format(Messages.getString("FileTransferStats.Copied"),source,destination,bytes,time/1000000,getBytesPerSecond()/(1024*1024)); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,183 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringTokenizer;
+
+/**
+ * <p>This is used to decode the HTML named and numeric character references found in a page.
+ * The page is decoded in a single pass into one buffer.</p>
+ * <p>The references that decode to the XML markup characters (&lt; &gt; &amp; and &quot;) are not
+ * decoded, so that the markup of the page is not changed. The named references are read from the
+ * resource <code>html-entities.txt</code>.</p>
+ */
+public class HtmlEntityDecoder {
+
+	private final static String ENTITIES_RESOURCE = "html-entities.txt"; //$NON-NLS-1$
+
+	private static HtmlEntityDecoder instance;
+
+	private final Map<String,String> entities = new HashMap<String,String>();
+	private int maxNameLength = 0;
+
+	private HtmlEntityDecoder() throws IOException {
+		InputStream is = HtmlEntityDecoder.class.getResourceAsStream(ENTITIES_RESOURCE);
+		if (is==null) {
+			throw new IOException(MessageFormat.format(Messages.getString("HtmlEntityDecoder.UnableReadEntities"),ENTITIES_RESOURCE)); //$NON-NLS-1$
+		}
+		try {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(is,"UTF-8")); //$NON-NLS-1$
+			String line;
+			while ((line = reader.readLine())!=null) {
+				if (line.length()==0 || line.charAt(0)=='#') {
+					continue;
+				}
+				StringTokenizer tok = new StringTokenizer(line," "); //$NON-NLS-1$
+				String name = tok.nextToken();
+				StringBuilder value = new StringBuilder(2);
+				while (tok.hasMoreTokens()) {
+					value.appendCodePoint(Integer.parseInt(tok.nextToken(),16));
+				}
+				if (containsMarkup(value)) {
+					continue;
+				}
+				entities.put(name, value.toString());
+				maxNameLength = Math.max(maxNameLength, name.length());
+			}
+		}
+		finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Used to decode the character references in a string
+	 * @param source The string to decode
+	 * @return The decoded string, or the source string if it did not contain any references
+	 */
+	public String decode(String source) {
+		int amp = source.indexOf('&');
+		if (amp==-1) {
+			return source;
+		}
+		int length = source.length();
+		StringBuilder result = new StringBuilder(length);
+		int last = 0;
+		while (amp!=-1) {
+			int end = decodeReference(source,amp,result,last);
+			if (end!=-1) {
+				last = end;
+				amp = source.indexOf('&',end);
+			}
+			else {
+				amp = source.indexOf('&',amp+1);
+			}
+		}
+		result.append(source,last,length);
+		return result.toString();
+	}
+
+	/**
+	 * Decode the reference that starts at the given position
+	 * @return The position after the reference, or -1 if it was not a reference that can be decoded
+	 */
+	private int decodeReference(String source,int amp,StringBuilder result,int last) {
+		int length = source.length();
+		int pos = amp+1;
+		if (pos<length && source.charAt(pos)=='#') {
+			return decodeNumeric(source,amp,result,last);
+		}
+		int max = Math.min(length, pos+maxNameLength);
+		while (pos<max && Character.isLetterOrDigit(source.charAt(pos))) {
+			pos++;
+		}
+		if (pos==amp+1 || pos>=length || source.charAt(pos)!=';') {
+			return -1;
+		}
+		String value = entities.get(source.substring(amp+1,pos));
+		if (value==null) {
+			return -1;
+		}
+		result.append(source,last,amp);
+		result.append(value);
+		return pos+1;
+	}
+
+	private int decodeNumeric(String source,int amp,StringBuilder result,int last) {
+		int length = source.length();
+		int pos = amp+2;
+		int radix = 10;
+		if (pos<length && (source.charAt(pos)=='x' || source.charAt(pos)=='X')) {
+			radix = 16;
+			pos++;
+		}
+		int start = pos;
+		int codePoint = 0;
+		while (pos<length && pos-start<8) {
+			int digit = Character.digit(source.charAt(pos),radix);
+			if (digit==-1) {
+				break;
+			}
+			codePoint = codePoint*radix+digit;
+			pos++;
+		}
+		if (pos==start || pos>=length || source.charAt(pos)!=';') {
+			return -1;
+		}
+		if (codePoint<=0 || codePoint>Character.MAX_CODE_POINT
+				|| (codePoint>=Character.MIN_SURROGATE && codePoint<=Character.MAX_SURROGATE)
+				|| codePoint=='<' || codePoint=='>' || codePoint=='&' || codePoint=='"') {
+			return -1;
+		}
+		result.append(source,last,amp);
+		result.appendCodePoint(codePoint);
+		return pos+1;
+	}
+
+	private static boolean containsMarkup(CharSequence value) {
+		for (int i=0;i<value.length();i++) {
+			char c = value.charAt(i);
+			if (c=='<' || c=='>' || c=='&' || c=='"') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Used to get a singleton instance of the decoder
+	 * @return a singleton instance of the decoder
+	 */
+	public synchronized static HtmlEntityDecoder getInstance() {
+		if (instance==null) {
+			try {
+				instance = new HtmlEntityDecoder();
+			}
+			catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return instance;
+	}
+}
@@ -16,34 +16,113 @@
  */
 package org.stanwood.media.util;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.stanwood.media.collections.LRUMapCache;
 
 /**
- * This class is used to cache HTTP downloads
+ * This class is used to cache HTTP downloads. Entries are held in a in memory cache, and
+ * if a cache directory has been set with {@link #setCacheDir(File, long, long)}, they are also
+ * written compressed to disk so that they can be reused by later runs of the application.
+ * The disk cache is limited in size, the least recently used entries are removed first.
+ * Each entry is written to a temporary file that is then renamed over the old entry, so a
+ * entry is never left half written.
  */
 public class HttpCache {
 
 	private final static Log log = LogFactory.getLog(HttpCache.class);
 
-	// TODO find way of storing more entries, disk based?
-	private static LRUMapCache<String, List<String>> cache = new LRUMapCache<String,List<String>>(300);
+	/** The default time in milliseconds that a entry is valid for */
+	public final static long DEFAULT_TTL = 24L*60*60*1000;
+
+	/** The default maximum size in bytes of the disk cache */
+	public final static long DEFAULT_MAX_DISK_SIZE = 100L*1024*1024;
+
+	private final static int FILE_VERSION = 2;
+	private final static String FILE_EXT = ".gz"; //$NON-NLS-1$
+	private final static String TMP_EXT = ".tmp"; //$NON-NLS-1$
+	private final static String CHARSET = "UTF-8"; //$NON-NLS-1$
+
+	/** The default number of entries held in memory */
+	public final static int DEFAULT_MEMORY_SIZE = 300;
+
 	private static HttpCache instance;
 
-	private HttpCache() {
+	private final LRUMapCache<String, HttpCacheEntry> cache;
+
+	private File cacheDir;
+	private long maxDiskSize = DEFAULT_MAX_DISK_SIZE;
+	private long ttl = DEFAULT_TTL;
+	private long diskSize = -1;
 
+	/**
+	 * Used to create a cache that is separate from the shared HTTP download cache
+	 * @param memorySize The maximum number of entries held in memory
+	 */
+	public HttpCache(int memorySize) {
+		cache = new LRUMapCache<String,HttpCacheEntry>(memorySize);
+	}
+
+	/**
+	 * Used to set the directory the cache entries are stored on disk
+	 * @param cacheDir The cache directory, or null if entries should only be cached in memory
+	 * @param maxDiskSize The maximum size in bytes of the disk cache
+	 * @param ttl The time in milliseconds that new entries are valid for
+	 */
+	public synchronized void setCacheDir(File cacheDir,long maxDiskSize,long ttl) {
+		this.cacheDir = cacheDir;
+		this.maxDiskSize = maxDiskSize;
+		this.ttl = ttl;
+		this.diskSize = -1;
 	}
 
 	/**
-	 * Get element from cache or null if it can't be found
+	 * Get element from cache or null if it can't be found or has expired
 	 * @param key The key of the item to get
 	 * @return The item, or null if it can't be found
 	 */
-	public List<String> get(String key) {
-		return cache.get(key);
+	public synchronized List<String> get(String key) {
+		HttpCacheEntry entry = getEntry(key);
+		if (entry==null || entry.isExpired()) {
+			return null;
+		}
+		return entry.getContents();
+	}
+
+	/**
+	 * Get a entry from the cache, even if it has expired. This can be used to
+	 * find the validators needed to check with the server if the entry is still valid.
+	 * @param key The key of the item to get
+	 * @return The entry, or null if it can't be found
+	 */
+	public synchronized HttpCacheEntry getEntry(String key) {
+		HttpCacheEntry entry = cache.get(key);
+		if (entry==null && cacheDir!=null) {
+			entry = readEntry(key);
+			if (entry!=null) {
+				cache.put(key, entry);
+			}
+		}
+		return entry;
 	}
 
 	/**
@@ -52,19 +131,235 @@ public class HttpCache {
 	 * @param value The item
 	 */
 	public void put(String key,List<String> value) {
+		put(key,value,null,null);
+	}
+
+	/**
+	 * Put a item into the cache
+	 * @param key The key of the item
+	 * @param value The item
+	 * @param eTag The ETag header sent by the server, or null if it was not sent
+	 * @param lastModified The Last-Modified header sent by the server, or null if it was not sent
+	 */
+	public synchronized void put(String key,List<String> value,String eTag,String lastModified) {
 		if (log.isDebugEnabled()) {
 			log.debug("Caching key "+key); //$NON-NLS-1$
 		}
-		cache.put(key, value);
+		HttpCacheEntry entry = new HttpCacheEntry(key, value, System.currentTimeMillis()+ttl, eTag, lastModified);
+		cache.put(key, entry);
+		if (cacheDir!=null) {
+			writeEntry(entry);
+		}
+	}
+
+	/**
+	 * This is called when the server has said that a expired entry has not changed. The
+	 * entry is made valid again.
+	 * @param key The key of the item
+	 * @return The contents of the entry, or null if it could not be found
+	 */
+	public synchronized List<String> revalidated(String key) {
+		HttpCacheEntry entry = getEntry(key);
+		if (entry==null) {
+			return null;
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Revalidated key "+key); //$NON-NLS-1$
+		}
+		entry.setExpires(System.currentTimeMillis()+ttl);
+		if (cacheDir!=null) {
+			writeEntry(entry);
+		}
+		return entry.getContents();
+	}
+
+	private File getEntryFile(String key) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+			md.update(key.getBytes(CHARSET));
+			return new File(cacheDir,FileHelper.bytesToHexString(md.digest())+FILE_EXT);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private HttpCacheEntry readEntry(String key) {
+		File file = getEntryFile(key);
+		if (!file.exists()) {
+			return null;
+		}
+		DataInputStream is = null;
+		try {
+			is = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+			if (is.readInt()!=FILE_VERSION || !key.equals(readString(is))) {
+				return null;
+			}
+			long expires = is.readLong();
+			String eTag = readString(is);
+			String lastModified = readString(is);
+			int count = is.readInt();
+			List<String> contents = new ArrayList<String>(count);
+			for (int i=0;i<count;i++) {
+				contents.add(readString(is));
+			}
+			if (!file.setLastModified(System.currentTimeMillis())) {
+				log.debug("Unable to update the access time of cache file "+file); //$NON-NLS-1$
+			}
+			return new HttpCacheEntry(key, contents, expires, eTag, lastModified);
+		}
+		catch (IOException e) {
+			log.warn(MessageFormat.format(Messages.getString("HttpCache.UNABLE_READ_ENTRY"),file),e); //$NON-NLS-1$
+			return null;
+		}
+		finally {
+			close(is);
+		}
+	}
+
+	private void writeEntry(HttpCacheEntry entry) {
+		if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+			log.warn(MessageFormat.format(Messages.getString("FileHelper.UNABLE_CREATE_DIR"),cacheDir)); //$NON-NLS-1$
+			return;
+		}
+		File file = getEntryFile(entry.getKey());
+		File tmpFile = new File(cacheDir,file.getName()+TMP_EXT);
+		long oldSize = file.length();
+		DataOutputStream os = null;
+		try {
+			os = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmpFile))));
+			os.writeInt(FILE_VERSION);
+			writeString(os,entry.getKey());
+			os.writeLong(entry.getExpires());
+			writeString(os,entry.getETag());
+			writeString(os,entry.getLastModified());
+			os.writeInt(entry.getContents().size());
+			for (String contents : entry.getContents()) {
+				writeString(os,contents);
+			}
+			os.close();
+			os = null;
+			if (!tmpFile.renameTo(file) && !(file.delete() && tmpFile.renameTo(file))) {
+				log.warn(MessageFormat.format(Messages.getString("HttpCache.UNABLE_WRITE_ENTRY"),file)); //$NON-NLS-1$
+			}
+		}
+		catch (IOException e) {
+			log.warn(MessageFormat.format(Messages.getString("HttpCache.UNABLE_WRITE_ENTRY"),file),e); //$NON-NLS-1$
+		}
+		finally {
+			close(os);
+			if (tmpFile.exists() && !tmpFile.delete()) {
+				log.warn(MessageFormat.format(Messages.getString("FileHelper.UNABLE_DELETE_FILE"),tmpFile)); //$NON-NLS-1$
+			}
+		}
+		if (diskSize!=-1) {
+			diskSize+=file.length()-oldSize;
+		}
+		evict();
+	}
+
+	/**
+	 * Remove the least recently used entries from the disk cache until it is smaller than the maximum size
+	 */
+	private void evict() {
+		if (diskSize==-1) {
+			diskSize = 0;
+			for (File file : listEntryFiles()) {
+				diskSize+=file.length();
+			}
+			deleteTmpFiles();
+		}
+		if (diskSize<=maxDiskSize) {
+			return;
+		}
+		File files[] = listEntryFiles();
+		Arrays.sort(files,new Comparator<File>() {
+			@Override
+			public int compare(File o1, File o2) {
+				return Long.valueOf(o1.lastModified()).compareTo(o2.lastModified());
+			}
+		});
+		for (File file : files) {
+			if (diskSize<=maxDiskSize) {
+				break;
+			}
+			long size = file.length();
+			if (file.delete()) {
+				diskSize-=size;
+			}
+		}
+	}
+
+	private File[] listEntryFiles() {
+		File files[] = cacheDir.listFiles();
+		if (files==null) {
+			return new File[0];
+		}
+		List<File> result = new ArrayList<File>();
+		for (File file : files) {
+			if (file.getName().endsWith(FILE_EXT)) {
+				result.add(file);
+			}
+		}
+		return result.toArray(new File[result.size()]);
+	}
+
+	/**
+	 * Remove temporary files left behind if the application stopped while writing a entry
+	 */
+	private void deleteTmpFiles() {
+		File files[] = cacheDir.listFiles();
+		if (files!=null) {
+			for (File file : files) {
+				if (file.getName().endsWith(FILE_EXT+TMP_EXT) && !file.delete()) {
+					log.warn(MessageFormat.format(Messages.getString("FileHelper.UNABLE_DELETE_FILE"),file)); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
+	private static String readString(DataInputStream is) throws IOException {
+		int length = is.readInt();
+		if (length==-1) {
+			return null;
+		}
+		byte data[] = new byte[length];
+		is.readFully(data);
+		return new String(data,CHARSET);
+	}
+
+	private static void writeString(DataOutputStream os,String value) throws IOException {
+		if (value==null) {
+			os.writeInt(-1);
+		}
+		else {
+			byte data[] = value.getBytes(CHARSET);
+			os.writeInt(data.length);
+			os.write(data);
+		}
+	}
+
+	private void close(Closeable stream) {
+		if (stream!=null) {
+			try {
+				stream.close();
+			}
+			catch (IOException e) {
+				log.error(Messages.getString("FileHelper.UNABLE_CLOSE_STREAM"),e); //$NON-NLS-1$
+			}
+		}
 	}
 
 	/**
 	 * Used to get a singleton instance of the cache
 	 * @return a singleton instance of the cache
 	 */
-	public static HttpCache getInstance() {
+	public synchronized static HttpCache getInstance() {
 		if (instance==null) {
-			instance = new HttpCache();
+			instance = new HttpCache(DEFAULT_MEMORY_SIZE);
 		}
 		return instance;
 	}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.util;
+
+import java.util.List;
+
+/**
+ * This class is used to hold a entry within the {@link HttpCache}. As well as the
+ * downloaded contents, it holds the time the entry expires and the HTTP validators
+ * (ETag and Last-Modified) that can be used to check if a expired entry is still valid.
+ */
+public class HttpCacheEntry {
+
+	private String key;
+	private List<String> contents;
+	private long expires;
+	private String eTag;
+	private String lastModified;
+
+	/**
+	 * The constructor
+	 * @param key The key of the entry
+	 * @param contents The cached contents
+	 * @param expires The time in milliseconds since the epoch when the entry expires
+	 * @param eTag The ETag header sent by the server, or null if it was not sent
+	 * @param lastModified The Last-Modified header sent by the server, or null if it was not sent
+	 */
+	public HttpCacheEntry(String key,List<String> contents,long expires,String eTag,String lastModified) {
+		this.key = key;
+		this.contents = contents;
+		this.expires = expires;
+		this.eTag = eTag;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Used to get the key of the entry
+	 * @return The key of the entry
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Used to get the cached contents
+	 * @return The cached contents
+	 */
+	public List<String> getContents() {
+		return contents;
+	}
+
+	/**
+	 * Used to get the time the entry expires
+	 * @return The time in milliseconds since the epoch when the entry expires
+	 */
+	public long getExpires() {
+		return expires;
+	}
+
+	/**
+	 * Used to set the time the entry expires
+	 * @param expires The time in milliseconds since the epoch when the entry expires
+	 */
+	public void setExpires(long expires) {
+		this.expires = expires;
+	}
+
+	/**
+	 * Used to find out if the entry has expired
+	 * @return True if the entry has expired
+	 */
+	public boolean isExpired() {
+		return System.currentTimeMillis()>expires;
+	}
+
+	/**
+	 * Used to get the ETag header sent by the server
+	 * @return The ETag header, or null if it was not sent
+	 */
+	public String getETag() {
+		return eTag;
+	}
+
+	/**
+	 * Used to get the Last-Modified header sent by the server
+	 * @return The Last-Modified header, or null if it was not sent
+	 */
+	public String getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Used to find out if the entry can be revalidated with the server once it has expired
+	 * @return True if the entry has a ETag or Last-Modified value
+	 */
+	public boolean hasValidators() {
+		return eTag!=null || lastModified!=null;
+	}
+}
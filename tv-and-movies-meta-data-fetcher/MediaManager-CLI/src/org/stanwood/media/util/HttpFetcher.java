@@ -0,0 +1,409 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * <p>This is used to fetch the contents of URL's for the sources. It is safe to use the fetcher
+ * from several threads at the same time.</p>
+ * <p>The number of requests that can be made to a host at the same time is limited, as is the rate
+ * of requests to a host, using a token bucket. This allows lookups to be made concurrently without
+ * hammering the web sites. The response is read completely before it is returned, so that the
+ * connection is handed back to the keep-alive pool of {@link java.net.HttpURLConnection} and can be
+ * used by the next request to the host. Responses can be compressed with gzip.</p>
+ * <p>If a request times out, can't connect, or the server says it is busy, then the request is tried
+ * again after a delay. The delay grows exponentially and has some random jitter added to it, so that
+ * retries from different threads don't all happen at once.</p>
+ * <p>Counters of the requests that have been made are kept, and each request is logged at debug level.</p>
+ */
+public class HttpFetcher {
+
+	private final static Log log = LogFactory.getLog(HttpFetcher.class);
+
+	/** The default maximum number of requests to the same host at the same time */
+	public final static int DEFAULT_MAX_CONCURRENT = 2;
+	/** The default maximum number of requests a second to the same host */
+	public final static double DEFAULT_REQUESTS_PER_SECOND = 5;
+	/** The default number of times a request is tried */
+	public final static int DEFAULT_MAX_ATTEMPTS = FileHelper.MAX_RETRIES;
+	/** The default delay before the first retry in milliseconds */
+	public final static long DEFAULT_BACKOFF = 1000;
+	/** The default maximum delay before a retry in milliseconds */
+	public final static long DEFAULT_MAX_BACKOFF = 30000;
+
+	private final static int HTTP_TOO_MANY_REQUESTS = 429;
+
+	private static HttpFetcher instance;
+
+	private final Map<String,HostLimit> hostLimits = new HashMap<String,HostLimit>();
+	private final Random random = new Random();
+
+	private int maxConcurrent = DEFAULT_MAX_CONCURRENT;
+	private double requestsPerSecond = DEFAULT_REQUESTS_PER_SECOND;
+	private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+	private long backoff = DEFAULT_BACKOFF;
+	private long maxBackoff = DEFAULT_MAX_BACKOFF;
+	private int connectTimeout = WebFileInputStream.DEFAULT_TIMEOUT;
+	private int readTimeout = WebFileInputStream.DEFAULT_TIMEOUT;
+	private final String userAgent = WebFileInputStream.DEFAULT_USER_AGENT;
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong retries = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+	private final AtomicLong notModified = new AtomicLong();
+	private final AtomicLong bytes = new AtomicLong();
+	private final AtomicLong time = new AtomicLong();
+
+	/**
+	 * The constructor. Most code should use the shared fetcher returned by {@link #getInstance()},
+	 * so that the limits apply to all the requests made to a host.
+	 */
+	public HttpFetcher() {
+	}
+
+	/**
+	 * Used to get the fetcher shared by the application
+	 * @return The fetcher
+	 */
+	public synchronized static HttpFetcher getInstance() {
+		if (instance==null) {
+			instance = new HttpFetcher();
+		}
+		return instance;
+	}
+
+	/**
+	 * Used to set the default limits of requests made to a host
+	 * @param maxConcurrent The maximum number of requests to a host at the same time
+	 * @param requestsPerSecond The maximum number of requests a second to a host
+	 */
+	public synchronized void setDefaultHostLimits(int maxConcurrent,double requestsPerSecond) {
+		this.maxConcurrent = maxConcurrent;
+		this.requestsPerSecond = requestsPerSecond;
+	}
+
+	/**
+	 * Used to set the limits of requests made to a given host
+	 * @param host The host name
+	 * @param maxConcurrent The maximum number of requests to the host at the same time
+	 * @param requestsPerSecond The maximum number of requests a second to the host
+	 */
+	public synchronized void setHostLimits(String host,int maxConcurrent,double requestsPerSecond) {
+		hostLimits.put(host.toLowerCase(), new HostLimit(maxConcurrent, requestsPerSecond));
+	}
+
+	/**
+	 * Used to set how failed requests are retried
+	 * @param maxAttempts The number of times a request is tried
+	 * @param backoff The delay before the first retry in milliseconds, this doubles for each retry
+	 * @param maxBackoff The maximum delay before a retry in milliseconds
+	 */
+	public synchronized void setRetries(int maxAttempts,long backoff,long maxBackoff) {
+		this.maxAttempts = maxAttempts;
+		this.backoff = backoff;
+		this.maxBackoff = maxBackoff;
+	}
+
+	/**
+	 * Used to set the timeouts of requests
+	 * @param connectTimeout The connect timeout in milliseconds
+	 * @param readTimeout The read timeout in milliseconds
+	 */
+	public synchronized void setTimeouts(int connectTimeout,int readTimeout) {
+		this.connectTimeout = connectTimeout;
+		this.readTimeout = readTimeout;
+	}
+
+	/**
+	 * Used to get a stream to the contents of a URL. If the URL has a expired entry in
+	 * the {@link HttpCache}, then the validators of the entry are sent with the request
+	 * and the returned stream may be marked as not modified.
+	 * @param url The URL
+	 * @return The stream
+	 * @throws IOException Thrown if the contents could not be fetched
+	 */
+	public Stream getStream(URL url) throws IOException {
+		HostLimit limit = getHostLimit(url.getHost());
+		Map<String,String> validators = getCacheValidators(url);
+		IOException error = null;
+		int attempts;
+		synchronized (this) {
+			attempts = maxAttempts;
+		}
+		for (int attempt=0;attempt<attempts;attempt++) {
+			if (attempt>0) {
+				retries.incrementAndGet();
+				sleep(getBackoff(attempt-1));
+			}
+			try {
+				return fetch(url,limit,validators);
+			}
+			catch (SocketTimeoutException e) {
+				log.warn(MessageFormat.format(Messages.getString("FileHelper.Timedout"),url.toExternalForm())); //$NON-NLS-1$
+				error = e;
+			}
+			catch (ConnectException e) {
+				log.warn(MessageFormat.format(Messages.getString("FileHelper.UnableFetch1"),url.toExternalForm())); //$NON-NLS-1$
+				error = e;
+			}
+			catch (HttpResponseError e) {
+				if (!isRetryable(e.getStatusCode())) {
+					failures.incrementAndGet();
+					throw e;
+				}
+				log.warn(MessageFormat.format(Messages.getString("HttpFetcher.ServerBusy"),url.toExternalForm(),e.getStatusCode())); //$NON-NLS-1$
+				error = e;
+			}
+		}
+		failures.incrementAndGet();
+		throw error;
+	}
+
+	private Stream fetch(URL url,HostLimit limit,Map<String,String> validators) throws IOException {
+		limit.acquire();
+		try {
+			long start = System.nanoTime();
+			requests.incrementAndGet();
+			int connect;
+			int read;
+			synchronized (this) {
+				connect = connectTimeout;
+				read = readTimeout;
+			}
+			WebFileInputStream is = new WebFileInputStream(url,userAgent,validators,connect,read);
+			byte data[];
+			try {
+				data = is.isNotModified() ? new byte[0] : readAll(is);
+			}
+			finally {
+				is.close();
+			}
+			long duration = System.nanoTime()-start;
+			bytes.addAndGet(data.length);
+			time.addAndGet(duration);
+			if (is.isNotModified()) {
+				notModified.incrementAndGet();
+			}
+			if (log.isDebugEnabled()) {
+				log.debug("Fetched "+url.toExternalForm()+" ("+is.getResponseCode()+", "+data.length+" bytes) in "+(duration/1000000)+"ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			}
+
+			String mime = is.getMIMEType();
+			InputStream content = new ByteArrayInputStream(data);
+			Stream stream;
+			if (is.isNotModified()) {
+				stream = new Stream(content,mime,is.getCharset(),url.toExternalForm(),url);
+				stream.setNotModified(true);
+			}
+			else if ("application/zip".equals(mime)) { //$NON-NLS-1$
+				stream = new Stream(new ZipInputStream(content),mime,is.getCharset(),url.toExternalForm(),url);
+			}
+			else {
+				stream = new Stream(content,mime,is.getCharset(),url.toExternalForm(),url);
+			}
+			stream.setValidators(is.getETag(), is.getLastModified());
+			return stream;
+		}
+		finally {
+			limit.release();
+		}
+	}
+
+	private static byte[] readAll(InputStream is) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte buffer[] = new byte[8192];
+		int len;
+		while ((len=is.read(buffer))!=-1) {
+			out.write(buffer,0,len);
+		}
+		return out.toByteArray();
+	}
+
+	private boolean isRetryable(int statusCode) {
+		return statusCode==HTTP_TOO_MANY_REQUESTS || statusCode==503 || statusCode==502 || statusCode==504;
+	}
+
+	/**
+	 * Used to get the delay before a retry. This is doubled for each attempt, and a random
+	 * amount of up to half the delay is taken off it.
+	 * @param attempt The number of retries that have already been made
+	 * @return The delay in milliseconds
+	 */
+	public synchronized long getBackoff(int attempt) {
+		long delay = Math.min(maxBackoff, backoff<<Math.min(attempt, 30));
+		long half = delay/2;
+		return delay-half+(long)(random.nextDouble()*half);
+	}
+
+	/**
+	 * Used to wait before retrying something that has failed
+	 * @param attempt The number of retries that have already been made
+	 */
+	public void sleepBeforeRetry(int attempt) {
+		sleep(getBackoff(attempt));
+	}
+
+	private static void sleep(long delay) {
+		if (delay<=0) {
+			return;
+		}
+		try {
+			Thread.sleep(delay);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private synchronized HostLimit getHostLimit(String host) {
+		String key = host==null ? "" : host.toLowerCase(); //$NON-NLS-1$
+		HostLimit limit = hostLimits.get(key);
+		if (limit==null) {
+			limit = new HostLimit(maxConcurrent, requestsPerSecond);
+			hostLimits.put(key, limit);
+		}
+		return limit;
+	}
+
+	/**
+	 * If the URL has a expired entry in the {@link HttpCache}, then the validators of the entry
+	 * are sent with the request so that the server can tell us if it has changed.
+	 */
+	private static Map<String,String> getCacheValidators(URL url) {
+		HttpCacheEntry entry = HttpCache.getInstance().getEntry(url.toExternalForm());
+		if (entry==null || !entry.hasValidators()) {
+			return null;
+		}
+		Map<String,String> requestProperties = new HashMap<String,String>();
+		if (entry.getETag()!=null) {
+			requestProperties.put("If-None-Match", entry.getETag()); //$NON-NLS-1$
+		}
+		if (entry.getLastModified()!=null) {
+			requestProperties.put("If-Modified-Since", entry.getLastModified()); //$NON-NLS-1$
+		}
+		return requestProperties;
+	}
+
+	/**
+	 * Used to get the number of requests that have been sent, including retries
+	 * @return The number of requests
+	 */
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	/**
+	 * Used to get the number of times a request was retried
+	 * @return The number of retries
+	 */
+	public long getRetryCount() {
+		return retries.get();
+	}
+
+	/**
+	 * Used to get the number of URL's that could not be fetched
+	 * @return The number of failures
+	 */
+	public long getFailureCount() {
+		return failures.get();
+	}
+
+	/**
+	 * Used to get the number of requests where the server said the contents had not changed
+	 * @return The number of not modified responses
+	 */
+	public long getNotModifiedCount() {
+		return notModified.get();
+	}
+
+	/**
+	 * Used to get the number of bytes that have been read, after they are uncompressed
+	 * @return The number of bytes
+	 */
+	public long getBytesRead() {
+		return bytes.get();
+	}
+
+	/**
+	 * Used to get the total time spent on successful requests
+	 * @return The time in nanoseconds
+	 */
+	public long getTotalTime() {
+		return time.get();
+	}
+
+	/**
+	 * The limits of requests to a single host. The number of requests at the same time is
+	 * limited by a semaphore. The rate is limited by a token bucket that holds up to one
+	 * second of requests, tokens that have not been added yet can be reserved by waiting
+	 * until they are added.
+	 */
+	private static class HostLimit {
+		private final Semaphore permits;
+		private final double rate;
+		private final double capacity;
+		private double tokens;
+		private long lastRefill;
+
+		HostLimit(int maxConcurrent,double requestsPerSecond) {
+			permits = new Semaphore(Math.max(1, maxConcurrent),true);
+			rate = requestsPerSecond;
+			capacity = Math.max(1, requestsPerSecond);
+			tokens = capacity;
+			lastRefill = System.nanoTime();
+		}
+
+		void acquire() {
+			permits.acquireUninterruptibly();
+			if (rate>0) {
+				sleep(reserve());
+			}
+		}
+
+		void release() {
+			permits.release();
+		}
+
+		private synchronized long reserve() {
+			long now = System.nanoTime();
+			tokens = Math.min(capacity, tokens+((now-lastRefill)/1000000000.0)*rate);
+			lastRefill = now;
+			tokens-=1;
+			if (tokens>=0) {
+				return 0;
+			}
+			return (long)Math.ceil(-tokens/rate*1000);
+		}
+	}
+}
@@ -0,0 +1,291 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.util;
+
+import java.io.File;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.regex.Pattern;
+
+import org.stanwood.media.logging.StanwoodException;
+
+/**
+ * This class is used to find the media files and directories within a directory tree. The
+ * tree is walked once, and each directory is only listed once. Files are matched against
+ * a set of extensions and a list of ignore patterns. If a ignore pattern matches the path
+ * of a directory (with a trailing separator), then none of the files below that directory
+ * are returned, although the directories are still returned.
+ *
+ * On slow file systems, such as network mounts, the directories can be listed by more than
+ * one thread at a time.
+ */
+public class MediaScanner {
+
+	private final Set<String> extensions;
+	private final List<Pattern> ignorePatterns;
+	private final int threads;
+
+	private List<File> files;
+	private List<File> directories;
+
+	/**
+	 * The constructor
+	 * @param extensions The extensions of the files to find, or null to find all files. Extensions are not case sensitive.
+	 * @param ignorePatterns Patterns of file paths that should be ignored, or null if no files are ignored
+	 * @param threads The number of threads used to list directories, a value of 1 means the tree is walked by the calling thread
+	 */
+	public MediaScanner(Collection<String> extensions,List<Pattern> ignorePatterns,int threads) {
+		if (extensions!=null) {
+			this.extensions = new HashSet<String>();
+			for (String ext : extensions) {
+				this.extensions.add(ext.toLowerCase(Locale.ENGLISH));
+			}
+		}
+		else {
+			this.extensions = null;
+		}
+		if (ignorePatterns!=null) {
+			this.ignorePatterns = ignorePatterns;
+		}
+		else {
+			this.ignorePatterns = Collections.emptyList();
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Used to scan a directory tree. The results can be got from {@link #getFiles()} and
+	 * {@link #getDirectories()}.
+	 * @param root The directory at the root of the tree
+	 * @throws StanwoodException Thrown if the thread was interrupted before the scan finished
+	 */
+	public void scan(File root) throws StanwoodException {
+		files = new ArrayList<File>();
+		directories = new ArrayList<File>();
+		if (threads>1) {
+			try {
+				scanParallel(root);
+			}
+			catch (InterruptedException e) {
+				files = null;
+				directories = null;
+				Thread.currentThread().interrupt();
+				throw new StanwoodException(MessageFormat.format(Messages.getString("MediaScanner.Interrupted"),root),e); //$NON-NLS-1$
+			}
+		}
+		else {
+			scan(new DirectoryListing(root,isIgnoredDir(root)));
+		}
+		sortResults();
+	}
+
+	/**
+	 * Used to scan a directory tree using only the calling thread, which can't be interrupted
+	 * @param root The directory at the root of the tree
+	 */
+	void scanOnCallingThread(File root) {
+		files = new ArrayList<File>();
+		directories = new ArrayList<File>();
+		scan(new DirectoryListing(root,isIgnoredDir(root)));
+		sortResults();
+	}
+
+	private void sortResults() {
+		Collections.sort(files);
+		// Sort in reverse order so that sub directories come before their parent directories
+		Collections.sort(directories,Collections.reverseOrder());
+	}
+
+	private void scan(DirectoryListing listing) {
+		listing.list();
+		files.addAll(listing.files);
+		for (DirectoryListing subDir : listing.subDirs) {
+			directories.add(subDir.dir);
+			scan(subDir);
+		}
+	}
+
+	private void scanParallel(File root) throws InterruptedException {
+		ExecutorService threadPool = Executors.newFixedThreadPool(threads,new ThreadFactory() {
+			private int count = 0;
+			@Override
+			public synchronized Thread newThread(Runnable r) {
+				Thread thread = new Thread(r,"MediaScanner-"+(++count)); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			CompletionService<DirectoryListing> completion = new ExecutorCompletionService<DirectoryListing>(threadPool);
+			completion.submit(new DirectoryListing(root,isIgnoredDir(root)));
+			int outstanding = 1;
+			while (outstanding>0) {
+				DirectoryListing listing = getListing(completion.take());
+				outstanding--;
+				files.addAll(listing.files);
+				for (DirectoryListing subDir : listing.subDirs) {
+					directories.add(subDir.dir);
+					completion.submit(subDir);
+					outstanding++;
+				}
+			}
+		}
+		finally {
+			threadPool.shutdownNow();
+		}
+	}
+
+	private DirectoryListing getListing(Future<DirectoryListing> future) throws InterruptedException {
+		try {
+			return future.get();
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * Used to get the files found by the last scan, sorted by their path
+	 * @return The files
+	 */
+	public List<File> getFiles() {
+		return files;
+	}
+
+	/**
+	 * Used to get the directories found below the root directory by the last scan. They
+	 * are sorted so that sub directories come before their parent directories.
+	 * @return The directories
+	 */
+	public List<File> getDirectories() {
+		return directories;
+	}
+
+	/**
+	 * Used to check if a directory tree contains any matching files. The tree is only walked
+	 * until the first file is found.
+	 * @param dir The directory
+	 * @return True if the directory contains a matching file
+	 */
+	public boolean containsFiles(File dir) {
+		return containsFiles(new DirectoryListing(dir,isIgnoredDir(dir)));
+	}
+
+	private boolean containsFiles(DirectoryListing listing) {
+		listing.list();
+		if (!listing.files.isEmpty()) {
+			return true;
+		}
+		for (DirectoryListing subDir : listing.subDirs) {
+			if (!subDir.ignored && containsFiles(subDir)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Used to check if a file matches the extensions and is not ignored
+	 * @param file The file
+	 * @return True if it matches
+	 */
+	public boolean matches(File file) {
+		return hasExtension(file.getName()) && !isIgnored(file.getAbsolutePath());
+	}
+
+	private boolean hasExtension(String name) {
+		if (extensions==null) {
+			return true;
+		}
+		int pos = name.indexOf('.');
+		while (pos!=-1) {
+			if (extensions.contains(name.substring(pos+1).toLowerCase(Locale.ENGLISH))) {
+				return true;
+			}
+			pos = name.indexOf('.',pos+1);
+		}
+		return false;
+	}
+
+	private boolean isIgnored(String path) {
+		for (Pattern p : ignorePatterns) {
+			if (p.matcher(path).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isIgnoredDir(File dir) {
+		return !ignorePatterns.isEmpty() && isIgnored(dir.getAbsolutePath()+File.separator);
+	}
+
+	/**
+	 * The contents of a single directory. This is filled in by {@link #list()}, which
+	 * can be called from any thread.
+	 */
+	private class DirectoryListing implements Callable<DirectoryListing> {
+
+		private final File dir;
+		private final boolean ignored;
+		private final List<File> files = new ArrayList<File>();
+		private final List<DirectoryListing> subDirs = new ArrayList<DirectoryListing>();
+
+		public DirectoryListing(File dir,boolean ignored) {
+			this.dir = dir;
+			this.ignored = ignored;
+		}
+
+		public void list() {
+			File children[] = dir.listFiles();
+			if (children==null) {
+				return;
+			}
+			for (File child : children) {
+				if (child.isDirectory()) {
+					subDirs.add(new DirectoryListing(child,ignored || isIgnoredDir(child)));
+				}
+				else if (!ignored && hasExtension(child.getName()) && child.isFile() && !isIgnored(child.getAbsolutePath())) {
+					files.add(child);
+				}
+			}
+		}
+
+		@Override
+		public DirectoryListing call() {
+			list();
+			return this;
+		}
+	}
+}
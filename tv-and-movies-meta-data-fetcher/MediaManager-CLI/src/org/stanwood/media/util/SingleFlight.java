@@ -0,0 +1,145 @@
+/*
+ *  Copyright (C) 2008-2013  John-Paul.Stanford <dev@stanwood.org.uk>
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.stanwood.media.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is used to make sure that only one load of a resource is in progress at a time. If a
+ * load of a key is requested while another thread is already loading the same key, then it waits
+ * for that load to finish and gets the same result, or the same exception. Once a load is
+ * finished the key is forgotten, so results should also be cached elsewhere for later requests.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the loaded values
+ */
+public class SingleFlight<K,V> {
+
+	/**
+	 * Used to load a value
+	 * @param <V> The type of the value
+	 * @param <E> The type of exception thrown by the loader
+	 */
+	public interface Loader<V,E extends Exception> {
+		/**
+		 * Called to load the value
+		 * @return The value
+		 * @throws E Thrown if their is a problem loading the value
+		 */
+		public V load() throws E;
+	}
+
+	private final Map<K,FutureTask<V>> calls = new HashMap<K,FutureTask<V>>();
+	private final AtomicLong loads = new AtomicLong();
+	private final AtomicLong shared = new AtomicLong();
+
+	/**
+	 * Used to load a value, or wait for a load of the same key that is already in progress
+	 * @param <E> The type of exception thrown by the loader
+	 * @param key The key of the value
+	 * @param loader Used to load the value if a load of the key is not in progress
+	 * @return The value
+	 * @throws E Thrown if the load failed
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends Exception> V load(K key,final Loader<V,E> loader) throws E {
+		FutureTask<V> task;
+		boolean owner = false;
+		synchronized (calls) {
+			task = calls.get(key);
+			if (task==null) {
+				task = new FutureTask<V>(new Callable<V>() {
+					@Override
+					public V call() throws Exception {
+						return loader.load();
+					}
+				});
+				calls.put(key, task);
+				owner = true;
+			}
+		}
+		if (owner) {
+			loads.incrementAndGet();
+			try {
+				task.run();
+			}
+			finally {
+				synchronized (calls) {
+					calls.remove(key);
+				}
+			}
+		}
+		else {
+			shared.incrementAndGet();
+		}
+
+		try {
+			return getResult(task);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException)cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error)cause;
+			}
+			throw (E)cause;
+		}
+	}
+
+	private V getResult(FutureTask<V> task) throws ExecutionException {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return task.get();
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Used to get the number of loads that have been performed
+	 * @return The number of loads
+	 */
+	public long getLoadCount() {
+		return loads.get();
+	}
+
+	/**
+	 * Used to get the number of requests that used the result of a load made by another thread,
+	 * instead of loading the value again
+	 * @return The number of loads that were saved
+	 */
+	public long getSharedCount() {
+		return shared.get();
+	}
+}
@@ -14,6 +14,9 @@ public class Stream {
 	private String charset;
 	private String cacheKey;
 	private URL url;
+	private String eTag;
+	private String lastModified;
+	private boolean notModified;
 
 	/**
 	 * The constructor
@@ -31,6 +34,50 @@ public class Stream {
 		this.url = url;
 	}
 
+	/**
+	 * Used to set the HTTP cache validators sent by the server with the stream
+	 * @param eTag The ETag header, or null if it was not sent
+	 * @param lastModified The Last-Modified header, or null if it was not sent
+	 */
+	public void setValidators(String eTag,String lastModified) {
+		this.eTag = eTag;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Used to get the ETag header sent by the server
+	 * @return The ETag header, or null if it was not sent
+	 */
+	public String getETag() {
+		return eTag;
+	}
+
+	/**
+	 * Used to get the Last-Modified header sent by the server
+	 * @return The Last-Modified header, or null if it was not sent
+	 */
+	public String getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Used to set if the server said the contents have not changed since they were cached.
+	 * @param notModified True if the contents have not changed
+	 */
+	public void setNotModified(boolean notModified) {
+		this.notModified = notModified;
+	}
+
+	/**
+	 * Used to find out if the server said the contents have not changed since they were
+	 * cached in the {@link HttpCache}. If this is the case, the input stream is empty and
+	 * the cached contents should be used.
+	 * @return True if the contents have not changed
+	 */
+	public boolean isNotModified() {
+		return notModified;
+	}
+
 	/**
 	 * Used to get the mime type of the stream
 	 * @return the mime type of the stream
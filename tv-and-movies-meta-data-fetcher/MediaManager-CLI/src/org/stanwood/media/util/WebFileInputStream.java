@@ -1,9 +1,14 @@
 package org.stanwood.media.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.text.MessageFormat;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -13,7 +18,11 @@ import org.apache.commons.logging.LogFactory;
  */
 public class WebFileInputStream extends InputStream {
 
-	private final static String DEFAULT_USER_AGENT = "MediaManager"; //$NON-NLS-1$
+	/** The default user agent */
+	public final static String DEFAULT_USER_AGENT = "MediaManager"; //$NON-NLS-1$
+
+	/** The default connect and read timeout in milliseconds */
+	public final static int DEFAULT_TIMEOUT = 10000;
 
 	private final static Log log = LogFactory.getLog(WebFileInputStream.class);
 
@@ -24,6 +33,8 @@ public class WebFileInputStream extends InputStream {
 	private String charset = "ISO-8859-1"; //$NON-NLS-1$
 
 	private InputStream content;
+	private String eTag;
+	private String lastModified;
 
 	/**
 	 * Open a web file. Uses a default user agent string.
@@ -43,6 +54,37 @@ public class WebFileInputStream extends InputStream {
 	 * @throws IOException Thrown if their is a problem fetching the web file
 	 */
 	public WebFileInputStream(URL url,String userAgent) throws IOException {
+		this (url,userAgent,null);
+	}
+
+	/**
+	 * Open a web file. If the request properties contain HTTP cache validators, then
+	 * the server can respond with the code 304 (not modified). In this case the
+	 * stream will be empty.
+	 *
+	 * @param url The URL of the file to open
+	 * @param userAgent The user agent to use when access web resources
+	 * @param requestProperties Extra request properties to send with the request, or null if there are none
+	 * @throws IOException Thrown if their is a problem fetching the web file
+	 */
+	public WebFileInputStream(URL url,String userAgent,Map<String,String> requestProperties) throws IOException {
+		this(url,userAgent,requestProperties,DEFAULT_TIMEOUT,DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Open a web file. If the request properties contain HTTP cache validators, then
+	 * the server can respond with the code 304 (not modified). In this case the
+	 * stream will be empty. The server is told it can compress the response with gzip,
+	 * this is transparently uncompressed when the stream is read.
+	 *
+	 * @param url The URL of the file to open
+	 * @param userAgent The user agent to use when access web resources
+	 * @param requestProperties Extra request properties to send with the request, or null if there are none
+	 * @param connectTimeout The connect timeout in milliseconds
+	 * @param readTimeout The read timeout in milliseconds
+	 * @throws IOException Thrown if their is a problem fetching the web file
+	 */
+	public WebFileInputStream(URL url,String userAgent,Map<String,String> requestProperties,int connectTimeout,int readTimeout) throws IOException {
 		// Open a URL connection.
 		final java.net.URLConnection uconn = url.openConnection();
 		if (!(uconn instanceof java.net.HttpURLConnection)) {
@@ -51,10 +93,16 @@ public class WebFileInputStream extends InputStream {
 		final java.net.HttpURLConnection conn = (java.net.HttpURLConnection) uconn;
 
 		// Set up a request.
-		conn.setConnectTimeout(10000); // 10 sec
-		conn.setReadTimeout(10000); // 10 sec
+		conn.setConnectTimeout(connectTimeout);
+		conn.setReadTimeout(readTimeout);
 		conn.setInstanceFollowRedirects(true);
 		conn.setRequestProperty("User-agent", userAgent); //$NON-NLS-1$
+		conn.setRequestProperty("Accept-Encoding", "gzip"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (requestProperties!=null) {
+			for (Entry<String,String> e : requestProperties.entrySet()) {
+				conn.setRequestProperty(e.getKey(), e.getValue());
+			}
+		}
 
 		// Send the request.
 		conn.connect();
@@ -76,6 +124,14 @@ public class WebFileInputStream extends InputStream {
 			}
 		}
 
+		eTag = conn.getHeaderField("ETag"); //$NON-NLS-1$
+		lastModified = conn.getHeaderField("Last-Modified"); //$NON-NLS-1$
+
+		if (responseCode==HttpURLConnection.HTTP_NOT_MODIFIED) {
+			content = new ByteArrayInputStream(new byte[0]);
+			return;
+		}
+
 		if (responseCode!=200) {
 			String errorData = getErrors(conn);
 			if (log.isDebugEnabled()) {
@@ -96,6 +152,11 @@ public class WebFileInputStream extends InputStream {
 			}
 		}
 
+		if ("gzip".equalsIgnoreCase(conn.getContentEncoding())) { //$NON-NLS-1$
+			content = new GZIPInputStream(conn.getInputStream());
+			return;
+		}
+
 		Object c = conn.getContent();
 //		conn.getInputStream()
 		if (c instanceof InputStream) {
@@ -114,6 +175,9 @@ public class WebFileInputStream extends InputStream {
 
 	private String getErrors(java.net.HttpURLConnection conn) throws IOException {
 		java.io.InputStream stream = conn.getErrorStream();
+		if (stream!=null && "gzip".equalsIgnoreCase(conn.getContentEncoding())) { //$NON-NLS-1$
+			stream = new GZIPInputStream(stream);
+		}
 		return FileHelper.readFileContents(stream);
 	}
 
@@ -141,6 +205,30 @@ public class WebFileInputStream extends InputStream {
 		return charset;
 	}
 
+	/**
+	 * Used to find out if the server said the file has not been modified
+	 * @return True if the server returned the code 304 (not modified)
+	 */
+	public boolean isNotModified() {
+		return responseCode==HttpURLConnection.HTTP_NOT_MODIFIED;
+	}
+
+	/**
+	 * Used to get the ETag header sent by the server
+	 * @return The ETag header, or null if it was not sent
+	 */
+	public String getETag() {
+		return eTag;
+	}
+
+	/**
+	 * Used to get the Last-Modified header sent by the server
+	 * @return The Last-Modified header, or null if it was not sent
+	 */
+	public String getLastModified() {
+		return lastModified;
+	}
+
 	/**
 	 * Get the MIME type.
 	 * @return The MIME type
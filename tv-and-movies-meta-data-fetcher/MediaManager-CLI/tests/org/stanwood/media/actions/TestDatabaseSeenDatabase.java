@@ -2,6 +2,9 @@ package org.stanwood.media.actions;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import junit.framework.Assert;
 
@@ -112,6 +115,46 @@ public class TestDatabaseSeenDatabase {
 		}
 	}
 
+	/**
+	 * Used to test that groups of files can be marked and checked, and that renamed
+	 * files are still seen
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testBulkAndRename() throws Exception {
+		File mediaDir = FileHelper.createTmpDir("config");
+		File dbFile = FileHelper.createTempFile("mediaInfo","db"); //$NON-NLS-1$
+		DBResource resource = createDBResource(dbFile);
+		try {
+			ISeenDatabase db =  new DatabaseSeenDatabase(resource);
+
+			List<File> files = new ArrayList<File>();
+			for (int i=0;i<1200;i++) {
+				files.add(createFile(mediaDir,"test"+i+".avi"));
+			}
+			db.markAsSeen(mediaDir,files.subList(0, 1100));
+			db.markAsSeen(mediaDir,files.subList(1000, 1100));
+
+			Set<File> seen = db.getSeenFiles(mediaDir, files);
+			Assert.assertEquals(1100,seen.size());
+			Assert.assertTrue(seen.contains(files.get(0)));
+			Assert.assertTrue(seen.contains(files.get(1099)));
+			Assert.assertFalse(seen.contains(files.get(1100)));
+			Assert.assertEquals(1100,((DatabaseSeenDatabase)db).numberOfEntries());
+
+			File oldFile = files.get(0);
+			File newFile = new File(mediaDir,"renamed.avi");
+			Assert.assertTrue(oldFile.renameTo(newFile));
+			db.renamedFile(mediaDir, oldFile, newFile);
+			Assert.assertTrue(db.isSeen(mediaDir, newFile));
+			Assert.assertFalse(db.isSeen(mediaDir, oldFile));
+		}
+		finally {
+			FileHelper.delete(mediaDir);
+			FileHelper.delete(dbFile);
+		}
+	}
+
 	private File createFile(File mediaDir, String name) throws IOException {
 		File file = new File(mediaDir,name);
 		if (!file.createNewFile() && !file.exists()) {
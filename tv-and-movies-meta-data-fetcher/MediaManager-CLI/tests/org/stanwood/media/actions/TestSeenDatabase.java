@@ -2,6 +2,7 @@ package org.stanwood.media.actions;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 
 import junit.framework.Assert;
 
@@ -102,6 +103,91 @@ public class TestSeenDatabase {
 		}
 	}
 
+	/**
+	 * Used to test that changes made after the database has been written are appended
+	 * to the journal, and that the journal is applied when the database is read
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testJournal() throws Exception {
+		File configDir = FileHelper.createTmpDir("config");
+		File mediaDir = FileHelper.createTmpDir("config");
+		try {
+			FileSeenDatabase db = new FileSeenDatabase(configDir);
+			File test1 = createFile(mediaDir,"test1.avi");
+			File test2 = createFile(mediaDir,"test\t2.avi");
+			File test3 = createFile(mediaDir,"test3.avi");
+			db.markAsSeen(mediaDir,test1);
+			db.markAsSeen(mediaDir,test2);
+			db.write(new NullProgressMonitor());
+			File journalFile = new File(configDir,"seenFiles.journal");
+			Assert.assertTrue(new File(configDir,"seenFiles.xml").exists());
+			Assert.assertFalse(journalFile.exists());
+
+			db.removeFile(mediaDir, test1);
+			db.markAsSeen(mediaDir,test3);
+			db.write(new NullProgressMonitor());
+			Assert.assertTrue(journalFile.exists());
+			db = new FileSeenDatabase(configDir);
+			db.read(new NullProgressMonitor());
+			Assert.assertFalse(db.isSeen(mediaDir, test1));
+			Assert.assertTrue(db.isSeen(mediaDir, test2));
+			Assert.assertTrue(db.isSeen(mediaDir, test3));
+			Assert.assertEquals(2,db.getEntries().size());
+		}
+		finally {
+			FileHelper.delete(configDir);
+			FileHelper.delete(mediaDir);
+		}
+	}
+
+	/**
+	 * Used to test that a journal record that was only partly written is ignored, and that
+	 * records appended after it are still read
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testPartialJournalRecord() throws Exception {
+		File configDir = FileHelper.createTmpDir("config");
+		File mediaDir = FileHelper.createTmpDir("config");
+		try {
+			FileSeenDatabase db = new FileSeenDatabase(configDir);
+			File test1 = createFile(mediaDir,"test1.avi");
+			File test2 = createFile(mediaDir,"test2.avi");
+			File test3 = createFile(mediaDir,"test3.avi");
+			db.markAsSeen(mediaDir,test1);
+			db.write(new NullProgressMonitor());
+
+			db.markAsSeen(mediaDir,test2);
+			db.write(new NullProgressMonitor());
+			File journalFile = new File(configDir,"seenFiles.journal");
+			RandomAccessFile raf = new RandomAccessFile(journalFile,"rw");
+			try {
+				raf.setLength(raf.length()-4);
+			}
+			finally {
+				raf.close();
+			}
+
+			db = new FileSeenDatabase(configDir);
+			db.read(new NullProgressMonitor());
+			Assert.assertTrue(db.isSeen(mediaDir, test1));
+			Assert.assertFalse(db.isSeen(mediaDir, test2));
+
+			db.markAsSeen(mediaDir,test3);
+			db.write(new NullProgressMonitor());
+			db = new FileSeenDatabase(configDir);
+			db.read(new NullProgressMonitor());
+			Assert.assertTrue(db.isSeen(mediaDir, test1));
+			Assert.assertFalse(db.isSeen(mediaDir, test2));
+			Assert.assertTrue(db.isSeen(mediaDir, test3));
+		}
+		finally {
+			FileHelper.delete(configDir);
+			FileHelper.delete(mediaDir);
+		}
+	}
+
 	private File createFile(File mediaDir, String name) throws IOException {
 		File file = new File(mediaDir,name);
 		if (!file.createNewFile() && !file.exists()) {
@@ -0,0 +1,95 @@
+package org.stanwood.media.actions.rename;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.stanwood.media.search.TestFilmSearcher;
+
+/**
+ * This is not a unit test, it is a benchmark that compares the time taken to parse the
+ * file names of the show and film searcher tests with the {@link FileNameParser} and the
+ * regular expressions that were used before it. It can be run with:
+ * <pre>java org.stanwood.media.actions.rename.FileNameParserBenchmark [iterations]</pre>
+ */
+@SuppressWarnings("nls")
+public class FileNameParserBenchmark {
+
+	private final static int WARMUP = 2000;
+
+	/**
+	 * The main method of the benchmark
+	 * @param args The optional number of iterations, defaults to 20000
+	 * @throws Exception Thrown if their is a problem
+	 */
+	public static void main(String[] args) throws Exception {
+		int iterations = 20000;
+		if (args.length>0) {
+			iterations = Integer.parseInt(args[0]);
+		}
+		List<String> names = new ArrayList<String>();
+		readNames(names,"show-names.txt",true);
+		readNames(names,"test-film-names.txt",false);
+		System.out.println("Parsing "+names.size()+" file names");
+
+		for (int i=0;i<WARMUP;i++) {
+			parseRegex(names);
+			parseScanner(names);
+		}
+		long start = System.nanoTime();
+		for (int i=0;i<iterations;i++) {
+			parseRegex(names);
+		}
+		long regexTime = System.nanoTime()-start;
+		start = System.nanoTime();
+		for (int i=0;i<iterations;i++) {
+			parseScanner(names);
+		}
+		long scannerTime = System.nanoTime()-start;
+		long count = (long)iterations*names.size();
+		System.out.println("Regular expressions: "+(regexTime/count)+"ns per file name");
+		System.out.println("FileNameParser: "+(scannerTime/count)+"ns per file name");
+	}
+
+	private static int parseRegex(List<String> names) {
+		int found = 0;
+		for (String name : names) {
+			if (RegexFileNameParser.parse(name)!=null) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	private static int parseScanner(List<String> names) {
+		int found = 0;
+		for (String name : names) {
+			if (FileNameParser.parse(name)!=null) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	private static void readNames(List<String> names,String resource,boolean hasPattern) throws Exception {
+		InputStream is = TestFilmSearcher.class.getResourceAsStream(resource);
+		try {
+			BufferedReader br = new BufferedReader(new InputStreamReader(is));
+			String line;
+			while ((line = br.readLine())!=null) {
+				if (hasPattern) {
+					if (line.startsWith("#")) {
+						continue;
+					}
+					line = line.substring(line.indexOf(',')+1);
+				}
+				names.add(line.substring(line.lastIndexOf('/')+1));
+			}
+		}
+		finally {
+			is.close();
+		}
+	}
+}
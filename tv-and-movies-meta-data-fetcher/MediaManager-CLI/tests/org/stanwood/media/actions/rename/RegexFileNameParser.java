@@ -0,0 +1,97 @@
+package org.stanwood.media.actions.rename;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The regular expression based filename parsing that was used by the {@link FileNameParser}
+ * before the {@link FileNameScanner}. It is used to check the scanner gives the same results.
+ */
+@SuppressWarnings("nls")
+public class RegexFileNameParser {
+
+	private static String ONLY_EP_PATTERN="[e ]?[\\d]{2,2}";
+	private static String FULL_EP_PATTERN="s?[\\d]{1,2}"+ONLY_EP_PATTERN;
+	private static String SEP = "[\\&\\+\\.\\, \\-]";
+	private static String WHITE_SPACE = "[\\. ]*";
+
+	private static Pattern MULTI_PATTERNS[] = new Pattern[] {
+		Pattern.compile("(.*?)("+FULL_EP_PATTERN+")"+WHITE_SPACE+"("+SEP+")"+WHITE_SPACE+"("+FULL_EP_PATTERN+")(.*)",Pattern.CASE_INSENSITIVE ),
+		Pattern.compile("(.*?)("+FULL_EP_PATTERN+")"+WHITE_SPACE+"("+SEP+")"+WHITE_SPACE+"("+ONLY_EP_PATTERN+")(.*)",Pattern.CASE_INSENSITIVE ),
+	};
+
+	private static Pattern PATTERNS[] = new Pattern[] {
+		compile("(.*)[s]([\\d]+)[e]([\\d]+).*"),
+		compile("(.*)[s]([\\d]+)\\.[e]([\\d]+).*"),
+		compile("(.*?)([\\d]{1,2})\\D([\\d]{2,2}).*"),
+		compile("(.*)season"+WHITE_SPACE+"([\\d]{1,2})"+WHITE_SPACE+"episode"+WHITE_SPACE+"([\\d]{1,2}).*"),
+		compile("(.*)S([\\d]{1,2})"+WHITE_SPACE+"E([\\d]{2,2}).*"),
+		compile("^()([\\d]{2,2})([\\d]{2,2})"+WHITE_SPACE+".*"),
+		compile("^()([\\d]{1,1})([\\d]{2,2})"+WHITE_SPACE+".*"),
+		compile("(.*)[\\. ]([\\d]{2,2})([\\d]{2,2})[\\. ].*"),
+		compile("(.*)[\\. ]([\\d]{1,1})([\\d]{2,2})[\\. ].*")
+	};
+
+	private static Pattern compile(String pattern) {
+		return Pattern.compile(pattern,Pattern.CASE_INSENSITIVE);
+	}
+
+	/**
+	 * Parse the filename and work out the episode and season number
+	 * @param file The file name
+	 * @return The parsed information
+	 */
+	public static ParsedFileName parse(String file) {
+		for (Pattern multiPattern : MULTI_PATTERNS) {
+			Matcher multiMatcher = multiPattern.matcher(file);
+			if (multiMatcher.matches()) {
+				ParsedFileName result1 = matchSinglePattern(multiMatcher.group(2));
+				if (result1!=null) {
+					ParsedFileName result2 = matchSinglePattern(multiMatcher.group(4));
+					if (result2!=null && result1.getSeason()==result2.getSeason()) {
+						int endEp = result2.getEpisodes().get(0);
+						return FileNameParser.getMultiResult(result1, endEp,multiMatcher.group(3),multiMatcher.group(1),multiMatcher.group(5));
+					}
+					else if (isInteger(multiMatcher.group(4))) {
+						int endEp = Integer.valueOf(multiMatcher.group(4));
+						ParsedFileName result = FileNameParser.getMultiResult(result1, endEp,multiMatcher.group(3),multiMatcher.group(1),multiMatcher.group(5));
+						if (result!=null) {
+							return result;
+						}
+					}
+				}
+			}
+		}
+		return matchSinglePattern(file);
+	}
+
+	private static boolean isInteger(String value) {
+		try {
+			Integer.parseInt(value);
+		}
+		catch (NumberFormatException e) {
+			return false;
+		}
+		return true;
+	}
+
+	private static ParsedFileName matchSinglePattern(String text) {
+		for (Pattern singlePattern : PATTERNS) {
+			Matcher singleMatcher = singlePattern.matcher(text);
+			if (singleMatcher.matches()) {
+				ParsedFileName result = new ParsedFileName();
+				int seasonNumber = Integer.parseInt(singleMatcher.group(2));
+				int episodeNumber = Integer.parseInt(singleMatcher.group(3));
+				List<Integer>episodes = new ArrayList<Integer>();
+				episodes.add(episodeNumber);
+				result.setSeason(seasonNumber);
+				result.setEpisodes(episodes);
+				result.setTerm(singleMatcher.group(1));
+				return result;
+			}
+		}
+		return null;
+	}
+}
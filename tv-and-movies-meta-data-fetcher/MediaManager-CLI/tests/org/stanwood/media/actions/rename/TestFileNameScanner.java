@@ -0,0 +1,96 @@
+package org.stanwood.media.actions.rename;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.stanwood.media.search.TestFilmSearcher;
+
+/**
+ * Used to test that the {@link FileNameScanner} parses file names the same way as the
+ * regular expressions in {@link RegexFileNameParser}
+ */
+@SuppressWarnings("nls")
+public class TestFileNameScanner {
+
+	private final static String FRAGMENTS[] = new String[] {
+		"s","S","e","E","0","1","2","3","9","12","123","1234"," ",".","-","&","+",",","x","a",
+		"season","Episode","\n"," ","😀","ſ"
+	};
+
+	/**
+	 * Used to test the file names of the show and film searcher tests
+	 * @throws Exception Thrown if their are problems
+	 */
+	@Test
+	public void testTestFileNames() throws Exception {
+		List<String> names = readNames("show-names.txt",true);
+		names.addAll(readNames("test-film-names.txt",false));
+		for (String name : names) {
+			assertSameResult(name);
+			assertSameResult(name.replaceAll("\\.|_"," "));
+		}
+	}
+
+	/**
+	 * Used to test randomly generated file names
+	 */
+	@Test
+	public void testGeneratedFileNames() {
+		Random random = new Random(4321);
+		for (int i=0;i<20000;i++) {
+			StringBuilder name = new StringBuilder();
+			int count = random.nextInt(12);
+			for (int j=0;j<count;j++) {
+				name.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+			}
+			assertSameResult(name.toString());
+		}
+	}
+
+	private void assertSameResult(String name) {
+		String expected;
+		try {
+			expected = String.valueOf(RegexFileNameParser.parse(name));
+		}
+		catch (RuntimeException e) {
+			expected = e.getClass().getName();
+		}
+		String actual;
+		try {
+			actual = String.valueOf(FileNameParser.parse(name));
+		}
+		catch (RuntimeException e) {
+			actual = e.getClass().getName();
+		}
+		Assert.assertEquals("Parsing: "+name,expected,actual);
+	}
+
+	private List<String> readNames(String resource,boolean hasPattern) throws IOException {
+		List<String> names = new ArrayList<String>();
+		InputStream is = TestFilmSearcher.class.getResourceAsStream(resource);
+		try {
+			BufferedReader br = new BufferedReader(new InputStreamReader(is));
+			String line;
+			while ((line = br.readLine())!=null) {
+				if (hasPattern) {
+					if (line.startsWith("#")) {
+						continue;
+					}
+					line = line.substring(line.indexOf(',')+1);
+				}
+				names.add(line.substring(line.lastIndexOf('/')+1));
+			}
+		}
+		finally {
+			is.close();
+		}
+		return names;
+	}
+}
@@ -0,0 +1,81 @@
+package org.stanwood.media.actions.rename;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Used to test the {@link RenamePattern} class
+ */
+@SuppressWarnings("nls")
+public class TestRenamePattern {
+
+	/**
+	 * Used to test that file names are created from the pattern
+	 * @throws Exception Thrown if their are problems
+	 */
+	@Test
+	public void testFormat() throws Exception {
+		RenamePattern pattern = RenamePattern.compile("%n/Season %s/%s %e{ to %f} - %t{ %d}.%x");
+		Assert.assertSame(pattern,RenamePattern.compile("%n/Season %s/%s %e{ to %f} - %t{ %d}.%x"));
+
+		final Map<Token,String> values = new HashMap<Token,String>();
+		values.put(Token.SHOW_NAME, "Heroes");
+		values.put(Token.SEASON, "1");
+		values.put(Token.EPISODE, "02");
+		values.put(Token.TITLE, "Cost $1 & 100%");
+		values.put(Token.EXT, "avi");
+		RenamePattern.ValueProvider provider = new RenamePattern.ValueProvider() {
+			@Override
+			public String getValue(Token token) {
+				return values.get(token);
+			}
+		};
+		Assert.assertEquals("Heroes/Season 1/1 02 - Cost $1 & 100%.avi",pattern.format(provider));
+		values.put(Token.EPISODE_MAX, "03");
+		values.put(Token.HIGH_DEFINITION, "HD");
+		Assert.assertEquals("Heroes/Season 1/1 02 to 03 - Cost $1 & 100% HD.avi",pattern.format(provider));
+
+		Assert.assertEquals("%t 50% %y.avi",RenamePattern.compile("%%t 50% %y.%x").format(provider));
+	}
+
+	/**
+	 * Used to test that a pattern with mismatched braces can't be formatted
+	 */
+	@Test
+	public void testMismatchedBraces() {
+		try {
+			RenamePattern.compile("%t{ %y.%x").format(new RenamePattern.ValueProvider() {
+				@Override
+				public String getValue(Token token) {
+					return "a";
+				}
+			});
+			Assert.fail("Did not detect mismatched braces");
+		}
+		catch (PatternException e) {
+			Assert.assertEquals("Mismatched braces in pattern '%t{ %y.%x'",e.getMessage());
+		}
+	}
+
+	/**
+	 * Used to test that the token values are found in a file path
+	 */
+	@Test
+	public void testMatch() {
+		RenamePattern pattern = RenamePattern.compile("%t{ (%y)}{ Part %p}.%x");
+		Map<Token,String> values = pattern.match("The Usual Suspects (1995) Part 2.avi");
+		Assert.assertEquals("The Usual Suspects",values.get(Token.TITLE));
+		Assert.assertEquals("1995",values.get(Token.YEAR));
+		Assert.assertEquals("2",values.get(Token.PART));
+		Assert.assertEquals("avi",values.get(Token.EXT));
+
+		values = pattern.match("The Usual Suspects.avi");
+		Assert.assertEquals("The Usual Suspects",values.get(Token.TITLE));
+		Assert.assertNull(values.get(Token.YEAR));
+
+		Assert.assertNull(RenamePattern.compile("%n/Season %s/%s %e - %t.%x").match("The Usual Suspects.avi"));
+	}
+}
@@ -0,0 +1,46 @@
+package org.stanwood.media.database;
+
+import java.util.Properties;
+
+import org.hibernate.cache.EntityRegion;
+import org.hibernate.cache.access.AccessType;
+import org.hibernate.cache.access.EntityRegionAccessStrategy;
+import org.hibernate.cache.access.SoftLock;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Used to test the {@link LRURegionFactory} class
+ */
+@SuppressWarnings("nls")
+public class TestLRURegionFactory {
+
+	/**
+	 * Used to test that a entry stays locked while it is been updated, even when the
+	 * region is trimmed
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testLockNotTrimmed() throws Exception {
+		Properties props = new Properties();
+		props.setProperty(LRURegionFactory.PROP_MAX_ENTRIES, "2");
+		LRURegionFactory factory = new LRURegionFactory(props);
+		factory.start(null, props);
+		EntityRegion region = factory.buildEntityRegion("test", props, null);
+		EntityRegionAccessStrategy strategy = region.buildAccessStrategy(AccessType.READ_WRITE);
+
+		long before = factory.nextTimestamp();
+		Assert.assertTrue(strategy.putFromLoad("key", "old", before, null));
+		SoftLock lock = strategy.lockItem("key", null);
+		for (int i=0;i<5;i++) {
+			Assert.assertTrue(strategy.putFromLoad("other"+i, "value"+i, factory.nextTimestamp(), null));
+		}
+
+		Assert.assertNull(strategy.get("key", factory.nextTimestamp()));
+		Assert.assertFalse(strategy.putFromLoad("key", "old", before, null));
+		Assert.assertTrue(strategy.afterUpdate("key", "new", null, null, lock));
+		Assert.assertEquals("new",strategy.get("key", factory.nextTimestamp()));
+		Assert.assertFalse(strategy.putFromLoad("key", "old", before, null));
+		Assert.assertEquals("new",strategy.get("key", factory.nextTimestamp()));
+	}
+}
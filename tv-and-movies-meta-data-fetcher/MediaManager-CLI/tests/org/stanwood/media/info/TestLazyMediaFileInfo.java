@@ -0,0 +1,135 @@
+package org.stanwood.media.info;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.stanwood.media.actions.rename.PatternException;
+import org.stanwood.media.actions.rename.PatternMatcher;
+import org.stanwood.media.logging.StanwoodException;
+import org.stanwood.media.setup.MediaDirConfig;
+import org.stanwood.media.testdata.Data;
+import org.stanwood.media.testdata.EpisodeData;
+import org.stanwood.media.util.FileHelper;
+
+/**
+ * Used to test that media files are only probed when the rename pattern needs the
+ * media file information
+ */
+@SuppressWarnings("nls")
+public class TestLazyMediaFileInfo {
+
+	/**
+	 * Used to test that the media file is not probed when the pattern does not use
+	 * the video tokens
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testNotProbed() throws Exception {
+		File dir = FileHelper.createTmpDir("test");
+		try {
+			EpisodeData episode = createEpisode(dir);
+			CountingFetcher fetcher = new CountingFetcher();
+			LazyMediaFileInfo info = fetcher.getLazyInformation(episode.getFile());
+
+			Assert.assertEquals("Eureka/Season 1/1 01 - Pilot.avi",getName(dir,"%n/Season %s/%s %e - %t.%x",episode,info));
+			Assert.assertEquals(0,fetcher.probes);
+			Assert.assertFalse(info.isFetched());
+			Assert.assertEquals(1,fetcher.getAvoidedProbeCount());
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+
+	/**
+	 * Used to test that the media file is probed once when the pattern uses the video tokens
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testProbedOnce() throws Exception {
+		File dir = FileHelper.createTmpDir("test");
+		try {
+			EpisodeData episode = createEpisode(dir);
+			CountingFetcher fetcher = new CountingFetcher();
+			LazyMediaFileInfo info = fetcher.getLazyInformation(episode.getFile());
+
+			Assert.assertEquals("Eureka/Season 1/1 01 - Pilot HD WS.avi",getName(dir,"%n/Season %s/%s %e - %t %d %w.%x",episode,info));
+			Assert.assertEquals(1,fetcher.probes);
+			Assert.assertTrue(info.isFetched());
+			Assert.assertEquals(0,fetcher.getAvoidedProbeCount());
+
+			Assert.assertEquals("Eureka/Season 1/1 01 - Pilot HD.avi",getName(dir,"%n/Season %s/%s %e - %t %d.%x",episode,info));
+			Assert.assertEquals(1,fetcher.probes);
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+
+	/**
+	 * Used to test that the file name can't be created when the media file can't be probed
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testProbeFailed() throws Exception {
+		File dir = FileHelper.createTmpDir("test");
+		try {
+			EpisodeData episode = createEpisode(dir);
+			MediaFileInfoFetcher fetcher = new CountingFetcher() {
+				@Override
+				public IMediaFileInfo getInformation(File file) throws StanwoodException {
+					throw new StanwoodException("Unable to probe file");
+				}
+			};
+			LazyMediaFileInfo info = fetcher.getLazyInformation(episode.getFile());
+			try {
+				getName(dir,"%n/Season %s/%s %e - %t %d.%x",episode,info);
+				Assert.fail("Did not detect the exception");
+			}
+			catch (PatternException e) {
+				Assert.assertEquals("Unable to probe file",e.getCause().getMessage());
+			}
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+
+	private EpisodeData createEpisode(File dir) throws Exception {
+		File eurekaDir = new File(dir, "Eureka");
+		if (!eurekaDir.mkdir()) {
+			throw new IOException("Unable to create directory: " + eurekaDir);
+		}
+		List<EpisodeData> episodes = Data.createEurekaShow(eurekaDir);
+		return episodes.get(0);
+	}
+
+	private String getName(File dir,String pattern,EpisodeData episode,LazyMediaFileInfo info) throws Exception {
+		MediaDirConfig dirConfig = new MediaDirConfig();
+		dirConfig.setMediaDir(dir);
+		dirConfig.setPattern(pattern);
+		return new PatternMatcher().getNewTVShowName(dirConfig, pattern, episode.getEpisode(), "avi", info);
+	}
+
+	/**
+	 * Used to count the number of times the media file information is read, instead of
+	 * running mediainfo
+	 */
+	private static class CountingFetcher extends MediaFileInfoFetcher {
+
+		private int probes = 0;
+
+		public CountingFetcher() throws StanwoodException {
+			super(null);
+		}
+
+		@Override
+		public IMediaFileInfo getInformation(File file) throws StanwoodException {
+			probes++;
+			return new VideoFileInfo(file.length(),1920,1080,25.0F,AspectRatio.Ratio_16_9,false,null,null);
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package org.stanwood.media.info;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.stanwood.media.util.FileHelper;
+
+/**
+ * Used to test the {@link MediaInfoCache} class
+ */
+@SuppressWarnings("nls")
+public class TestMediaInfoCache {
+
+	/**
+	 * Used to test that information is stored in the cache file, read back by a new cache
+	 * and not used once the file has changed
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testCache() throws Exception {
+		File dir = FileHelper.createTmpDir("infoCache");
+		try {
+			File cacheFile = new File(dir,"mediaInfoCache.dat");
+			File video = new File(dir,"video.avi");
+			File audio = new File(dir,"audio.mp3");
+			writeFile(video,1000);
+			writeFile(audio,500);
+
+			MediaInfoCache cache = new MediaInfoCache(cacheFile,false);
+			Assert.assertNull(cache.get(video));
+			cache.put(video,new VideoFileInfo(video.length(),1920,1080,25.0F,AspectRatio.Ratio_16_9,false,"LC",128L));
+			cache.put(audio,new MediaFileInfo(audio.length()));
+			Assert.assertTrue(cacheFile.exists());
+
+			cache = new MediaInfoCache(cacheFile,false);
+			IVideoFileInfo videoInfo = (IVideoFileInfo)cache.get(video);
+			Assert.assertEquals(1000,videoInfo.getFileSize());
+			Assert.assertEquals(1920,videoInfo.getWidth());
+			Assert.assertEquals(1080,videoInfo.getHeight());
+			Assert.assertEquals(25.0F,videoInfo.getFrameRate(),0);
+			Assert.assertEquals(AspectRatio.Ratio_16_9,videoInfo.getAspectRatio());
+			Assert.assertEquals(ResolutionFormat.Format_1080p,videoInfo.getResolutionFormat());
+			Assert.assertEquals("LC",videoInfo.getAudioFormatProfile());
+			Assert.assertEquals(Long.valueOf(128),videoInfo.getAudioBitRate());
+			IMediaFileInfo audioInfo = cache.get(audio);
+			Assert.assertFalse(audioInfo instanceof IVideoFileInfo);
+			Assert.assertEquals(500,audioInfo.getFileSize());
+
+			writeFile(video,2000);
+			Assert.assertNull(cache.get(video));
+			cache.put(video,new VideoFileInfo(video.length(),null,null,null,AspectRatio.Unknown,true,null,null));
+
+			cache = new MediaInfoCache(cacheFile,false);
+			videoInfo = (IVideoFileInfo)cache.get(video);
+			Assert.assertEquals(2000,videoInfo.getFileSize());
+			Assert.assertNull(videoInfo.getFrameRate());
+			Assert.assertNull(videoInfo.getResolutionFormat());
+			Assert.assertTrue(videoInfo.isInterlaced());
+			Assert.assertNotNull(cache.get(audio));
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+
+	/**
+	 * Used to test that a partly written entry at the end of the cache file is ignored
+	 * and that the content hash is checked when enabled
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testTruncatedAndHash() throws Exception {
+		File dir = FileHelper.createTmpDir("infoCache");
+		try {
+			File cacheFile = new File(dir,"mediaInfoCache.dat");
+			File video = new File(dir,"video.avi");
+			File audio = new File(dir,"audio.mp3");
+			writeFile(video,200*1024);
+			writeFile(audio,500);
+			long lastModified = video.lastModified();
+
+			MediaInfoCache cache = new MediaInfoCache(cacheFile,true);
+			cache.put(audio,new MediaFileInfo(audio.length()));
+			long length = cacheFile.length();
+			cache.put(video,new MediaFileInfo(video.length()));
+
+			cache = new MediaInfoCache(cacheFile,true);
+			Assert.assertNotNull(cache.get(video));
+
+			RandomAccessFile raf = new RandomAccessFile(video,"rw");
+			try {
+				raf.seek(raf.length()-1);
+				raf.write(1);
+			}
+			finally {
+				raf.close();
+			}
+			Assert.assertTrue(video.setLastModified(lastModified));
+			Assert.assertNull(cache.get(video));
+			Assert.assertNotNull(new MediaInfoCache(cacheFile,false).get(video));
+
+			raf = new RandomAccessFile(cacheFile,"rw");
+			try {
+				raf.setLength(length+10);
+			}
+			finally {
+				raf.close();
+			}
+			cache = new MediaInfoCache(cacheFile,true);
+			Assert.assertNotNull(cache.get(audio));
+			Assert.assertNull(cache.get(video));
+			Assert.assertEquals(length,cacheFile.length());
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+
+	/**
+	 * Used to test that entries of files that have been removed are left out when the
+	 * cache file is compacted
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testCompactRemovesMissingFiles() throws Exception {
+		File dir = FileHelper.createTmpDir("infoCache");
+		try {
+			File cacheFile = new File(dir,"mediaInfoCache.dat");
+			File expectedFile = new File(dir,"expectedCache.dat");
+			File video = new File(dir,"video.avi");
+			File audio = new File(dir,"audio.mp3");
+			writeFile(video,1000);
+			writeFile(audio,500);
+
+			new MediaInfoCache(expectedFile,false).put(video,new MediaFileInfo(video.length()));
+
+			MediaInfoCache cache = new MediaInfoCache(cacheFile,false);
+			cache.put(audio,new MediaFileInfo(audio.length()));
+			for (int i=0;i<110;i++) {
+				cache.put(video,new MediaFileInfo(video.length()));
+			}
+			FileHelper.delete(audio);
+
+			cache = new MediaInfoCache(cacheFile,false);
+			Assert.assertNotNull(cache.get(video));
+			Assert.assertEquals(expectedFile.length(),cacheFile.length());
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+
+	private void writeFile(File file,int size) throws IOException {
+		FileOutputStream os = new FileOutputStream(file);
+		try {
+			os.write(new byte[size]);
+		}
+		finally {
+			os.close();
+		}
+	}
+}
@@ -571,12 +571,16 @@ public class TestConfigReader {
 		testConfig.append("  <global>"+FileHelper.LS);
 		testConfig.append("    <configDirectory>/blah/blah1</configDirectory>"+FileHelper.LS);
 		testConfig.append("    <native>/This/is/a/test</native>"+FileHelper.LS);
+		testConfig.append("    <mediaInfoContentHash>1</mediaInfoContentHash>"+FileHelper.LS);
+		testConfig.append("    <verifyFileTransfers>0</verifyFileTransfers>"+FileHelper.LS);
 		testConfig.append("  </global>"+FileHelper.LS);
 		testConfig.append("</mediaManager>"+FileHelper.LS);
 
 		ConfigReader configReader = createConfigReader(testConfig);
 		Assert.assertEquals(new File(File.separator+"blah"+File.separator+"blah1").getAbsolutePath(),configReader.getConfigDir().getAbsolutePath());
 		Assert.assertEquals(new File(File.separator+"This"+File.separator+"is"+File.separator+"a"+File.separator+"test").getAbsolutePath(),configReader.getNativeFolder().getAbsolutePath());
+		Assert.assertTrue(configReader.getMediaInfoContentHash());
+		Assert.assertFalse(configReader.getVerifyFileTransfers());
 	}
 
 	/**
@@ -765,6 +769,33 @@ public class TestConfigReader {
 
 	}
 
+	/**
+	 * Used to test that the number of worker threads can be configured
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testWorkerThreads() throws Exception {
+		LogSetupHelper.initLogingInternalConfigFile("info.log4j.properties");
+
+		File mediaDir1 = FileHelper.createTmpDir("films");
+		File mediaDir2 = FileHelper.createTmpDir("shows");
+		try {
+			StringBuilder testConfig = new StringBuilder();
+			testConfig.append("<mediaManager>"+FileHelper.LS);
+			testConfig.append("  <mediaDirectory directory=\""+mediaDir1.getAbsolutePath()+"\" mode=\"FILM\" pattern=\"%t.%x\" workerThreads=\"4\"/>"+FileHelper.LS);
+			testConfig.append("  <mediaDirectory directory=\""+mediaDir2.getAbsolutePath()+"\" mode=\"TV_SHOW\" pattern=\"%e.%x\"/>"+FileHelper.LS);
+			testConfig.append("</mediaManager>"+FileHelper.LS);
+
+			ConfigReader configReader = createConfigReader(testConfig);
+			Assert.assertEquals(4,configReader.getMediaDirectory(mediaDir1).getWorkerThreads());
+			Assert.assertEquals(1,configReader.getMediaDirectory(mediaDir2).getWorkerThreads());
+		}
+		finally {
+			FileHelper.delete(mediaDir1);
+			FileHelper.delete(mediaDir2);
+		}
+	}
+
 //	/**
 //	 * Used to test parsing of default config file
 //	 * @throws Exception  Thrown if their are any problems
@@ -0,0 +1,89 @@
+package org.stanwood.media.source.xbmc;
+
+import java.io.File;
+import java.util.Locale;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.stanwood.media.model.Mode;
+import org.stanwood.media.setup.ConfigReader;
+import org.stanwood.media.util.FileHelper;
+
+/**
+ * Used to test that the addon details are read from the {@link XBMCAddonRegistry} when
+ * the addons have not changed
+ */
+@SuppressWarnings("nls")
+public class TestXBMCAddonRegistry {
+
+	/**
+	 * Used to test that the addon files are only parsed when they change
+	 * @throws Exception Thrown if the test produces any errors
+	 */
+	@Test
+	public void testRegistry() throws Exception {
+		File dir = FileHelper.createTmpDir("xbmc");
+		try {
+			final File addonsDir = new File(dir,"addons");
+			File addonDir = new File(addonsDir,"metadata.test");
+			Assert.assertTrue(addonDir.mkdirs());
+			File addonFile = new File(addonDir,"addon.xml");
+			FileHelper.appendContentsToFile(addonFile, new StringBuilder(createAddon("1.0.1")));
+			ConfigReader config = new ConfigReader(null) {
+				@Override
+				public File getXBMCAddonDir() {
+					return addonsDir;
+				}
+
+				@Override
+				public Locale getXBMCLocale() {
+					return Locale.ENGLISH;
+				}
+			};
+
+			XBMCAddonManager mgr = new XBMCAddonManager(config);
+			assertAddon(mgr,"1.0.1");
+			Assert.assertTrue(new File(dir,"addonRegistry.dat").exists());
+
+			// Replace the addon file with a broken file of the same size and modified time,
+			// the details should still be read from the registry
+			long lastModified = addonFile.lastModified();
+			long dirModified = addonDir.lastModified();
+			String broken = createAddon("1.0.1").replaceAll("<", "[");
+			FileHelper.delete(addonFile);
+			FileHelper.appendContentsToFile(addonFile, new StringBuilder(broken));
+			Assert.assertTrue(addonFile.setLastModified(lastModified));
+			Assert.assertTrue(addonDir.setLastModified(dirModified));
+			mgr = new XBMCAddonManager(config);
+			assertAddon(mgr,"1.0.1");
+
+			// Once the addon changes, it should be parsed again
+			FileHelper.delete(addonFile);
+			FileHelper.appendContentsToFile(addonFile, new StringBuilder(createAddon("1.0.22")));
+			mgr = new XBMCAddonManager(config);
+			assertAddon(mgr,"1.0.22");
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+
+	private void assertAddon(XBMCAddonManager mgr,String version) throws XBMCException {
+		Assert.assertEquals(1,mgr.listAddons().size());
+		XBMCAddon addon = mgr.getAddon("metadata.test");
+		Assert.assertEquals(version,addon.getVersion().toString());
+		Assert.assertTrue(addon.hasScrapers());
+		Assert.assertTrue(addon.supportsMode(Mode.TV_SHOW));
+		Assert.assertFalse(addon.supportsMode(Mode.FILM));
+		Assert.assertEquals("metadata.test",mgr.getDefaultAddonID(Mode.TV_SHOW));
+	}
+
+	private String createAddon(String version) {
+		StringBuilder addon = new StringBuilder();
+		addon.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"+FileHelper.LS);
+		addon.append("<addon id=\"metadata.test\" name=\"Test\" version=\""+version+"\" provider-name=\"test\">"+FileHelper.LS);
+		addon.append("  <extension point=\"xbmc.metadata.scraper.tvshows\" library=\"test.xml\"/>"+FileHelper.LS);
+		addon.append("</addon>"+FileHelper.LS);
+		return addon.toString();
+	}
+}
@@ -99,7 +99,9 @@ public class TestXMBCSourceTVDB extends XBMCAddonTestBase {
 		Assert.assertEquals(show,season.getShow());
 		Assert.assertEquals("http://www.thetvdb.com/api/1D62F2F90030C444/series/79501/all/en.zip",season.getURL().toExternalForm());
 
+		long hits = XBMCScraperCache.getInstance().getHitCount();
 		season = source.getSeason(show, 2);
+		Assert.assertTrue(XBMCScraperCache.getInstance().getHitCount()>hits);
 		Assert.assertNotNull(season);
 		Assert.assertEquals(2,season.getSeasonNumber());
 		Assert.assertEquals(show,season.getShow());
@@ -166,6 +168,44 @@ public class TestXMBCSourceTVDB extends XBMCAddonTestBase {
 		Assert.assertEquals("http://thetvdb.com/banners/episodes/79501/308906.jpg",episode.getImageURL().toExternalForm());
 	}
 
+	/**
+	 * Used to test that the details of all the episodes in a season are read on the first lookup
+	 * when prefetching is enabled
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testPrefetchEpisodes() throws Exception {
+		LogSetupHelper.initLogingInternalConfigFile("info.log4j.properties");
+		XBMCSource source = getXBMCSource("metadata.tvdb.com");
+		source.setParameter("prefetch", "true");
+		source.setParameter("prefetchThreads", "4");
+		Assert.assertEquals("true",source.getParameter("prefetch"));
+		Assert.assertEquals("4",source.getParameter("prefetchThreads"));
+
+		Show show = new Show("79501");
+		show.setShowURL(new URL("http://www.thetvdb.com/api/1D62F2F90030C444/series/79501/all/en.zip"));
+		show.setSourceId(source.getInfo().getId());
+		Map<String, String> params = new HashMap<String,String>();
+		params.put("episodeGuideURL", "http://www.thetvdb.com/api/1D62F2F90030C444/series/79501/all/en.zip");
+		show.setExtraInfo(params);
+
+		Season season = new Season(show,1);
+		season.setURL(new URL("http://www.thetvdb.com/api/1D62F2F90030C444/series/79501/all/en.zip"));
+
+		IEpisode episode = source.getEpisode(season, 1,null);
+		Assert.assertEquals("Genesis",episode.getTitle());
+		Assert.assertEquals("308906",episode.getEpisodeId());
+
+		long hits = XBMCScraperCache.getInstance().getHitCount();
+		long misses = XBMCScraperCache.getInstance().getMissCount();
+		episode = source.getEpisode(season, 2,null);
+		Assert.assertEquals(2,episode.getEpisodeNumber());
+		Assert.assertEquals(season,episode.getSeason());
+		Assert.assertNotNull(episode.getSummary());
+		Assert.assertEquals(hits,XBMCScraperCache.getInstance().getHitCount());
+		Assert.assertEquals(misses,XBMCScraperCache.getInstance().getMissCount());
+	}
+
 	/**
 	 * Used to test that special episode information is correctly retrieved from the XBMC source
 	 * @throws Exception Thrown if their are any problems
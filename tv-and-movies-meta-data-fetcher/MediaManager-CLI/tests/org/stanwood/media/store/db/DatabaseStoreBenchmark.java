@@ -0,0 +1,156 @@
+package org.stanwood.media.store.db;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.hibernate.Session;
+import org.stanwood.media.Controller;
+import org.stanwood.media.database.DBHelper;
+import org.stanwood.media.logging.LogSetupHelper;
+import org.stanwood.media.model.Episode;
+import org.stanwood.media.model.IShow;
+import org.stanwood.media.model.Season;
+import org.stanwood.media.model.Show;
+import org.stanwood.media.setup.ConfigException;
+import org.stanwood.media.setup.DBResource;
+import org.stanwood.media.util.FileHelper;
+
+/**
+ * This is not a unit test, it is a benchmark that measures the time taken to look up files
+ * in a large {@link FileDatabaseStore}. The lookups are timed with the indexes of the schema
+ * and then again after the indexes on the file locations, seasons and shows have been
+ * dropped. It can be run with:
+ * <pre>java org.stanwood.media.store.db.DatabaseStoreBenchmark [numberOfFiles] [cacheSize]</pre>
+ */
+@SuppressWarnings("nls")
+public class DatabaseStoreBenchmark {
+
+	private final static int SEASONS_PER_SHOW = 10;
+	private final static int EPISODES_PER_SEASON = 10;
+	private final static int LOOKUPS = 500;
+	private final static String INDEXES[] = new String[] {"fileLoc","episodeFile","filmFile","seasonNum","showSourceId","episodeNum","mediaDirLoc"};
+
+	/**
+	 * The main method of the benchmark
+	 * @param args The optional number of files to put in the store, defaults to 100000, and
+	 *             the optional size of the second-level cache, defaults to 0 which does not
+	 *             use the cache
+	 * @throws Exception Thrown if their is a problem
+	 */
+	public static void main(String[] args) throws Exception {
+		int files = 100000;
+		if (args.length>0) {
+			files = Integer.parseInt(args[0]);
+		}
+		String cacheSize = "0";
+		if (args.length>1) {
+			cacheSize = args[1];
+		}
+		LogSetupHelper.initLogingInternalConfigFile("info.log4j.properties");
+		final File configDir = FileHelper.createTmpDir("config");
+		File mediaDir = FileHelper.createTmpDir("media");
+		try {
+			Controller controller = new Controller(null) {
+				@Override
+				public File getConfigDir() throws ConfigException {
+					return configDir;
+				}
+			};
+			FileDatabaseStore store = new FileDatabaseStore(controller);
+			store.setParameter("cacheSize", cacheSize);
+			store.init();
+
+			List<File> episodeFiles = new ArrayList<File>();
+			List<Season> seasons = new ArrayList<Season>();
+			long start = System.nanoTime();
+			store.beginBulkSession();
+			int showCount = (files+SEASONS_PER_SHOW*EPISODES_PER_SEASON-1)/(SEASONS_PER_SHOW*EPISODES_PER_SEASON);
+			for (int s=0;s<showCount && episodeFiles.size()<files;s++) {
+				Show show = createShow(s);
+				for (int seasonNum=1;seasonNum<=SEASONS_PER_SHOW && episodeFiles.size()<files;seasonNum++) {
+					Season season = new Season(show,seasonNum);
+					season.setURL(new URL("http://www.test.com/show/"+s+"/season/"+seasonNum));
+					for (int e=1;e<=EPISODES_PER_SEASON && episodeFiles.size()<files;e++) {
+						File file = new File(mediaDir,"Show "+s+File.separator+"Season "+seasonNum+File.separator+seasonNum+"x"+e+" - Episode "+e+".avi");
+						Episode episode = new Episode(e,season,false);
+						episode.setTitle("Episode "+e);
+						episode.setEpisodeId(s+"-"+seasonNum+"-"+e);
+						store.cacheEpisode(mediaDir, file, null, episode);
+						episodeFiles.add(file);
+						seasons.add(season);
+					}
+				}
+			}
+			store.endBulkSession();
+			System.out.println("Cached "+episodeFiles.size()+" files in "+((System.nanoTime()-start)/1000000)+"ms, using "+store.getBulkBatchCount()+" batches");
+
+			benchmarkLookups("Indexed",store,mediaDir,episodeFiles,seasons);
+
+			DBResource resource = new DBResource();
+			resource.setResourceId("file-"+new File(configDir,"mediaInfo.db").getAbsolutePath());
+			Session session = DBHelper.getInstance().getSession(resource);
+			session.beginTransaction();
+			for (String index : INDEXES) {
+				session.createSQLQuery("drop index "+index).executeUpdate();
+			}
+			session.getTransaction().commit();
+
+			benchmarkLookups("Not indexed",store,mediaDir,episodeFiles,seasons);
+		}
+		finally {
+			FileHelper.delete(configDir);
+			FileHelper.delete(mediaDir);
+		}
+	}
+
+	private static void benchmarkLookups(String name,FileDatabaseStore store,File mediaDir,List<File> episodeFiles,List<Season> seasons) throws Exception {
+		Random random = new Random(1234);
+		List<Integer> episodeNums = new ArrayList<Integer>();
+		// Warm up
+		for (int i=0;i<LOOKUPS/10;i++) {
+			int index = random.nextInt(episodeFiles.size());
+			store.fileKnownByStore(null, episodeFiles.get(index));
+		}
+
+		long start = System.nanoTime();
+		for (int i=0;i<LOOKUPS;i++) {
+			int index = random.nextInt(episodeFiles.size());
+			if (!store.fileKnownByStore(null, episodeFiles.get(index))) {
+				throw new IllegalStateException("Unable to find file "+episodeFiles.get(index));
+			}
+		}
+		long knownTime = System.nanoTime()-start;
+
+		start = System.nanoTime();
+		for (int i=0;i<LOOKUPS;i++) {
+			int index = random.nextInt(episodeFiles.size());
+			if (store.getEpisode(mediaDir, episodeFiles.get(index), seasons.get(index), episodeNums)==null) {
+				throw new IllegalStateException("Unable to find episode "+episodeFiles.get(index));
+			}
+		}
+		long episodeTime = System.nanoTime()-start;
+
+		start = System.nanoTime();
+		for (int i=0;i<LOOKUPS;i++) {
+			int index = random.nextInt(episodeFiles.size());
+			IShow show = seasons.get(index).getShow();
+			if (store.getShow(mediaDir, episodeFiles.get(index), show.getShowId())==null) {
+				throw new IllegalStateException("Unable to find show "+show.getShowId());
+			}
+		}
+		long showTime = System.nanoTime()-start;
+
+		System.out.println(name+": fileKnownByStore "+(knownTime/LOOKUPS/1000)+"us, getEpisode "+(episodeTime/LOOKUPS/1000)+"us, getShow "+(showTime/LOOKUPS/1000)+"us per lookup");
+	}
+
+	private static Show createShow(int number) throws Exception {
+		Show show = new Show(String.valueOf(number));
+		show.setSourceId("benchmark");
+		show.setName("Show "+number);
+		show.setShowURL(new URL("http://www.test.com/show/"+number));
+		return show;
+	}
+}
@@ -25,19 +25,24 @@ import java.sql.ResultSet;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.stanwood.media.Controller;
+import org.stanwood.media.MediaDirectory;
+import org.stanwood.media.cli.manager.TestCLIMediaManager;
 import org.stanwood.media.model.Film;
 import org.stanwood.media.model.IEpisode;
 import org.stanwood.media.model.IFilm;
 import org.stanwood.media.model.ISeason;
 import org.stanwood.media.model.IShow;
+import org.stanwood.media.model.Mode;
 import org.stanwood.media.setup.ConfigException;
 import org.stanwood.media.source.xbmc.XBMCSource;
 import org.stanwood.media.store.StoreException;
+import org.stanwood.media.store.SynchronizedStore;
 import org.stanwood.media.testdata.Data;
 import org.stanwood.media.testdata.EpisodeData;
 import org.stanwood.media.util.FileHelper;
@@ -263,4 +268,269 @@ public class TestFileDatabaseStore {
 			}
 		}
 	}
+
+	/**
+	 * Used to test that the changes made in a bulk session are written in batches
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testBulkSession() throws Exception {
+		File configDir = FileHelper.createTmpDir("config");
+		File dir = FileHelper.createTmpDir("test");
+		try {
+			DatabaseStore store = createStore(configDir);
+			store.setParameter("batchSize", "2");
+			Assert.assertEquals("2",store.getParameter("batchSize"));
+			File eurekaDir = new File(dir, "Eureka");
+			if (!eurekaDir.mkdir()) {
+				throw new IOException("Unable to create directory: " + eurekaDir);
+			}
+
+			List<EpisodeData> episodes = Data.createEurekaShow(eurekaDir);
+			store.beginBulkSession();
+			DatabaseStoreTest.cacheEpisodes(store, dir, episodes);
+			store.endBulkSession();
+			Assert.assertEquals(episodes.size()*3,store.getBulkWriteCount());
+			Assert.assertEquals(episodes.size()*3/2,store.getBulkBatchCount());
+
+			File episodeFile = episodes.get(1).getFile();
+			IShow show = store.getShow(dir, episodeFile, Data.SHOW_ID_EUREKA);
+			Assert.assertNotNull(show);
+			ISeason season = store.getSeason(dir,episodeFile,show, 1);
+			List<Integer>episodeNums = new ArrayList<Integer>();
+			episodeNums.add(2);
+			IEpisode episode = store.getEpisode(dir,episodeFile,season, episodeNums);
+			Assert.assertNotNull(episode);
+			Assert.assertEquals("Many Happy Returns",episode.getTitle());
+			Assert.assertEquals(2,episode.getEpisodes().size());
+
+			try {
+				store.setParameter("batchSize", "none");
+				Assert.fail("Did not detect invalid batch size");
+			}
+			catch (StoreException e) {
+				Assert.assertEquals("Invalid value 'none' for parameter 'batchSize'",e.getMessage());
+			}
+		}
+		finally {
+			FileHelper.delete(configDir);
+			if (dir!=null) {
+				FileHelper.delete(dir);
+			}
+		}
+	}
+
+	/**
+	 * Used to test that the entities got from the store during a bulk session can still be
+	 * used after a batch is written, until the session is checkpointed
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testBulkCheckpoint() throws Exception {
+		File configDir = FileHelper.createTmpDir("config");
+		File dir = FileHelper.createTmpDir("test");
+		try {
+			DatabaseStore store = createStore(configDir);
+			store.setParameter("batchSize", "2");
+			File eurekaDir = new File(dir, "Eureka");
+			if (!eurekaDir.mkdir()) {
+				throw new IOException("Unable to create directory: " + eurekaDir);
+			}
+
+			List<EpisodeData> episodes = Data.createEurekaShow(eurekaDir);
+			store.beginBulkSession();
+			DatabaseStoreTest.cacheEpisodes(store, dir, episodes.subList(0, 1));
+			File episodeFile = episodes.get(0).getFile();
+			IShow show = store.getShow(dir, episodeFile, Data.SHOW_ID_EUREKA);
+			ISeason season = store.getSeason(dir,episodeFile,show, 1);
+			IEpisode episode = store.getEpisode(dir,episodeFile,season, episodes.get(0).getEpisode().getEpisodes());
+			Assert.assertNotNull(episode);
+
+			DatabaseStoreTest.cacheEpisodes(store, dir, episodes.subList(1, episodes.size()));
+			Assert.assertTrue(store.getBulkBatchCount()>0);
+			Assert.assertEquals(episodes.get(0).getEpisode().getActors().size(),episode.getActors().size());
+			Assert.assertEquals(1,episode.getFiles().size());
+			Assert.assertEquals(show.getShowId(),season.getShow().getShowId());
+
+			store.bulkCheckpoint();
+			store.endBulkSession();
+			Assert.assertEquals(episodes.size()*3,store.getBulkWriteCount());
+			IEpisode found = store.getEpisode(dir,episodeFile,store.getSeason(dir,episodeFile,show, 1), episode.getEpisodes());
+			Assert.assertEquals(episode.getTitle(),found.getTitle());
+		}
+		finally {
+			FileHelper.delete(configDir);
+			if (dir!=null) {
+				FileHelper.delete(dir);
+			}
+		}
+	}
+
+	/**
+	 * Used to test that shows and seasons can be found when the second-level cache is used
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testSecondLevelCache() throws Exception {
+		final File configDir = FileHelper.createTmpDir("config");
+		File dir = FileHelper.createTmpDir("test");
+		try {
+			Controller controller = new Controller(null) {
+				@Override
+				public File getConfigDir() throws ConfigException {
+					return configDir;
+				}
+			};
+			FileDatabaseStore store = new FileDatabaseStore(controller);
+			store.setParameter("cacheSize", "10");
+			Assert.assertEquals("10",store.getParameter("cacheSize"));
+			store.init();
+			File eurekaDir = new File(dir, "Eureka");
+			if (!eurekaDir.mkdir()) {
+				throw new IOException("Unable to create directory: " + eurekaDir);
+			}
+
+			List<EpisodeData> episodes = Data.createEurekaShow(eurekaDir);
+			DatabaseStoreTest.cacheEpisodes(store, dir, episodes);
+
+			File episodeFile = episodes.get(2).getFile();
+			for (int i=0;i<2;i++) {
+				IShow show = store.getShow(dir, episodeFile, Data.SHOW_ID_EUREKA);
+				Assert.assertEquals("Eureka", show.getName());
+				ISeason season = store.getSeason(dir,episodeFile,show, 2);
+				Assert.assertEquals(2,season.getSeasonNumber());
+				Assert.assertEquals("http://www.tv.com/show/58448/episode_listings.html?season=2",season.getURL().toExternalForm());
+			}
+		}
+		finally {
+			FileHelper.delete(configDir);
+			if (dir!=null) {
+				FileHelper.delete(dir);
+			}
+		}
+	}
+
+	/**
+	 * Used to test that files that no longer exist are removed from the store once the
+	 * actions have been performed
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testPerformedActions() throws Exception {
+		File configDir = FileHelper.createTmpDir("config");
+		File dir = FileHelper.createTmpDir("test");
+		try {
+			DatabaseStore store = createStore(configDir);
+			File eurekaDir = new File(dir, "Eureka");
+			if (!eurekaDir.mkdir()) {
+				throw new IOException("Unable to create directory: " + eurekaDir);
+			}
+			List<EpisodeData> episodes = Data.createEurekaShow(eurekaDir);
+			DatabaseStoreTest.cacheEpisodes(store, dir, episodes);
+
+			File deletedFile = episodes.get(0).getFile();
+			File keptFile = episodes.get(1).getFile();
+			FileHelper.delete(deletedFile);
+			MediaDirectory mediaDir = new MediaDirectory(null,TestCLIMediaManager.setupTestController(false, dir, "%s %e - %t.%x", Mode.TV_SHOW, null, null, null, null),dir);
+			Assert.assertTrue(store.fileKnownByStore(mediaDir, deletedFile));
+			store.performedActions(mediaDir);
+
+			Assert.assertFalse(store.fileKnownByStore(mediaDir, deletedFile));
+			Assert.assertNull(store.getEpisode(mediaDir, deletedFile));
+			Assert.assertTrue(store.fileKnownByStore(mediaDir, keptFile));
+			IEpisode episode = store.getEpisode(mediaDir, keptFile);
+			Assert.assertEquals("Many Happy Returns",episode.getTitle());
+			Assert.assertEquals(1,episode.getFiles().size());
+			Assert.assertEquals(keptFile,episode.getFiles().get(0).getLocation());
+		}
+		finally {
+			FileHelper.delete(configDir);
+			if (dir!=null) {
+				FileHelper.delete(dir);
+			}
+		}
+	}
+
+	/**
+	 * Used to test that more than one worker thread can look up and cache media details
+	 * through the synchronized store while a bulk session is checkpointed
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testWorkerThreads() throws Exception {
+		File configDir = FileHelper.createTmpDir("config");
+		final File dir = FileHelper.createTmpDir("test");
+		try {
+			DatabaseStore store = createStore(configDir);
+			File eurekaDir = new File(dir, "Eureka");
+			if (!eurekaDir.mkdir()) {
+				throw new IOException("Unable to create directory: " + eurekaDir);
+			}
+			final List<EpisodeData> episodes = Data.createEurekaShow(eurekaDir);
+			DatabaseStoreTest.cacheEpisodes(store, dir, episodes);
+
+			final SynchronizedStore syncStore = new SynchronizedStore(store,new Object());
+			final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+			List<Thread> workers = new ArrayList<Thread>();
+			syncStore.beginBulkSession();
+			try {
+				for (int i=0;i<4;i++) {
+					Thread worker = new Thread() {
+						@Override
+						public void run() {
+							try {
+								for (int j=0;j<5;j++) {
+									for (EpisodeData ed : episodes) {
+										File episodeFile = ed.getFile();
+										IShow show = syncStore.getShow(dir, episodeFile, Data.SHOW_ID_EUREKA);
+										ISeason season = syncStore.getSeason(dir, episodeFile, show, ed.getEpisode().getSeason().getSeasonNumber());
+										IEpisode episode;
+										if (ed.getEpisode().isSpecial()) {
+											episode = syncStore.getSpecial(dir, episodeFile, season, null);
+										}
+										else {
+											episode = syncStore.getEpisode(dir, episodeFile, season, null);
+										}
+										Assert.assertFalse(episode instanceof DBEpisode);
+										Assert.assertEquals(ed.getEpisode().getTitle(),episode.getTitle());
+										Assert.assertEquals("Eureka",episode.getSeason().getShow().getName());
+										if (ed.getEpisode().getActors()!=null) {
+											Assert.assertEquals(ed.getEpisode().getActors().size(),episode.getActors().size());
+										}
+										Assert.assertEquals(1,episode.getFiles().size());
+										syncStore.cacheEpisode(dir, episodeFile, null, episode);
+										syncStore.bulkCheckpoint();
+									}
+								}
+							}
+							catch (Throwable e) {
+								errors.add(e);
+							}
+						}
+					};
+					workers.add(worker);
+					worker.start();
+				}
+				for (Thread worker : workers) {
+					worker.join();
+				}
+			}
+			finally {
+				syncStore.endBulkSession();
+			}
+			if (!errors.isEmpty()) {
+				throw new AssertionError(errors.get(0));
+			}
+
+			File episodeFile = episodes.get(1).getFile();
+			ISeason season = store.getSeason(dir, episodeFile, store.getShow(dir, episodeFile, Data.SHOW_ID_EUREKA), 1);
+			IEpisode episode = store.getEpisode(dir, episodeFile, season, null);
+			Assert.assertEquals("Many Happy Returns",episode.getTitle());
+			Assert.assertEquals(1,episode.getFiles().size());
+		}
+		finally {
+			FileHelper.delete(configDir);
+			FileHelper.delete(dir);
+		}
+	}
 }
@@ -0,0 +1,138 @@
+package org.stanwood.media.store.memory;
+
+import java.io.File;
+import java.net.URL;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.stanwood.media.model.Episode;
+import org.stanwood.media.model.IEpisode;
+import org.stanwood.media.model.ISeason;
+import org.stanwood.media.model.Mode;
+import org.stanwood.media.model.SearchResult;
+import org.stanwood.media.model.Season;
+import org.stanwood.media.model.Show;
+import org.stanwood.media.store.StoreException;
+
+/**
+ * Used to test the {@link MemoryStore} class
+ */
+@SuppressWarnings("nls")
+public class TestMemoryStore {
+
+	private final static File MEDIA_DIR = new File(File.separator+"media");
+
+	/**
+	 * Used to test that shows, seasons and episodes can be found once they are cached
+	 * @throws Exception Thrown if the test produces any errors
+	 */
+	@Test
+	public void testCacheEpisode() throws Exception {
+		MemoryStore store = new MemoryStore();
+		File file = new File(MEDIA_DIR,"Heroes"+File.separator+"1x01 - Genesis.avi");
+		Episode episode = cacheEpisode(store,"58448","Heroes",1,1,file);
+
+		Assert.assertEquals("Heroes",store.getShow(MEDIA_DIR, file, "58448").getName());
+		Assert.assertNull(store.getShow(MEDIA_DIR, file, "1234"));
+		ISeason season = store.getSeason(MEDIA_DIR, file, episode.getSeason().getShow(), 1);
+		Assert.assertTrue(season instanceof CacheSeason);
+		Assert.assertNull(store.getSeason(MEDIA_DIR, file, episode.getSeason().getShow(), 2));
+		Assert.assertSame(episode,store.getEpisode(MEDIA_DIR, file, episode.getSeason(), episode.getEpisodes()));
+		Assert.assertSame(episode,store.getEpisode(null, file));
+		Assert.assertTrue(store.fileKnownByStore(null, file));
+		Assert.assertEquals(1,store.listEpisodes(null, null).size());
+
+		SearchResult result = store.searchMedia("Heroes", Mode.TV_SHOW, null, null, file);
+		Assert.assertEquals("58448",result.getId());
+		Assert.assertEquals("test",result.getSourceId());
+		Assert.assertNull(store.searchMedia("Lost", Mode.TV_SHOW, null, null, file));
+
+		store.fileDeleted(null, file);
+		Assert.assertNull(store.getEpisode(null, file));
+		Assert.assertFalse(store.fileKnownByStore(null, file));
+		Assert.assertEquals(0,episode.getFiles().size());
+	}
+
+	/**
+	 * Used to test that the episodes of a season are removed when the season is cached again
+	 * @throws Exception Thrown if the test produces any errors
+	 */
+	@Test
+	public void testRecacheSeason() throws Exception {
+		MemoryStore store = new MemoryStore();
+		File file = new File(MEDIA_DIR,"Heroes"+File.separator+"1x01 - Genesis.avi");
+		Episode episode = cacheEpisode(store,"58448","Heroes",1,1,file);
+		Assert.assertSame(episode,store.getEpisode(null, file));
+
+		store.cacheSeason(MEDIA_DIR, file, episode.getSeason());
+		Assert.assertNull(store.getEpisode(null, file));
+		Assert.assertNull(store.getEpisode(MEDIA_DIR, file, episode.getSeason(), episode.getEpisodes()));
+	}
+
+	/**
+	 * Used to test that the shows used least recently are removed when the cache size is set
+	 * @throws Exception Thrown if the test produces any errors
+	 */
+	@Test
+	public void testCacheSize() throws Exception {
+		MemoryStore store = new MemoryStore();
+		store.setParameter("cacheSize", "2");
+		Assert.assertEquals("2",store.getParameter("cacheSize"));
+
+		File file1 = new File(MEDIA_DIR,"Show 1"+File.separator+"1x01 - Episode.avi");
+		File file2 = new File(MEDIA_DIR,"Show 2"+File.separator+"1x01 - Episode.avi");
+		File file3 = new File(MEDIA_DIR,"Show 3"+File.separator+"1x01 - Episode.avi");
+		cacheEpisode(store,"1","Show 1",1,1,file1);
+		cacheEpisode(store,"2","Show 2",1,1,file2);
+		Assert.assertNotNull(store.getShow(MEDIA_DIR, file1, "1"));
+		cacheEpisode(store,"3","Show 3",1,1,file3);
+
+		Assert.assertNotNull(store.getShow(MEDIA_DIR, file1, "1"));
+		Assert.assertNull(store.getShow(MEDIA_DIR, file2, "2"));
+		Assert.assertNotNull(store.getShow(MEDIA_DIR, file3, "3"));
+		Assert.assertNotNull(store.getEpisode(null, file1));
+		Assert.assertNull(store.getEpisode(null, file2));
+		Assert.assertNull(store.searchMedia("Show 2", Mode.TV_SHOW, null, null, file2));
+		Assert.assertEquals(2,store.listEpisodes(null, null).size());
+	}
+
+	/**
+	 * Used to test that invalid parameters are rejected
+	 * @throws Exception Thrown if the test produces any errors
+	 */
+	@Test
+	public void testInvalidParameters() throws Exception {
+		MemoryStore store = new MemoryStore();
+		try {
+			store.setParameter("cacheSize", "blah");
+			Assert.fail("Did not detect invalid value");
+		}
+		catch (StoreException e) {
+			Assert.assertEquals("Invalid value 'blah' for parameter 'cacheSize'",e.getMessage());
+		}
+		try {
+			store.setParameter("blah", "1");
+			Assert.fail("Did not detect unknown parameter");
+		}
+		catch (StoreException e) {
+			Assert.assertEquals("Unknown parameter blah",e.getMessage());
+		}
+	}
+
+	private Episode cacheEpisode(MemoryStore store,String showId,String name,int seasonNum,int episodeNum,File file) throws Exception {
+		Show show = new Show(showId);
+		show.setSourceId("test");
+		show.setName(name);
+		show.setShowURL(new URL("http://www.test.com/show/"+showId));
+		Season season = new Season(show,seasonNum);
+		Episode episode = new Episode(episodeNum,season,false);
+		episode.setEpisodeId(showId+"-"+seasonNum+"-"+episodeNum);
+		episode.setTitle("Episode "+episodeNum);
+		store.cacheShow(MEDIA_DIR, file, show);
+		store.cacheSeason(MEDIA_DIR, file, season);
+		store.cacheEpisode(MEDIA_DIR, file, null, episode);
+		IEpisode cached = store.getEpisode(MEDIA_DIR, file, season, episode.getEpisodes());
+		Assert.assertSame(episode,cached);
+		return episode;
+	}
+}
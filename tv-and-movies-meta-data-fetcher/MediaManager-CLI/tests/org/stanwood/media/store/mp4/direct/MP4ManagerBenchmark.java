@@ -0,0 +1,92 @@
+package org.stanwood.media.store.mp4.direct;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.stanwood.media.store.mp4.IAtom;
+import org.stanwood.media.store.mp4.IMP4Manager;
+import org.stanwood.media.store.mp4.MP4AtomKey;
+import org.stanwood.media.store.mp4.atomicparsley.MP4AtomicParsleyManager;
+import org.stanwood.media.testdata.Data;
+import org.stanwood.media.util.FileHelper;
+
+/**
+ * This is not a unit test, it is a benchmark that compares the time taken to update the
+ * meta data of a large MP4 file with the {@link MP4AtomicParsleyManager} and the
+ * {@link MP4DirectManager}. The test file is made large by adding a free box to the end
+ * of it. It can be run with:
+ * <pre>java -DNATIVE_DIR=&lt;native dir&gt; org.stanwood.media.store.mp4.direct.MP4ManagerBenchmark [sizeInMB]</pre>
+ */
+@SuppressWarnings("nls")
+public class MP4ManagerBenchmark {
+
+	private final static int RUNS = 3;
+
+	/**
+	 * The main method of the benchmark
+	 * @param args The optional size of the test file in MB, defaults to 500
+	 * @throws Exception Thrown if their is a problem
+	 */
+	public static void main(String[] args) throws Exception {
+		int sizeMB = 500;
+		if (args.length>0) {
+			sizeMB = Integer.parseInt(args[0]);
+		}
+		File dir = FileHelper.createTmpDir("benchmark");
+		try {
+			File mp4File = new File(dir,"video.mp4");
+			FileHelper.copy(new File(Data.class.getResource("videoWithMetaData.mp4").toURI()), mp4File);
+			appendFreeBox(mp4File,sizeMB*1024L*1024L);
+			System.out.println("MP4 file size "+(mp4File.length()/(1024*1024))+"MB");
+
+			MP4AtomicParsleyManager ap = new MP4AtomicParsleyManager();
+			ap.init(System.getProperty("NATIVE_DIR")!=null ? new File(System.getProperty("NATIVE_DIR")) : null);
+			benchmark("AtomicParsley",ap,mp4File);
+			benchmark("Direct",new MP4DirectManager(),mp4File);
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+
+	private static void benchmark(String name,IMP4Manager manager,File mp4File) throws Exception {
+		long total = 0;
+		for (int i=0;i<RUNS;i++) {
+			List<IAtom> atoms = new ArrayList<IAtom>();
+			atoms.add(manager.createAtom(MP4AtomKey.NAME, name+" episode "+i));
+			atoms.add(manager.createAtom(MP4AtomKey.TV_EPISODE, i));
+			long start = System.nanoTime();
+			manager.update(mp4File, atoms);
+			total+=System.nanoTime()-start;
+		}
+		long start = System.nanoTime();
+		int count = manager.listAtoms(mp4File).size();
+		long list = System.nanoTime()-start;
+		System.out.println(name+" update: "+(total/RUNS/1000000)+"ms, list "+count+" atoms: "+(list/1000000)+"ms");
+	}
+
+	private static void appendFreeBox(File file,long size) throws Exception {
+		RandomAccessFile raf = new RandomAccessFile(file,"rw");
+		try {
+			raf.seek(raf.length());
+			raf.writeInt((int)size);
+			raf.writeBytes("free");
+		}
+		finally {
+			raf.close();
+		}
+		FileOutputStream os = new FileOutputStream(file,true);
+		try {
+			byte block[] = new byte[1024*1024];
+			for (long written=8;written<size;written+=block.length) {
+				os.write(block,0,(int)Math.min(block.length,size-written));
+			}
+		}
+		finally {
+			os.close();
+		}
+	}
+}
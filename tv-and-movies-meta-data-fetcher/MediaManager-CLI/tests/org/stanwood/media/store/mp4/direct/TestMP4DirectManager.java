@@ -0,0 +1,223 @@
+package org.stanwood.media.store.mp4.direct;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.stanwood.media.store.mp4.IAtom;
+import org.stanwood.media.store.mp4.IMP4Manager;
+import org.stanwood.media.store.mp4.MP4AtomKey;
+import org.stanwood.media.store.mp4.MP4Exception;
+import org.stanwood.media.store.mp4.atomicparsley.MP4AtomicParsleyManager;
+import org.stanwood.media.store.mp4.atomicparsley.TestMP4AtomicParsleyManager;
+import org.stanwood.media.testdata.Data;
+import org.stanwood.media.util.FileHelper;
+
+/**
+ * Used to test the {@link MP4DirectManager} class. This runs the same tests as
+ * {@link TestMP4AtomicParsleyManager} and some that check how the file is written.
+ */
+@SuppressWarnings("nls")
+public class TestMP4DirectManager extends TestMP4AtomicParsleyManager {
+
+	@Override
+	protected IMP4Manager createMP4Manager() throws MP4Exception {
+		IMP4Manager manager = new MP4DirectManager();
+		manager.init(null);
+		return manager;
+	}
+
+	/**
+	 * Used to test that small changes are written in place, without moving the media data
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testUpdateInPlace() throws Exception {
+		File mp4File = copyTestFile("videoWithMetaData.mp4");
+		try {
+			long length = mp4File.length();
+			long mdatOffset = findTopLevelBox(mp4File,"mdat");
+			IMP4Manager manager = createMP4Manager();
+			List<IAtom> atoms = new ArrayList<IAtom>();
+			atoms.add(manager.createAtom(MP4AtomKey.NAME, "A new episode name"));
+			atoms.add(manager.createAtom(MP4AtomKey.TV_SEASON, 2));
+			manager.update(mp4File, atoms);
+
+			Assert.assertEquals(length,mp4File.length());
+			Assert.assertEquals(mdatOffset,findTopLevelBox(mp4File,"mdat"));
+			List<String> values = toStrings(manager.listAtoms(mp4File));
+			Assert.assertEquals(10,values.size());
+			Assert.assertTrue(values.contains("Name: [©nam=A new episode name]"));
+			Assert.assertTrue(values.contains("TV Season Number: [tvsn=2]"));
+			Assert.assertTrue(values.contains("TV Show Name: [tvsh=Test Show Name]"));
+		}
+		finally {
+			FileHelper.delete(mp4File);
+		}
+	}
+
+	/**
+	 * Used to test that the file is rewritten when the meta data does not fit in the free
+	 * space, and that the chunk offsets still point at the same media data
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testUpdateRewrite() throws Exception {
+		File srcFile = new File(Data.class.getResource("videoWithMetaData.mp4").toURI());
+		File mp4File = copyTestFile("videoWithMetaData.mp4");
+		try {
+			StringBuilder description = new StringBuilder();
+			for (int i=0;i<500;i++) {
+				description.append("A long description. ");
+			}
+			IMP4Manager manager = createMP4Manager();
+			List<IAtom> atoms = new ArrayList<IAtom>();
+			atoms.add(manager.createAtom(MP4AtomKey.DESCRIPTION_LONG, description.toString()));
+			manager.update(mp4File, atoms);
+
+			Assert.assertTrue(mp4File.length()>srcFile.length()+description.length());
+			List<Long> oldOffsets = getChunkOffsets(srcFile);
+			List<Long> newOffsets = getChunkOffsets(mp4File);
+			Assert.assertEquals(oldOffsets.size(),newOffsets.size());
+			Assert.assertTrue(oldOffsets.size()>0);
+			long shift = findTopLevelBox(mp4File,"mdat")-findTopLevelBox(srcFile,"mdat");
+			Assert.assertTrue(shift>0);
+			for (int i=0;i<oldOffsets.size();i++) {
+				Assert.assertEquals(oldOffsets.get(i)+shift,newOffsets.get(i).longValue());
+				Assert.assertArrayEquals(readBytes(srcFile,oldOffsets.get(i),16), readBytes(mp4File,newOffsets.get(i),16));
+			}
+
+			List<String> values = toStrings(manager.listAtoms(mp4File));
+			Assert.assertEquals(11,values.size());
+			Assert.assertTrue(values.contains("Name: [©nam=Test Episode]"));
+
+			// A second change should now fit in the padding written after the moov box
+			long length = mp4File.length();
+			atoms.clear();
+			atoms.add(manager.createAtom(MP4AtomKey.NAME, "A new episode name"));
+			manager.update(mp4File, atoms);
+			Assert.assertEquals(length,mp4File.length());
+
+			MP4AtomicParsleyManager ap = new MP4AtomicParsleyManager();
+			ap.init(System.getProperty("NATIVE_DIR")!=null ? new File(System.getProperty("NATIVE_DIR")) : null);
+			values = toStrings(ap.listAtoms(mp4File));
+			Assert.assertEquals(11,values.size());
+			Assert.assertTrue(values.contains("Name: [©nam=A new episode name]"));
+		}
+		finally {
+			FileHelper.delete(mp4File);
+		}
+	}
+
+	/**
+	 * Used to test that nothing is written if the file already has the atoms
+	 * @throws Exception Thrown if their are any problems
+	 */
+	@Test
+	public void testUpdateNoChange() throws Exception {
+		File mp4File = copyTestFile("videoWithMetaData.mp4");
+		try {
+			Assert.assertTrue(mp4File.setLastModified(1000000000L));
+			IMP4Manager manager = createMP4Manager();
+			List<IAtom> atoms = new ArrayList<IAtom>();
+			atoms.add(manager.createAtom(MP4AtomKey.TV_SHOW_NAME, "Test Show Name"));
+			manager.update(mp4File, atoms);
+			Assert.assertEquals(1000000000L,mp4File.lastModified());
+		}
+		finally {
+			FileHelper.delete(mp4File);
+		}
+	}
+
+	private File copyTestFile(String name) throws Exception {
+		URL url = Data.class.getResource(name);
+		File srcFile = new File(url.toURI());
+		File mp4File = FileHelper.createTempFile("test", ".mp4");
+		if (!mp4File.delete()) {
+			throw new IOException("Unable to delete file");
+		}
+		FileHelper.copy(srcFile, mp4File);
+		return mp4File;
+	}
+
+	private List<String> toStrings(List<IAtom> atoms) {
+		List<String> result = new ArrayList<String>();
+		for (IAtom atom : atoms) {
+			result.add(atom.toString());
+		}
+		return result;
+	}
+
+	private long findTopLevelBox(File file,String type) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file,"r");
+		try {
+			long pos = 0;
+			while (pos+8<=raf.length()) {
+				raf.seek(pos);
+				long size = raf.readInt() & 0xffffffffL;
+				byte boxType[] = new byte[4];
+				raf.readFully(boxType);
+				if (new String(boxType,"ISO-8859-1").equals(type)) {
+					return pos;
+				}
+				pos+=size;
+			}
+			return -1;
+		}
+		finally {
+			raf.close();
+		}
+	}
+
+	private List<Long> getChunkOffsets(File file) throws IOException {
+		long moovOffset = findTopLevelBox(file,"moov");
+		byte moov[];
+		RandomAccessFile raf = new RandomAccessFile(file,"r");
+		try {
+			raf.seek(moovOffset);
+			moov = new byte[raf.readInt()-8];
+			raf.seek(moovOffset+8);
+			raf.readFully(moov);
+		}
+		finally {
+			raf.close();
+		}
+		List<Long> offsets = new ArrayList<Long>();
+		addChunkOffsets(Box.parse("moov",ByteBuffer.wrap(moov),null),offsets);
+		return offsets;
+	}
+
+	private void addChunkOffsets(Box box,List<Long> offsets) {
+		if (box.getType().equals("stco") || box.getType().equals("co64")) {
+			ByteBuffer data = ByteBuffer.wrap(box.getData());
+			int count = data.getInt(4);
+			for (int i=0;i<count;i++) {
+				offsets.add(box.getType().equals("co64") ? data.getLong(8+i*8) : data.getInt(8+i*4) & 0xffffffffL);
+			}
+		}
+		else if (box.getChildren()!=null) {
+			for (Box child : box.getChildren()) {
+				addChunkOffsets(child,offsets);
+			}
+		}
+	}
+
+	private byte[] readBytes(File file,long pos,int length) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file,"r");
+		try {
+			byte data[] = new byte[length];
+			raf.seek(pos);
+			raf.readFully(data);
+			return data;
+		}
+		finally {
+			raf.close();
+		}
+	}
+}
@@ -19,6 +19,9 @@ import org.stanwood.media.model.IEpisode;
 import org.stanwood.media.model.IFilm;
 import org.stanwood.media.model.ISeason;
 import org.stanwood.media.model.IShow;
+import org.stanwood.media.model.Mode;
+import org.stanwood.media.model.SearchResult;
+import org.stanwood.media.setup.MediaDirConfig;
 import org.stanwood.media.source.xbmc.XBMCSource;
 import org.stanwood.media.testdata.Data;
 import org.stanwood.media.testdata.EpisodeData;
@@ -299,4 +302,102 @@ public class TestXMLStore2 {
 		}
 	}
 
+	/**
+	 * Used to test that media can be found by file name and show name, and that the
+	 * store can still find it once the file has been renamed
+	 * @throws Exception Thrown if their is a problem in the test
+	 */
+	@Test
+	public void testSearchAndRename() throws Exception {
+		LogSetupHelper.initLogingInternalConfigFile("info.log4j.properties");
+
+		XMLStore2 xmlStore = new XMLStore2();
+		File dir = FileHelper.createTmpDir("test");
+		try {
+			File eurekaDir = new File(dir, "Eureka");
+			if (!eurekaDir.mkdir()) {
+				throw new IOException("Unable to create directory: " + eurekaDir);
+			}
+			List<EpisodeData> epsiodes = Data.createEurekaShow(eurekaDir);
+			for (EpisodeData ed : epsiodes) {
+				IEpisode episode = ed.getEpisode();
+				xmlStore.cacheShow(dir, ed.getFile(), episode.getSeason().getShow());
+				xmlStore.cacheSeason(dir, ed.getFile(), episode.getSeason());
+				xmlStore.cacheEpisode(dir, ed.getFile(),null, episode);
+			}
+
+			MediaDirConfig dirConfig = new MediaDirConfig();
+			dirConfig.setMediaDir(dir);
+			dirConfig.setMode(Mode.TV_SHOW);
+
+			File episodeFile = epsiodes.get(0).getFile();
+			SearchResult result = xmlStore.searchMedia("Unknown", Mode.TV_SHOW, null, dirConfig, episodeFile);
+			Assert.assertNotNull(result);
+			Assert.assertEquals(Data.SHOW_ID_EUREKA,result.getId());
+
+			File newFile = new File(eurekaDir,"renamed.avi");
+			xmlStore.renamedFile(dir, episodeFile, newFile);
+			result = xmlStore.searchMedia("Unknown", Mode.TV_SHOW, null, dirConfig, newFile);
+			Assert.assertNotNull(result);
+			Assert.assertEquals(Data.SHOW_ID_EUREKA,result.getId());
+			Assert.assertNull(xmlStore.searchMedia("Unknown", Mode.TV_SHOW, null, dirConfig, episodeFile));
+
+			result = xmlStore.searchMedia("eureka", Mode.TV_SHOW, null, dirConfig, new File(eurekaDir,"unknown.avi"));
+			Assert.assertNotNull(result);
+			Assert.assertEquals(Data.SHOW_ID_EUREKA,result.getId());
+
+			File filmFile = new File(dir,"The Usual Suspects.avi");
+			if (!filmFile.createNewFile() && !filmFile.exists()) {
+				throw new IOException("Unable to create temp file: " + filmFile);
+			}
+			xmlStore.cacheFilm(dir, filmFile,null, Data.createFilm(),null);
+			dirConfig.setMode(Mode.FILM);
+			result = xmlStore.searchMedia("Unknown", Mode.FILM, null, dirConfig, filmFile);
+			Assert.assertNotNull(result);
+			Assert.assertEquals("114814",result.getId());
+			IFilm film = xmlStore.getFilm(dir, filmFile, "114814");
+			Assert.assertEquals(1,film.getFiles().size());
+		} finally {
+			FileHelper.delete(dir);
+		}
+	}
+
+	/**
+	 * Used to test that the store is only written when it is flushed when write behind is enabled
+	 * @throws Exception Thrown if their is a problem in the test
+	 */
+	@Test
+	public void testWriteBehind() throws Exception {
+		LogSetupHelper.initLogingInternalConfigFile("info.log4j.properties");
+
+		XMLStore2 xmlStore = new XMLStore2();
+		xmlStore.setParameter("writeBehind", "true");
+		Assert.assertEquals("true",xmlStore.getParameter("writeBehind"));
+		File dir = FileHelper.createTmpDir("test");
+		try {
+			File eurekaDir = new File(dir, "Eureka");
+			if (!eurekaDir.mkdir()) {
+				throw new IOException("Unable to create directory: " + eurekaDir);
+			}
+			List<EpisodeData> epsiodes = Data.createEurekaShow(eurekaDir);
+			for (EpisodeData ed : epsiodes) {
+				IEpisode episode = ed.getEpisode();
+				xmlStore.cacheShow(dir, ed.getFile(), episode.getSeason().getShow());
+				xmlStore.cacheSeason(dir, ed.getFile(), episode.getSeason());
+				xmlStore.cacheEpisode(dir, ed.getFile(),null, episode);
+			}
+
+			File storeFile = new File(dir,".mediaManager-xmlStore.xml");
+			Assert.assertFalse(storeFile.exists());
+			xmlStore.flush();
+			Assert.assertTrue(storeFile.exists());
+			Assert.assertFalse(new File(dir,".mediaManager-xmlStore.xml.tmp").exists());
+
+			XMLStore2 xmlStore2 = new XMLStore2();
+			IEpisode episode = xmlStore2.getEpisode(dir, epsiodes.get(0).getFile(), epsiodes.get(0).getEpisode().getSeason(), epsiodes.get(0).getEpisode().getEpisodes());
+			Assert.assertNotNull(episode);
+		} finally {
+			FileHelper.delete(dir);
+		}
+	}
 }
@@ -0,0 +1,51 @@
+package org.stanwood.media.store.xmlstore;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Used to test the {@link XMLStoreIndex} class
+ */
+@SuppressWarnings("nls")
+public class TestXMLStoreIndex {
+
+	/**
+	 * Used to test that shows with the same ID from different sources are indexed separately
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testSameIdDifferentSource() throws Exception {
+		Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		Element storeNode = doc.createElement("store");
+		doc.appendChild(storeNode);
+		Element season1 = addShow(doc, storeNode, "1234", "source1");
+		Element season2 = addShow(doc, storeNode, "1234", "source2");
+
+		XMLStoreIndex index = new XMLStoreIndex(storeNode);
+		Assert.assertSame(season1,index.getSeason("1234", "source1", 1));
+		Assert.assertSame(season2,index.getSeason("1234", "source2", 1));
+		Assert.assertNull(index.getSeason("1234", "source3", 1));
+		Assert.assertSame(season1.getFirstChild(),index.getEpisodes("1234", "source1", 1, "episode", 2).get(0));
+		Assert.assertSame(season2.getFirstChild(),index.getEpisodes("1234", "source2", 1, "episode", 2).get(0));
+		Assert.assertTrue(index.getEpisodes("1234", "source3", 1, "episode", 2).isEmpty());
+	}
+
+	private Element addShow(Document doc,Element storeNode,String showId,String sourceId) {
+		Element showNode = doc.createElement("show");
+		showNode.setAttribute("id", showId);
+		showNode.setAttribute("sourceId", sourceId);
+		showNode.setAttribute("name", "Show from "+sourceId);
+		storeNode.appendChild(showNode);
+		Element seasonNode = doc.createElement("season");
+		seasonNode.setAttribute("number", "1");
+		showNode.appendChild(seasonNode);
+		Element episodeNode = doc.createElement("episode");
+		episodeNode.setAttribute("number", "2");
+		seasonNode.appendChild(episodeNode);
+		return seasonNode;
+	}
+}
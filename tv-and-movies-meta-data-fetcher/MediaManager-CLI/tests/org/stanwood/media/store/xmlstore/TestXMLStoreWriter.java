@@ -0,0 +1,49 @@
+package org.stanwood.media.store.xmlstore;
+
+import java.io.File;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.stanwood.media.util.FileHelper;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Used to test the {@link XMLStoreWriter} class
+ */
+@SuppressWarnings("nls")
+public class TestXMLStoreWriter {
+
+	/**
+	 * Used to test that attribute and text values are the same when the written file is read back
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testRoundTrip() throws Exception {
+		File dir = FileHelper.createTmpDir("xmlWriter");
+		try {
+			String attrValue = "Line 1\nLine 2\r\n\tTabbed \"quoted\" & <tagged>";
+			String textValue = "Text & <more>\nnext line";
+			Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+			Element root = doc.createElement("store");
+			doc.appendChild(root);
+			Element child = doc.createElement("show");
+			child.setAttribute("name", attrValue);
+			child.appendChild(doc.createTextNode(textValue));
+			root.appendChild(child);
+
+			File file = new File(dir,"store.xml");
+			new XMLStoreWriter().write(file, doc);
+
+			Document readDoc = new XMLStoreReader().read(file);
+			Element readChild = (Element)readDoc.getDocumentElement().getElementsByTagName("show").item(0);
+			Assert.assertEquals(attrValue,readChild.getAttribute("name"));
+			Assert.assertEquals(textValue,readChild.getTextContent());
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+}
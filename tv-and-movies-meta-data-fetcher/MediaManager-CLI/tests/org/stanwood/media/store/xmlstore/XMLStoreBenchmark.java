@@ -0,0 +1,140 @@
+package org.stanwood.media.store.xmlstore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.stanwood.media.util.FileHelper;
+import org.stanwood.media.xml.SimpleErrorHandler;
+import org.stanwood.media.xml.XMLParser;
+import org.w3c.dom.Document;
+
+/**
+ * This is not a unit test, it is a benchmark that compares the time and memory used to
+ * load and write a large synthetic XML store with the validating DOM parser and with the
+ * streaming {@link XMLStoreReader} and {@link XMLStoreWriter}. It can be run with:
+ * <pre>java org.stanwood.media.store.xmlstore.XMLStoreBenchmark [numberOfEpisodes]</pre>
+ */
+public class XMLStoreBenchmark {
+
+	private final static int SEASONS_PER_SHOW = 10;
+	private final static int EPISODES_PER_SEASON = 10;
+	private final static int RUNS = 3;
+
+	private interface Loader {
+		public Document load(File file) throws Exception;
+	}
+
+	/**
+	 * The main method of the benchmark
+	 * @param args The optional number of episodes to put in the store, defaults to 50000
+	 * @throws Exception Thrown if their is a problem
+	 */
+	public static void main(String[] args) throws Exception {
+		int episodes = 50000;
+		if (args.length>0) {
+			episodes = Integer.parseInt(args[0]);
+		}
+		File dir = FileHelper.createTmpDir("benchmark");
+		try {
+			File storeFile = new File(dir,".mediaManager-xmlStore.xml");
+			createStore(storeFile,episodes);
+			System.out.println("Store with "+episodes+" episodes, file size "+(storeFile.length()/1024)+"KB");
+
+			Loader domLoader = new Loader() {
+				@Override
+				public Document load(File file) throws Exception {
+					DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+					factory.setValidating(true);
+					DocumentBuilder builder = XMLParser.createDocBuilder(factory);
+					builder.setErrorHandler(new SimpleErrorHandler(file));
+					return builder.parse(file);
+				}
+			};
+			Loader staxLoader = new Loader() {
+				@Override
+				public Document load(File file) throws Exception {
+					return new XMLStoreReader().read(file);
+				}
+			};
+
+			Document doc = benchmarkLoad("Validating DOM",domLoader,storeFile);
+			benchmarkLoad("StAX",staxLoader,storeFile);
+
+			File outFile = new File(dir,"out.xml");
+			long start = System.nanoTime();
+			XMLParser.writeXML(outFile, doc);
+			System.out.println("XMLSerializer write: "+((System.nanoTime()-start)/1000000)+"ms");
+			start = System.nanoTime();
+			new XMLStoreWriter().write(outFile, doc);
+			System.out.println("Streaming write: "+((System.nanoTime()-start)/1000000)+"ms");
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+
+	private static Document benchmarkLoad(String name,Loader loader,File file) throws Exception {
+		Document doc = null;
+		long bestTime = Long.MAX_VALUE;
+		long heap = 0;
+		for (int i=0;i<RUNS;i++) {
+			doc = null;
+			long before = usedMemory();
+			long start = System.nanoTime();
+			doc = loader.load(file);
+			long time = System.nanoTime()-start;
+			heap = usedMemory()-before;
+			bestTime = Math.min(bestTime, time);
+		}
+		System.out.println(name+" load: "+(bestTime/1000000)+"ms, heap "+(heap/(1024*1024))+"MB, document "+doc.getDocumentElement().getChildNodes().getLength()+" top level nodes");
+		return doc;
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i=0;i<5;i++) {
+			System.gc();
+		}
+		return runtime.totalMemory()-runtime.freeMemory();
+	}
+
+	private static void createStore(File file,int episodes) throws IOException {
+		PrintWriter out = new PrintWriter(file,"UTF-8");
+		try {
+			out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+			out.println("<!DOCTYPE store PUBLIC \"-//STANWOOD//DTD XMLStore 2.2//EN\" \"http://www.stanwood.org.uk/mediamanager/dtd/MediaManager-XmlStore-2.2.dtd\">");
+			out.println("<store version=\"2.2\" revision=\"2\">");
+			int count = 0;
+			int show = 0;
+			while (count<episodes) {
+				show++;
+				out.println("  <show id=\""+show+"\" name=\"Show "+show+"\" sourceId=\"xbmcsource\" url=\"http://www.example.com/show/"+show+"\">");
+				out.println("    <description>");
+				out.println("      <long>A long description of show "+show+"</long>");
+				out.println("    </description>");
+				for (int season=1;season<=SEASONS_PER_SHOW && count<episodes;season++) {
+					out.println("    <season number=\""+season+"\" url=\"http://www.example.com/show/"+show+"/season/"+season+"\">");
+					for (int episode=1;episode<=EPISODES_PER_SEASON && count<episodes;episode++) {
+						count++;
+						out.println("      <episode episodeId=\""+count+"\" firstAired=\"2010-01-01\" number=\""+episode+"\" title=\"Episode "+episode+"\" url=\"http://www.example.com/episode/"+count+"\">");
+						out.println("        <episodeNum number=\""+episode+"\"/>");
+						out.println("        <summary>The summary of episode "+episode+" of season "+season+" of show "+show+"</summary>");
+						out.println("        <rating numberOfVotes=\"10\" value=\"7.5\"/>");
+						out.println("        <file location=\"Show "+show+"/Season "+season+"/"+episode+" - Episode "+episode+".avi\"/>");
+						out.println("      </episode>");
+					}
+					out.println("    </season>");
+				}
+				out.println("  </show>");
+			}
+			out.println("</store>");
+		}
+		finally {
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package org.stanwood.media.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.stanwood.media.testdata.Data;
+
+/**
+ * This is not a unit test, it is a benchmark that compares the time taken to decode the
+ * HTML test pages with the {@link HtmlEntityDecoder} and the substring based decoding that
+ * was used before it. It can be run with:
+ * <pre>java org.stanwood.media.util.HtmlEntityDecoderBenchmark [iterations]</pre>
+ */
+@SuppressWarnings("nls")
+public class HtmlEntityDecoderBenchmark {
+
+	private final static int WARMUP = 20;
+
+	private final static Map<String,String> OLD_ENTITIES = new HashMap<String,String>();
+	static {
+		OLD_ENTITIES.put("&eacute;","é");
+		OLD_ENTITIES.put("&nbsp;"," ");
+		OLD_ENTITIES.put("&copy;","©");
+		OLD_ENTITIES.put("&middot;","·");
+		OLD_ENTITIES.put("&raquo;","»");
+	}
+
+	/**
+	 * The main method of the benchmark
+	 * @param args The optional number of iterations, defaults to 200
+	 * @throws Exception Thrown if their is a problem
+	 */
+	public static void main(String[] args) throws Exception {
+		int iterations = 200;
+		if (args.length>0) {
+			iterations = Integer.parseInt(args[0]);
+		}
+		List<String> pages = new ArrayList<String>();
+		long size = 0;
+		for (File file : new File(Data.class.getResource("Data.class").toURI()).getParentFile().listFiles()) {
+			if (file.getName().endsWith(".html")) {
+				String page = FileHelper.readFileContents(file);
+				pages.add(page);
+				size+=page.length();
+			}
+		}
+		System.out.println("Decoding "+pages.size()+" pages, "+(size/1024)+"KB");
+
+		for (int i=0;i<WARMUP;i++) {
+			decodeOld(pages);
+			decodeNew(pages);
+		}
+		long start = System.nanoTime();
+		for (int i=0;i<iterations;i++) {
+			decodeOld(pages);
+		}
+		long oldTime = System.nanoTime()-start;
+		start = System.nanoTime();
+		for (int i=0;i<iterations;i++) {
+			decodeNew(pages);
+		}
+		long newTime = System.nanoTime()-start;
+		System.out.println("Substring decoder: "+(oldTime/iterations/1000)+"us per run");
+		System.out.println("HtmlEntityDecoder: "+(newTime/iterations/1000)+"us per run");
+	}
+
+	private static int decodeNew(List<String> pages) {
+		int length = 0;
+		HtmlEntityDecoder decoder = HtmlEntityDecoder.getInstance();
+		for (String page : pages) {
+			length+=decoder.decode(page).length();
+		}
+		return length;
+	}
+
+	private static int decodeOld(List<String> pages) {
+		int length = 0;
+		for (String page : pages) {
+			length+=unescapeHTML(page).length();
+		}
+		return length;
+	}
+
+	private static String unescapeHTML(String source) {
+		int skip = 0;
+		boolean continueLoop;
+		do {
+			continueLoop = false;
+			int i = source.indexOf("&", skip);
+			if (i > -1) {
+				int j = source.indexOf(";", i);
+				if (j > i) {
+					String value = OLD_ENTITIES.get(source.substring(i, j + 1));
+					if (value != null) {
+						source = source.substring(0, i) + value + source.substring(j + 1);
+					}
+					else {
+						skip = i+1;
+					}
+					continueLoop = true;
+				}
+			}
+		} while (continueLoop);
+		return source;
+	}
+}
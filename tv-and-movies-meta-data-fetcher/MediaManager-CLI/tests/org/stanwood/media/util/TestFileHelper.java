@@ -1,6 +1,9 @@
 package org.stanwood.media.util;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -25,4 +28,60 @@ public class TestFileHelper {
 		f2= new File(File.separator+"this"+File.separator+"a"+File.separator+"test.txt");
 		Assert.assertEquals(f2.getAbsolutePath(),FileHelper.resolveRelativePaths(f1).getAbsolutePath());
 	}
+
+	/**
+	 * Used to test that files are copied and moved, with and without verifying the checksum
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testTransfer() throws Exception {
+		File dir = FileHelper.createTmpDir("transfer");
+		try {
+			File src = new File(dir,"src.avi");
+			byte data[] = new byte[3*1024*1024+17];
+			new Random(1).nextBytes(data);
+			FileOutputStream os = new FileOutputStream(src);
+			try {
+				os.write(data);
+			}
+			finally {
+				os.close();
+			}
+			String checksum = FileHelper.getMD5Checksum(src);
+
+			FileTransferStats stats = new FileTransfer(false).copy(src, new File(dir,"copy1.avi"));
+			Assert.assertFalse(stats.isRenamed());
+			Assert.assertEquals(data.length,stats.getBytes());
+			Assert.assertNull(stats.getChecksum());
+			Assert.assertEquals(checksum,FileHelper.getMD5Checksum(new File(dir,"copy1.avi")));
+
+			stats = new FileTransfer(true).copy(src, new File(dir,"copy2.avi"));
+			Assert.assertEquals(checksum,stats.getChecksum());
+			Assert.assertEquals(checksum,FileHelper.getMD5Checksum(new File(dir,"copy2.avi")));
+
+			try {
+				new FileTransfer(true).copy(src, new File(dir,"copy2.avi"));
+				Assert.fail("Did not detect exception");
+			}
+			catch (IOException e) {
+				// Ignore
+			}
+
+			File moved = new File(dir,"moved.avi");
+			stats = new FileTransfer(true).move(src, moved);
+			Assert.assertTrue(stats.isRenamed());
+			Assert.assertFalse(src.exists());
+			Assert.assertEquals(checksum,FileHelper.getMD5Checksum(moved));
+
+			File subDir = new File(dir,"sub");
+			Assert.assertTrue(subDir.mkdir());
+			FileHelper.move(moved, new File(subDir,"moved.avi"), true);
+			FileHelper.move(subDir, new File(dir,"sub2"), true);
+			Assert.assertFalse(subDir.exists());
+			Assert.assertEquals(checksum,FileHelper.getMD5Checksum(new File(dir,"sub2"+File.separator+"moved.avi")));
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
 }
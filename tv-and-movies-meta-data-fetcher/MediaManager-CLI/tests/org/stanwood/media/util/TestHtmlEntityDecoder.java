@@ -0,0 +1,37 @@
+package org.stanwood.media.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Used to test the {@link HtmlEntityDecoder} class
+ */
+@SuppressWarnings("nls")
+public class TestHtmlEntityDecoder {
+
+	/**
+	 * Used to test that named and numeric references are decoded
+	 */
+	@Test
+	public void testDecode() {
+		HtmlEntityDecoder decoder = HtmlEntityDecoder.getInstance();
+		String source = "No references";
+		Assert.assertSame(source,decoder.decode(source));
+		Assert.assertEquals("Amélie © 2001 €5",decoder.decode("Am&eacute;lie &copy; 2001 &euro;5"));
+		Assert.assertEquals("A B",decoder.decode("A&nbsp;B"));
+		Assert.assertEquals("≠ ℵ ⋛︀",decoder.decode("&ne; &alefsym; &gesl;"));
+		Assert.assertEquals("It's é 𝔄",decoder.decode("It&#39;s &#xE9; &#x1D504;"));
+	}
+
+	/**
+	 * Used to test that markup and text that is not a valid reference is not changed
+	 */
+	@Test
+	public void testNotDecoded() {
+		HtmlEntityDecoder decoder = HtmlEntityDecoder.getInstance();
+		Assert.assertEquals("&lt;b&gt; &amp; &quot; &#60; &#x26;",decoder.decode("&lt;b&gt; &amp; &quot; &#60; &#x26;"));
+		Assert.assertEquals("&nvlt;b&nvgt;",decoder.decode("&nvlt;b&nvgt;"));
+		Assert.assertEquals("a & b &unknown; &eacute &#; &#xZZ; &#0; &#xD800; &",decoder.decode("a & b &unknown; &eacute &#; &#xZZ; &#0; &#xD800; &"));
+		Assert.assertEquals("Tom & Jerry é",decoder.decode("Tom & Jerry &eacute;"));
+	}
+}
@@ -0,0 +1,82 @@
+package org.stanwood.media.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Used to test the {@link HttpCache} class
+ */
+@SuppressWarnings("nls")
+public class TestHttpCache {
+
+	/**
+	 * Used to test that entries are written to disk and can be revalidated once they have expired
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testDiskCache() throws Exception {
+		File dir = FileHelper.createTmpDir("httpCache");
+		HttpCache cache = HttpCache.getInstance();
+		try {
+			cache.setCacheDir(dir, HttpCache.DEFAULT_MAX_DISK_SIZE, HttpCache.DEFAULT_TTL);
+			List<String> contents = new ArrayList<String>();
+			contents.add("test contents");
+			cache.put("http://test/fresh", contents, "\"etag1\"", null);
+			Assert.assertEquals(contents, cache.get("http://test/fresh"));
+			File files[] = dir.listFiles();
+			Assert.assertEquals(1,files.length);
+			Assert.assertTrue(files[0].getName().endsWith(".gz"));
+
+			cache.setCacheDir(dir, HttpCache.DEFAULT_MAX_DISK_SIZE, -1000);
+			cache.put("http://test/expired", contents, null, "Sat, 01 Jan 2011 00:00:00 GMT");
+			Assert.assertNull(cache.get("http://test/expired"));
+			HttpCacheEntry entry = cache.getEntry("http://test/expired");
+			Assert.assertNotNull(entry);
+			Assert.assertTrue(entry.hasValidators());
+			Assert.assertEquals("Sat, 01 Jan 2011 00:00:00 GMT", entry.getLastModified());
+
+			cache.setCacheDir(dir, HttpCache.DEFAULT_MAX_DISK_SIZE, HttpCache.DEFAULT_TTL);
+			Assert.assertEquals(contents, cache.revalidated("http://test/expired"));
+			Assert.assertEquals(contents, cache.get("http://test/expired"));
+		}
+		finally {
+			cache.setCacheDir(null, HttpCache.DEFAULT_MAX_DISK_SIZE, HttpCache.DEFAULT_TTL);
+			FileHelper.delete(dir);
+		}
+	}
+
+	/**
+	 * Used to test that a entry with a key that is too long for a modified UTF-8 string is
+	 * written to disk and read back by a new cache, and that no temporary files are left behind
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testLongKey() throws Exception {
+		File dir = FileHelper.createTmpDir("httpCache");
+		try {
+			StringBuilder key = new StringBuilder("http://test/");
+			while (key.length()<70000) {
+				key.append("\u00e9long");
+			}
+			List<String> contents = new ArrayList<String>();
+			contents.add("test contents");
+			HttpCache cache = new HttpCache(10);
+			cache.setCacheDir(dir, HttpCache.DEFAULT_MAX_DISK_SIZE, HttpCache.DEFAULT_TTL);
+			cache.put(key.toString(), contents, null, null);
+			File files[] = dir.listFiles();
+			Assert.assertEquals(1,files.length);
+			Assert.assertTrue(files[0].getName().endsWith(".gz"));
+
+			cache = new HttpCache(10);
+			cache.setCacheDir(dir, HttpCache.DEFAULT_MAX_DISK_SIZE, HttpCache.DEFAULT_TTL);
+			Assert.assertEquals(contents, cache.get(key.toString()));
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package org.stanwood.media.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Used to test the {@link HttpFetcher} class against a local HTTP server
+ */
+@SuppressWarnings("nls")
+public class TestHttpFetcher {
+
+	private HttpServer server;
+	private final AtomicInteger busyCount = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private final Set<Integer> clientPorts = new HashSet<Integer>();
+
+	/**
+	 * Used to start the HTTP server
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1",0), 10);
+		server.createContext("/text", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				synchronized (clientPorts) {
+					clientPorts.add(exchange.getRemoteAddress().getPort());
+				}
+				byte data[] = "Hello world".getBytes("UTF-8");
+				String encoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+				if (encoding!=null && encoding.contains("gzip")) {
+					ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+					GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+					gzip.write(data);
+					gzip.close();
+					data = bytes.toByteArray();
+					exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+				}
+				exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+				send(exchange,200,data);
+			}
+		});
+		server.createContext("/busy", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				if (busyCount.incrementAndGet()<=2) {
+					send(exchange,503,"Busy".getBytes("UTF-8"));
+				}
+				else {
+					exchange.getResponseHeaders().add("Content-Type", "text/plain");
+					send(exchange,200,"Done".getBytes("UTF-8"));
+				}
+			}
+		});
+		server.createContext("/missing", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				send(exchange,404,"Missing".getBytes("UTF-8"));
+			}
+		});
+		server.createContext("/slow", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				int count = inFlight.incrementAndGet();
+				synchronized (maxInFlight) {
+					maxInFlight.set(Math.max(maxInFlight.get(), count));
+				}
+				try {
+					Thread.sleep(100);
+				}
+				catch (InterruptedException e) {
+					// Ignore
+				}
+				inFlight.decrementAndGet();
+				exchange.getResponseHeaders().add("Content-Type", "text/plain");
+				send(exchange,200,"Slow".getBytes("UTF-8"));
+			}
+		});
+		server.setExecutor(Executors.newFixedThreadPool(10));
+		server.start();
+	}
+
+	/**
+	 * Used to stop the HTTP server
+	 */
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	private void send(HttpExchange exchange,int code,byte data[]) throws IOException {
+		exchange.sendResponseHeaders(code, data.length);
+		OutputStream os = exchange.getResponseBody();
+		os.write(data);
+		os.close();
+	}
+
+	private URL getURL(String path) throws Exception {
+		return new URL("http://127.0.0.1:"+server.getAddress().getPort()+path);
+	}
+
+	/**
+	 * Used to test that compressed responses are read and that the connection is reused
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testGzipAndKeepAlive() throws Exception {
+		HttpFetcher fetcher = new HttpFetcher();
+		for (int i=0;i<3;i++) {
+			Stream stream = fetcher.getStream(getURL("/text"));
+			Assert.assertEquals("text/plain",stream.getMineType());
+			Assert.assertEquals("Hello world",FileHelper.readFileContents(stream.getInputStream()).trim());
+		}
+		Assert.assertEquals(3,fetcher.getRequestCount());
+		Assert.assertEquals(33,fetcher.getBytesRead());
+		Assert.assertEquals(0,fetcher.getFailureCount());
+		Assert.assertEquals(1,clientPorts.size());
+	}
+
+	/**
+	 * Used to test that requests are retried when the server is busy, but not when the
+	 * resource is missing
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testRetries() throws Exception {
+		HttpFetcher fetcher = new HttpFetcher();
+		fetcher.setRetries(3, 10, 100);
+		Stream stream = fetcher.getStream(getURL("/busy"));
+		Assert.assertEquals("Done",FileHelper.readFileContents(stream.getInputStream()).trim());
+		Assert.assertEquals(3,fetcher.getRequestCount());
+		Assert.assertEquals(2,fetcher.getRetryCount());
+
+		try {
+			fetcher.getStream(getURL("/missing"));
+			Assert.fail("Did not detect exception");
+		}
+		catch (HttpResponseError e) {
+			Assert.assertEquals(404,e.getStatusCode());
+		}
+		Assert.assertEquals(4,fetcher.getRequestCount());
+		Assert.assertEquals(1,fetcher.getFailureCount());
+
+		for (int i=0;i<10;i++) {
+			long delay = fetcher.getBackoff(i);
+			long max = Math.min(100,10<<i);
+			Assert.assertTrue(delay>=max/2 && delay<=max);
+		}
+	}
+
+	/**
+	 * Used to test that the number of requests at the same time and the rate of requests
+	 * to a host are limited
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testHostLimits() throws Exception {
+		final HttpFetcher fetcher = new HttpFetcher();
+		fetcher.setHostLimits("127.0.0.1", 2, 20);
+		final URL url = getURL("/slow");
+		List<Thread> threads = new ArrayList<Thread>();
+		final List<Exception> errors = new ArrayList<Exception>();
+		for (int i=0;i<6;i++) {
+			Thread t = new Thread() {
+				@Override
+				public void run() {
+					try {
+						fetcher.getStream(url);
+					}
+					catch (Exception e) {
+						synchronized (errors) {
+							errors.add(e);
+						}
+					}
+				}
+			};
+			threads.add(t);
+			t.start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		Assert.assertEquals(0,errors.size());
+		Assert.assertEquals(2,maxInFlight.get());
+
+		fetcher.setHostLimits("127.0.0.1", 10, 10);
+		long start = System.currentTimeMillis();
+		for (int i=0;i<15;i++) {
+			fetcher.getStream(getURL("/text"));
+		}
+		Assert.assertTrue(System.currentTimeMillis()-start>=400);
+	}
+}
@@ -0,0 +1,73 @@
+package org.stanwood.media.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Used to test the {@link MediaScanner} class
+ */
+@SuppressWarnings("nls")
+public class TestMediaScanner {
+
+	/**
+	 * Used to test that media files and directories are found, and that ignored directories
+	 * are pruned, both when scanning with one thread and with several threads
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testScan() throws Exception {
+		File dir = FileHelper.createTmpDir("scanner");
+		try {
+			createFile(dir,"Film 1.avi");
+			createFile(dir,"Film 2.MKV");
+			createFile(dir,"readme.txt");
+			createFile(dir,"Show/Season 1/1x01 - Pilot.avi");
+			createFile(dir,"Show/Season 1/1x02 - Second.avi");
+			createFile(dir,"Show/Samples/sample.avi");
+			createFile(dir,"Show/Samples/Extra/sample2.avi");
+			createFile(dir,"Empty/Other/info.nfo");
+
+			List<Pattern> ignore = new ArrayList<Pattern>();
+			ignore.add(Pattern.compile(".*Samples.*"));
+			for (int threads=1;threads<=4;threads+=3) {
+				MediaScanner scanner = new MediaScanner(Arrays.asList(new String[]{"avi","mkv"}), ignore, threads);
+				scanner.scan(dir);
+				List<String> files = new ArrayList<String>();
+				for (File f : scanner.getFiles()) {
+					files.add(f.getAbsolutePath().substring(dir.getAbsolutePath().length()+1));
+				}
+				Assert.assertEquals(Arrays.asList(new String[]{"Film 1.avi","Film 2.MKV","Show"+File.separator+"Season 1"+File.separator+"1x01 - Pilot.avi","Show"+File.separator+"Season 1"+File.separator+"1x02 - Second.avi"}),files);
+
+				List<File> dirs = scanner.getDirectories();
+				Assert.assertEquals(6,dirs.size());
+				Assert.assertTrue(dirs.indexOf(new File(dir,"Show/Samples/Extra"))<dirs.indexOf(new File(dir,"Show/Samples")));
+				Assert.assertTrue(dirs.indexOf(new File(dir,"Show/Samples"))<dirs.indexOf(new File(dir,"Show")));
+			}
+
+			MediaScanner scanner = new MediaScanner(Arrays.asList(new String[]{"avi"}), ignore, 1);
+			Assert.assertTrue(scanner.containsFiles(new File(dir,"Show")));
+			Assert.assertFalse(scanner.containsFiles(new File(dir,"Show/Samples")));
+			Assert.assertFalse(scanner.containsFiles(new File(dir,"Empty")));
+		}
+		finally {
+			FileHelper.delete(dir);
+		}
+	}
+
+	private void createFile(File dir,String name) throws IOException {
+		File file = new File(dir,name);
+		if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+			throw new IOException("Unable to create directory: " + file.getParentFile());
+		}
+		if (!file.createNewFile() && !file.exists()) {
+			throw new IOException("Unable to create file: " + file);
+		}
+	}
+}
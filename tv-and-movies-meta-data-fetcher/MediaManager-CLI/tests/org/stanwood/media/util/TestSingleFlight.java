@@ -0,0 +1,108 @@
+package org.stanwood.media.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Used to test the {@link SingleFlight} class
+ */
+@SuppressWarnings("nls")
+public class TestSingleFlight {
+
+	/**
+	 * Used to test that threads loading the same key at the same time share one load
+	 * @throws Exception Thrown if their is a problem
+	 */
+	@Test
+	public void testSharedLoad() throws Exception {
+		final SingleFlight<String,String> flight = new SingleFlight<String,String>();
+		final AtomicInteger loadCount = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<String> results = new ArrayList<String>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i=0;i<5;i++) {
+			Thread t = new Thread() {
+				@Override
+				public void run() {
+					try {
+						String value = flight.load("key", new SingleFlight.Loader<String,IOException>() {
+							@Override
+							public String load() throws IOException {
+								loadCount.incrementAndGet();
+								started.countDown();
+								try {
+									release.await();
+								}
+								catch (InterruptedException e) {
+									throw new IOException(e.getMessage());
+								}
+								return "value";
+							}
+						});
+						synchronized (results) {
+							results.add(value);
+						}
+					}
+					catch (IOException e) {
+						// Checked below
+					}
+				}
+			};
+			threads.add(t);
+			t.start();
+			if (i==0) {
+				started.await();
+			}
+		}
+		while (flight.getSharedCount()<4) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+		for (Thread t : threads) {
+			t.join();
+		}
+		Assert.assertEquals(1,loadCount.get());
+		Assert.assertEquals(5,results.size());
+		for (String result : results) {
+			Assert.assertEquals("value",result);
+		}
+		Assert.assertEquals(1,flight.getLoadCount());
+		Assert.assertEquals(4,flight.getSharedCount());
+
+		String value = flight.load("key", new SingleFlight.Loader<String,IOException>() {
+			@Override
+			public String load() throws IOException {
+				return "value2";
+			}
+		});
+		Assert.assertEquals("value2",value);
+		Assert.assertEquals(2,flight.getLoadCount());
+	}
+
+	/**
+	 * Used to test that the exception thrown by a load is passed to the caller
+	 */
+	@Test
+	public void testException() {
+		SingleFlight<String,String> flight = new SingleFlight<String,String>();
+		try {
+			flight.load("key", new SingleFlight.Loader<String,IOException>() {
+				@Override
+				public String load() throws IOException {
+					throw new IOException("Failed");
+				}
+			});
+			Assert.fail("Did not detect exception");
+		}
+		catch (IOException e) {
+			Assert.assertEquals("Failed",e.getMessage());
+		}
+	}
+}